@@ -0,0 +1,95 @@
+#!/usr/bin/env bash
+#
+# Read latency benchmark for the Currency Exchange Service.
+#
+# Compares the persistence modes on the two database read paths:
+#   memory   in-memory H2 (default profile)
+#   file     file-backed H2, single pool (durable profile, replica pool off)
+#   replica  file-backed H2 with reads routed to the read-only pool (durable profile)
+#
+# Per mode it refreshes rates once, warms up, then reports mean/p50/p99 in
+# milliseconds over keep-alive requests for:
+#   pair     GET /api/rates/pair?...      (per-pair lookup, read-only transaction)
+#
+# /api/rates/latest and /api/convert are served from the in-memory snapshot
+# and do not touch the database, so they are not measured here. Admission
+# control is turned off so that no request is answered with 429.
+#
+# Usage: ./read-benchmark.sh [requests]   (build first with: ./mvnw package)
+
+set -euo pipefail
+
+REQUESTS="${1:-2000}"
+WARMUP="${BENCHMARK_WARMUP:-500}"
+PORT="${BENCHMARK_PORT:-18081}"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+BASE="http://localhost:${PORT}"
+
+cd "$(dirname "$0")"
+JAR="$(pwd)/target/currency-exchange-1.0.0.jar"
+
+if [[ ! -f "$JAR" ]]; then
+    echo "[ERROR] Jar not found. Run: ./mvnw package" >&2
+    exit 1
+fi
+
+# measure <url> <count> -> one latency in ms per line
+measure() {
+    local url="$1" count="$2" config
+    config="$(mktemp)"
+    for ((n = 0; n < count; n++)); do
+        printf 'url = "%s"\noutput = /dev/null\n' "$url"
+    done >"$config"
+    curl -s --config "$config" -w '%{time_total}\n' | awk '{ printf "%.3f\n", $1 * 1000 }'
+    rm -f "$config"
+}
+
+# summarize <label> -> reads latencies from stdin
+summarize() {
+    sort -n | awk -v label="$1" '
+        { v[NR] = $1; sum += $1 }
+        END {
+            p50 = v[int(NR * 0.50) > 0 ? int(NR * 0.50) : 1]
+            p99 = v[int(NR * 0.99) > 0 ? int(NR * 0.99) : 1]
+            printf "%-18s mean=%7.3f  p50=%7.3f  p99=%7.3f ms\n", label, sum / NR, p50, p99
+        }'
+}
+
+# run_mode <label> <java args...>
+run_mode() {
+    local label="$1"
+    shift
+    local dir log
+    dir="$(mktemp -d)"
+    log="${dir}/app.log"
+
+    (cd "$dir" && exec "$JAVA" "$@" -Dserver.port="$PORT" -Drates.snapshot.enabled=false -Dadmission.enabled=false \
+        -Dlogging.level.com.kleer.currency=WARN -Dlogging.level.org.hibernate.SQL=WARN -jar "$JAR") >"$log" 2>&1 &
+    local pid=$!
+
+    until curl -sf -o /dev/null "${BASE}/api/rates/latest"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "[ERROR] ${label} exited during startup, see ${log}" >&2
+            return 1
+        fi
+        sleep 0.1
+    done
+
+    if ! curl -sf -o /dev/null -X POST "${BASE}/api/rates/refresh"; then
+        echo "[ERROR] ${label}: rate refresh failed, see ${log}" >&2
+        kill "$pid"
+        return 1
+    fi
+
+    local pair="${BASE}/api/rates/pair?from=EUR&to=SEK"
+    measure "$pair" "$WARMUP" >/dev/null
+    measure "$pair" "$REQUESTS" | summarize "${label} pair"
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    rm -rf "$dir"
+}
+
+run_mode "memory"
+run_mode "file" -Dspring.profiles.active=durable -Dspring.datasource.replica.enabled=false
+run_mode "replica" -Dspring.profiles.active=durable
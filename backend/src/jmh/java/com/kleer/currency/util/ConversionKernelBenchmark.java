@@ -0,0 +1,112 @@
+package com.kleer.currency.util;
+
+import com.kleer.currency.dto.ConversionResponse;
+import com.kleer.currency.model.ConversionRequest;
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.model.RateSnapshotPublishedEvent;
+import com.kleer.currency.model.SupportedCurrency;
+import com.kleer.currency.service.ConversionAuditService;
+import com.kleer.currency.service.ConversionRequestValidator;
+import com.kleer.currency.service.CurrencyConversionService;
+import com.kleer.currency.service.CurrencyRegistry;
+import com.kleer.currency.service.RateMatrixService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converting a batch of requests across currency pairs: one
+ * {@link CurrencyConversionService#convert(ConversionRequest)} per request
+ * against {@link CurrencyConversionService#convertBatch(List)} with the scalar
+ * and the vectorised {@link ConversionKernel}. The batch timings include
+ * grouping by pair and the conversions to and from {@link BigDecimal}.
+ *
+ * Run with: mvn -Pvector,jmh test-compile exec:exec -Djmh.args=ConversionKernelBenchmark
+ * Without the vector profile both batch variants use the scalar kernel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ConversionKernelBenchmark {
+
+    @Param({"16", "256", "4096", "65536", "1048576"})
+    private int batchSize;
+
+    private CurrencyConversionService scalarService;
+    private CurrencyConversionService vectorService;
+    private List<ConversionRequest> requests;
+
+    @Setup
+    public void setUp() {
+        CurrencyRegistry currencyRegistry = new CurrencyRegistry(List.of("SEK", "EUR", "USD"));
+        RateMatrixService rateMatrixService = new RateMatrixService(currencyRegistry);
+        rateMatrixService.onSnapshotPublished(new RateSnapshotPublishedEvent(RateSnapshot.EMPTY,
+                new RateSnapshot(1, null, Map.of(
+                        "EUR/SEK", new BigDecimal("10.92900000"),
+                        "SEK/EUR", new BigDecimal("0.09149968"),
+                        "USD/SEK", new BigDecimal("9.41170000"),
+                        "SEK/USD", new BigDecimal("0.10625072"),
+                        "EUR/USD", new BigDecimal("1.16122700"),
+                        "USD/EUR", new BigDecimal("0.86115891")))));
+
+        scalarService = service(currencyRegistry, rateMatrixService, false);
+        vectorService = service(currencyRegistry, rateMatrixService, true);
+
+        Random random = new Random(42);
+        List<SupportedCurrency> currencies = currencyRegistry.getCurrencies();
+        requests = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            SupportedCurrency from = currencies.get(random.nextInt(currencies.size()));
+            SupportedCurrency to = currencies.get((from.index() + 1 + random.nextInt(currencies.size() - 1))
+                    % currencies.size());
+            requests.add(new ConversionRequest(
+                    BigDecimal.valueOf(random.nextLong(10_000_000), ConversionKernel.AMOUNT_SCALE), from, to));
+        }
+    }
+
+    @Benchmark
+    public void convertEach(Blackhole blackhole) {
+        for (ConversionRequest request : requests) {
+            ConversionResponse response = scalarService.convert(request);
+            blackhole.consume(response.getConvertedAmount());
+        }
+    }
+
+    @Benchmark
+    public List<BigDecimal> convertBatchScalar() {
+        return scalarService.convertBatch(requests);
+    }
+
+    @Benchmark
+    public List<BigDecimal> convertBatchVector() {
+        return vectorService.convertBatch(requests);
+    }
+
+    private static CurrencyConversionService service(
+            CurrencyRegistry currencyRegistry, RateMatrixService rateMatrixService, boolean vectorized) {
+        // Auditing off: the batch path does not audit either
+        ConversionAuditService auditService = new ConversionAuditService(
+                null, null, false, false, ConversionAuditService.OverflowPolicy.DROP, 0, 1, 2);
+        return new CurrencyConversionService(null, new ConversionRequestValidator(currencyRegistry),
+                currencyRegistry, auditService, rateMatrixService, 16, vectorized);
+    }
+}
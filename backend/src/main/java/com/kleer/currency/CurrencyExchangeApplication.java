@@ -2,6 +2,7 @@ package com.kleer.currency;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * Main Spring Boot application class for Currency Exchange Service.
@@ -10,6 +11,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * fetched from Riksbank's open API and stored in an H2 database.
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class CurrencyExchangeApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,19 @@
+package com.kleer.currency.config;
+
+import com.kleer.currency.model.RequestPriority;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns a controller or handler method its {@link RequestPriority} for the
+ * {@link AdmissionInterceptor}. Handlers without it are {@link RequestPriority#NORMAL}.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Admission {
+
+    RequestPriority value();
+}
@@ -0,0 +1,195 @@
+package com.kleer.currency.config;
+
+import com.kleer.currency.model.RequestPriority;
+import com.kleer.currency.util.AdaptiveConcurrencyLimiter;
+import com.kleer.currency.util.ClientAddresses;
+import com.kleer.currency.util.ErrorBody;
+import com.kleer.currency.util.TokenBucketLimiter;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for the API.
+ *
+ * Every request first takes a permit from its client's token bucket for the
+ * handler's {@link RequestPriority}, then a permit from an adaptive
+ * concurrency limit of which each priority may only fill its share; a request
+ * shed by the concurrency limit gets its token back. Batch requests hold a
+ * permit but feed no latency into the limit. Requests missing either
+ * permit are rejected at once with a pre-built 429 body and Retry-After,
+ * written here without an exception, instead of queueing for a thread or
+ * database connection. Clients are identified
+ * by {@link ClientAddresses}: remote address, or the forwarded address behind
+ * a trusted proxy, with IPv6 clients grouped by /64 prefix. Off by default;
+ * deployments behind a proxy must list it in {@code admission.trusted-proxies}.
+ */
+@Component
+@Slf4j
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    static final String ADMITTED_AT = AdmissionInterceptor.class.getName() + ".admittedAt";
+    private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final ErrorBody RATE_LIMITED = ErrorBody.of(
+            HttpStatus.TOO_MANY_REQUESTS, "Too many requests", "Rate limit exceeded, slow down");
+    private static final ErrorBody OVERLOADED = ErrorBody.of(
+            HttpStatus.TOO_MANY_REQUESTS, "Too many requests", "Server is overloaded, try again shortly");
+
+    private final boolean enabled;
+    private final ClientAddresses clientAddresses;
+    private final Map<RequestPriority, TokenBucketLimiter> rateLimiters = new EnumMap<>(RequestPriority.class);
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong shed = new AtomicLong();
+
+    public AdmissionInterceptor(
+            @Value("${admission.enabled:false}") boolean enabled,
+            @Value("${admission.max-clients:100000}") int maxClients,
+            @Value("${admission.trusted-proxies:}") List<String> trustedProxies,
+            @Value("${admission.rate-limit.critical.permits-per-second:50}") double criticalRate,
+            @Value("${admission.rate-limit.critical.burst:100}") int criticalBurst,
+            @Value("${admission.rate-limit.normal.permits-per-second:20}") double normalRate,
+            @Value("${admission.rate-limit.normal.burst:40}") int normalBurst,
+            @Value("${admission.rate-limit.batch.permits-per-second:0.2}") double batchRate,
+            @Value("${admission.rate-limit.batch.burst:2}") int batchBurst,
+            @Value("${admission.concurrency.initial-limit:50}") int initialLimit,
+            @Value("${admission.concurrency.min-limit:8}") int minLimit,
+            @Value("${admission.concurrency.max-limit:200}") int maxLimit) {
+        this.enabled = enabled;
+        this.clientAddresses = new ClientAddresses(trustedProxies);
+        rateLimiters.put(RequestPriority.CRITICAL, new TokenBucketLimiter(criticalRate, criticalBurst, maxClients));
+        rateLimiters.put(RequestPriority.NORMAL, new TokenBucketLimiter(normalRate, normalBurst, maxClients));
+        rateLimiters.put(RequestPriority.BATCH, new TokenBucketLimiter(batchRate, batchBurst, maxClients));
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+
+        if (enabled && trustedProxies.isEmpty()) {
+            log.warn("Admission control is enabled without admission.trusted-proxies; behind a proxy "
+                    + "all clients share one rate limit");
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        // Early return for anything but the first dispatch of a controller request
+        if (!enabled || !(handler instanceof HandlerMethod method)
+                || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+
+        RequestPriority priority = priorityOf(method);
+        long now = System.nanoTime();
+        String client = clientAddresses.clientKey(request.getRemoteAddr(), request.getHeader(X_FORWARDED_FOR));
+        TokenBucketLimiter rateLimiter = rateLimiters.get(priority);
+        long waitNanos = rateLimiter.tryAcquire(client, now);
+
+        // Early return if the client is over its rate limit
+        if (waitNanos > 0) {
+            rateLimited.incrementAndGet();
+            return reject(response, RATE_LIMITED, (waitNanos + SECOND_NANOS - 1) / SECOND_NANOS);
+        }
+
+        // Early return if the server is shedding this priority; overload is not the client's doing
+        if (!concurrencyLimiter.tryAcquire(priority.getLimitShare())) {
+            rateLimiter.refund(client);
+            long count = shed.incrementAndGet();
+            if (count % 1000 == 1) {
+                log.warn("Shedding {} requests at concurrency limit {} ({} shed so far)",
+                        priority, concurrencyLimiter.getLimit(), count);
+            }
+            return reject(response, OVERLOADED, 1);
+        }
+
+        request.setAttribute(ADMITTED_AT, now);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // Waiting asynchronously holds no thread, so return the permit without a sample
+        if (request.getAttribute(ADMITTED_AT) != null) {
+            request.removeAttribute(ADMITTED_AT);
+            concurrencyLimiter.release();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object admittedAt = request.getAttribute(ADMITTED_AT);
+
+        // Early return if this dispatch holds no permit
+        if (admittedAt == null) {
+            return;
+        }
+
+        request.removeAttribute(ADMITTED_AT);
+
+        // Early return for batch jobs, whose seconds to minutes would swamp the latency of short requests
+        if (priorityOf((HandlerMethod) handler) == RequestPriority.BATCH) {
+            concurrencyLimiter.release();
+            return;
+        }
+
+        boolean failed = ex != null || response.getStatus() >= 500;
+        concurrencyLimiter.release(System.nanoTime() - (long) admittedAt, failed);
+    }
+
+    public int getConcurrencyLimit() {
+        return concurrencyLimiter.getLimit();
+    }
+
+    /**
+     * @return Number of requests rejected by a client rate limit
+     */
+    public long getRateLimited() {
+        return rateLimited.get();
+    }
+
+    /**
+     * @return Number of requests rejected by the concurrency limit
+     */
+    public long getShed() {
+        return shed.get();
+    }
+
+    /**
+     * Answer a rejected request with 429 and end its handling.
+     */
+    private static boolean reject(HttpServletResponse response, ErrorBody body, long retryAfterSeconds)
+            throws IOException {
+        byte[] content = body.render();
+        response.setStatus(body.getStatus().value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(content.length);
+        response.getOutputStream().write(content);
+        return false;
+    }
+
+    private static RequestPriority priorityOf(HandlerMethod method) {
+        Admission admission = method.getMethodAnnotation(Admission.class);
+        if (admission == null) {
+            admission = method.getBeanType().getAnnotation(Admission.class);
+        }
+        return admission == null ? RequestPriority.NORMAL : admission.value();
+    }
+}
@@ -0,0 +1,61 @@
+package com.kleer.currency.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-tenant pricing rules, bound from {@code pricing.*} properties.
+ *
+ * <pre>
+ * pricing.tier-currency=SEK
+ * pricing.tenants.acme.spread-bps=40
+ * pricing.tenants.acme.pair-spread-bps[EUR/SEK]=20
+ * pricing.tenants.acme.markup-tiers[0].min-amount=0
+ * pricing.tenants.acme.markup-tiers[0].markup-bps=25
+ * pricing.tenants.acme.markup-tiers[1].min-amount=100000
+ * pricing.tenants.acme.markup-tiers[1].markup-bps=10
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "pricing")
+public class PricingProperties {
+
+    /**
+     * Currency in which markup tier amounts are expressed.
+     */
+    private String tierCurrency = "SEK";
+
+    private Map<String, Tenant> tenants = new HashMap<>();
+
+    @Data
+    public static class Tenant {
+
+        /**
+         * Bid/ask spread in basis points for pairs without an override.
+         */
+        private int spreadBps;
+
+        /**
+         * Spread overrides keyed by pair (e.g., "EUR/SEK"); apply to both directions.
+         */
+        private Map<String, Integer> pairSpreadBps = new HashMap<>();
+
+        /**
+         * Markups by conversion size; the tier with the highest minimum not
+         * above the amount applies.
+         */
+        private List<MarkupTier> markupTiers = new ArrayList<>();
+    }
+
+    @Data
+    public static class MarkupTier {
+        private BigDecimal minAmount = BigDecimal.ZERO;
+        private int markupBps;
+    }
+}
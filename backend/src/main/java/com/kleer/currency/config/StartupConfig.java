@@ -0,0 +1,36 @@
+package com.kleer.currency.config;
+
+import com.kleer.currency.controller.ConversionController;
+import com.kleer.currency.controller.ExchangeRateController;
+import com.kleer.currency.service.LeaseLeaderElection;
+import com.kleer.currency.service.RateRefreshScheduler;
+import com.kleer.currency.service.RateSnapshotService;
+import com.kleer.currency.service.ReplicationService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the startup-optimised profile.
+ *
+ * When lazy initialization is enabled, only beans on the request path stay
+ * eager so the first request does not pay for Hibernate and repository setup.
+ * The snapshot service must also stay eager, since it restores rates on startup,
+ * and so must the beans that start background threads: nothing injects them,
+ * so under lazy initialization they would never be created.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter requestPathLazyInitializationExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                ConversionController.class,
+                ExchangeRateController.class,
+                RateSnapshotService.class,
+                RateRefreshScheduler.class,
+                LeaseLeaderElection.class,
+                ReplicationService.class
+        );
+    }
+}
@@ -3,7 +3,9 @@ package com.kleer.currency.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.web.filter.OncePerRequestFilter;
 import jakarta.servlet.FilterChain;
@@ -16,11 +18,18 @@ import java.io.IOException;
  * Web configuration for CORS and other web-related settings.
  * 
  * Enables CORS to allow the React frontend to communicate with the backend.
+ * Applies admission control to the API.
  * Configures H2 console access by allowing frames for the console path.
  */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final AdmissionInterceptor admissionInterceptor;
+
+    public WebConfig(AdmissionInterceptor admissionInterceptor) {
+        this.admissionInterceptor = admissionInterceptor;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
@@ -31,13 +40,21 @@ public class WebConfig implements WebMvcConfigurer {
                 .maxAge(3600);
     }
 
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionInterceptor).addPathPatterns("/api/**");
+    }
+
     /**
      * Filter to allow H2 console to be displayed in frames.
      * This is necessary for the H2 console UI to work properly.
      * 
+     * Only registered while the H2 console is enabled.
+     * 
      * WARNING: Only use this in development environments!
      */
     @Bean
+    @ConditionalOnProperty(name = "spring.h2.console.enabled", havingValue = "true")
     public FilterRegistrationBean<OncePerRequestFilter> h2ConsoleFrameOptionsFilter() {
         FilterRegistrationBean<OncePerRequestFilter> registrationBean = new FilterRegistrationBean<>();
         
@@ -0,0 +1,75 @@
+package com.kleer.currency.controller;
+
+import com.kleer.currency.dto.AlertDto;
+import com.kleer.currency.service.AlertService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for rate-threshold alerts.
+ */
+@RestController
+@RequestMapping("/api/alerts")
+@Slf4j
+public class AlertController {
+
+    private final AlertService alertService;
+
+    public AlertController(AlertService alertService) {
+        this.alertService = alertService;
+    }
+
+    /**
+     * Register an alert.
+     *
+     * POST /api/alerts
+     * {"fromCurrency":"EUR","toCurrency":"SEK","threshold":11.40,"direction":"UP","callbackUrl":"http://..."}
+     *
+     * @param request The alert to register
+     * @return The registered alert with its id
+     */
+    @PostMapping
+    public ResponseEntity<AlertDto> registerAlert(@RequestBody AlertDto request) {
+        AlertDto alert = alertService.register(request);
+        log.info("Registered alert {} on {} to {} at {}",
+                alert.getId(), alert.getFromCurrency(), alert.getToCurrency(), alert.getThreshold());
+        return ResponseEntity.status(HttpStatus.CREATED).body(alert);
+    }
+
+    /**
+     * List all registered alerts.
+     *
+     * GET /api/alerts
+     */
+    @GetMapping
+    public ResponseEntity<List<AlertDto>> getAlerts() {
+        return ResponseEntity.ok(alertService.getAlerts());
+    }
+
+    /**
+     * GET /api/alerts/{id}
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<AlertDto> getAlert(@PathVariable long id) {
+        return alertService.getAlert(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * DELETE /api/alerts/{id}
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteAlert(@PathVariable long id) {
+        // Early return if the alert does not exist
+        if (!alertService.unregister(id)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,12 +1,25 @@
 package com.kleer.currency.controller;
 
+import com.kleer.currency.config.Admission;
 import com.kleer.currency.dto.ConversionResponse;
+import com.kleer.currency.dto.FanOutConversionResponse;
+import com.kleer.currency.model.ConversionRequest;
+import com.kleer.currency.model.RequestPriority;
+import com.kleer.currency.model.SupportedCurrency;
+import com.kleer.currency.model.ValidationError;
+import com.kleer.currency.model.ValidationResult;
+import com.kleer.currency.service.ConversionRequestValidator;
+import com.kleer.currency.service.CurrencyRegistry;
 import com.kleer.currency.service.CurrencyConversionService;
+import com.kleer.currency.service.PricingService;
+import com.kleer.currency.util.RequestLogSampler;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * REST Controller for currency conversion operations.
@@ -14,14 +27,28 @@ import java.math.BigDecimal;
  * Provides endpoint to convert amounts between currencies.
  */
 @RestController
+@Admission(RequestPriority.CRITICAL)
 @RequestMapping("/api")
 @Slf4j
 public class ConversionController {
 
     private final CurrencyConversionService conversionService;
+    private final ConversionRequestValidator requestValidator;
+    private final PricingService pricingService;
+    private final CurrencyRegistry currencyRegistry;
+    private final RequestLogSampler requestLogSampler;
 
-    public ConversionController(CurrencyConversionService conversionService) {
+    public ConversionController(
+            CurrencyConversionService conversionService,
+            ConversionRequestValidator requestValidator,
+            PricingService pricingService,
+            CurrencyRegistry currencyRegistry,
+            RequestLogSampler requestLogSampler) {
         this.conversionService = conversionService;
+        this.requestValidator = requestValidator;
+        this.pricingService = pricingService;
+        this.currencyRegistry = currencyRegistry;
+        this.requestLogSampler = requestLogSampler;
     }
 
     /**
@@ -29,41 +56,141 @@ public class ConversionController {
      * 
      * GET /api/convert?amount={amount}&from={from}&to={to}
      *
-     * @param amount Amount to convert
-     * @param from   Source currency code (SEK, EUR, USD)
-     * @param to     Target currency code (SEK, EUR, USD)
+     * Parameters are validated in a single pass without exceptions; invalid
+     * input is answered with a pre-built 400 response. With an
+     * {@code X-Tenant-Id} header the tenant's precomputed rate, including
+     * spread and markup, is applied instead of the mid rate.
+     *
+     * @param amount   Amount to convert
+     * @param from     Source currency code (SEK, EUR, USD)
+     * @param to       Target currency code (SEK, EUR, USD)
+     * @param tenantId Optional tenant whose pricing applies
      * @return Conversion result with converted amount and rate
      */
     @GetMapping("/convert")
-    public ResponseEntity<ConversionResponse> convertCurrency(
-            @RequestParam("amount") BigDecimal amount,
-            @RequestParam("from") String from,
-            @RequestParam("to") String to) {
-        
-        log.info("GET /api/convert - Converting {} {} to {}", amount, from, to);
-
-        // Early return for null parameters (Spring handles this, but explicit check)
-        if (amount == null) {
-            log.warn("Amount parameter is null");
-            throw new IllegalArgumentException("Amount is required");
-        }
+    public ResponseEntity<?> convertCurrency(
+            @RequestParam(value = "amount", required = false) String amount,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestHeader(value = "X-Tenant-Id", required = false) String tenantId) {
 
-        if (from == null || from.trim().isEmpty()) {
-            log.warn("From currency parameter is null or empty");
-            throw new IllegalArgumentException("Source currency is required");
+        ValidationResult<ConversionRequest> validation = requestValidator.validate(amount, from, to);
+
+        // Early return with the pre-built error response for invalid input
+        if (!validation.isValid()) {
+            return validation.error().toResponse();
         }
 
-        if (to == null || to.trim().isEmpty()) {
-            log.warn("To currency parameter is null or empty");
-            throw new IllegalArgumentException("Target currency is required");
+        // Early return for unknown tenants
+        if (tenantId != null && !pricingService.isTenant(tenantId)) {
+            return ValidationError.TENANT_NOT_FOUND.toResponse();
         }
 
-        ConversionResponse response = conversionService.convert(amount, from, to);
+        ConversionResponse response = tenantId == null
+                ? conversionService.convert(validation.value())
+                : conversionService.convert(validation.value(), pricingService.getTable(tenantId));
 
-        log.info("Conversion successful: {} {} = {} {}", 
-                amount, from, response.getConvertedAmount(), to);
+        // One sampled line per request; guarded so disabled levels cost nothing
+        if (log.isInfoEnabled() && requestLogSampler.sample()) {
+            log.info("GET /api/convert - {} {} = {} {}",
+                    response.getOriginalAmount(), response.getFromCurrency(),
+                    response.getConvertedAmount(), response.getToCurrency());
+        }
 
         return ResponseEntity.ok(response);
     }
-}
 
+    /**
+     * Convert an amount at the rate in effect on a past date.
+     *
+     * GET /api/convert/as-of?amount={amount}&from={from}&to={to}&date={yyyy-MM-dd}
+     *
+     * Input is validated like {@code /api/convert}. The rate is the latest
+     * observation on or before the date in the rate history; without one
+     * the answer is 404.
+     *
+     * @param amount Amount to convert
+     * @param from   Source currency code
+     * @param to     Target currency code
+     * @param date   ISO date whose rate applies
+     * @return Conversion result at the historical rate
+     */
+    @GetMapping("/convert/as-of")
+    public ResponseEntity<?> convertAsOf(
+            @RequestParam(value = "amount", required = false) String amount,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "date", required = false) String date) {
+
+        ValidationResult<ConversionRequest> validation = requestValidator.validate(amount, from, to);
+
+        // Early return with the pre-built error response for invalid input
+        if (!validation.isValid()) {
+            return validation.error().toResponse();
+        }
+
+        // Early return for missing date
+        if (date == null || date.isBlank()) {
+            return ValidationError.DATE_REQUIRED.toResponse();
+        }
+
+        LocalDate asOf = ConversionRequestValidator.parseDate(date);
+
+        // Early return for malformed date
+        if (asOf == null) {
+            return ValidationError.DATE_INVALID.toResponse();
+        }
+
+        return ResponseEntity.ok(conversionService.convertAsOf(validation.value(), asOf));
+    }
+
+    /**
+     * Convert one amount into every supported currency, or into a given list.
+     *
+     * GET /api/convert/all?amount={amount}&from={from}[&to=EUR,USD]
+     *
+     * All conversions come from the same rate snapshot. The response carries
+     * the snapshot version as ETag, so clients can revalidate with
+     * If-None-Match and receive 304 until the next refresh.
+     *
+     * @param amount  Amount to convert
+     * @param from    Source currency code
+     * @param to      Optional comma-separated target currency codes
+     * @return Converted amounts per target currency
+     */
+    @GetMapping("/convert/all")
+    public ResponseEntity<?> convertToAll(
+            @RequestParam(value = "amount", required = false) String amount,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) List<String> to) {
+
+        ValidationResult<ConversionRequest> validation = requestValidator.validate(amount, from, from);
+
+        // Early return with the pre-built error response for invalid input
+        if (!validation.isValid()) {
+            return validation.error().toResponse();
+        }
+
+        List<SupportedCurrency> targets = null;
+        if (to != null && !to.isEmpty()) {
+            targets = new ArrayList<>(to.size());
+            for (String code : to) {
+                SupportedCurrency target = currencyRegistry.resolve(code);
+
+                // Early return for unsupported targets
+                if (target == null) {
+                    return ValidationError.TARGET_CURRENCY_NOT_SUPPORTED.toResponse();
+                }
+                targets.add(target);
+            }
+        }
+
+        FanOutConversionResponse response =
+                conversionService.convertToAll(validation.value().amount(), validation.value().from(), targets);
+
+        // Conditional requests with a matching ETag are answered with 304 by Spring MVC
+        return ResponseEntity.ok()
+                .eTag(Long.toString(response.getSnapshotVersion()))
+                .body(response);
+    }
+}
@@ -1,9 +1,16 @@
 package com.kleer.currency.controller;
 
+import com.kleer.currency.config.Admission;
+import com.kleer.currency.dto.ExchangeRateDto;
 import com.kleer.currency.dto.ExchangeRatesResponse;
+import com.kleer.currency.dto.HistoryCacheStatsResponse;
+import com.kleer.currency.model.RequestPriority;
 import com.kleer.currency.service.ExchangeRateService;
+import com.kleer.currency.service.ExchangeRateService.LatestRatesPayload;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -24,26 +31,48 @@ public class ExchangeRateController {
     }
 
     /**
-     * Get all available exchange rates from the database.
+     * Get all exchange rates of the current snapshot.
      * 
      * GET /api/rates/latest
      *
+     * The JSON is encoded and gzipped once per snapshot version and sent
+     * gzipped to clients accepting it, with the version as ETag.
+     *
+     * @param acceptEncoding The Accept-Encoding header, if any
      * @return Response containing all exchange rates
      */
     @GetMapping("/latest")
-    public ResponseEntity<ExchangeRatesResponse> getLatestRates() {
+    public ResponseEntity<byte[]> getLatestRates(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("GET /api/rates/latest - Fetching latest exchange rates");
 
-        ExchangeRatesResponse response = exchangeRateService.getAllRates();
+        LatestRatesPayload latest = exchangeRateService.getLatestRatesPayload();
 
-        // Early return if no rates available
-        if (response.getRates() == null || response.getRates().isEmpty()) {
-            log.warn("No exchange rates available in database");
-            return ResponseEntity.ok(response);
+        if (latest.count() == 0) {
+            log.warn("No exchange rates published yet");
+        } else {
+            log.info("Returning {} exchange rates", latest.count());
         }
+        return latest.payload().toResponse(acceptEncoding, MediaType.APPLICATION_JSON, latest.version());
+    }
+
+    /**
+     * Get the stored exchange rate of one currency pair from the database.
+     *
+     * GET /api/rates/pair?from=EUR&to=SEK
+     *
+     * Unlike the snapshot-backed endpoints, this reads the rate table on every
+     * request and reports when the pair itself was last refreshed.
+     *
+     * @param from Source currency code
+     * @param to   Target currency code
+     * @return The stored rate
+     */
+    @GetMapping("/pair")
+    public ResponseEntity<ExchangeRateDto> getRate(@RequestParam String from, @RequestParam String to) {
+        log.debug("GET /api/rates/pair - {} to {}", from, to);
 
-        log.info("Returning {} exchange rates", response.getRates().size());
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(exchangeRateService.getStoredRate(from, to));
     }
 
     /**
@@ -54,6 +83,7 @@ public class ExchangeRateController {
      * @return Response containing updated exchange rates
      */
     @PostMapping("/refresh")
+    @Admission(RequestPriority.BATCH)
     public ResponseEntity<ExchangeRatesResponse> refreshRates() {
         log.info("POST /api/rates/refresh - Refreshing exchange rates from Riksbank");
 
@@ -62,5 +92,16 @@ public class ExchangeRateController {
         log.info("Successfully refreshed {} exchange rates", response.getRates().size());
         return ResponseEntity.status(HttpStatus.OK).body(response);
     }
-}
 
+    /**
+     * Get statistics of the historical lookup cache.
+     *
+     * GET /api/rates/history/cache
+     *
+     * @return Hit, miss and eviction counts per cache tier
+     */
+    @GetMapping("/history/cache")
+    public ResponseEntity<HistoryCacheStatsResponse> getHistoryCacheStats() {
+        return ResponseEntity.ok(exchangeRateService.getHistoryCacheStats());
+    }
+}
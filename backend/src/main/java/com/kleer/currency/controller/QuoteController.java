@@ -0,0 +1,113 @@
+package com.kleer.currency.controller;
+
+import com.kleer.currency.config.Admission;
+import com.kleer.currency.dto.ConversionResponse;
+import com.kleer.currency.dto.QuoteResponse;
+import com.kleer.currency.model.ConversionRequest;
+import com.kleer.currency.model.Quote;
+import com.kleer.currency.model.RequestPriority;
+import com.kleer.currency.model.ValidationResult;
+import com.kleer.currency.service.ConversionRequestValidator;
+import com.kleer.currency.service.CurrencyConversionService;
+import com.kleer.currency.service.QuoteService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+
+/**
+ * REST Controller for rate quotes.
+ *
+ * A quote guarantees the current rate of a pair for a limited time; settling
+ * it converts an amount at that rate regardless of refreshes in between.
+ */
+@RestController
+@Admission(RequestPriority.CRITICAL)
+@RequestMapping("/api/quotes")
+@Slf4j
+public class QuoteController {
+
+    private final QuoteService quoteService;
+    private final CurrencyConversionService conversionService;
+    private final ConversionRequestValidator requestValidator;
+
+    public QuoteController(
+            QuoteService quoteService,
+            CurrencyConversionService conversionService,
+            ConversionRequestValidator requestValidator) {
+        this.quoteService = quoteService;
+        this.conversionService = conversionService;
+        this.requestValidator = requestValidator;
+    }
+
+    /**
+     * Issue a quote for the current rate.
+     *
+     * POST /api/quotes?from={from}&to={to}
+     *
+     * @param from Source currency code
+     * @param to   Target currency code
+     * @return The quote with its id and expiry
+     */
+    @PostMapping
+    public ResponseEntity<QuoteResponse> issueQuote(@RequestParam String from, @RequestParam String to) {
+        Quote quote = quoteService.issue(from, to);
+        return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(quote));
+    }
+
+    /**
+     * Get a live quote.
+     *
+     * GET /api/quotes/{quoteId}
+     */
+    @GetMapping("/{quoteId}")
+    public ResponseEntity<QuoteResponse> getQuote(@PathVariable String quoteId) {
+        return ResponseEntity.ok(toResponse(quoteService.get(quoteId)));
+    }
+
+    /**
+     * Convert an amount at the quoted rate. A quote can be settled once.
+     *
+     * POST /api/quotes/{quoteId}/convert?amount={amount}
+     *
+     * @param quoteId Quote id
+     * @param amount  Amount to convert
+     * @return Conversion result at the quoted rate
+     */
+    @PostMapping("/{quoteId}/convert")
+    public ResponseEntity<?> convertWithQuote(
+            @PathVariable String quoteId,
+            @RequestParam(value = "amount", required = false) String amount) {
+        Quote quote = quoteService.get(quoteId);
+
+        ValidationResult<ConversionRequest> validation =
+                requestValidator.validate(amount, quote.from().code(), quote.to().code());
+
+        // Early return with the pre-built error response for invalid input
+        if (!validation.isValid()) {
+            return validation.error().toResponse();
+        }
+
+        quoteService.take(quote);
+        ConversionResponse response = conversionService.convert(validation.value(), quote);
+
+        log.debug("Settled quote {}: {} {} = {} {}", quoteId,
+                response.getOriginalAmount(), response.getFromCurrency(),
+                response.getConvertedAmount(), response.getToCurrency());
+
+        return ResponseEntity.ok(response);
+    }
+
+    private QuoteResponse toResponse(Quote quote) {
+        return QuoteResponse.builder()
+                .quoteId(quote.externalId())
+                .fromCurrency(quote.from().code())
+                .toCurrency(quote.to().code())
+                .rate(quote.rate())
+                .snapshotVersion(quote.snapshotVersion())
+                .expiresAt(Instant.ofEpochMilli(quote.expiresAtMillis()))
+                .build();
+    }
+}
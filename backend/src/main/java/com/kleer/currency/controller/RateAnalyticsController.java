@@ -0,0 +1,53 @@
+package com.kleer.currency.controller;
+
+import com.kleer.currency.dto.RateAnalyticsResponse;
+import com.kleer.currency.model.BarInterval;
+import com.kleer.currency.service.RateAnalyticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * REST Controller for historical rate analytics.
+ */
+@RestController
+@RequestMapping("/api/rates")
+@Slf4j
+public class RateAnalyticsController {
+
+    private final RateAnalyticsService rateAnalyticsService;
+
+    public RateAnalyticsController(RateAnalyticsService rateAnalyticsService) {
+        this.rateAnalyticsService = rateAnalyticsService;
+    }
+
+    /**
+     * Get statistics and optional OHLC bars for a currency pair over a date window.
+     *
+     * GET /api/rates/analytics?from=EUR&to=SEK&start=2024-01-01&end=2024-12-31&interval=MONTH
+     *
+     * @param from     Source currency code
+     * @param to       Target currency code
+     * @param start    First date of the window (inclusive)
+     * @param end      Last date of the window (inclusive)
+     * @param interval Bar length (DAY, WEEK, MONTH, YEAR); omit for statistics only
+     * @return Statistics and bars for the window
+     */
+    @GetMapping("/analytics")
+    public ResponseEntity<RateAnalyticsResponse> getAnalytics(
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+            @RequestParam(required = false) BarInterval interval) {
+        log.debug("GET /api/rates/analytics - {} to {} from {} to {}", from, to, start, end);
+
+        return ResponseEntity.ok(rateAnalyticsService.analyze(from, to, start, end, interval));
+    }
+}
@@ -0,0 +1,42 @@
+package com.kleer.currency.controller;
+
+import com.kleer.currency.dto.RateDeltaResponse;
+import com.kleer.currency.service.RateDeltaService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+/**
+ * REST Controller for the rate delta feed.
+ *
+ * Clients keep the last sequence they applied and ask only for what changed
+ * since. With {@code waitMs} the request is held open until the next delta
+ * is published, so clients can follow the feed without tight polling.
+ */
+@RestController
+@RequestMapping("/api/rates")
+public class RateDeltaController {
+
+    private final RateDeltaService rateDeltaService;
+
+    public RateDeltaController(RateDeltaService rateDeltaService) {
+        this.rateDeltaService = rateDeltaService;
+    }
+
+    /**
+     * GET /api/rates/deltas?since={sequence}&waitMs={millis}
+     *
+     * @param since  Last sequence the client has applied; 0 or omitted for the full rate set
+     * @param waitMs Maximum time to wait for a new delta if the client is up to date
+     * @return The changes since {@code since} (full set if too far behind), or 204 if nothing changed in time
+     */
+    @GetMapping("/deltas")
+    public DeferredResult<ResponseEntity<RateDeltaResponse>> getDeltas(
+            @RequestParam(value = "since", defaultValue = "0") long since,
+            @RequestParam(value = "waitMs", defaultValue = "0") long waitMs) {
+        return rateDeltaService.awaitChangesSince(since, waitMs);
+    }
+}
@@ -0,0 +1,99 @@
+package com.kleer.currency.controller;
+
+import com.kleer.currency.model.RateExport;
+import com.kleer.currency.service.RateExportService;
+import com.kleer.currency.service.RateExportService.ExportFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * REST Controller serving bulk rate exports for the data warehouse.
+ *
+ * Export files are sent without copying them through the JVM heap: when the
+ * connector supports it, Tomcat is handed the file and sends it with
+ * sendfile after the request returns; otherwise the file channel is
+ * transferred to the response channel. The export's tag is sent as ETag.
+ */
+@RestController
+@RequestMapping("/api/export")
+public class RateExportController {
+
+    private static final String GZIP_CONTENT_TYPE = "application/gzip";
+
+    // Tomcat request attributes for sendfile
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final RateExportService rateExportService;
+
+    public RateExportController(RateExportService rateExportService) {
+        this.rateExportService = rateExportService;
+    }
+
+    /**
+     * GET /api/export/latest.csv.gz, GET /api/export/history.csv.gz
+     *
+     * Responds 404 for unknown exports and 204 before the first refresh.
+     */
+    @GetMapping("/{name}.csv.gz")
+    public void getExport(@PathVariable String name, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        RateExport export = RateExport.fromFileName(name);
+
+        // Early return for unknown export
+        if (export == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        ExportFile file = rateExportService.getExport(export);
+
+        // Early return if there is nothing to export yet
+        if (file == null) {
+            response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+            return;
+        }
+
+        // Early return if the client already has this version
+        if (new ServletWebRequest(request, response).checkNotModified("\"" + file.tag() + "\"")) {
+            return;
+        }
+
+        response.setContentType(GZIP_CONTENT_TYPE);
+        response.setContentLengthLong(file.size());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(file.path().getFileName().toString())
+                .build()
+                .toString());
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, file.size());
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < file.size()) {
+                position += channel.transferTo(position, file.size() - position, target);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.kleer.currency.controller;
+
+import com.kleer.currency.config.Admission;
+import com.kleer.currency.dto.RateImportResponse;
+import com.kleer.currency.model.RequestPriority;
+import com.kleer.currency.service.RateImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Controller for bulk imports of historical rates.
+ *
+ * Files are picked up from the server's import directory; the request only
+ * names the file, so no data passes through the request body.
+ */
+@RestController
+@Admission(RequestPriority.BATCH)
+@RequestMapping("/api/import")
+@Slf4j
+public class RateImportController {
+
+    private final RateImportService rateImportService;
+
+    public RateImportController(RateImportService rateImportService) {
+        this.rateImportService = rateImportService;
+    }
+
+    /**
+     * POST /api/import?file=rates-2015.csv
+     *
+     * Example with restart: POST /api/import?file=rates-2015.csv&restart=true
+     *
+     * @param file    Name of the file in the import directory
+     * @param restart True to ignore progress of an earlier run
+     * @return Counts and throughput of the import
+     */
+    @PostMapping
+    public ResponseEntity<RateImportResponse> importFile(
+            @RequestParam String file,
+            @RequestParam(defaultValue = "false") boolean restart) {
+        log.info("Import requested: file={}, restart={}", file, restart);
+        return ResponseEntity.ok(rateImportService.importFile(file, restart));
+    }
+}
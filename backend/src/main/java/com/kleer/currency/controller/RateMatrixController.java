@@ -0,0 +1,58 @@
+package com.kleer.currency.controller;
+
+import com.kleer.currency.service.RateMatrixService;
+import com.kleer.currency.util.RateMatrixCodec;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Controller serving the full cross-rate matrix.
+ *
+ * The same endpoint returns dense JSON or the compact binary encoding of
+ * {@link RateMatrixCodec}, depending on the Accept header. Both encodings are
+ * produced and gzipped once per snapshot, and the snapshot version is sent as
+ * ETag so unchanged matrices are answered with 304. The binary ETag carries a
+ * "bin" tag and responses vary on Accept, so caches keep the two apart.
+ */
+@RestController
+@RequestMapping("/api/rates")
+public class RateMatrixController {
+
+    private static final String BINARY_REPRESENTATION = "bin";
+
+    private final RateMatrixService rateMatrixService;
+
+    public RateMatrixController(RateMatrixService rateMatrixService) {
+        this.rateMatrixService = rateMatrixService;
+    }
+
+    /**
+     * GET /api/rates/matrix (Accept: application/json)
+     *
+     * @return The matrix as currency header plus dense rows
+     */
+    @GetMapping(value = "/matrix", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getMatrixJson(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        RateMatrixService.Encoded encoded = rateMatrixService.getEncoded();
+        return encoded.json().toResponse(acceptEncoding, MediaType.APPLICATION_JSON, encoded.version(), null);
+    }
+
+    /**
+     * GET /api/rates/matrix (Accept: application/vnd.kleer.rate-matrix or application/octet-stream)
+     *
+     * @return The matrix in the little-endian binary encoding
+     */
+    @GetMapping(value = "/matrix", produces = {RateMatrixCodec.BINARY_MEDIA_TYPE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<byte[]> getMatrixBinary(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        RateMatrixService.Encoded encoded = rateMatrixService.getEncoded();
+        return encoded.binary().toResponse(acceptEncoding,
+                MediaType.parseMediaType(RateMatrixCodec.BINARY_MEDIA_TYPE), encoded.version(), BINARY_REPRESENTATION);
+    }
+}
@@ -0,0 +1,94 @@
+package com.kleer.currency.controller;
+
+import com.kleer.currency.dto.ReplicationStatusResponse;
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.repository.RateSnapshotStore;
+import com.kleer.currency.service.RateSnapshotService;
+import com.kleer.currency.service.ReplicationService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * REST Controller for rate snapshot replication.
+ *
+ * Followers using the HTTP transport pull the leader's snapshot from here.
+ * The snapshot version is sent as ETag, so a follower that is up to date
+ * receives 304 without a body. Each version is encoded once, on the first
+ * request that needs its body.
+ */
+@RestController
+@RequestMapping("/api/replication")
+public class ReplicationController {
+
+    private final RateSnapshotService rateSnapshotService;
+    private final ReplicationService replicationService;
+
+    private volatile EncodedSnapshot encodedSnapshot;
+
+    /**
+     * A snapshot in the {@link RateSnapshotStore} layout.
+     *
+     * @param version Version of the encoded snapshot
+     * @param bytes   The encoded snapshot
+     */
+    private record EncodedSnapshot(long version, byte[] bytes) {
+    }
+
+    public ReplicationController(RateSnapshotService rateSnapshotService, ReplicationService replicationService) {
+        this.rateSnapshotService = rateSnapshotService;
+        this.replicationService = replicationService;
+    }
+
+    /**
+     * GET /api/replication/snapshot
+     *
+     * @return The current snapshot in the {@link RateSnapshotStore} layout, or 204 before the first refresh
+     */
+    @GetMapping(value = "/snapshot", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> getSnapshot(WebRequest request) {
+        RateSnapshot snapshot = rateSnapshotService.getCurrent();
+
+        // Early return if there is nothing to replicate yet
+        if (snapshot.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+
+        String eTag = "\"" + snapshot.version() + "\"";
+
+        // Early return without encoding if the follower already has this version
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        EncodedSnapshot encoded = encodedSnapshot;
+        if (encoded == null || encoded.version() != snapshot.version()) {
+            encoded = new EncodedSnapshot(snapshot.version(), RateSnapshotStore.encode(snapshot));
+            encodedSnapshot = encoded;
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .eTag(eTag)
+                .body(encoded.bytes());
+    }
+
+    /**
+     * GET /api/replication/status
+     *
+     * @return This node's role and the snapshot version it serves
+     */
+    @GetMapping("/status")
+    public ResponseEntity<ReplicationStatusResponse> getStatus() {
+        RateSnapshot snapshot = rateSnapshotService.getCurrent();
+        return ResponseEntity.ok(ReplicationStatusResponse.builder()
+                .role(replicationService.getRole())
+                .leader(replicationService.isLeader())
+                .snapshotVersion(snapshot.version())
+                .lastUpdated(snapshot.lastUpdated())
+                .build());
+    }
+}
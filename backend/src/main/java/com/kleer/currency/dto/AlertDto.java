@@ -0,0 +1,25 @@
+package com.kleer.currency.dto;
+
+import com.kleer.currency.model.AlertDirection;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for registering and listing rate-threshold alerts.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertDto {
+    private Long id;
+    private String fromCurrency;
+    private String toCurrency;
+    private BigDecimal threshold;
+    private AlertDirection direction;
+    private String callbackUrl;
+}
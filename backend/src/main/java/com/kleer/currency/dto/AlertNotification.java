@@ -0,0 +1,30 @@
+package com.kleer.currency.dto;
+
+import com.kleer.currency.model.AlertDirection;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Notification sent when a rate crosses an alert threshold.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertNotification {
+    private long alertId;
+    private String fromCurrency;
+    private String toCurrency;
+    private BigDecimal threshold;
+    private AlertDirection direction;
+    private BigDecimal previousRate;
+    private BigDecimal rate;
+    private long snapshotVersion;
+    private LocalDateTime lastUpdated;
+    private String callbackUrl;
+}
@@ -0,0 +1,21 @@
+package com.kleer.currency.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for an amount converted into one target currency.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConvertedAmountDto {
+    private String currency;
+    private BigDecimal rate;
+    private BigDecimal convertedAmount;
+}
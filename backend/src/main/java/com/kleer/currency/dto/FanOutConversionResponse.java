@@ -0,0 +1,25 @@
+package com.kleer.currency.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response DTO for one amount converted into several currencies.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FanOutConversionResponse {
+    private BigDecimal originalAmount;
+    private String fromCurrency;
+    private long snapshotVersion;
+    private LocalDateTime lastUpdated;
+    private List<ConvertedAmountDto> conversions;
+}
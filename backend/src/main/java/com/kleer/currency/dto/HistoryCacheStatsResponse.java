@@ -0,0 +1,22 @@
+package com.kleer.currency.dto;
+
+import com.kleer.currency.util.CacheStats;
+import com.kleer.currency.util.TinyLfuLongCache;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO with statistics of the historical lookup cache.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryCacheStatsResponse {
+    private boolean enabled;
+    private TinyLfuLongCache.Eviction eviction;
+    private CacheStats heap;
+    private CacheStats offHeap;
+}
@@ -0,0 +1,25 @@
+package com.kleer.currency.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Response DTO for an issued rate quote.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteResponse {
+    private String quoteId;
+    private String fromCurrency;
+    private String toCurrency;
+    private BigDecimal rate;
+    private long snapshotVersion;
+    private Instant expiresAt;
+}
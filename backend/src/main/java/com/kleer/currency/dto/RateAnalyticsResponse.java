@@ -0,0 +1,32 @@
+package com.kleer.currency.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Response DTO with statistics and OHLC bars for a currency pair over a window.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateAnalyticsResponse {
+    private String fromCurrency;
+    private String toCurrency;
+    private LocalDate start;
+    private LocalDate end;
+    private int observations;
+    private BigDecimal min;
+    private BigDecimal max;
+    private BigDecimal mean;
+    private BigDecimal standardDeviation;
+    private BigDecimal open;
+    private BigDecimal close;
+    private List<OhlcBarDto> bars;
+}
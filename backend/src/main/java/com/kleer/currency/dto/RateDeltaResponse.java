@@ -0,0 +1,30 @@
+package com.kleer.currency.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response DTO of the rate delta feed.
+ *
+ * When {@code full} is true, {@code changed} holds the complete rate set and
+ * the client must replace its state instead of applying the changes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateDeltaResponse {
+    private long fromSequence;
+    private long sequence;
+    private boolean full;
+    private LocalDateTime lastUpdated;
+    private Map<String, BigDecimal> changed;
+    private List<String> removed;
+}
@@ -0,0 +1,33 @@
+package com.kleer.currency.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO of a rate history import.
+ *
+ * Counts cover the whole file, including parts loaded by earlier runs that
+ * this run resumed from. {@code added} counts observations that were new or
+ * changed a stored rate, including the derived inverse pairs; {@code skipped}
+ * counts observations that were already stored with the same rate.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateImportResponse {
+    private String file;
+    private long bytes;
+    private long resumedFromOffset;
+    private long rows;
+    private long rejected;
+    private long added;
+    private long skipped;
+    private long elapsedMs;
+    private long rowsPerSecond;
+    private List<String> rejections;
+}
@@ -0,0 +1,23 @@
+package com.kleer.currency.dto;
+
+import com.kleer.currency.model.ReplicationRole;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response DTO describing this node's replication state.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplicationStatusResponse {
+    private ReplicationRole role;
+    private boolean leader;
+    private long snapshotVersion;
+    private LocalDateTime lastUpdated;
+}
@@ -0,0 +1,56 @@
+package com.kleer.currency.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * JPA Entity mirroring the conversion audit log in the database.
+ * 
+ * Uses a pooled sequence rather than identity columns so Hibernate can
+ * batch the bulk inserts made by the audit writer.
+ */
+@Entity
+@Table(
+    name = "conversion_audit",
+    indexes = {
+        @Index(name = "idx_audit_converted_at", columnList = "converted_at")
+    }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversionAudit {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "conversion_audit_seq")
+    @SequenceGenerator(name = "conversion_audit_seq", sequenceName = "conversion_audit_seq", allocationSize = 500)
+    private Long id;
+
+    @Column(name = "converted_at", nullable = false)
+    private Instant convertedAt;
+
+    @Column(name = "snapshot_version", nullable = false)
+    private long snapshotVersion;
+
+    @Column(name = "from_currency", nullable = false, length = 3)
+    private String fromCurrency;
+
+    @Column(name = "to_currency", nullable = false, length = 3)
+    private String toCurrency;
+
+    @Column(nullable = false, precision = 38, scale = 8)
+    private BigDecimal amount;
+
+    @Column(name = "converted_amount", nullable = false, precision = 38, scale = 8)
+    private BigDecimal convertedAmount;
+
+    @Column(nullable = false, precision = 20, scale = 8)
+    private BigDecimal rate;
+}
@@ -0,0 +1,41 @@
+package com.kleer.currency.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * JPA Entity representing a lease on a cluster-wide task, such as the rate refresh.
+ *
+ * The owner holds the lease until {@code expiresAtMillis}. Every change of
+ * owner increments {@code token}, which the owner passes with its writes so
+ * a node that lost the lease without noticing is fenced off. The last rate
+ * version the owner published is kept on the same row, so other nodes can
+ * detect new rates with a single-row read.
+ */
+@Entity
+@Table(name = "refresh_lease")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshLease {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(length = 128)
+    private String owner;
+
+    @Column(nullable = false)
+    private long token;
+
+    @Column(name = "expires_at_millis", nullable = false)
+    private long expiresAtMillis;
+
+    @Column(name = "rate_version", nullable = false)
+    private long rateVersion;
+}
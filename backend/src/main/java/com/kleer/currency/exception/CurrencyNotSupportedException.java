@@ -1,12 +1,14 @@
 package com.kleer.currency.exception;
 
+import java.util.List;
+
 /**
  * Exception thrown when an unsupported currency is requested.
  */
 public class CurrencyNotSupportedException extends RuntimeException {
 
-    public CurrencyNotSupportedException(String currency) {
-        super(String.format("Currency '%s' is not supported. Supported currencies: SEK, EUR, USD", currency));
+    public CurrencyNotSupportedException(String currency, List<String> supportedCurrencies) {
+        super(String.format("Currency '%s' is not supported. Supported currencies: %s",
+                currency, String.join(", ", supportedCurrencies)));
     }
 }
-
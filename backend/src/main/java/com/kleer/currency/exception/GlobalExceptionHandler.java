@@ -1,11 +1,15 @@
 package com.kleer.currency.exception;
 
+import com.kleer.currency.util.ErrorBody;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import java.time.LocalDateTime;
@@ -22,6 +26,9 @@ import java.util.Map;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private static final ErrorBody NOT_ACCEPTABLE = ErrorBody.of(
+            HttpStatus.NOT_ACCEPTABLE, "Not acceptable", "No acceptable representation");
+
     @ExceptionHandler(RiksbankApiException.class)
     public ResponseEntity<Object> handleRiksbankApiException(
             RiksbankApiException ex, WebRequest request) {
@@ -55,6 +62,50 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(QuoteNotFoundException.class)
+    public ResponseEntity<Object> handleQuoteNotFoundException(
+            QuoteNotFoundException ex, WebRequest request) {
+        log.debug("Quote not found: {}", ex.getMessage());
+        return buildErrorResponse(
+                HttpStatus.GONE,
+                "Quote not available",
+                ex.getMessage()
+        );
+    }
+
+    @ExceptionHandler(QuoteCapacityExceededException.class)
+    public ResponseEntity<Object> handleQuoteCapacityExceededException(
+            QuoteCapacityExceededException ex, WebRequest request) {
+        log.warn("Quote capacity exceeded: {}", ex.getMessage());
+        return buildErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                "Quote capacity exceeded",
+                ex.getMessage()
+        );
+    }
+
+    @ExceptionHandler(PricingUnavailableException.class)
+    public ResponseEntity<Object> handlePricingUnavailableException(
+            PricingUnavailableException ex, WebRequest request) {
+        log.warn("Pricing unavailable: {}", ex.getMessage());
+        return buildErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                "Pricing unavailable",
+                ex.getMessage()
+        );
+    }
+
+    @ExceptionHandler(LeadershipLostException.class)
+    public ResponseEntity<Object> handleLeadershipLostException(
+            LeadershipLostException ex, WebRequest request) {
+        log.warn("Refresh rejected: {}", ex.getMessage());
+        return buildErrorResponse(
+                HttpStatus.CONFLICT,
+                "Refresh lease lost",
+                ex.getMessage()
+        );
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Object> handleIllegalArgumentException(
             IllegalArgumentException ex, WebRequest request) {
@@ -66,6 +117,30 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Object> handleMethodArgumentTypeMismatchException(
+            MethodArgumentTypeMismatchException ex, WebRequest request) {
+        log.warn("Invalid parameter {}: {}", ex.getName(), ex.getValue());
+        return buildErrorResponse(
+                HttpStatus.BAD_REQUEST,
+                "Invalid request",
+                "Invalid value for parameter '" + ex.getName() + "'"
+        );
+    }
+
+    /**
+     * The body is written as pre-serialised JSON with its content type set, so
+     * it is sent even though the client accepts no JSON.
+     */
+    @ExceptionHandler(HttpMediaTypeNotAcceptableException.class)
+    public ResponseEntity<byte[]> handleHttpMediaTypeNotAcceptableException(
+            HttpMediaTypeNotAcceptableException ex, WebRequest request) {
+        log.debug("Not acceptable: {}", ex.getMessage());
+        return ResponseEntity.status(NOT_ACCEPTABLE.getStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(NOT_ACCEPTABLE.render());
+    }
+
     @ExceptionHandler(NoResourceFoundException.class)
     public ResponseEntity<Object> handleNoResourceFoundException(
             NoResourceFoundException ex, WebRequest request) {
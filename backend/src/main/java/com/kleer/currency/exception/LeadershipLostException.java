@@ -0,0 +1,11 @@
+package com.kleer.currency.exception;
+
+/**
+ * Exception thrown when a node writes under a refresh lease it no longer holds.
+ */
+public class LeadershipLostException extends RuntimeException {
+
+    public LeadershipLostException(String lease, long token) {
+        super(String.format("Lease '%s' with token %d is no longer held by this node", lease, token));
+    }
+}
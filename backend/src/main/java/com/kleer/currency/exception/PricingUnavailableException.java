@@ -0,0 +1,11 @@
+package com.kleer.currency.exception;
+
+/**
+ * Exception thrown when a tenant's prices are requested before any rates have been published.
+ */
+public class PricingUnavailableException extends RuntimeException {
+
+    public PricingUnavailableException(String tenantId) {
+        super(String.format("No prices for tenant %s yet, rates have not been published", tenantId));
+    }
+}
@@ -0,0 +1,11 @@
+package com.kleer.currency.exception;
+
+/**
+ * Exception thrown when no more quotes can be issued because the quote cache is full.
+ */
+public class QuoteCapacityExceededException extends RuntimeException {
+
+    public QuoteCapacityExceededException(int capacity) {
+        super(String.format("Quote capacity of %d live quotes reached, try again later", capacity));
+    }
+}
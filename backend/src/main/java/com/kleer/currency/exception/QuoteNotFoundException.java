@@ -0,0 +1,11 @@
+package com.kleer.currency.exception;
+
+/**
+ * Exception thrown when a quote does not exist, has expired or was already settled.
+ */
+public class QuoteNotFoundException extends RuntimeException {
+
+    public QuoteNotFoundException(String quoteId) {
+        super(String.format("Quote '%s' does not exist, has expired or was already used", quoteId));
+    }
+}
@@ -0,0 +1,22 @@
+package com.kleer.currency.model;
+
+/**
+ * Which crossings of a threshold trigger an alert.
+ */
+public enum AlertDirection {
+
+    /** Rate rises to or above the threshold. */
+    UP,
+    /** Rate falls to or below the threshold. */
+    DOWN,
+    /** Either crossing. */
+    BOTH;
+
+    public boolean matchesUp() {
+        return this != DOWN;
+    }
+
+    public boolean matchesDown() {
+        return this != UP;
+    }
+}
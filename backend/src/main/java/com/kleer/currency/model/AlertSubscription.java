@@ -0,0 +1,22 @@
+package com.kleer.currency.model;
+
+import java.math.BigDecimal;
+
+/**
+ * A registered rate-threshold alert.
+ *
+ * @param id              Subscription id
+ * @param pair            Watched currency pair
+ * @param threshold       Threshold rate
+ * @param scaledThreshold Threshold in fixed-point form, used as index key
+ * @param direction       Crossings that trigger the alert
+ * @param callbackUrl     Webhook receiving notifications, or null to only log them
+ */
+public record AlertSubscription(
+        long id,
+        CurrencyPair pair,
+        BigDecimal threshold,
+        long scaledThreshold,
+        AlertDirection direction,
+        String callbackUrl) {
+}
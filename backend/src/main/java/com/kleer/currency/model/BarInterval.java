@@ -0,0 +1,40 @@
+package com.kleer.currency.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Bar length for rate analytics.
+ */
+public enum BarInterval {
+
+    DAY,
+    WEEK,
+    MONTH,
+    YEAR;
+
+    /**
+     * @return The first day of the bar containing the date
+     */
+    public LocalDate startOf(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+            case YEAR -> date.withDayOfYear(1);
+        };
+    }
+
+    /**
+     * @return The first day of the bar following the bar starting on the date
+     */
+    public LocalDate next(LocalDate barStart) {
+        return switch (this) {
+            case DAY -> barStart.plusDays(1);
+            case WEEK -> barStart.plusWeeks(1);
+            case MONTH -> barStart.plusMonths(1);
+            case YEAR -> barStart.plusYears(1);
+        };
+    }
+}
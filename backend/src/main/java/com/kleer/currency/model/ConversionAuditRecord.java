@@ -0,0 +1,24 @@
+package com.kleer.currency.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Audit record of one completed conversion.
+ *
+ * @param timestampMillis Conversion time, epoch millis
+ * @param snapshotVersion Rate snapshot version current at conversion time
+ * @param fromCurrency    Source currency code
+ * @param toCurrency      Target currency code
+ * @param amount          Original amount
+ * @param convertedAmount Converted amount
+ * @param rate            Applied rate
+ */
+public record ConversionAuditRecord(
+        long timestampMillis,
+        long snapshotVersion,
+        String fromCurrency,
+        String toCurrency,
+        BigDecimal amount,
+        BigDecimal convertedAmount,
+        BigDecimal rate) {
+}
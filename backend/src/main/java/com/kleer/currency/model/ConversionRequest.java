@@ -0,0 +1,13 @@
+package com.kleer.currency.model;
+
+import java.math.BigDecimal;
+
+/**
+ * A validated and normalised conversion request.
+ *
+ * @param amount Positive amount to convert
+ * @param from   Resolved source currency
+ * @param to     Resolved target currency
+ */
+public record ConversionRequest(BigDecimal amount, SupportedCurrency from, SupportedCurrency to) {
+}
@@ -0,0 +1,61 @@
+package com.kleer.currency.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Precomputed effective rates of one tenant for one rate snapshot.
+ *
+ * Rates are stored per markup tier in flat arrays indexed by
+ * {@code from.index() * size + to.index()}, and tier thresholds are stored
+ * per source currency already converted into that currency, so pricing a
+ * conversion is a few comparisons and one array load.
+ */
+public final class PriceTable {
+
+    private final String tenantId;
+    private final long snapshotVersion;
+    private final int size;
+    private final BigDecimal[][] ratesByTier;
+    private final BigDecimal[][] tierThresholds;
+
+    /**
+     * @param tenantId        Tenant the table belongs to
+     * @param snapshotVersion Version of the snapshot the rates were computed from
+     * @param size            Number of supported currencies
+     * @param ratesByTier     Per tier, effective rates indexed by pair; null where no rate exists
+     * @param tierThresholds  Per source currency index, ascending minimum amount of each tier
+     */
+    public PriceTable(String tenantId, long snapshotVersion, int size,
+                      BigDecimal[][] ratesByTier, BigDecimal[][] tierThresholds) {
+        this.tenantId = tenantId;
+        this.snapshotVersion = snapshotVersion;
+        this.size = size;
+        this.ratesByTier = ratesByTier;
+        this.tierThresholds = tierThresholds;
+    }
+
+    /**
+     * Get the effective rate for a conversion.
+     *
+     * @param from   Source currency
+     * @param to     Target currency
+     * @param amount Amount in the source currency, selects the markup tier
+     * @return The rate, or null if the snapshot had no rate for the pair
+     */
+    public BigDecimal getRate(SupportedCurrency from, SupportedCurrency to, BigDecimal amount) {
+        BigDecimal[] thresholds = tierThresholds[from.index()];
+        int tier = 0;
+        while (tier + 1 < thresholds.length && amount.compareTo(thresholds[tier + 1]) >= 0) {
+            tier++;
+        }
+        return ratesByTier[tier][from.index() * size + to.index()];
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+}
@@ -0,0 +1,29 @@
+package com.kleer.currency.model;
+
+import java.math.BigDecimal;
+
+/**
+ * A rate guaranteed until its expiry.
+ *
+ * @param id              Quote id
+ * @param from            Source currency
+ * @param to              Target currency
+ * @param rate            Guaranteed rate
+ * @param snapshotVersion Version of the rate snapshot the rate was taken from
+ * @param expiresAtMillis Expiry as epoch milliseconds
+ */
+public record Quote(
+        long id,
+        SupportedCurrency from,
+        SupportedCurrency to,
+        BigDecimal rate,
+        long snapshotVersion,
+        long expiresAtMillis) {
+
+    /**
+     * @return The quote id as used in the API
+     */
+    public String externalId() {
+        return Long.toUnsignedString(id, 36);
+    }
+}
@@ -0,0 +1,50 @@
+package com.kleer.currency.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Changes between two consecutive rate snapshots.
+ *
+ * @param sequence    Sequence number, equal to the version of the snapshot the delta leads to
+ * @param lastUpdated Refresh time of that snapshot
+ * @param changed     New or changed rates keyed by pair key (e.g., "EUR/SEK")
+ * @param removed     Pair keys that are no longer quoted
+ */
+public record RateDelta(long sequence, LocalDateTime lastUpdated, Map<String, BigDecimal> changed, Set<String> removed) {
+
+    public RateDelta {
+        changed = Map.copyOf(changed);
+        removed = Set.copyOf(removed);
+    }
+
+    /**
+     * Compute the delta leading from one snapshot to the next.
+     *
+     * @param previous The older snapshot
+     * @param current  The newer snapshot
+     * @return Rates added or changed in {@code current}, and pairs it no longer has
+     */
+    public static RateDelta between(RateSnapshot previous, RateSnapshot current) {
+        Map<String, BigDecimal> changed = new HashMap<>();
+        for (Map.Entry<String, BigDecimal> entry : current.rates().entrySet()) {
+            BigDecimal before = previous.rates().get(entry.getKey());
+            if (before == null || before.compareTo(entry.getValue()) != 0) {
+                changed.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        Set<String> removed = new HashSet<>();
+        for (String key : previous.rates().keySet()) {
+            if (!current.rates().containsKey(key)) {
+                removed.add(key);
+            }
+        }
+
+        return new RateDelta(current.version(), current.lastUpdated(), changed, removed);
+    }
+}
@@ -0,0 +1,54 @@
+package com.kleer.currency.model;
+
+/**
+ * Datasets offered as bulk export files.
+ */
+public enum RateExport {
+
+    /**
+     * Rates of the current snapshot: {@code from,to,rate,last_updated}.
+     */
+    LATEST("latest", "from,to,rate,last_updated"),
+
+    /**
+     * Every stored observation: {@code from,to,date,rate}.
+     */
+    HISTORY("history", "from,to,date,rate");
+
+    private final String fileName;
+    private final String header;
+
+    RateExport(String fileName, String header) {
+        this.fileName = fileName;
+        this.header = header;
+    }
+
+    /**
+     * @return Base name of the export file, without version and extension
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * @return CSV header line
+     */
+    public String getHeader() {
+        return header;
+    }
+
+    /**
+     * Resolve an export by its file name.
+     *
+     * @param fileName Base file name, e.g. "history"
+     * @return The export, or null if there is none with that name
+     */
+    public static RateExport fromFileName(String fileName) {
+        for (RateExport export : values()) {
+            if (export.fileName.equals(fileName)) {
+                return export;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.kleer.currency.model;
+
+import java.util.Set;
+
+/**
+ * Application event raised after observations were bulk-loaded into the rate history.
+ *
+ * @param pairs Pairs whose history changed
+ */
+public record RateHistoryImportedEvent(Set<CurrencyPair> pairs) {
+}
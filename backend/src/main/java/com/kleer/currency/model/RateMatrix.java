@@ -0,0 +1,85 @@
+package com.kleer.currency.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Dense matrix of the rates of one snapshot, indexed by supported currency.
+ *
+ * Row {@code from} holds the rates from one currency into every supported
+ * currency at {@code from.index() * size + to.index()}, so reading all
+ * conversions of a currency is one pass over contiguous entries.
+ */
+public final class RateMatrix {
+
+    /**
+     * Matrix used before any snapshot has been published.
+     */
+    public static final RateMatrix EMPTY = new RateMatrix(0, null, List.of(), new BigDecimal[0]);
+
+    private final long version;
+    private final LocalDateTime lastUpdated;
+    private final List<SupportedCurrency> currencies;
+    private final BigDecimal[] rates;
+
+    /**
+     * @param version     Snapshot version
+     * @param lastUpdated Time the rates were refreshed
+     * @param currencies  Supported currencies in index order
+     * @param rates       Row-major rates; null where the snapshot has no rate
+     */
+    public RateMatrix(long version, LocalDateTime lastUpdated, List<SupportedCurrency> currencies, BigDecimal[] rates) {
+        this.version = version;
+        this.lastUpdated = lastUpdated;
+        this.currencies = List.copyOf(currencies);
+        this.rates = rates;
+    }
+
+    /**
+     * Build the matrix of a snapshot.
+     *
+     * @param snapshot   The snapshot
+     * @param currencies Supported currencies in index order
+     * @return The matrix, with 1 on the diagonal
+     */
+    public static RateMatrix of(RateSnapshot snapshot, List<SupportedCurrency> currencies) {
+        int size = currencies.size();
+        BigDecimal[] rates = new BigDecimal[size * size];
+        for (SupportedCurrency from : currencies) {
+            for (SupportedCurrency to : currencies) {
+                rates[from.index() * size + to.index()] = from == to
+                        ? BigDecimal.ONE
+                        : snapshot.getRate(new CurrencyPair(from.code(), to.code()));
+            }
+        }
+        return new RateMatrix(snapshot.version(), snapshot.lastUpdated(), currencies, rates);
+    }
+
+    /**
+     * @return The rate, or null if the snapshot has no rate for the pair
+     */
+    public BigDecimal getRate(SupportedCurrency from, SupportedCurrency to) {
+        return rates[from.index() * size() + to.index()];
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public List<SupportedCurrency> getCurrencies() {
+        return currencies;
+    }
+
+    public int size() {
+        return currencies.size();
+    }
+
+    public boolean isEmpty() {
+        return version == 0;
+    }
+}
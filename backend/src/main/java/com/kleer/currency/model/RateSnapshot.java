@@ -0,0 +1,38 @@
+package com.kleer.currency.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Immutable, versioned view of the complete rate set produced by one refresh.
+ *
+ * @param version     Monotonically increasing snapshot version
+ * @param lastUpdated Time the rates were refreshed
+ * @param rates       Rates keyed by currency pair key (e.g., "EUR/SEK")
+ */
+public record RateSnapshot(long version, LocalDateTime lastUpdated, Map<String, BigDecimal> rates) {
+
+    /**
+     * Snapshot used before any rates have been loaded or refreshed.
+     */
+    public static final RateSnapshot EMPTY = new RateSnapshot(0, null, Map.of());
+
+    public RateSnapshot {
+        rates = Map.copyOf(rates);
+    }
+
+    /**
+     * Get the rate for a currency pair.
+     *
+     * @param pair The currency pair
+     * @return The rate, or null if the snapshot has no rate for the pair
+     */
+    public BigDecimal getRate(CurrencyPair pair) {
+        return rates.get(pair.toKey());
+    }
+
+    public boolean isEmpty() {
+        return rates.isEmpty();
+    }
+}
@@ -0,0 +1,10 @@
+package com.kleer.currency.model;
+
+/**
+ * Application event raised after a new rate snapshot has been published.
+ *
+ * @param previous The snapshot that was replaced
+ * @param current  The newly published snapshot
+ */
+public record RateSnapshotPublishedEvent(RateSnapshot previous, RateSnapshot current) {
+}
@@ -0,0 +1,14 @@
+package com.kleer.currency.model;
+
+/**
+ * Role of this node in rate snapshot replication.
+ */
+public enum ReplicationRole {
+
+    /** Refreshes from Riksbank on its own; replication is off. */
+    STANDALONE,
+    /** Refreshes from Riksbank and publishes snapshots to followers. */
+    LEADER,
+    /** Never calls Riksbank; applies snapshots published by the leader. */
+    FOLLOWER
+}
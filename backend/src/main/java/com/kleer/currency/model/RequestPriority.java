@@ -0,0 +1,29 @@
+package com.kleer.currency.model;
+
+/**
+ * Admission priority of an API endpoint.
+ *
+ * Each class may fill only its share of the adaptive concurrency limit, so
+ * as the limit shrinks under load, lower classes are shed first.
+ */
+public enum RequestPriority {
+    /** Customer-facing conversions and quotes. */
+    CRITICAL(1.0),
+    /** Everything else, e.g. reads of rates, analytics and exports. */
+    NORMAL(0.8),
+    /** Rate refreshes and bulk imports. */
+    BATCH(0.5);
+
+    private final double limitShare;
+
+    RequestPriority(double limitShare) {
+        this.limitShare = limitShare;
+    }
+
+    /**
+     * @return Share of the concurrency limit requests of this class may occupy
+     */
+    public double getLimitShare() {
+        return limitShare;
+    }
+}
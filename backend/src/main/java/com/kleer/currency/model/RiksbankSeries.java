@@ -0,0 +1,11 @@
+package com.kleer.currency.model;
+
+/**
+ * A currency and the Riksbank series quoting its price in the base currency.
+ *
+ * @param currency The canonical upper-case currency code (e.g., "EUR")
+ * @param seriesId The Riksbank series id (e.g., "SEKEURPMI"), or null for the base currency
+ * @param unit     Number of currency units each observation is quoted for
+ */
+public record RiksbankSeries(String currency, String seriesId, int unit) {
+}
@@ -0,0 +1,10 @@
+package com.kleer.currency.model;
+
+/**
+ * A currency known to the {@link com.kleer.currency.service.CurrencyRegistry}.
+ *
+ * @param code  The canonical upper-case currency code (e.g., "EUR")
+ * @param index Dense index of the currency in the registry, usable as an array index
+ */
+public record SupportedCurrency(String code, int index) {
+}
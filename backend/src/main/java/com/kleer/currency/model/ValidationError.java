@@ -0,0 +1,54 @@
+package com.kleer.currency.model;
+
+import com.kleer.currency.util.ErrorBody;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Validation errors for conversion requests, each with a pre-built response.
+ *
+ * The JSON error body is serialised once per constant as an {@link ErrorBody},
+ * so rejecting invalid input needs no exception, no map and no serialisation
+ * per request; only the timestamp is written per response.
+ */
+public enum ValidationError {
+
+    AMOUNT_REQUIRED(HttpStatus.BAD_REQUEST, "Invalid request", "Amount is required"),
+    AMOUNT_INVALID(HttpStatus.BAD_REQUEST, "Invalid request", "Amount must be a decimal number"),
+    AMOUNT_NOT_POSITIVE(HttpStatus.BAD_REQUEST, "Invalid request", "Amount must be greater than zero"),
+    AMOUNT_TOO_LARGE(HttpStatus.BAD_REQUEST, "Invalid request", "Amount must have at most 18 integer digits"),
+    AMOUNT_TOO_PRECISE(HttpStatus.BAD_REQUEST, "Invalid request", "Amount must have at most 8 decimals"),
+    SOURCE_CURRENCY_REQUIRED(HttpStatus.BAD_REQUEST, "Invalid request", "Source currency is required"),
+    TARGET_CURRENCY_REQUIRED(HttpStatus.BAD_REQUEST, "Invalid request", "Target currency is required"),
+    SOURCE_CURRENCY_NOT_SUPPORTED(HttpStatus.BAD_REQUEST, "Currency not supported", "Source currency is not supported"),
+    TARGET_CURRENCY_NOT_SUPPORTED(HttpStatus.BAD_REQUEST, "Currency not supported", "Target currency is not supported"),
+    TENANT_NOT_FOUND(HttpStatus.BAD_REQUEST, "Invalid request", "Unknown tenant"),
+    DATE_REQUIRED(HttpStatus.BAD_REQUEST, "Invalid request", "Date is required"),
+    DATE_INVALID(HttpStatus.BAD_REQUEST, "Invalid request", "Date must be an ISO date (yyyy-MM-dd)");
+
+    private final String message;
+    private final ErrorBody body;
+
+    ValidationError(HttpStatus status, String error, String message) {
+        this.message = message;
+        this.body = ErrorBody.of(status, error, message);
+    }
+
+    public HttpStatus getStatus() {
+        return body.getStatus();
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return The error response, with the pre-built body stamped with the current time
+     */
+    public ResponseEntity<byte[]> toResponse() {
+        return ResponseEntity.status(body.getStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body.render());
+    }
+}
@@ -0,0 +1,25 @@
+package com.kleer.currency.model;
+
+/**
+ * Outcome of validating input: either a value or a validation error.
+ *
+ * Used on hot paths instead of exceptions so invalid input costs about
+ * as much as valid input.
+ *
+ * @param value The validated value, or null if invalid
+ * @param error The validation error, or null if valid
+ */
+public record ValidationResult<T>(T value, ValidationError error) {
+
+    public static <T> ValidationResult<T> valid(T value) {
+        return new ValidationResult<>(value, null);
+    }
+
+    public static <T> ValidationResult<T> invalid(ValidationError error) {
+        return new ValidationResult<>(null, error);
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+}
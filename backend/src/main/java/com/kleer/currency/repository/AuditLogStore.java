@@ -0,0 +1,341 @@
+package com.kleer.currency.repository;
+
+import com.kleer.currency.model.ConversionAuditRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, segmented file log of conversion audit records.
+ *
+ * Records are written in batches by a single writer thread. Each record is
+ * length-prefixed and followed by a CRC32 of its payload, so a torn write at
+ * the end of a segment is detected and skipped on replay. When the log is
+ * reopened, a torn tail is truncated before appending so that new records
+ * are not written behind it.
+ *
+ * Record layout:
+ * <pre>
+ * int  payload length
+ * long timestamp millis
+ * long snapshot version
+ * byte[3] from currency, byte[3] to currency
+ * 3 x decimal { int scale, byte length, byte[length] unscaled value }
+ * int  CRC32 of the payload
+ * </pre>
+ */
+@Repository
+@Slf4j
+public class AuditLogStore {
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int CURRENCY_CODE_LENGTH = 3;
+    private static final int MAX_RECORD_BYTES = 512;
+    private static final int MAX_UNSCALED_BYTES = 0xFF;
+    private static final int FIXED_PAYLOAD_BYTES = 2 * Long.BYTES + 2 * CURRENCY_CODE_LENGTH;
+    private static final int DECIMAL_HEADER_BYTES = Integer.BYTES + 1;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private FileChannel channel;
+    private int segmentNumber;
+
+    public AuditLogStore(
+            @Value("${audit.path:./data/audit}") String directory,
+            @Value("${audit.segment-size-mb:64}") long segmentSizeMb,
+            @Value("${audit.fsync:false}") boolean fsync) {
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentSizeMb * 1024 * 1024;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Append a batch of records with a single write. Single writer only.
+     *
+     * @param records Records to append
+     * @throws IOException if the batch cannot be written
+     */
+    public synchronized void append(List<ConversionAuditRecord> records) throws IOException {
+        if (channel == null) {
+            openLatestSegment();
+        }
+
+        int needed = records.size() * MAX_RECORD_BYTES;
+        if (buffer.capacity() < needed) {
+            buffer = ByteBuffer.allocateDirect(Integer.highestOneBit(needed) << 1);
+        }
+
+        buffer.clear();
+        for (ConversionAuditRecord auditRecord : records) {
+            encode(buffer, auditRecord);
+        }
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+        if (channel.position() >= segmentBytes) {
+            rollSegment();
+        }
+    }
+
+    /**
+     * Flush and close the current segment.
+     */
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+            channel = null;
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Check whether a record can be written. Records with currency codes that
+     * are not three ASCII characters or decimals too long for the record
+     * layout are rejected, so callers can drop them before they reach a batch.
+     *
+     * @param auditRecord The record
+     * @return true if the record fits the record layout
+     */
+    public static boolean fits(ConversionAuditRecord auditRecord) {
+        // Early return for currency codes that cannot be encoded
+        if (!isCurrencyCode(auditRecord.fromCurrency()) || !isCurrencyCode(auditRecord.toCurrency())) {
+            return false;
+        }
+
+        int amountLength = encodedLength(auditRecord.amount());
+        int convertedLength = encodedLength(auditRecord.convertedAmount());
+        int rateLength = encodedLength(auditRecord.rate());
+
+        // Early return for a decimal that is missing or too long
+        if (amountLength < 0 || convertedLength < 0 || rateLength < 0) {
+            return false;
+        }
+
+        int payloadLength = FIXED_PAYLOAD_BYTES + amountLength + convertedLength + rateLength;
+        return payloadLength + 2 * Integer.BYTES <= MAX_RECORD_BYTES;
+    }
+
+    /**
+     * @return Encoded length of a decimal, or -1 if it is null or its unscaled value is too long
+     */
+    private static int encodedLength(BigDecimal value) {
+        // Early return for a missing value
+        if (value == null) {
+            return -1;
+        }
+
+        int unscaledLength = value.unscaledValue().bitLength() / 8 + 1;
+        return unscaledLength > MAX_UNSCALED_BYTES ? -1 : DECIMAL_HEADER_BYTES + unscaledLength;
+    }
+
+    /**
+     * Replay all records of an audit log directory in write order.
+     *
+     * @param directory Audit log directory
+     * @param consumer  Receives each intact record
+     * @return Number of records replayed
+     */
+    public static long replay(Path directory, Consumer<ConversionAuditRecord> consumer) throws IOException {
+        long count = 0;
+        for (Path segment : listSegments(directory)) {
+            ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(segment));
+            while (content.remaining() >= Integer.BYTES) {
+                int start = content.position();
+                ConversionAuditRecord auditRecord = decode(content);
+                if (auditRecord == null) {
+                    log.warn("Stopping replay of {} at torn record (offset {})", segment, start);
+                    break;
+                }
+                consumer.accept(auditRecord);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void openLatestSegment() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments(directory);
+        segmentNumber = segments.isEmpty() ? 0 : segmentNumberOf(segments.get(segments.size() - 1));
+        if (!segments.isEmpty()) {
+            truncateTornTail(segments.get(segments.size() - 1));
+        }
+        openSegment();
+    }
+
+    /**
+     * Cut a segment back to its last intact record. Replay stops at the first
+     * torn record, so anything appended behind one would never be read again.
+     */
+    private static void truncateTornTail(Path segment) throws IOException {
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(segment));
+        int validLength = 0;
+        while (content.remaining() >= Integer.BYTES && decode(content) != null) {
+            validLength = content.position();
+        }
+
+        // Early return if the segment ends with an intact record
+        if (validLength == content.capacity()) {
+            return;
+        }
+
+        log.warn("Truncating torn tail of {} from {} to {} bytes", segment, content.capacity(), validLength);
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            file.truncate(validLength);
+            file.force(false);
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        channel.force(false);
+        channel.close();
+        segmentNumber++;
+        openSegment();
+    }
+
+    private void openSegment() throws IOException {
+        Path file = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, segmentNumber, SEGMENT_SUFFIX));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        log.debug("Writing audit log segment {}", file);
+    }
+
+    private static List<Path> listSegments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private static int segmentNumberOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static void encode(ByteBuffer buffer, ConversionAuditRecord auditRecord) {
+        int lengthPosition = buffer.position();
+        buffer.putInt(0);
+        int payloadStart = buffer.position();
+
+        buffer.putLong(auditRecord.timestampMillis());
+        buffer.putLong(auditRecord.snapshotVersion());
+        putCurrency(buffer, auditRecord.fromCurrency());
+        putCurrency(buffer, auditRecord.toCurrency());
+        putDecimal(buffer, auditRecord.amount());
+        putDecimal(buffer, auditRecord.convertedAmount());
+        putDecimal(buffer, auditRecord.rate());
+
+        int payloadLength = buffer.position() - payloadStart;
+        buffer.putInt(lengthPosition, payloadLength);
+        buffer.putInt((int) checksum(buffer, payloadStart, payloadLength));
+    }
+
+    private static ConversionAuditRecord decode(ByteBuffer buffer) {
+        try {
+            int payloadLength = buffer.getInt();
+            if (payloadLength <= 0 || payloadLength > MAX_RECORD_BYTES
+                    || buffer.remaining() < payloadLength + Integer.BYTES) {
+                return null;
+            }
+            int payloadStart = buffer.position();
+            int expected = buffer.getInt(payloadStart + payloadLength);
+            if ((int) checksum(buffer, payloadStart, payloadLength) != expected) {
+                return null;
+            }
+
+            ConversionAuditRecord auditRecord = new ConversionAuditRecord(
+                    buffer.getLong(),
+                    buffer.getLong(),
+                    getCurrency(buffer),
+                    getCurrency(buffer),
+                    getDecimal(buffer),
+                    getDecimal(buffer),
+                    getDecimal(buffer));
+            buffer.position(payloadStart + payloadLength + Integer.BYTES);
+            return auditRecord;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean isCurrencyCode(String currency) {
+        // Early return for a missing code or one of the wrong length
+        if (currency == null || currency.length() != CURRENCY_CODE_LENGTH) {
+            return false;
+        }
+
+        for (int i = 0; i < CURRENCY_CODE_LENGTH; i++) {
+            if (currency.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void putCurrency(ByteBuffer buffer, String currency) {
+        byte[] bytes = currency.getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length != CURRENCY_CODE_LENGTH) {
+            throw new IllegalArgumentException("Invalid currency code: " + currency);
+        }
+        buffer.put(bytes);
+    }
+
+    private static String getCurrency(ByteBuffer buffer) {
+        byte[] bytes = new byte[CURRENCY_CODE_LENGTH];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static void putDecimal(ByteBuffer buffer, BigDecimal value) {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        buffer.putInt(value.scale());
+        buffer.put((byte) unscaled.length);
+        buffer.put(unscaled);
+    }
+
+    private static BigDecimal getDecimal(ByteBuffer buffer) {
+        int scale = buffer.getInt();
+        byte[] unscaled = new byte[buffer.get() & 0xFF];
+        buffer.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static long checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return crc.getValue();
+    }
+}
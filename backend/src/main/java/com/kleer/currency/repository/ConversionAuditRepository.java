@@ -0,0 +1,12 @@
+package com.kleer.currency.repository;
+
+import com.kleer.currency.entity.ConversionAudit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JPA Repository for the database mirror of the conversion audit log.
+ */
+@Repository
+public interface ConversionAuditRepository extends JpaRepository<ConversionAudit, Long> {
+}
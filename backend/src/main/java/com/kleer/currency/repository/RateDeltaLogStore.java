@@ -0,0 +1,290 @@
+package com.kleer.currency.repository;
+
+import com.kleer.currency.model.RateDelta;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file log of rate deltas.
+ *
+ * Each delta is length-prefixed and followed by a CRC32 of its payload, so a
+ * torn write at the end of the file is detected and ignored on load. When the
+ * log is reopened, a torn tail is truncated before appending so that new
+ * deltas are not written behind it. The log is rewritten with only the most recent deltas once it holds twice the
+ * retained number.
+ *
+ * Record layout:
+ * <pre>
+ * int  payload length
+ * long sequence
+ * long last updated, epoch millis (Long.MIN_VALUE if unknown)
+ * int  changed count, changed count x { byte[7] pair key, int scale, byte length, byte[length] unscaled }
+ * int  removed count, removed count x byte[7] pair key
+ * int  CRC32 of the payload
+ * </pre>
+ */
+@Repository
+@Slf4j
+public class RateDeltaLogStore {
+
+    private static final int PAIR_KEY_LENGTH = 7;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private final Path path;
+    private final int retention;
+
+    private FileChannel channel;
+    private int recordCount;
+
+    public RateDeltaLogStore(
+            @Value("${rates.delta.path:./data/deltas/rate-deltas.log}") String path,
+            @Value("${rates.delta.retention:256}") int retention) {
+        this.path = Path.of(path);
+        this.retention = retention;
+    }
+
+    /**
+     * Append a delta, compacting the log first if it has grown too long.
+     *
+     * @param delta Delta to append
+     * @throws IOException if the delta cannot be written
+     */
+    public synchronized void append(RateDelta delta) throws IOException {
+        if (channel == null) {
+            recordCount = truncateTornTail();
+            open();
+        }
+
+        if (recordCount >= 2 * retention) {
+            compact();
+        }
+
+        ByteBuffer buffer = encode(delta);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        recordCount++;
+    }
+
+    /**
+     * Read all intact deltas in append order.
+     *
+     * @return The deltas, empty if the log does not exist
+     */
+    public synchronized List<RateDelta> load() throws IOException {
+        List<RateDelta> deltas = new ArrayList<>();
+        if (!Files.isRegularFile(path)) {
+            return deltas;
+        }
+
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(path));
+        while (content.remaining() >= Integer.BYTES) {
+            RateDelta delta = decode(content);
+            if (delta == null) {
+                log.warn("Ignoring torn rate delta record in {}", path);
+                break;
+            }
+            deltas.add(delta);
+        }
+        return deltas;
+    }
+
+    /**
+     * Remove all deltas, e.g. after a gap in the sequence.
+     */
+    public synchronized void clear() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+        recordCount = 0;
+    }
+
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Cut the log back to its last intact delta. Loading stops at the first
+     * torn record, so anything appended behind one would never be read again.
+     *
+     * @return Number of intact deltas
+     */
+    private int truncateTornTail() throws IOException {
+        // Early return if there is no log yet
+        if (!Files.isRegularFile(path)) {
+            return 0;
+        }
+
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(path));
+        int validLength = 0;
+        int count = 0;
+        while (content.remaining() >= Integer.BYTES && decode(content) != null) {
+            validLength = content.position();
+            count++;
+        }
+
+        // Early return if the log ends with an intact delta
+        if (validLength == content.capacity()) {
+            return count;
+        }
+
+        log.warn("Truncating torn tail of {} from {} to {} bytes", path, content.capacity(), validLength);
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            file.truncate(validLength);
+            file.force(false);
+        }
+        return count;
+    }
+
+    private void compact() throws IOException {
+        List<RateDelta> deltas = load();
+        List<RateDelta> kept = deltas.subList(Math.max(0, deltas.size() - retention), deltas.size());
+
+        Path tempFile = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel temp = FileChannel.open(tempFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (RateDelta delta : kept) {
+                ByteBuffer buffer = encode(delta);
+                while (buffer.hasRemaining()) {
+                    temp.write(buffer);
+                }
+            }
+            temp.force(true);
+        }
+
+        close();
+        Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        open();
+        recordCount = kept.size();
+    }
+
+    private static ByteBuffer encode(RateDelta delta) {
+        int size = 2 * Integer.BYTES + 2 * Long.BYTES + 2 * Integer.BYTES
+                + delta.removed().size() * PAIR_KEY_LENGTH;
+        for (BigDecimal rate : delta.changed().values()) {
+            size += PAIR_KEY_LENGTH + Integer.BYTES + 1 + rate.unscaledValue().bitLength() / 8 + 1;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+
+        buffer.putInt(0);
+        int payloadStart = buffer.position();
+        buffer.putLong(delta.sequence());
+        buffer.putLong(delta.lastUpdated() == null
+                ? NO_TIMESTAMP
+                : delta.lastUpdated().toInstant(ZoneOffset.UTC).toEpochMilli());
+
+        buffer.putInt(delta.changed().size());
+        for (Map.Entry<String, BigDecimal> entry : delta.changed().entrySet()) {
+            putPairKey(buffer, entry.getKey());
+            byte[] unscaled = entry.getValue().unscaledValue().toByteArray();
+            buffer.putInt(entry.getValue().scale());
+            buffer.put((byte) unscaled.length);
+            buffer.put(unscaled);
+        }
+
+        buffer.putInt(delta.removed().size());
+        for (String key : delta.removed()) {
+            putPairKey(buffer, key);
+        }
+
+        int payloadLength = buffer.position() - payloadStart;
+        buffer.putInt(0, payloadLength);
+        buffer.putInt((int) checksum(buffer, payloadStart, payloadLength));
+        buffer.flip();
+        return buffer;
+    }
+
+    private static RateDelta decode(ByteBuffer buffer) {
+        try {
+            int payloadLength = buffer.getInt();
+            if (payloadLength <= 0 || buffer.remaining() < payloadLength + Integer.BYTES) {
+                return null;
+            }
+            int payloadStart = buffer.position();
+            if ((int) checksum(buffer, payloadStart, payloadLength) != buffer.getInt(payloadStart + payloadLength)) {
+                return null;
+            }
+
+            long sequence = buffer.getLong();
+            long lastUpdatedMillis = buffer.getLong();
+
+            int changedCount = buffer.getInt();
+            Map<String, BigDecimal> changed = new HashMap<>(changedCount * 2);
+            for (int i = 0; i < changedCount; i++) {
+                String key = getPairKey(buffer);
+                int scale = buffer.getInt();
+                byte[] unscaled = new byte[buffer.get() & 0xFF];
+                buffer.get(unscaled);
+                changed.put(key, new BigDecimal(new BigInteger(unscaled), scale));
+            }
+
+            int removedCount = buffer.getInt();
+            Set<String> removed = new HashSet<>(removedCount * 2);
+            for (int i = 0; i < removedCount; i++) {
+                removed.add(getPairKey(buffer));
+            }
+
+            buffer.position(payloadStart + payloadLength + Integer.BYTES);
+            LocalDateTime lastUpdated = lastUpdatedMillis == NO_TIMESTAMP
+                    ? null
+                    : LocalDateTime.ofEpochSecond(Math.floorDiv(lastUpdatedMillis, 1000),
+                            (int) Math.floorMod(lastUpdatedMillis, 1000) * 1_000_000, ZoneOffset.UTC);
+            return new RateDelta(sequence, lastUpdated, changed, removed);
+        } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+            return null;
+        }
+    }
+
+    private static void putPairKey(ByteBuffer buffer, String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length != PAIR_KEY_LENGTH) {
+            throw new IllegalArgumentException("Invalid pair key: " + key);
+        }
+        buffer.put(bytes);
+    }
+
+    private static String getPairKey(ByteBuffer buffer) {
+        byte[] bytes = new byte[PAIR_KEY_LENGTH];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static long checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,730 @@
+package com.kleer.currency.repository;
+
+import com.kleer.currency.model.CurrencyPair;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Off-heap, memory-mapped columnar store for historical exchange rates.
+ *
+ * Each currency pair is stored as a series of append-only segment files.
+ * A segment holds two columns: the observation date as an epoch day (int)
+ * and the rate as a fixed-point long with {@link #VALUE_SCALE} decimals.
+ * Columns live in mapped files rather than on the heap, so decades of daily
+ * data for hundreds of pairs cost almost no GC pressure. Lookups by date use
+ * binary search over segments and then over the date column.
+ *
+ * Bulk loads that reach back before the latest stored date rewrite the
+ * pair's series into a staging directory and swap it in. The swap is
+ * recoverable: a complete staging directory is renamed to {@code .merge}
+ * before the live directory is replaced, and {@link #open()} finishes or
+ * discards interrupted swaps. Every merge that changes stored history
+ * records a stamp in the store root, so consumers can tell history
+ * revisions apart across restarts.
+ *
+ * Segment layout:
+ * <pre>
+ * int  magic "KLRH"
+ * int  capacity
+ * int  count
+ * int  reserved
+ * int[capacity]  epoch days (ascending)
+ * long[capacity] rate * 10^VALUE_SCALE
+ * </pre>
+ */
+@Repository
+@Slf4j
+public class RateHistoryStore {
+
+    /**
+     * Number of decimals kept for stored rates, matching the exchange_rate table.
+     */
+    public static final int VALUE_SCALE = 8;
+
+    /**
+     * Returned by {@link #findScaledAsOf} when there is no observation on or before the date.
+     */
+    public static final long NO_OBSERVATION = Long.MIN_VALUE;
+
+    private static final int MAGIC = 0x4B4C5248;
+    private static final int HEADER_BYTES = 16;
+    private static final int COUNT_OFFSET = 8;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+    private static final String STAGING_SUFFIX = ".tmp";
+    private static final String MERGED_SUFFIX = ".merge";
+    private static final String RETIRED_SUFFIX = ".old";
+    private static final String MERGE_STAMP_FILE = "merge.stamp";
+
+    private final Path root;
+    private final int segmentCapacity;
+    private final Map<CurrencyPair, Series> series = new ConcurrentHashMap<>();
+    private final Object mergeStampLock = new Object();
+    private volatile long mergeStamp;
+
+    public RateHistoryStore(
+            @Value("${rates.history.path:./data/history}") String root,
+            @Value("${rates.history.segment-capacity:4096}") int segmentCapacity) {
+        // The long column starts after the 16-byte header and capacity int days; an even
+        // capacity keeps it 8-byte aligned, so each rate is read and written in one access
+        if (segmentCapacity <= 0 || segmentCapacity % 2 != 0) {
+            throw new IllegalArgumentException("Segment capacity must be a positive even number");
+        }
+        this.root = Path.of(root);
+        this.segmentCapacity = segmentCapacity;
+    }
+
+    /**
+     * Callback receiving observations without boxing.
+     */
+    @FunctionalInterface
+    public interface ObservationConsumer {
+        void accept(int epochDay, long scaledRate);
+    }
+
+    /**
+     * Open all existing series below the store root.
+     */
+    @PostConstruct
+    public void open() {
+        // Early return if nothing has been stored yet
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+
+        recoverMerges();
+        mergeStamp = readMergeStamp();
+
+        try (DirectoryStream<Path> directories = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path directory : directories) {
+                CurrencyPair pair = fromDirectoryName(directory.getFileName().toString());
+                if (pair != null) {
+                    series.put(pair, Series.open(directory, segmentCapacity));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open rate history at " + root, e);
+        }
+
+        log.info("Opened rate history with {} series at {}", series.size(), root);
+    }
+
+    /**
+     * Append an observation to a pair's series.
+     *
+     * An observation for the latest stored date replaces that value; older
+     * dates are rejected because segments are append-only.
+     *
+     * @param pair The currency pair
+     * @param date Observation date
+     * @param rate Observed rate
+     * @throws IllegalArgumentException if the date is older than the latest stored date
+     */
+    public void append(CurrencyPair pair, LocalDate date, BigDecimal rate) {
+        appendScaled(pair, (int) date.toEpochDay(), toScaled(rate));
+    }
+
+    /**
+     * Append an observation that is already in fixed-point form.
+     *
+     * @param pair       The currency pair
+     * @param epochDay   Observation date as epoch day
+     * @param scaledRate Rate multiplied by 10^VALUE_SCALE
+     */
+    public void appendScaled(CurrencyPair pair, int epochDay, long scaledRate) {
+        // Retry if a bulk merge replaced the series meanwhile
+        while (!series.computeIfAbsent(pair, this::createSeries).append(epochDay, scaledRate)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Bulk-load observations into a pair's series.
+     *
+     * Observations after the latest stored date are appended. Otherwise the
+     * series is rewritten with the observations merged in, replacing stored
+     * observations of the same date. Repeating a load changes nothing and
+     * does not rewrite the series.
+     *
+     * @param pair        The currency pair
+     * @param epochDays   Observation dates as epoch days, strictly ascending
+     * @param scaledRates Rates multiplied by 10^VALUE_SCALE
+     * @param count       Number of observations to load from the arrays
+     * @return Number of observations that were added or changed a stored rate
+     */
+    public int merge(CurrencyPair pair, int[] epochDays, long[] scaledRates, int count) {
+        // Early return if there is nothing to load
+        if (count == 0) {
+            return 0;
+        }
+
+        Series current = series.computeIfAbsent(pair, this::createSeries);
+        synchronized (current) {
+            // Start over if another merge replaced the series meanwhile
+            if (current.isRetired()) {
+                return merge(pair, epochDays, scaledRates, count);
+            }
+
+            // Fast path: everything is newer than the stored history
+            if (epochDays[0] > current.lastDay()) {
+                for (int i = 0; i < count; i++) {
+                    current.append(epochDays[i], scaledRates[i]);
+                }
+                stampMerge();
+                return count;
+            }
+
+            int stored = current.size();
+            int[] storedDays = new int[stored];
+            long[] storedRates = new long[stored];
+            int[] read = {0};
+            current.forEach(Integer.MIN_VALUE, Integer.MAX_VALUE, (day, rate) -> {
+                storedDays[read[0]] = day;
+                storedRates[read[0]++] = rate;
+            });
+
+            // Merge both sorted runs from the back, loaded observations replacing stored ones on equal dates
+            int[] days = new int[stored + count];
+            long[] rates = new long[stored + count];
+            int out = days.length;
+            int i = stored - 1;
+            int j = count - 1;
+            int changed = 0;
+            while (i >= 0 || j >= 0) {
+                out--;
+                if (j < 0 || (i >= 0 && storedDays[i] > epochDays[j])) {
+                    days[out] = storedDays[i];
+                    rates[out] = storedRates[i--];
+                } else {
+                    if (i >= 0 && storedDays[i] == epochDays[j]) {
+                        if (storedRates[i] != scaledRates[j]) {
+                            changed++;
+                        }
+                        i--;
+                    } else {
+                        changed++;
+                    }
+                    days[out] = epochDays[j];
+                    rates[out] = scaledRates[j--];
+                }
+            }
+
+            // Early return if every observation was already stored
+            if (changed == 0) {
+                return 0;
+            }
+
+            series.put(pair, rewrite(current.directory, days, rates, out));
+            current.retire();
+            stampMerge();
+            return changed;
+        }
+    }
+
+    /**
+     * Find the rate in effect on a date, i.e. the latest observation on or before it.
+     *
+     * @param pair The currency pair
+     * @param date The date
+     * @return The rate, or empty if there is no observation on or before the date
+     */
+    public Optional<BigDecimal> findRateAsOf(CurrencyPair pair, LocalDate date) {
+        Series pairSeries = series.get(pair);
+
+        // Early return for unknown pair
+        if (pairSeries == null) {
+            return Optional.empty();
+        }
+
+        long scaled = pairSeries.findAsOf((int) date.toEpochDay());
+        return scaled == NO_OBSERVATION ? Optional.empty() : Optional.of(fromScaled(scaled));
+    }
+
+    /**
+     * Find the rate in effect on a date in fixed-point form.
+     *
+     * @param pair     The currency pair
+     * @param epochDay The date as epoch day
+     * @return The rate multiplied by 10^VALUE_SCALE, or {@link #NO_OBSERVATION}
+     */
+    public long findScaledAsOf(CurrencyPair pair, int epochDay) {
+        Series pairSeries = series.get(pair);
+        return pairSeries == null ? NO_OBSERVATION : pairSeries.findAsOf(epochDay);
+    }
+
+    /**
+     * @return Epoch day of the pair's latest observation, or Integer.MIN_VALUE if there is none
+     */
+    public int lastEpochDay(CurrencyPair pair) {
+        Series pairSeries = series.get(pair);
+        return pairSeries == null ? Integer.MIN_VALUE : pairSeries.lastDay();
+    }
+
+    /**
+     * Visit all observations of a pair within an inclusive date range, in date order.
+     *
+     * @param pair     The currency pair
+     * @param from     First date (inclusive)
+     * @param to       Last date (inclusive)
+     * @param consumer Receives each observation
+     */
+    public void forEach(CurrencyPair pair, LocalDate from, LocalDate to, ObservationConsumer consumer) {
+        Series pairSeries = series.get(pair);
+        if (pairSeries != null) {
+            pairSeries.forEach((int) from.toEpochDay(), (int) to.toEpochDay(), consumer);
+        }
+    }
+
+    /**
+     * Visit all observations of a pair, in date order.
+     *
+     * @param pair     The currency pair
+     * @param consumer Receives each observation
+     */
+    public void forEach(CurrencyPair pair, ObservationConsumer consumer) {
+        Series pairSeries = series.get(pair);
+        if (pairSeries != null) {
+            pairSeries.forEach(Integer.MIN_VALUE, Integer.MAX_VALUE, consumer);
+        }
+    }
+
+    /**
+     * Get the number of observations stored for a pair.
+     */
+    public int size(CurrencyPair pair) {
+        Series pairSeries = series.get(pair);
+        return pairSeries == null ? 0 : pairSeries.size();
+    }
+
+    /**
+     * Get the stamp of the last merge that changed stored history. Appends of
+     * the latest observation do not count; they come with a new snapshot.
+     *
+     * @return Epoch millis of the last such merge, strictly increasing and kept
+     * across restarts; 0 if history was never merged
+     */
+    public long getMergeStamp() {
+        return mergeStamp;
+    }
+
+    /**
+     * Get all pairs that have stored history.
+     */
+    public Set<CurrencyPair> getPairs() {
+        return Set.copyOf(series.keySet());
+    }
+
+    public static long toScaled(BigDecimal rate) {
+        return rate.setScale(VALUE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromScaled(long scaledRate) {
+        return BigDecimal.valueOf(scaledRate, VALUE_SCALE);
+    }
+
+    private Series createSeries(CurrencyPair pair) {
+        Path directory = root.resolve(pair.from() + "-" + pair.to());
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create series directory " + directory, e);
+        }
+        return Series.open(directory, segmentCapacity);
+    }
+
+    /**
+     * Write a series into a staging directory and swap it in for the live one.
+     */
+    private Series rewrite(Path directory, int[] days, long[] rates, int from) {
+        Path staging = sibling(directory, STAGING_SUFFIX);
+        Path merged = sibling(directory, MERGED_SUFFIX);
+        Path retired = sibling(directory, RETIRED_SUFFIX);
+        try {
+            deleteDirectory(staging);
+            Files.createDirectories(staging);
+            Series staged = Series.open(staging, segmentCapacity);
+            for (int i = from; i < days.length; i++) {
+                staged.append(days[i], rates[i]);
+            }
+            staged.force();
+
+            Files.move(staging, merged, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(directory, retired, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(merged, directory, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to rewrite series " + directory, e);
+        }
+
+        try {
+            deleteDirectory(retired);
+        } catch (IOException e) {
+            log.warn("Failed to delete replaced series {}: {}", retired, e.getMessage());
+        }
+        return Series.open(directory, segmentCapacity);
+    }
+
+    /**
+     * Record a new merge stamp, replacing the stamp file atomically.
+     */
+    private void stampMerge() {
+        synchronized (mergeStampLock) {
+            long stamp = Math.max(System.currentTimeMillis(), mergeStamp + 1);
+            Path file = root.resolve(MERGE_STAMP_FILE);
+            try {
+                Path temp = Files.createTempFile(root, MERGE_STAMP_FILE, STAGING_SUFFIX);
+                Files.writeString(temp, Long.toString(stamp));
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write " + file, e);
+            }
+            mergeStamp = stamp;
+        }
+    }
+
+    private long readMergeStamp() {
+        Path file = root.resolve(MERGE_STAMP_FILE);
+
+        // Early return if history was never merged
+        if (!Files.exists(file)) {
+            return 0;
+        }
+
+        try {
+            return Long.parseLong(Files.readString(file).trim());
+        } catch (IOException | NumberFormatException e) {
+            // Any stamp from now on is newer than exports written before the damage
+            log.warn("Failed to read {}, starting a new history revision: {}", file, e.getMessage());
+            return System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Finish swaps whose staging directory was complete and discard the rest.
+     */
+    private void recoverMerges() {
+        try (DirectoryStream<Path> directories = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path directory : directories) {
+                String name = directory.getFileName().toString();
+                if (name.endsWith(STAGING_SUFFIX)) {
+                    deleteDirectory(directory);
+                } else if (name.endsWith(MERGED_SUFFIX)) {
+                    Path live = root.resolve(name.substring(0, name.length() - MERGED_SUFFIX.length()));
+                    if (Files.exists(live)) {
+                        Files.move(live, sibling(live, RETIRED_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+                    }
+                    Files.move(directory, live, StandardCopyOption.ATOMIC_MOVE);
+                    log.info("Completed interrupted history merge of {}", live.getFileName());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover history merges at " + root, e);
+        }
+
+        try (DirectoryStream<Path> directories = Files.newDirectoryStream(root, "*" + RETIRED_SUFFIX)) {
+            for (Path directory : directories) {
+                deleteDirectory(directory);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to clean up history merges at " + root, e);
+        }
+    }
+
+    private static Path sibling(Path directory, String suffix) {
+        return directory.resolveSibling(directory.getFileName() + suffix);
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        // Early return if there is nothing to delete
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private static CurrencyPair fromDirectoryName(String name) {
+        String[] parts = name.split("-");
+        if (parts.length != 2 || parts[0].length() != 3 || parts[1].length() != 3) {
+            return null;
+        }
+        return new CurrencyPair(parts[0], parts[1]);
+    }
+
+    /**
+     * All segments of one currency pair. Single writer, lock-free readers.
+     */
+    static final class Series {
+
+        private final Path directory;
+        private final int segmentCapacity;
+        private volatile Segment[] segments;
+        private boolean retired;
+
+        private Series(Path directory, int segmentCapacity, Segment[] segments) {
+            this.directory = directory;
+            this.segmentCapacity = segmentCapacity;
+            this.segments = segments;
+        }
+
+        static Series open(Path directory, int segmentCapacity) {
+            List<Path> files = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+                stream.forEach(files::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to list segments in " + directory, e);
+            }
+            files.sort(null);
+
+            Segment[] segments = new Segment[files.size()];
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = Segment.open(files.get(i), segmentCapacity);
+            }
+            return new Series(directory, segmentCapacity, segments);
+        }
+
+        /**
+         * @return False if the series was replaced by a merge and the caller must retry
+         */
+        synchronized boolean append(int epochDay, long scaledRate) {
+            // Early return if a merge replaced this series
+            if (retired) {
+                return false;
+            }
+
+            Segment[] current = segments;
+            Segment last = current.length == 0 ? null : current[current.length - 1];
+
+            if (last != null && last.size() > 0) {
+                int lastDay = last.dayAt(last.size() - 1);
+                if (epochDay < lastDay) {
+                    throw new IllegalArgumentException("Observation for " + LocalDate.ofEpochDay(epochDay)
+                            + " is older than latest stored date " + LocalDate.ofEpochDay(lastDay));
+                }
+                if (epochDay == lastDay) {
+                    last.replaceLast(scaledRate);
+                    return true;
+                }
+            }
+
+            if (last == null || last.isFull()) {
+                Path file = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, current.length, SEGMENT_SUFFIX));
+                last = Segment.open(file, segmentCapacity);
+                Segment[] grown = Arrays.copyOf(current, current.length + 1);
+                grown[current.length] = last;
+                segments = grown;
+            }
+
+            last.append(epochDay, scaledRate);
+            return true;
+        }
+
+        synchronized void retire() {
+            retired = true;
+        }
+
+        synchronized boolean isRetired() {
+            return retired;
+        }
+
+        /**
+         * @return The latest stored day, or {@link Integer#MIN_VALUE} if the series is empty
+         */
+        int lastDay() {
+            Segment[] current = segments;
+            for (int i = current.length - 1; i >= 0; i--) {
+                if (current[i].size() > 0) {
+                    return current[i].dayAt(current[i].size() - 1);
+                }
+            }
+            return Integer.MIN_VALUE;
+        }
+
+        void force() {
+            for (Segment segment : segments) {
+                segment.force();
+            }
+        }
+
+        long findAsOf(int epochDay) {
+            Segment[] current = segments;
+            // Last segment whose first day is on or before the date
+            int low = 0;
+            int high = current.length - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                Segment segment = current[mid];
+                if (segment.size() > 0 && segment.dayAt(0) <= epochDay) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+
+            // Early return if the date is before all observations
+            if (found < 0) {
+                return NO_OBSERVATION;
+            }
+
+            Segment segment = current[found];
+            int index = segment.floorIndex(epochDay);
+            return segment.valueAt(index);
+        }
+
+        void forEach(int fromDay, int toDay, ObservationConsumer consumer) {
+            for (Segment segment : segments) {
+                int count = segment.size();
+                if (count == 0 || segment.dayAt(count - 1) < fromDay) {
+                    continue;
+                }
+                if (segment.dayAt(0) > toDay) {
+                    return;
+                }
+                int start = Math.max(0, segment.floorIndex(fromDay));
+                for (int i = start; i < count; i++) {
+                    int day = segment.dayAt(i);
+                    if (day > toDay) {
+                        return;
+                    }
+                    if (day >= fromDay) {
+                        consumer.accept(day, segment.valueAt(i));
+                    }
+                }
+            }
+        }
+
+        int size() {
+            int total = 0;
+            for (Segment segment : segments) {
+                total += segment.size();
+            }
+            return total;
+        }
+    }
+
+    /**
+     * One memory-mapped, fixed-capacity segment file.
+     */
+    static final class Segment {
+
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private final int valuesOffset;
+        private volatile int count;
+
+        private Segment(MappedByteBuffer buffer, int capacity, int count) {
+            this.buffer = buffer;
+            this.capacity = capacity;
+            this.valuesOffset = HEADER_BYTES + capacity * Integer.BYTES;
+            this.count = count;
+        }
+
+        static Segment open(Path file, int defaultCapacity) {
+            boolean exists = Files.exists(file);
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+                if (exists) {
+                    MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+                    if (header.getInt(0) != MAGIC) {
+                        throw new IllegalStateException("Not a rate history segment: " + file);
+                    }
+                    int capacity = header.getInt(4);
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(capacity));
+                    return new Segment(buffer, capacity, buffer.getInt(COUNT_OFFSET));
+                }
+
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(defaultCapacity));
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, defaultCapacity);
+                buffer.putInt(COUNT_OFFSET, 0);
+                return new Segment(buffer, defaultCapacity, 0);
+
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open segment " + file, e);
+            }
+        }
+
+        private static long fileSize(int capacity) {
+            return HEADER_BYTES + (long) capacity * (Integer.BYTES + Long.BYTES);
+        }
+
+        int size() {
+            return count;
+        }
+
+        boolean isFull() {
+            return count == capacity;
+        }
+
+        int dayAt(int index) {
+            return buffer.getInt(HEADER_BYTES + index * Integer.BYTES);
+        }
+
+        long valueAt(int index) {
+            return buffer.getLong(valuesOffset + index * Long.BYTES);
+        }
+
+        void append(int epochDay, long scaledRate) {
+            int index = count;
+            buffer.putInt(HEADER_BYTES + index * Integer.BYTES, epochDay);
+            buffer.putLong(valuesOffset + index * Long.BYTES, scaledRate);
+            // Publish the count only after the columns are written
+            buffer.putInt(COUNT_OFFSET, index + 1);
+            count = index + 1;
+        }
+
+        void force() {
+            buffer.force();
+        }
+
+        void replaceLast(long scaledRate) {
+            buffer.putLong(valuesOffset + (count - 1) * Long.BYTES, scaledRate);
+        }
+
+        /**
+         * @return Index of the last day on or before the given day, or -1 if none
+         */
+        int floorIndex(int epochDay) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int day = dayAt(mid);
+                if (day <= epochDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high;
+        }
+    }
+}
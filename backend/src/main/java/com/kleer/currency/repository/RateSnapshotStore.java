@@ -0,0 +1,202 @@
+package com.kleer.currency.repository;
+
+import com.kleer.currency.model.CurrencyPair;
+import com.kleer.currency.model.RateSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * File-backed store for the latest rate snapshot.
+ *
+ * Writes a compact binary file on each refresh so a restarted instance can
+ * serve conversions immediately instead of waiting for the next upstream refresh.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * int   magic "KLRS"
+ * short format version
+ * long  snapshot version
+ * long  last updated, epoch millis (UTC)
+ * int   entry count
+ * entry count x { byte[3] from, byte[3] to, byte scale, long unscaled rate }
+ * long  CRC32 of all preceding bytes
+ * </pre>
+ */
+@Repository
+@Slf4j
+public class RateSnapshotStore {
+
+    private static final int MAGIC = 0x4B4C5253;
+    private static final short FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = Integer.BYTES + Short.BYTES + Long.BYTES * 2 + Integer.BYTES;
+    private static final int ENTRY_BYTES = 3 + 3 + 1 + Long.BYTES;
+    private static final int CURRENCY_CODE_LENGTH = 3;
+
+    private final Path path;
+
+    public RateSnapshotStore(@Value("${rates.snapshot.path:./data/rates.snapshot}") String path) {
+        this.path = Path.of(path);
+    }
+
+    /**
+     * Atomically replace the snapshot file with the given snapshot.
+     *
+     * @param snapshot Snapshot to write
+     * @throws IOException if the file cannot be written
+     */
+    public void write(RateSnapshot snapshot) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(encode(snapshot));
+
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path tempFile = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read the snapshot file using a memory-mapped buffer.
+     *
+     * @return The stored snapshot, or empty if no valid snapshot file exists
+     */
+    public Optional<RateSnapshot> read() {
+        // Early return if no snapshot has been written yet
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return Optional.of(decode(buffer));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring rate snapshot {}: {}", path, e.getMessage());
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("Failed to read rate snapshot {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Encode a snapshot in the file layout.
+     *
+     * @param snapshot Snapshot to encode
+     * @return The encoded snapshot
+     */
+    public static byte[] encode(RateSnapshot snapshot) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + snapshot.rates().size() * ENTRY_BYTES + Long.BYTES);
+        buffer.putInt(MAGIC);
+        buffer.putShort(FORMAT_VERSION);
+        buffer.putLong(snapshot.version());
+        buffer.putLong(snapshot.lastUpdated() == null
+                ? 0L
+                : snapshot.lastUpdated().toInstant(ZoneOffset.UTC).toEpochMilli());
+        buffer.putInt(snapshot.rates().size());
+
+        for (Map.Entry<String, BigDecimal> entry : snapshot.rates().entrySet()) {
+            CurrencyPair pair = CurrencyPair.fromKey(entry.getKey());
+            putCurrency(buffer, pair.from());
+            putCurrency(buffer, pair.to());
+            buffer.put((byte) entry.getValue().scale());
+            buffer.putLong(entry.getValue().unscaledValue().longValueExact());
+        }
+
+        buffer.putLong(checksum(buffer, buffer.position()));
+        return buffer.array();
+    }
+
+    /**
+     * Decode a snapshot in the file layout.
+     *
+     * @param buffer Encoded snapshot, from position 0 to its limit
+     * @return The snapshot
+     * @throws IllegalArgumentException if the bytes are truncated, corrupt or of an unknown format
+     */
+    public static RateSnapshot decode(ByteBuffer buffer) {
+        int size = buffer.limit();
+        if (size < HEADER_BYTES + Long.BYTES) {
+            throw new IllegalArgumentException("truncated");
+        }
+
+        if (buffer.getInt(0) != MAGIC || buffer.getShort(Integer.BYTES) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("unknown format");
+        }
+
+        buffer.position(Integer.BYTES + Short.BYTES);
+        long version = buffer.getLong();
+        long lastUpdatedMillis = buffer.getLong();
+        int count = buffer.getInt();
+        if (count < 0 || size != HEADER_BYTES + (long) count * ENTRY_BYTES + Long.BYTES) {
+            throw new IllegalArgumentException("inconsistent size");
+        }
+
+        // Checksum the mapped bytes in place rather than copying them to the heap
+        int contentLength = size - Long.BYTES;
+        if (checksum(buffer, contentLength) != buffer.getLong(contentLength)) {
+            throw new IllegalArgumentException("bad checksum");
+        }
+
+        Map<String, BigDecimal> rates = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            String from = getCurrency(buffer);
+            String to = getCurrency(buffer);
+            int scale = buffer.get();
+            BigDecimal rate = new BigDecimal(BigInteger.valueOf(buffer.getLong()), scale);
+            rates.put(new CurrencyPair(from, to).toKey(), rate);
+        }
+
+        LocalDateTime lastUpdated = lastUpdatedMillis == 0L
+                ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(lastUpdatedMillis), ZoneOffset.UTC);
+        return new RateSnapshot(version, lastUpdated, rates);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    private static void putCurrency(ByteBuffer buffer, String currency) {
+        byte[] bytes = currency.getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length != CURRENCY_CODE_LENGTH) {
+            throw new IllegalArgumentException("Invalid currency code: " + currency);
+        }
+        buffer.put(bytes);
+    }
+
+    private static String getCurrency(ByteBuffer buffer) {
+        byte[] bytes = new byte[CURRENCY_CODE_LENGTH];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static long checksum(ByteBuffer buffer, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, length));
+        return crc.getValue();
+    }
+}
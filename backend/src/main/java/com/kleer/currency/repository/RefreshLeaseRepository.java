@@ -0,0 +1,88 @@
+package com.kleer.currency.repository;
+
+import com.kleer.currency.entity.RefreshLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * JPA Repository for RefreshLease entity.
+ *
+ * All state changes are single conditional UPDATE statements, so they are
+ * atomic on any database without explicit row locks.
+ */
+@Repository
+public interface RefreshLeaseRepository extends JpaRepository<RefreshLease, String> {
+
+    /**
+     * Create the lease row if it does not exist yet.
+     *
+     * @param name Lease name
+     * @throws org.springframework.dao.DataIntegrityViolationException if another node created it first
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO refresh_lease (name, owner, token, expires_at_millis, rate_version) "
+            + "VALUES (:name, NULL, 0, 0, 0)", nativeQuery = true)
+    void create(@Param("name") String name);
+
+    /**
+     * Acquire or renew a lease. Succeeds if the caller already owns the lease
+     * or the lease has expired; the token is incremented on a change of owner.
+     *
+     * @return 1 if the caller now holds the lease, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshLease l SET "
+            + "l.token = CASE WHEN l.owner = :owner THEN l.token ELSE l.token + 1 END, "
+            + "l.owner = :owner, l.expiresAtMillis = :expiresAt "
+            + "WHERE l.name = :name AND (l.owner = :owner OR l.expiresAtMillis < :now)")
+    int acquire(@Param("name") String name, @Param("owner") String owner,
+                @Param("now") long now, @Param("expiresAt") long expiresAt);
+
+    /**
+     * Let the lease expire immediately so another node can take over.
+     *
+     * @return 1 if the caller held the lease
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshLease l SET l.expiresAtMillis = 0 "
+            + "WHERE l.name = :name AND l.owner = :owner AND l.token = :token")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("token") long token);
+
+    /**
+     * Increment the published rate version, fenced by the owner's token.
+     * The new version is at least {@code floor + 1}, so it is never below a
+     * version the caller already serves.
+     *
+     * @return 1 if the caller still holds an unexpired lease with this token, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshLease l SET l.rateVersion = "
+            + "CASE WHEN l.rateVersion > :floor THEN l.rateVersion + 1 ELSE :floor + 1 END "
+            + "WHERE l.name = :name AND l.owner = :owner AND l.token = :token AND l.expiresAtMillis >= :now")
+    int incrementRateVersion(@Param("name") String name, @Param("owner") String owner,
+                             @Param("token") long token, @Param("now") long now, @Param("floor") long floor);
+
+    /**
+     * @param name Lease name
+     * @return Token of the current owner
+     */
+    @Query("SELECT l.token FROM RefreshLease l WHERE l.name = :name")
+    Optional<Long> findToken(@Param("name") String name);
+
+    /**
+     * @param name Lease name
+     * @return Last rate version published under the lease
+     */
+    @Query("SELECT l.rateVersion FROM RefreshLease l WHERE l.name = :name")
+    Optional<Long> findRateVersion(@Param("name") String name);
+}
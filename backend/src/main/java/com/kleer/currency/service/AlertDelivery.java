@@ -0,0 +1,17 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.dto.AlertNotification;
+
+/**
+ * Delivers triggered alerts to subscribers.
+ *
+ * Called on the refresh path, so implementations must hand notifications off
+ * without blocking on the subscriber.
+ */
+public interface AlertDelivery {
+
+    /**
+     * @param notification The triggered alert
+     */
+    void deliver(AlertNotification notification);
+}
@@ -0,0 +1,240 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.dto.AlertDto;
+import com.kleer.currency.dto.AlertNotification;
+import com.kleer.currency.exception.CurrencyNotSupportedException;
+import com.kleer.currency.model.AlertDirection;
+import com.kleer.currency.model.AlertSubscription;
+import com.kleer.currency.model.CurrencyPair;
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.model.RateSnapshotPublishedEvent;
+import com.kleer.currency.model.SupportedCurrency;
+import com.kleer.currency.repository.RateHistoryStore;
+import com.kleer.currency.util.CallbackUrls;
+import com.kleer.currency.util.ThresholdIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service managing rate-threshold alerts.
+ *
+ * Subscriptions are indexed per currency pair in two sorted threshold indexes,
+ * one for upward and one for downward crossings. When a refresh publishes a
+ * new snapshot, each pair's move from the previous to the new rate is a range
+ * lookup that returns exactly the crossed thresholds, which are handed to the
+ * {@link AlertDelivery}.
+ */
+@Service
+@Slf4j
+public class AlertService {
+
+    private final CurrencyRegistry currencyRegistry;
+    private final AlertDelivery alertDelivery;
+    private final int maxSubscriptions;
+
+    private final Map<Long, AlertSubscription> subscriptions = new ConcurrentHashMap<>();
+    private final Map<CurrencyPair, PairAlerts> alertsByPair = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptionCount = new AtomicInteger();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    public AlertService(
+            CurrencyRegistry currencyRegistry,
+            AlertDelivery alertDelivery,
+            @Value("${alerts.max-subscriptions:100000}") int maxSubscriptions) {
+        this.currencyRegistry = currencyRegistry;
+        this.alertDelivery = alertDelivery;
+        this.maxSubscriptions = maxSubscriptions;
+    }
+
+    /**
+     * Upward and downward threshold indexes of one pair.
+     */
+    private record PairAlerts(ThresholdIndex<AlertSubscription> up, ThresholdIndex<AlertSubscription> down) {
+
+        PairAlerts() {
+            this(new ThresholdIndex<>(), new ThresholdIndex<>());
+        }
+    }
+
+    /**
+     * Register an alert.
+     *
+     * @param request Pair, threshold, direction (defaults to BOTH) and optional callback URL
+     * @return The registered alert with its id
+     * @throws CurrencyNotSupportedException if a currency is not supported
+     * @throws IllegalArgumentException if the request is otherwise invalid
+     */
+    public AlertDto register(AlertDto request) {
+        SupportedCurrency from = currencyRegistry.resolve(request.getFromCurrency());
+        SupportedCurrency to = currencyRegistry.resolve(request.getToCurrency());
+
+        // Early return for invalid requests
+        if (from == null) {
+            throw new CurrencyNotSupportedException(request.getFromCurrency(), currencyRegistry.getCodes());
+        }
+
+        if (to == null) {
+            throw new CurrencyNotSupportedException(request.getToCurrency(), currencyRegistry.getCodes());
+        }
+
+        if (from.equals(to)) {
+            throw new IllegalArgumentException("Source and target currency must differ");
+        }
+
+        if (request.getThreshold() == null || request.getThreshold().signum() <= 0) {
+            throw new IllegalArgumentException("Threshold must be greater than zero");
+        }
+
+        if (request.getCallbackUrl() != null && !CallbackUrls.isPublicHttpUrl(request.getCallbackUrl())) {
+            throw new IllegalArgumentException("Callback URL must be an absolute http(s) URL of a public host");
+        }
+
+        AlertDirection direction = request.getDirection() == null ? AlertDirection.BOTH : request.getDirection();
+        long scaledThreshold = RateHistoryStore.toScaled(request.getThreshold());
+
+        if (!reserveSlot()) {
+            throw new IllegalArgumentException("Maximum number of alerts reached");
+        }
+
+        AlertSubscription subscription = new AlertSubscription(
+                nextId.getAndIncrement(),
+                new CurrencyPair(from.code(), to.code()),
+                request.getThreshold(),
+                scaledThreshold,
+                direction,
+                request.getCallbackUrl());
+
+        PairAlerts pairAlerts = alertsByPair.computeIfAbsent(subscription.pair(), p -> new PairAlerts());
+        if (direction.matchesUp()) {
+            pairAlerts.up().add(subscription.scaledThreshold(), subscription);
+        }
+        if (direction.matchesDown()) {
+            pairAlerts.down().add(subscription.scaledThreshold(), subscription);
+        }
+        subscriptions.put(subscription.id(), subscription);
+
+        log.debug("Registered alert {} on {} at {}", subscription.id(), subscription.pair().toKey(), subscription.threshold());
+        return toDto(subscription);
+    }
+
+    /**
+     * Remove an alert.
+     *
+     * @param id Alert id
+     * @return true if the alert existed
+     */
+    public boolean unregister(long id) {
+        AlertSubscription subscription = subscriptions.remove(id);
+
+        // Early return if the alert does not exist
+        if (subscription == null) {
+            return false;
+        }
+
+        PairAlerts pairAlerts = alertsByPair.get(subscription.pair());
+        pairAlerts.up().remove(subscription.scaledThreshold(), subscription);
+        pairAlerts.down().remove(subscription.scaledThreshold(), subscription);
+        subscriptionCount.decrementAndGet();
+        return true;
+    }
+
+    public Optional<AlertDto> getAlert(long id) {
+        return Optional.ofNullable(subscriptions.get(id)).map(this::toDto);
+    }
+
+    public List<AlertDto> getAlerts() {
+        return subscriptions.values().stream()
+                .sorted(Comparator.comparingLong(AlertSubscription::id))
+                .map(this::toDto)
+                .toList();
+    }
+
+    /**
+     * Evaluate all alerts against the rate moves of a newly published snapshot.
+     *
+     * @param event The published snapshot and its predecessor
+     */
+    @EventListener
+    public void onSnapshotPublished(RateSnapshotPublishedEvent event) {
+        RateSnapshot previous = event.previous();
+        RateSnapshot current = event.current();
+
+        for (Map.Entry<CurrencyPair, PairAlerts> entry : alertsByPair.entrySet()) {
+            CurrencyPair pair = entry.getKey();
+            BigDecimal previousRate = previous.getRate(pair);
+            BigDecimal rate = current.getRate(pair);
+
+            // Early continue if there is no move to evaluate
+            if (previousRate == null || rate == null) {
+                continue;
+            }
+
+            long previousScaled = RateHistoryStore.toScaled(previousRate);
+            long scaled = RateHistoryStore.toScaled(rate);
+            PairAlerts pairAlerts = entry.getValue();
+            pairAlerts.up().forEachCrossedUpward(previousScaled, scaled,
+                    subscription -> notify(subscription, AlertDirection.UP, previousRate, rate, current));
+            pairAlerts.down().forEachCrossedDownward(previousScaled, scaled,
+                    subscription -> notify(subscription, AlertDirection.DOWN, previousRate, rate, current));
+        }
+    }
+
+    private void notify(AlertSubscription subscription, AlertDirection crossing,
+                        BigDecimal previousRate, BigDecimal rate, RateSnapshot snapshot) {
+        AlertNotification notification = AlertNotification.builder()
+                .alertId(subscription.id())
+                .fromCurrency(subscription.pair().from())
+                .toCurrency(subscription.pair().to())
+                .threshold(subscription.threshold())
+                .direction(crossing)
+                .previousRate(previousRate)
+                .rate(rate)
+                .snapshotVersion(snapshot.version())
+                .lastUpdated(snapshot.lastUpdated())
+                .callbackUrl(subscription.callbackUrl())
+                .build();
+
+        try {
+            alertDelivery.deliver(notification);
+        } catch (RuntimeException e) {
+            log.warn("Failed to deliver alert {}: {}", subscription.id(), e.getMessage());
+        }
+    }
+
+    private AlertDto toDto(AlertSubscription subscription) {
+        return AlertDto.builder()
+                .id(subscription.id())
+                .fromCurrency(subscription.pair().from())
+                .toCurrency(subscription.pair().to())
+                .threshold(subscription.threshold())
+                .direction(subscription.direction())
+                .callbackUrl(subscription.callbackUrl())
+                .build();
+    }
+
+    /**
+     * Take one of the subscription slots, so concurrent registrations cannot
+     * overshoot the limit.
+     */
+    private boolean reserveSlot() {
+        int count;
+        do {
+            count = subscriptionCount.get();
+            if (count >= maxSubscriptions) {
+                return false;
+            }
+        } while (!subscriptionCount.compareAndSet(count, count + 1));
+        return true;
+    }
+}
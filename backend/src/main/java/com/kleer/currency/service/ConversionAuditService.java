@@ -0,0 +1,232 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.dto.ConversionResponse;
+import com.kleer.currency.entity.ConversionAudit;
+import com.kleer.currency.model.ConversionAuditRecord;
+import com.kleer.currency.repository.AuditLogStore;
+import com.kleer.currency.repository.ConversionAuditRepository;
+import com.kleer.currency.util.MpscRingBuffer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Service recording every completed conversion for compliance.
+ *
+ * Request threads publish records into a lock-free ring buffer; a single
+ * writer thread drains it in batches to the append-only {@link AuditLogStore}
+ * and, optionally, mirrors each batch to the database with one bulk insert.
+ * When the buffer is full the overflow policy decides whether the request
+ * thread drops the record or waits (up to a bound) for space. While idle the
+ * writer polls less often, down to every few milliseconds.
+ */
+@Service
+@Slf4j
+public class ConversionAuditService {
+
+    /**
+     * What a request thread does when the audit buffer is full.
+     */
+    public enum OverflowPolicy {
+        /** Drop the record and count it. Never delays the request. */
+        DROP,
+        /** Wait for space up to the configured timeout, then drop. */
+        BLOCK
+    }
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final AuditLogStore auditLogStore;
+    private final ConversionAuditRepository auditRepository;
+    private final boolean enabled;
+    private final boolean mirrorToDatabase;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final int batchSize;
+    private final MpscRingBuffer<ConversionAuditRecord> buffer;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public ConversionAuditService(
+            AuditLogStore auditLogStore,
+            ConversionAuditRepository auditRepository,
+            @Value("${audit.enabled:true}") boolean enabled,
+            @Value("${audit.db-mirror.enabled:false}") boolean mirrorToDatabase,
+            @Value("${audit.overflow-policy:DROP}") OverflowPolicy overflowPolicy,
+            @Value("${audit.block-timeout-ms:5}") long blockTimeoutMs,
+            @Value("${audit.batch-size:512}") int batchSize,
+            @Value("${audit.buffer-capacity:65536}") int bufferCapacity) {
+        this.auditLogStore = auditLogStore;
+        this.auditRepository = auditRepository;
+        this.enabled = enabled;
+        this.mirrorToDatabase = mirrorToDatabase;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        this.batchSize = batchSize;
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+        // Early return if auditing is disabled
+        if (!enabled) {
+            return;
+        }
+
+        running = true;
+        writerThread = new Thread(this::runWriter, "conversion-audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // Early return if the writer never started
+        if (writerThread == null) {
+            return;
+        }
+
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Record a completed conversion priced from a specific snapshot version.
+     * Called on the request path.
+     *
+     * @param response        The conversion result
+     * @param snapshotVersion Version of the snapshot the rate came from
+     */
+    public void record(ConversionResponse response, long snapshotVersion) {
+        // Early return if auditing is disabled
+        if (!enabled) {
+            return;
+        }
+
+        ConversionAuditRecord auditRecord = new ConversionAuditRecord(
+                System.currentTimeMillis(),
+                snapshotVersion,
+                response.getFromCurrency(),
+                response.getToCurrency(),
+                response.getOriginalAmount(),
+                response.getConvertedAmount(),
+                response.getRate());
+
+        // Early return for a record the log cannot hold, so it never fails a whole batch;
+        // validated amounts always fit, so this is counted rather than logged per request
+        if (!AuditLogStore.fits(auditRecord)) {
+            dropped.incrementAndGet();
+            return;
+        }
+
+        // Fast path: buffer has space
+        if (buffer.offer(auditRecord)) {
+            return;
+        }
+
+        if (overflowPolicy == OverflowPolicy.BLOCK && offerWithTimeout(auditRecord)) {
+            return;
+        }
+
+        dropped.incrementAndGet();
+    }
+
+    /**
+     * @return Number of records dropped because the buffer was full or the record did not fit the log
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return Number of records written to the audit log
+     */
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    private boolean offerWithTimeout(ConversionAuditRecord auditRecord) {
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+            if (buffer.offer(auditRecord)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void runWriter() {
+        List<ConversionAuditRecord> batch = new ArrayList<>(batchSize);
+        long idleParkNanos = IDLE_PARK_NANOS;
+        while (running || buffer.size() > 0) {
+            buffer.drain(batch::add, batchSize);
+
+            // Back off while idle so a node without traffic wakes the writer a few hundred times a second
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(idleParkNanos);
+                idleParkNanos = Math.min(idleParkNanos * 2, MAX_IDLE_PARK_NANOS);
+                continue;
+            }
+
+            idleParkNanos = IDLE_PARK_NANOS;
+            writeBatch(batch);
+            batch.clear();
+        }
+
+        try {
+            auditLogStore.close();
+        } catch (IOException e) {
+            log.warn("Failed to close audit log: {}", e.getMessage());
+        }
+    }
+
+    private void writeBatch(List<ConversionAuditRecord> batch) {
+        try {
+            auditLogStore.append(batch);
+            written.addAndGet(batch.size());
+        } catch (IOException | RuntimeException e) {
+            dropped.addAndGet(batch.size());
+            log.error("Failed to write {} audit records: {}", batch.size(), e.getMessage());
+            return;
+        }
+
+        // Early return if the database mirror is disabled
+        if (!mirrorToDatabase) {
+            return;
+        }
+
+        try {
+            auditRepository.saveAll(batch.stream().map(this::toEntity).toList());
+        } catch (RuntimeException e) {
+            log.warn("Failed to mirror {} audit records to database: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private ConversionAudit toEntity(ConversionAuditRecord auditRecord) {
+        return ConversionAudit.builder()
+                .convertedAt(Instant.ofEpochMilli(auditRecord.timestampMillis()))
+                .snapshotVersion(auditRecord.snapshotVersion())
+                .fromCurrency(auditRecord.fromCurrency())
+                .toCurrency(auditRecord.toCurrency())
+                .amount(auditRecord.amount())
+                .convertedAmount(auditRecord.convertedAmount())
+                .rate(auditRecord.rate())
+                .build();
+    }
+}
@@ -0,0 +1,227 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.model.ConversionRequest;
+import com.kleer.currency.model.SupportedCurrency;
+import com.kleer.currency.model.ValidationError;
+import com.kleer.currency.model.ValidationResult;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+
+/**
+ * Single validation and normalisation stage for conversion requests.
+ *
+ * Parses the amount and resolves both currency codes against the
+ * {@link CurrencyRegistry} exactly once. Invalid input is reported as a
+ * {@link ValidationResult} rather than an exception.
+ */
+@Component
+public class ConversionRequestValidator {
+
+    private static final int MAX_AMOUNT_LENGTH = 32;
+    private static final int MAX_EXPONENT_DIGITS = 3;
+
+    // Any accepted amount times any stored rate (at most 12 integer digits)
+    // fits the audit log and the audit table's NUMERIC(38, 8) columns
+    private static final int MAX_INTEGER_DIGITS = 18;
+    private static final int MAX_DECIMALS = 8;
+
+    private final CurrencyRegistry currencyRegistry;
+
+    public ConversionRequestValidator(CurrencyRegistry currencyRegistry) {
+        this.currencyRegistry = currencyRegistry;
+    }
+
+    /**
+     * Validate a conversion request with a raw, unparsed amount.
+     *
+     * @param amount       Raw amount, e.g. from a query parameter
+     * @param fromCurrency Raw source currency code
+     * @param toCurrency   Raw target currency code
+     * @return The normalised request, or the first validation error
+     */
+    public ValidationResult<ConversionRequest> validate(String amount, String fromCurrency, String toCurrency) {
+        // Early return for missing amount
+        if (amount == null || amount.isEmpty()) {
+            return ValidationResult.invalid(ValidationError.AMOUNT_REQUIRED);
+        }
+
+        BigDecimal parsed = parseAmount(amount);
+
+        // Early return for malformed amount
+        if (parsed == null) {
+            return ValidationResult.invalid(ValidationError.AMOUNT_INVALID);
+        }
+
+        return validate(parsed, fromCurrency, toCurrency);
+    }
+
+    /**
+     * Validate a conversion request with an already parsed amount.
+     *
+     * @param amount       Amount to convert
+     * @param fromCurrency Raw source currency code
+     * @param toCurrency   Raw target currency code
+     * @return The normalised request, or the first validation error
+     */
+    public ValidationResult<ConversionRequest> validate(BigDecimal amount, String fromCurrency, String toCurrency) {
+        // Early return for null amount
+        if (amount == null) {
+            return ValidationResult.invalid(ValidationError.AMOUNT_REQUIRED);
+        }
+
+        // Early return for zero or negative amount
+        if (amount.signum() <= 0) {
+            return ValidationResult.invalid(ValidationError.AMOUNT_NOT_POSITIVE);
+        }
+
+        // Early return for amounts too large or too precise to convert and audit
+        if (amount.precision() - amount.scale() > MAX_INTEGER_DIGITS) {
+            return ValidationResult.invalid(ValidationError.AMOUNT_TOO_LARGE);
+        }
+
+        if (amount.scale() > MAX_DECIMALS && amount.stripTrailingZeros().scale() > MAX_DECIMALS) {
+            return ValidationResult.invalid(ValidationError.AMOUNT_TOO_PRECISE);
+        }
+
+        // Early return for null or blank currencies
+        if (fromCurrency == null || fromCurrency.isBlank()) {
+            return ValidationResult.invalid(ValidationError.SOURCE_CURRENCY_REQUIRED);
+        }
+
+        if (toCurrency == null || toCurrency.isBlank()) {
+            return ValidationResult.invalid(ValidationError.TARGET_CURRENCY_REQUIRED);
+        }
+
+        SupportedCurrency from = currencyRegistry.resolve(fromCurrency);
+
+        // Early return for unsupported source currency
+        if (from == null) {
+            return ValidationResult.invalid(ValidationError.SOURCE_CURRENCY_NOT_SUPPORTED);
+        }
+
+        SupportedCurrency to = currencyRegistry.resolve(toCurrency);
+
+        // Early return for unsupported target currency
+        if (to == null) {
+            return ValidationResult.invalid(ValidationError.TARGET_CURRENCY_NOT_SUPPORTED);
+        }
+
+        return ValidationResult.valid(new ConversionRequest(amount, from, to));
+    }
+
+    /**
+     * Parse an ISO date (yyyy-MM-dd), e.g. from a query parameter, without throwing.
+     *
+     * @param raw Raw date
+     * @return The date, or null if the input is not an ISO date
+     */
+    public static LocalDate parseDate(String raw) {
+        String date = raw.trim();
+
+        // Early return for anything but yyyy-MM-dd
+        if (date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+            return null;
+        }
+        int year = digits(date, 0, 4);
+        int month = digits(date, 5, 7);
+        int day = digits(date, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1) {
+            return null;
+        }
+
+        // Early return for a day past the end of the month, e.g. 2025-02-29
+        if (day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+
+        return LocalDate.of(year, month, day);
+    }
+
+    private static int digits(String raw, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = raw.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Parse a decimal amount ([+-]digits[.digits][e[+-]digits]) without throwing.
+     *
+     * Surrounding whitespace and exponent notation are accepted, as they were
+     * when Spring bound the parameter to a {@link BigDecimal}. Exponents are
+     * limited to {@value #MAX_EXPONENT_DIGITS} digits; larger ones only
+     * describe amounts with thousands of digits.
+     *
+     * @return The amount, or null if the input is not a decimal number
+     */
+    static BigDecimal parseAmount(String raw) {
+        int end = raw.length();
+        while (end > 0 && Character.isWhitespace(raw.charAt(end - 1))) {
+            end--;
+        }
+        int start = 0;
+        while (start < end && Character.isWhitespace(raw.charAt(start))) {
+            start++;
+        }
+
+        // Early return for blank or oversized input
+        if (start == end || end - start > MAX_AMOUNT_LENGTH) {
+            return null;
+        }
+
+        int index = start;
+        if (raw.charAt(index) == '+' || raw.charAt(index) == '-') {
+            index++;
+        }
+
+        int digits = 0;
+        boolean seenDot = false;
+        for (; index < end; index++) {
+            char c = raw.charAt(index);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c == '.' && !seenDot) {
+                seenDot = true;
+            } else if ((c == 'e' || c == 'E') && digits > 0) {
+                break;
+            } else {
+                return null;
+            }
+        }
+
+        // Early return for a mantissa without digits
+        if (digits == 0) {
+            return null;
+        }
+
+        // Optional exponent
+        if (index < end) {
+            index++;
+            if (index < end && (raw.charAt(index) == '+' || raw.charAt(index) == '-')) {
+                index++;
+            }
+
+            int exponentDigits = end - index;
+            if (exponentDigits == 0 || exponentDigits > MAX_EXPONENT_DIGITS) {
+                return null;
+            }
+            for (; index < end; index++) {
+                char c = raw.charAt(index);
+                if (c < '0' || c > '9') {
+                    return null;
+                }
+            }
+        }
+
+        return new BigDecimal(raw.substring(start, end));
+    }
+}
@@ -1,89 +1,205 @@
 package com.kleer.currency.service;
 
 import com.kleer.currency.dto.ConversionResponse;
+import com.kleer.currency.dto.ConvertedAmountDto;
+import com.kleer.currency.dto.FanOutConversionResponse;
 import com.kleer.currency.entity.ExchangeRate;
 import com.kleer.currency.exception.CurrencyNotSupportedException;
+import com.kleer.currency.exception.ExchangeRateNotFoundException;
+import com.kleer.currency.model.ConversionRequest;
+import com.kleer.currency.model.PriceTable;
+import com.kleer.currency.model.Quote;
+import com.kleer.currency.model.RateMatrix;
+import com.kleer.currency.model.SupportedCurrency;
+import com.kleer.currency.model.ValidationResult;
+import com.kleer.currency.util.ConversionKernel;
+import com.kleer.currency.util.SingleFlight;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service for performing currency conversions.
  * 
- * Handles conversion logic with comprehensive validation using early returns.
+ * Handles conversion logic; input validation is delegated to
+ * {@link ConversionRequestValidator}. Rates come from the published
+ * {@link RateMatrix}, so a refresh in progress is never visible half-way;
+ * pairs it lacks are read from the database, with concurrent lookups of
+ * the same pair coalesced into one.
  */
 @Service
 @Slf4j
 public class CurrencyConversionService {
 
     private final ExchangeRateService exchangeRateService;
+    private final ConversionRequestValidator requestValidator;
+    private final CurrencyRegistry currencyRegistry;
+    private final ConversionAuditService auditService;
+    private final RateMatrixService rateMatrixService;
+    private final ConversionKernel conversionKernel;
+
+    private final SingleFlight<RateLookupKey, BigDecimal> rateLookups = new SingleFlight<>();
+    private final Map<FanOutKey, FanOutConversionResponse> fanOutCache;
+    private volatile long fanOutCacheVersion;
 
-    private static final List<String> SUPPORTED_CURRENCIES = List.of("SEK", "EUR", "USD");
     private static final int DECIMAL_SCALE = 2;
 
-    public CurrencyConversionService(ExchangeRateService exchangeRateService) {
+    public CurrencyConversionService(
+            ExchangeRateService exchangeRateService,
+            ConversionRequestValidator requestValidator,
+            CurrencyRegistry currencyRegistry,
+            ConversionAuditService auditService,
+            RateMatrixService rateMatrixService,
+            @Value("${conversion.fan-out.cache-size:1024}") int fanOutCacheSize,
+            @Value("${conversion.bulk.vectorized:true}") boolean vectorized) {
         this.exchangeRateService = exchangeRateService;
+        this.requestValidator = requestValidator;
+        this.currencyRegistry = currencyRegistry;
+        this.auditService = auditService;
+        this.rateMatrixService = rateMatrixService;
+        this.fanOutCache = Collections.synchronizedMap(new LinkedHashMap<FanOutKey, FanOutConversionResponse>(16, 0.75f, true) {
+            // Least recently used entry goes once the cache is full
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<FanOutKey, FanOutConversionResponse> eldest) {
+                return size() > fanOutCacheSize;
+            }
+        });
+        this.conversionKernel = ConversionKernel.create(vectorized);
+        log.info("Using {} bulk conversion kernel", conversionKernel.name());
+    }
+
+    /**
+     * Key of a database rate lookup. Lookups only coalesce within one snapshot
+     * version, so no caller gets a rate older than the rate set it started on.
+     */
+    private record RateLookupKey(SupportedCurrency from, SupportedCurrency to, long snapshotVersion) {
+    }
+
+    /**
+     * Cache key of a fan-out conversion within one snapshot version. The
+     * amount is stripped of trailing zeros so 100 and 100.00 share an entry.
+     */
+    private record FanOutKey(SupportedCurrency from, BigDecimal amount, List<SupportedCurrency> targets) {
     }
 
     /**
      * Convert an amount from one currency to another.
      * 
-     * Uses early returns for all validation steps to improve readability
-     * and maintainability.
+     * Validates the raw input and throws on invalid input. Request paths
+     * should validate with {@link ConversionRequestValidator} and call
+     * {@link #convert(ConversionRequest)} instead.
      *
      * @param amount       Amount to convert
      * @param fromCurrency Source currency code
      * @param toCurrency   Target currency code
      * @return Conversion result with converted amount and rate
+     * @throws IllegalArgumentException      if the amount or a currency is missing or invalid
+     * @throws CurrencyNotSupportedException if a currency is not supported
      */
     public ConversionResponse convert(BigDecimal amount, String fromCurrency, String toCurrency) {
-        log.debug("Converting {} {} to {}", amount, fromCurrency, toCurrency);
+        ValidationResult<ConversionRequest> validation =
+                requestValidator.validate(amount, fromCurrency, toCurrency);
 
-        // Early return for null amount
-        if (amount == null) {
-            log.warn("Conversion attempted with null amount");
-            throw new IllegalArgumentException("Amount cannot be null");
+        // Early return for invalid input
+        if (!validation.isValid()) {
+            throw switch (validation.error()) {
+                case SOURCE_CURRENCY_NOT_SUPPORTED -> new CurrencyNotSupportedException(
+                        fromCurrency.trim().toUpperCase(), currencyRegistry.getCodes());
+                case TARGET_CURRENCY_NOT_SUPPORTED -> new CurrencyNotSupportedException(
+                        toCurrency.trim().toUpperCase(), currencyRegistry.getCodes());
+                default -> new IllegalArgumentException(validation.error().getMessage());
+            };
         }
 
-        // Early return for zero or negative amount
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-            log.warn("Conversion attempted with invalid amount: {}", amount);
-            throw new IllegalArgumentException("Amount must be greater than zero");
-        }
+        return convert(validation.value());
+    }
 
-        // Early return for null or empty currencies
-        if (fromCurrency == null || fromCurrency.trim().isEmpty()) {
-            log.warn("Conversion attempted with null or empty source currency");
-            throw new IllegalArgumentException("Source currency cannot be null or empty");
-        }
+    /**
+     * Convert a validated request and record it in the audit log against the
+     * version of the rate matrix the rate was read from. A rate read from the
+     * database on a matrix miss is recorded against the same version, which
+     * its lookup was keyed on.
+     *
+     * @param request Request produced by {@link ConversionRequestValidator}
+     * @return Conversion result with converted amount and rate
+     */
+    public ConversionResponse convert(ConversionRequest request) {
+        RateMatrix matrix = rateMatrixService.getCurrent();
+        ConversionResponse response = calculate(request, matrix);
+        auditService.record(response, matrix.getVersion());
+        return response;
+    }
 
-        if (toCurrency == null || toCurrency.trim().isEmpty()) {
-            log.warn("Conversion attempted with null or empty target currency");
-            throw new IllegalArgumentException("Target currency cannot be null or empty");
-        }
+    /**
+     * Convert a validated request at the rate guaranteed by a quote and record
+     * it in the audit log against the quote's snapshot version.
+     *
+     * @param request Request produced by {@link ConversionRequestValidator} for the quote's pair
+     * @param quote   The quote being settled
+     * @return Conversion result at the quoted rate
+     */
+    public ConversionResponse convert(ConversionRequest request, Quote quote) {
+        ConversionResponse response = buildResponse(request, quote.rate());
+        auditService.record(response, quote.snapshotVersion());
+        return response;
+    }
 
-        // Normalize currencies to uppercase
-        fromCurrency = fromCurrency.toUpperCase().trim();
-        toCurrency = toCurrency.toUpperCase().trim();
+    /**
+     * Convert a validated request at a tenant's precomputed effective rate and
+     * record it in the audit log.
+     *
+     * @param request Request produced by {@link ConversionRequestValidator}
+     * @param table   The tenant's current price table, or null if none has been compiled yet
+     * @return Conversion result at the tenant's rate
+     * @throws ExchangeRateNotFoundException if no tenant rate is available for the pair
+     */
+    public ConversionResponse convert(ConversionRequest request, PriceTable table) {
+        BigDecimal rate = table == null ? null : table.getRate(request.from(), request.to(), request.amount());
 
-        // Early return for unsupported source currency
-        if (!isSupportedCurrency(fromCurrency)) {
-            log.error("Unsupported source currency: {}", fromCurrency);
-            throw new CurrencyNotSupportedException(fromCurrency);
+        // Early return if the tenant has no rate for the pair yet
+        if (rate == null) {
+            throw new ExchangeRateNotFoundException(request.from().code(), request.to().code());
         }
 
-        // Early return for unsupported target currency
-        if (!isSupportedCurrency(toCurrency)) {
-            log.error("Unsupported target currency: {}", toCurrency);
-            throw new CurrencyNotSupportedException(toCurrency);
-        }
+        ConversionResponse response = buildResponse(request, rate);
+        auditService.record(response, table.getSnapshotVersion());
+        return response;
+    }
+
+    /**
+     * Convert a validated request at the rate in effect on a past date.
+     *
+     * The rate comes from the rate history, not the published matrix.
+     * Intended for reports and statements, so the conversion is not recorded
+     * in the audit log.
+     *
+     * @param request Request produced by {@link ConversionRequestValidator}
+     * @param date    The date whose rate applies
+     * @return Conversion result at the latest rate observed on or before the date
+     * @throws ExchangeRateNotFoundException if the pair has no rate on or before the date
+     */
+    public ConversionResponse convertAsOf(ConversionRequest request, LocalDate date) {
+        return buildResponse(request, exchangeRateService.getRateAsOf(request.from(), request.to(), date));
+    }
+
+    private ConversionResponse calculate(ConversionRequest request, RateMatrix matrix) {
+        BigDecimal amount = request.amount();
+        String fromCurrency = request.from().code();
+        String toCurrency = request.to().code();
 
         // Early return for same currency conversion
-        if (fromCurrency.equals(toCurrency)) {
-            log.debug("Same currency conversion: {} to {}, returning original amount", 
+        if (request.from() == request.to()) {
+            log.debug("Same currency conversion: {} to {}, returning original amount",
                     fromCurrency, toCurrency);
             return ConversionResponse.builder()
                     .originalAmount(amount)
@@ -94,51 +210,206 @@ public class CurrencyConversionService {
                     .build();
         }
 
+        // Read from the published rate set, which a refresh replaces as a whole after it commits
+        BigDecimal rate = resolveRate(matrix, request.from(), request.to());
+
+        return buildResponse(request, rate);
+    }
+
+    private BigDecimal resolveRate(RateMatrix matrix, SupportedCurrency from, SupportedCurrency to) {
+        BigDecimal rate = matrix.isEmpty() ? null : matrix.getRate(from, to);
+
+        // Fall back to the database; concurrent misses for the pair share one lookup
+        if (rate == null) {
+            rate = rateLookups.execute(new RateLookupKey(from, to, matrix.getVersion()),
+                    () -> loadRate(from, to));
+        }
+        return rate;
+    }
+
+    private BigDecimal loadRate(SupportedCurrency from, SupportedCurrency to) {
         // Get exchange rate from database
-        ExchangeRate exchangeRate = exchangeRateService.getRate(fromCurrency, toCurrency);
+        ExchangeRate exchangeRate = exchangeRateService.getRate(from, to);
 
         // Early return if rate is null (should not happen, but safety check)
         if (exchangeRate == null) {
-            log.error("Exchange rate service returned null for {} to {}", fromCurrency, toCurrency);
+            log.error("Exchange rate service returned null for {} to {}", from.code(), to.code());
             throw new IllegalStateException("Failed to retrieve exchange rate");
         }
 
         // Early return if rate value is null or invalid
         if (exchangeRate.getRate() == null || exchangeRate.getRate().compareTo(BigDecimal.ZERO) <= 0) {
             log.error("Invalid exchange rate for {} to {}: {}", 
-                    fromCurrency, toCurrency, exchangeRate.getRate());
+                    from.code(), to.code(), exchangeRate.getRate());
             throw new IllegalStateException("Invalid exchange rate in database");
         }
 
-        // Perform conversion
-        BigDecimal convertedAmount = amount.multiply(exchangeRate.getRate())
-                .setScale(DECIMAL_SCALE, RoundingMode.HALF_UP);
+        return exchangeRate.getRate();
+    }
+
+    private static int pairIndex(ConversionRequest request, int currencies) {
+        return request.from().index() * currencies + request.to().index();
+    }
+
+    private ConversionResponse buildResponse(ConversionRequest request, BigDecimal rate) {
+        BigDecimal amount = request.amount();
+        BigDecimal convertedAmount = amount.multiply(rate).setScale(DECIMAL_SCALE, RoundingMode.HALF_UP);
 
-        log.info("Converted {} {} to {} {} (rate: {})", 
-                amount, fromCurrency, convertedAmount, toCurrency, exchangeRate.getRate());
+        if (log.isDebugEnabled()) {
+            log.debug("Converted {} {} to {} {} (rate: {})",
+                    amount, request.from().code(), convertedAmount, request.to().code(), rate);
+        }
 
         return ConversionResponse.builder()
                 .originalAmount(amount)
                 .convertedAmount(convertedAmount)
-                .rate(exchangeRate.getRate())
-                .fromCurrency(fromCurrency)
-                .toCurrency(toCurrency)
+                .rate(rate)
+                .fromCurrency(request.from().code())
+                .toCurrency(request.to().code())
                 .build();
     }
 
     /**
-     * Check if a currency is supported.
-     * 
-     * @param currency Currency code to check
-     * @return true if supported, false otherwise
+     * Convert one amount into several currencies from a single snapshot.
+     *
+     * Reads the source currency's row of the current {@link RateMatrix} in one
+     * pass. Results are cached per source, amount and targets until the next
+     * snapshot is published, evicting the least recently used. Intended for displaying prices, so the
+     * conversions are not recorded in the audit log.
+     *
+     * @param amount  Amount to convert
+     * @param from    Source currency
+     * @param targets Target currencies, or null for every supported currency
+     * @return Conversions into each target that has a rate
+     * @throws ExchangeRateNotFoundException if no rates have been published yet
+     */
+    public FanOutConversionResponse convertToAll(BigDecimal amount, SupportedCurrency from, List<SupportedCurrency> targets) {
+        RateMatrix matrix = rateMatrixService.getCurrent();
+
+        // Early return if there are no rates yet
+        if (matrix.isEmpty()) {
+            throw new ExchangeRateNotFoundException("No exchange rates available");
+        }
+
+        if (matrix.getVersion() != fanOutCacheVersion) {
+            fanOutCache.clear();
+            fanOutCacheVersion = matrix.getVersion();
+        }
+
+        List<SupportedCurrency> resolvedTargets = targets == null ? matrix.getCurrencies() : targets;
+        FanOutKey key = new FanOutKey(from, amount.stripTrailingZeros(), resolvedTargets);
+        FanOutConversionResponse cached = fanOutCache.get(key);
+
+        // Early return for a cached result of the same snapshot, echoing the amount as given
+        if (cached != null && cached.getSnapshotVersion() == matrix.getVersion()) {
+            return cached.getOriginalAmount().equals(amount) ? cached : new FanOutConversionResponse(
+                    amount, cached.getFromCurrency(), cached.getSnapshotVersion(),
+                    cached.getLastUpdated(), cached.getConversions());
+        }
+
+        List<ConvertedAmountDto> conversions = new ArrayList<>(resolvedTargets.size());
+        for (SupportedCurrency to : resolvedTargets) {
+            BigDecimal rate = matrix.getRate(from, to);
+            if (rate == null) {
+                continue;
+            }
+            conversions.add(ConvertedAmountDto.builder()
+                    .currency(to.code())
+                    .rate(rate)
+                    .convertedAmount(amount.multiply(rate).setScale(DECIMAL_SCALE, RoundingMode.HALF_UP))
+                    .build());
+        }
+
+        FanOutConversionResponse response = FanOutConversionResponse.builder()
+                .originalAmount(amount)
+                .fromCurrency(from.code())
+                .snapshotVersion(matrix.getVersion())
+                .lastUpdated(matrix.getLastUpdated())
+                .conversions(conversions)
+                .build();
+
+        fanOutCache.put(key, response);
+        return response;
+    }
+
+    /**
+     * Convert many amounts at once, e.g. for batch jobs, from one rate set.
+     *
+     * Requests are grouped by currency pair and each group is converted in
+     * fixed-point arithmetic by the {@link ConversionKernel}, with the same
+     * results as {@link #convert(ConversionRequest)}. Amounts with more than
+     * two decimals or beyond the kernel's range, and rates with more than
+     * eight decimals, are converted with {@link BigDecimal} instead. The
+     * conversions are not recorded in the audit log.
+     *
+     * @param requests Validated conversion requests
+     * @return Converted amounts in the order of the requests
+     * @throws ExchangeRateNotFoundException if a pair has no rate
      */
-    private boolean isSupportedCurrency(String currency) {
-        // Early return for null or empty
-        if (currency == null || currency.isEmpty()) {
-            return false;
+    public List<BigDecimal> convertBatch(List<ConversionRequest> requests) {
+        RateMatrix matrix = rateMatrixService.getCurrent();
+        int currencies = currencyRegistry.size();
+        BigDecimal[] converted = new BigDecimal[requests.size()];
+        long[] amounts = new long[requests.size()];
+
+        // Count the amounts of each pair the kernel can convert
+        int[] groupStart = new int[currencies * currencies + 1];
+        for (int i = 0; i < converted.length; i++) {
+            ConversionRequest request = requests.get(i);
+            if (request.from() == request.to()) {
+                converted[i] = request.amount();
+                continue;
+            }
+
+            amounts[i] = ConversionKernel.toScaledAmount(request.amount());
+            if (amounts[i] < 0) {
+                converted[i] = request.amount().multiply(resolveRate(matrix, request.from(), request.to()))
+                        .setScale(DECIMAL_SCALE, RoundingMode.HALF_UP);
+            } else {
+                groupStart[pairIndex(request, currencies) + 1]++;
+            }
+        }
+        for (int pair = 0; pair < groupStart.length - 1; pair++) {
+            groupStart[pair + 1] += groupStart[pair];
+        }
+
+        // Gather the amounts into one contiguous range per pair
+        int[] cursor = Arrays.copyOf(groupStart, groupStart.length - 1);
+        int[] positions = new int[groupStart[groupStart.length - 1]];
+        long[] grouped = new long[positions.length];
+        for (int i = 0; i < converted.length; i++) {
+            if (converted[i] == null) {
+                int slot = cursor[pairIndex(requests.get(i), currencies)]++;
+                positions[slot] = i;
+                grouped[slot] = amounts[i];
+            }
+        }
+
+        long[] results = new long[grouped.length];
+        for (int pair = 0; pair < groupStart.length - 1; pair++) {
+            int start = groupStart[pair];
+            int end = groupStart[pair + 1];
+            if (start == end) {
+                continue;
+            }
+
+            ConversionRequest first = requests.get(positions[start]);
+            BigDecimal rate = resolveRate(matrix, first.from(), first.to());
+            long scaledRate = ConversionKernel.toScaledRate(rate);
+            if (scaledRate > 0) {
+                conversionKernel.convert(grouped, results, start, end - start, scaledRate);
+                for (int slot = start; slot < end; slot++) {
+                    converted[positions[slot]] = BigDecimal.valueOf(results[slot], DECIMAL_SCALE);
+                }
+            } else {
+                for (int slot = start; slot < end; slot++) {
+                    converted[positions[slot]] = requests.get(positions[slot]).amount().multiply(rate)
+                            .setScale(DECIMAL_SCALE, RoundingMode.HALF_UP);
+                }
+            }
         }
 
-        return SUPPORTED_CURRENCIES.contains(currency.toUpperCase());
+        return Arrays.asList(converted);
     }
 
     /**
@@ -147,7 +418,7 @@ public class CurrencyConversionService {
      * @return List of supported currency codes
      */
     public List<String> getSupportedCurrencies() {
-        return List.copyOf(SUPPORTED_CURRENCIES);
+        return currencyRegistry.getCodes();
     }
 }
 
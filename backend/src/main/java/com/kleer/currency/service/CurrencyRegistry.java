@@ -0,0 +1,283 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.model.RiksbankSeries;
+import com.kleer.currency.model.SupportedCurrency;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Registry of supported currencies.
+ *
+ * The single source of the currency set: loaded at startup from the bundled
+ * series file, it drives which Riksbank series are fetched, which pairs are
+ * triangulated and which codes requests may use. The first currency is the
+ * base currency all series are quoted in.
+ *
+ * Resolves raw currency codes to registry entries in constant time without
+ * allocating: codes are folded to upper case and trimmed while indexing
+ * directly into a table of all three-letter codes.
+ */
+@Component
+public class CurrencyRegistry {
+
+    private static final int CODE_LENGTH = 3;
+    private static final int LETTERS = 26;
+
+    private final List<SupportedCurrency> currencies;
+    private final List<String> codes;
+    private final List<RiksbankSeries> series;
+    private final SupportedCurrency[] byCode = new SupportedCurrency[LETTERS * LETTERS * LETTERS];
+
+    /**
+     * Load the registry from a series file.
+     *
+     * @param seriesFile   Lines of {@code code,series,unit}; the base currency has no series
+     * @param enabledCodes Currencies to serve, or empty for every currency in the file
+     */
+    @Autowired
+    public CurrencyRegistry(
+            @Value("${currency.series-file:classpath:riksbank-series.csv}") Resource seriesFile,
+            @Value("${currency.supported:SEK,EUR,USD}") List<String> enabledCodes) throws IOException {
+        this(enabled(readSeries(seriesFile), enabledCodes));
+    }
+
+    /**
+     * Create a registry of currencies without Riksbank series.
+     *
+     * @param supportedCodes Currency codes, the base currency first
+     */
+    public CurrencyRegistry(List<String> supportedCodes) {
+        this(supportedCodes.stream().map(code -> new RiksbankSeries(code, null, 1)).toList());
+    }
+
+    /**
+     * Create a registry of a base currency and the series quoting other currencies in it.
+     *
+     * @param baseCode The base currency code
+     * @param series   Series of the other currencies
+     */
+    public CurrencyRegistry(String baseCode, List<RiksbankSeries> series) {
+        this(withBase(baseCode, series));
+    }
+
+    private CurrencyRegistry(Iterable<RiksbankSeries> entries) {
+        List<SupportedCurrency> currencyEntries = new ArrayList<>();
+        List<RiksbankSeries> seriesEntries = new ArrayList<>();
+        for (RiksbankSeries entry : entries) {
+            String code = entry.currency().trim().toUpperCase().intern();
+            int slot = slot(code, 0, code.length());
+            if (slot < 0) {
+                throw new IllegalArgumentException("Invalid currency code: " + entry.currency());
+            }
+            if (byCode[slot] != null) {
+                continue;
+            }
+            SupportedCurrency currency = new SupportedCurrency(code, currencyEntries.size());
+            byCode[slot] = currency;
+            currencyEntries.add(currency);
+            if (entry.seriesId() != null && currency.index() > 0) {
+                seriesEntries.add(new RiksbankSeries(code, entry.seriesId(), entry.unit()));
+            }
+        }
+        this.currencies = List.copyOf(currencyEntries);
+        this.codes = currencyEntries.stream().map(SupportedCurrency::code).toList();
+        this.series = List.copyOf(seriesEntries);
+    }
+
+    /**
+     * Resolve a raw currency code, ignoring case and surrounding whitespace.
+     *
+     * @param raw Raw currency code, may be null
+     * @return The registry entry, or null if the code is not supported
+     */
+    public SupportedCurrency resolve(String raw) {
+        // Early return for null input
+        if (raw == null) {
+            return null;
+        }
+
+        int start = 0;
+        int end = raw.length();
+        while (start < end && raw.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && raw.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        int slot = slot(raw, start, end);
+        return slot < 0 ? null : byCode[slot];
+    }
+
+    /**
+     * Resolve an ASCII currency code held in a byte buffer, ignoring case.
+     *
+     * @param buffer Buffer holding the code
+     * @param start  Index of the first byte (inclusive)
+     * @param end    Index after the last byte (exclusive)
+     * @return The registry entry, or null if the code is not supported
+     */
+    public SupportedCurrency resolve(ByteBuffer buffer, int start, int end) {
+        // Early return for anything but a three-letter code
+        if (end - start != CODE_LENGTH) {
+            return null;
+        }
+        int slot = 0;
+        for (int i = start; i < end; i++) {
+            int letter = (buffer.get(i) | 0x20) - 'a';
+            if (letter < 0 || letter >= LETTERS) {
+                return null;
+            }
+            slot = slot * LETTERS + letter;
+        }
+        return byCode[slot];
+    }
+
+    /**
+     * Get the registry entry at a dense index.
+     *
+     * @param index Index between 0 and {@link #size()} - 1
+     * @return The registry entry
+     */
+    public SupportedCurrency get(int index) {
+        return currencies.get(index);
+    }
+
+    public boolean isSupported(String code) {
+        return resolve(code) != null;
+    }
+
+    public List<SupportedCurrency> getCurrencies() {
+        return currencies;
+    }
+
+    /**
+     * @return Canonical codes of all supported currencies, in registry order
+     */
+    public List<String> getCodes() {
+        return codes;
+    }
+
+    public int size() {
+        return currencies.size();
+    }
+
+    /**
+     * @return The currency all series are quoted in
+     */
+    public SupportedCurrency getBaseCurrency() {
+        return currencies.get(0);
+    }
+
+    /**
+     * @return Riksbank series of every supported currency except the base, in registry order
+     */
+    public List<RiksbankSeries> getSeries() {
+        return series;
+    }
+
+    private static List<RiksbankSeries> readSeries(Resource seriesFile) throws IOException {
+        List<RiksbankSeries> entries = new ArrayList<>();
+        RiksbankSeries base = null;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(seriesFile.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                // Skip blank lines and comments
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] fields = line.split(",", -1);
+                if (fields.length != 3) {
+                    throw new IllegalArgumentException("Invalid series line in " + seriesFile + ": " + line);
+                }
+                String seriesId = fields[1].trim();
+                int unit = Integer.parseInt(fields[2].trim());
+                if (unit <= 0) {
+                    throw new IllegalArgumentException("Invalid unit in " + seriesFile + ": " + line);
+                }
+                RiksbankSeries entry = new RiksbankSeries(
+                        fields[0].trim(), seriesId.isEmpty() ? null : seriesId, unit);
+
+                if (entry.seriesId() != null) {
+                    entries.add(entry);
+                } else if (base == null) {
+                    base = entry;
+                } else {
+                    throw new IllegalArgumentException("More than one base currency in " + seriesFile);
+                }
+            }
+        }
+
+        if (base == null) {
+            throw new IllegalArgumentException("No base currency in " + seriesFile);
+        }
+        entries.add(0, base);
+        return entries;
+    }
+
+    private static List<RiksbankSeries> enabled(List<RiksbankSeries> entries, List<String> enabledCodes) {
+        Set<String> enabled = new HashSet<>();
+        for (String code : enabledCodes) {
+            if (!code.isBlank()) {
+                enabled.add(code.trim().toUpperCase());
+            }
+        }
+
+        // Early return if every currency in the file is served
+        if (enabled.isEmpty()) {
+            return entries;
+        }
+
+        List<RiksbankSeries> result = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            RiksbankSeries entry = entries.get(i);
+            // The base currency is always served
+            if (i == 0 || enabled.remove(entry.currency().toUpperCase())) {
+                result.add(entry);
+            }
+        }
+        enabled.remove(entries.get(0).currency().toUpperCase());
+        if (!enabled.isEmpty()) {
+            throw new IllegalArgumentException("No Riksbank series for currencies: " + enabled);
+        }
+        return result;
+    }
+
+    private static List<RiksbankSeries> withBase(String baseCode, List<RiksbankSeries> series) {
+        List<RiksbankSeries> entries = new ArrayList<>(series.size() + 1);
+        entries.add(new RiksbankSeries(baseCode, null, 1));
+        entries.addAll(series);
+        return entries;
+    }
+
+    private static int slot(String code, int start, int end) {
+        if (end - start != CODE_LENGTH) {
+            return -1;
+        }
+        int slot = 0;
+        for (int i = start; i < end; i++) {
+            // Fold ASCII letters to lower case
+            int letter = (code.charAt(i) | 0x20) - 'a';
+            if (letter < 0 || letter >= LETTERS) {
+                return -1;
+            }
+            slot = slot * LETTERS + letter;
+        }
+        return slot;
+    }
+}
@@ -1,21 +1,38 @@
 package com.kleer.currency.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kleer.currency.dto.ExchangeRateDto;
 import com.kleer.currency.dto.ExchangeRatesResponse;
+import com.kleer.currency.dto.HistoryCacheStatsResponse;
 import com.kleer.currency.entity.ExchangeRate;
+import com.kleer.currency.exception.CurrencyNotSupportedException;
 import com.kleer.currency.exception.ExchangeRateNotFoundException;
+import com.kleer.currency.model.CurrencyPair;
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.model.SupportedCurrency;
 import com.kleer.currency.repository.ExchangeRateRepository;
+import com.kleer.currency.repository.RateHistoryStore;
+import com.kleer.currency.util.CompressedPayload;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -30,26 +47,67 @@ public class ExchangeRateService {
 
     private final ExchangeRateRepository repository;
     private final RiksbankService riksbankService;
+    private final RateSnapshotService rateSnapshotService;
+    private final RateHistoryStore rateHistoryStore;
+    private final RateHistoryCache rateHistoryCache;
+    private final RateAnalyticsService rateAnalyticsService;
+    private final CurrencyRegistry currencyRegistry;
+    private final LeaderElection leaderElection;
+    private final ObjectMapper objectMapper;
+    private final boolean historyEnabled;
 
-    private static final List<String> SUPPORTED_CURRENCIES = List.of("SEK", "EUR", "USD");
+    private volatile LatestRatesPayload latestRatesPayload;
+
+    /**
+     * The latest rates of one snapshot version, serialized and compressed once.
+     *
+     * @param version Snapshot version the rates belong to
+     * @param count   Number of rates
+     * @param payload The {@link ExchangeRatesResponse} as JSON
+     */
+    public record LatestRatesPayload(long version, int count, CompressedPayload payload) {
+    }
 
     public ExchangeRateService(
             ExchangeRateRepository repository,
-            RiksbankService riksbankService) {
+            RiksbankService riksbankService,
+            RateSnapshotService rateSnapshotService,
+            RateHistoryStore rateHistoryStore,
+            RateHistoryCache rateHistoryCache,
+            RateAnalyticsService rateAnalyticsService,
+            CurrencyRegistry currencyRegistry,
+            LeaderElection leaderElection,
+            ObjectMapper objectMapper,
+            @Value("${rates.history.enabled:true}") boolean historyEnabled) {
         this.repository = repository;
         this.riksbankService = riksbankService;
+        this.rateSnapshotService = rateSnapshotService;
+        this.rateHistoryStore = rateHistoryStore;
+        this.rateHistoryCache = rateHistoryCache;
+        this.rateAnalyticsService = rateAnalyticsService;
+        this.currencyRegistry = currencyRegistry;
+        this.leaderElection = leaderElection;
+        this.objectMapper = objectMapper;
+        this.historyEnabled = historyEnabled;
     }
 
     /**
      * Refresh exchange rates from Riksbank API and save to database.
      * 
      * Fetches latest rates and generates all combinations including inverses.
-     * Uses early returns for validation.
+     * Uses early returns for validation. Replication followers do not call
+     * Riksbank and return the rates last received from the leader.
      *
      * @return Response containing all updated rates
      */
     @Transactional
     public ExchangeRatesResponse refreshRatesFromRiksbank() {
+        // Early return on followers: rates arrive through replication
+        if (!leaderElection.isLeader()) {
+            log.info("Skipping Riksbank refresh, this node is a replication follower");
+            return getAllRates();
+        }
+
         log.info("Refreshing exchange rates from Riksbank");
 
         // Fetch rates from Riksbank
@@ -81,20 +139,71 @@ public class ExchangeRateService {
             ExchangeRate exchangeRate = saveOrUpdateRate(fromCurrency, toCurrency, rate, now);
             allRates.add(exchangeRate);
 
+            // Early continue if Riksbank rates already include the inverse
+            if (riksbankRates.containsKey(toCurrency + "/" + fromCurrency)) {
+                continue;
+            }
+
             // Calculate and save inverse rate
             BigDecimal inverseRate = BigDecimal.ONE.divide(rate, 8, RoundingMode.HALF_UP);
             ExchangeRate inverseExchangeRate = saveOrUpdateRate(toCurrency, fromCurrency, inverseRate, now);
             allRates.add(inverseExchangeRate);
         }
 
-        // Generate cross rates (e.g., EUR to USD via SEK)
+        // Generate cross rates (e.g., EUR to USD via SEK) for pairs Riksbank rates did not cover
         generateCrossRates(now, allRates);
 
+        // Record today's observation of every pair in the history store once the transaction commits,
+        // registered first so history exports tagged with the new version already include the day
+        recordHistoryAfterCommit(now.toLocalDate(), allRates);
+
+        // Publish every stored rate once the transaction commits. Pairs of a series that failed this
+        // time keep their last rate, as conversions still serve them, so followers must keep them too
+        rateSnapshotService.publish(repository.findAll(), leaderElection.claimNextVersion());
+
         log.info("Successfully refreshed {} exchange rates", allRates.size());
 
         return buildResponse(allRates);
     }
 
+    /**
+     * Apply a snapshot received from the replication leader.
+     *
+     * Replaces the stored rates with the snapshot's in one transaction and
+     * publishes the snapshot under the leader's version once it commits, so
+     * every node serves the same version.
+     *
+     * @param snapshot The leader's snapshot
+     * @return false if the snapshot is not newer than the current one
+     */
+    @Transactional
+    public boolean applyReplicatedSnapshot(RateSnapshot snapshot) {
+        // Early return if the snapshot was already applied
+        if (snapshot.version() <= rateSnapshotService.getCurrent().version()) {
+            return false;
+        }
+
+        LocalDateTime timestamp = snapshot.lastUpdated() != null ? snapshot.lastUpdated() : LocalDateTime.now();
+        List<ExchangeRate> allRates = new ArrayList<>(snapshot.rates().size());
+        for (Map.Entry<String, BigDecimal> entry : snapshot.rates().entrySet()) {
+            CurrencyPair pair = CurrencyPair.fromKey(entry.getKey());
+            allRates.add(saveOrUpdateRate(pair.from(), pair.to(), entry.getValue(), timestamp));
+        }
+
+        // Drop pairs the leader no longer stores; its snapshots hold its whole rate table
+        repository.deleteAll(repository.findAll().stream()
+                .filter(rate -> !snapshot.rates().containsKey(
+                        new CurrencyPair(rate.getFromCurrency(), rate.getToCurrency()).toKey()))
+                .toList());
+
+        // History first, so the version never becomes visible before its day is appended
+        recordHistoryAfterCommit(timestamp.toLocalDate(), allRates);
+        rateSnapshotService.publishReplicated(snapshot);
+
+        log.info("Applied replicated rate snapshot v{} with {} rates", snapshot.version(), allRates.size());
+        return true;
+    }
+
     /**
      * Get all exchange rates from database.
      *
@@ -118,6 +227,28 @@ public class ExchangeRateService {
         return buildResponse(rates);
     }
 
+    /**
+     * Get all exchange rates as the JSON payload of the current snapshot version.
+     *
+     * The payload is built from the published snapshot, so its content always
+     * matches its version, with the snapshot's refresh time on every rate. It
+     * is serialized and compressed on the first call after a new snapshot is
+     * published and served from memory until the next one, without touching
+     * the database.
+     *
+     * @return The payload of the current snapshot version
+     */
+    public LatestRatesPayload getLatestRatesPayload() {
+        RateSnapshot snapshot = rateSnapshotService.getCurrent();
+        LatestRatesPayload latest = latestRatesPayload;
+
+        // Early return if this version, or a newer one, is already encoded
+        if (latest != null && latest.version() >= snapshot.version()) {
+            return latest;
+        }
+        return encodeLatestRates(snapshot);
+    }
+
     /**
      * Get exchange rate for a specific currency pair.
      * 
@@ -126,6 +257,8 @@ public class ExchangeRateService {
      * @param fromCurrency Source currency
      * @param toCurrency   Target currency
      * @return The exchange rate
+     * @throws IllegalArgumentException      if a currency is missing
+     * @throws CurrencyNotSupportedException if a currency is not supported
      * @throws ExchangeRateNotFoundException if rate not found
      */
     @Transactional(readOnly = true)
@@ -139,40 +272,179 @@ public class ExchangeRateService {
             throw new IllegalArgumentException("Target currency cannot be null or empty");
         }
 
-        // Normalize to uppercase
-        fromCurrency = fromCurrency.toUpperCase();
-        toCurrency = toCurrency.toUpperCase();
+        // Resolve against the registry, which also normalises case
+        SupportedCurrency from = currencyRegistry.resolve(fromCurrency);
+        SupportedCurrency to = currencyRegistry.resolve(toCurrency);
 
         // Early return for unsupported currencies
-        if (!SUPPORTED_CURRENCIES.contains(fromCurrency)) {
-            throw new IllegalArgumentException("Unsupported source currency: " + fromCurrency);
+        if (from == null) {
+            throw new CurrencyNotSupportedException(fromCurrency.trim().toUpperCase(), currencyRegistry.getCodes());
         }
 
-        if (!SUPPORTED_CURRENCIES.contains(toCurrency)) {
-            throw new IllegalArgumentException("Unsupported target currency: " + toCurrency);
+        if (to == null) {
+            throw new CurrencyNotSupportedException(toCurrency.trim().toUpperCase(), currencyRegistry.getCodes());
         }
 
+        return getRate(from, to);
+    }
+
+    /**
+     * Get the stored exchange rate for a currency pair, with the time that
+     * pair was last refreshed.
+     *
+     * @param fromCurrency Source currency
+     * @param toCurrency   Target currency
+     * @return The stored rate
+     * @see #getRate(String, String)
+     */
+    @Transactional(readOnly = true)
+    public ExchangeRateDto getStoredRate(String fromCurrency, String toCurrency) {
+        return toDto(getRate(fromCurrency, toCurrency));
+    }
+
+    /**
+     * Get exchange rate for a currency pair already resolved against the registry.
+     *
+     * @param from Source currency
+     * @param to   Target currency
+     * @return The exchange rate
+     * @throws ExchangeRateNotFoundException if rate not found
+     */
+    @Transactional(readOnly = true)
+    public ExchangeRate getRate(SupportedCurrency from, SupportedCurrency to) {
         // Early return for same currency
-        if (fromCurrency.equals(toCurrency)) {
+        if (from == to) {
             return ExchangeRate.builder()
-                    .fromCurrency(fromCurrency)
-                    .toCurrency(toCurrency)
+                    .fromCurrency(from.code())
+                    .toCurrency(to.code())
                     .rate(BigDecimal.ONE)
                     .lastUpdated(LocalDateTime.now())
                     .build();
         }
 
-        Optional<ExchangeRate> rateOpt = repository.findByFromCurrencyAndToCurrency(fromCurrency, toCurrency);
+        Optional<ExchangeRate> rateOpt = repository.findByFromCurrencyAndToCurrency(from.code(), to.code());
 
         // Early return if rate not found
         if (rateOpt.isEmpty()) {
-            log.error("Exchange rate not found: {} to {}", fromCurrency, toCurrency);
-            throw new ExchangeRateNotFoundException(fromCurrency, toCurrency);
+            log.error("Exchange rate not found: {} to {}", from.code(), to.code());
+            throw new ExchangeRateNotFoundException(from.code(), to.code());
         }
 
         return rateOpt.get();
     }
 
+    /**
+     * Get the exchange rate in effect on a given date from the history store,
+     * through the historical lookup cache.
+     *
+     * @param from Source currency, resolved against the registry
+     * @param to   Target currency, resolved against the registry
+     * @param date The date
+     * @return The latest rate observed on or before the date
+     * @throws ExchangeRateNotFoundException if no observation exists on or before the date
+     */
+    public BigDecimal getRateAsOf(SupportedCurrency from, SupportedCurrency to, LocalDate date) {
+        // Early return for same currency
+        if (from == to) {
+            return BigDecimal.ONE;
+        }
+
+        return rateHistoryCache.findRateAsOf(new CurrencyPair(from.code(), to.code()), date)
+                .orElseThrow(() -> new ExchangeRateNotFoundException(String.format(
+                        "Exchange rate not found for %s to %s on %s", from.code(), to.code(), date)));
+    }
+
+    /**
+     * @return Hit, miss and eviction statistics of the historical lookup cache
+     */
+    public HistoryCacheStatsResponse getHistoryCacheStats() {
+        return HistoryCacheStatsResponse.builder()
+                .enabled(rateHistoryCache.isEnabled())
+                .eviction(rateHistoryCache.getEviction())
+                .heap(rateHistoryCache.getHeapStats())
+                .offHeap(rateHistoryCache.getOffHeapStats())
+                .build();
+    }
+
+    /**
+     * Serialize the rates of a published snapshot, sorted by pair.
+     */
+    private synchronized LatestRatesPayload encodeLatestRates(RateSnapshot snapshot) {
+        LatestRatesPayload latest = latestRatesPayload;
+
+        // Early return if another request encoded this version, or a newer one, meanwhile
+        if (latest != null && latest.version() >= snapshot.version()) {
+            return latest;
+        }
+
+        List<ExchangeRateDto> rates = new ArrayList<>(snapshot.rates().size());
+        for (Map.Entry<String, BigDecimal> entry : new TreeMap<>(snapshot.rates()).entrySet()) {
+            CurrencyPair pair = CurrencyPair.fromKey(entry.getKey());
+            rates.add(ExchangeRateDto.builder()
+                    .fromCurrency(pair.from())
+                    .toCurrency(pair.to())
+                    .rate(entry.getValue())
+                    .lastUpdated(snapshot.lastUpdated())
+                    .build());
+        }
+        ExchangeRatesResponse response = ExchangeRatesResponse.builder()
+                .rates(rates)
+                .lastUpdated(snapshot.lastUpdated())
+                .build();
+
+        try {
+            latest = new LatestRatesPayload(snapshot.version(), rates.size(),
+                    CompressedPayload.of(objectMapper.writeValueAsBytes(response)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Failed to serialize latest rates", e);
+        }
+        latestRatesPayload = latest;
+
+        log.debug("Encoded {} latest rates for v{}: {} bytes, {} gzipped",
+                latest.count(), snapshot.version(), latest.payload().identity().length, latest.payload().gzip().length);
+        return latest;
+    }
+
+    /**
+     * Append rates to the history store once the surrounding transaction
+     * commits. The store cannot roll back, so rates of a failed refresh must
+     * never reach it.
+     */
+    private void recordHistoryAfterCommit(LocalDate date, List<ExchangeRate> rates) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recordHistory(date, rates);
+                }
+            });
+            return;
+        }
+
+        recordHistory(date, rates);
+    }
+
+    /**
+     * Append rates to the history store.
+     */
+    private void recordHistory(LocalDate date, List<ExchangeRate> rates) {
+        // Early return if history is disabled
+        if (!historyEnabled) {
+            return;
+        }
+
+        for (ExchangeRate rate : rates) {
+            try {
+                CurrencyPair pair = new CurrencyPair(rate.getFromCurrency(), rate.getToCurrency());
+                rateHistoryStore.append(pair, date, rate.getRate());
+                rateAnalyticsService.onObservation(pair, date, RateHistoryStore.toScaled(rate.getRate()));
+            } catch (RuntimeException e) {
+                log.warn("Failed to record history for {} to {}: {}",
+                        rate.getFromCurrency(), rate.getToCurrency(), e.getMessage());
+            }
+        }
+    }
+
     /**
      * Save or update an exchange rate.
      */
@@ -213,30 +485,35 @@ public class ExchangeRateService {
      * For example, EUR to USD via SEK.
      */
     private void generateCrossRates(LocalDateTime timestamp, List<ExchangeRate> allRates) {
-        // For each pair of currencies, generate cross rate via SEK
-        for (String currency1 : SUPPORTED_CURRENCIES) {
-            for (String currency2 : SUPPORTED_CURRENCIES) {
-                // Skip if same currency
-                if (currency1.equals(currency2)) {
+        Set<String> refreshed = new HashSet<>(allRates.size() * 4 / 3 + 1);
+        for (ExchangeRate rate : allRates) {
+            refreshed.add(rate.getFromCurrency() + "/" + rate.getToCurrency());
+        }
+
+        // For each pair of currencies, generate cross rate via the base currency
+        for (String currency1 : currencyRegistry.getCodes()) {
+            for (String currency2 : currencyRegistry.getCodes()) {
+                // Skip if same currency or refreshed from Riksbank rates
+                if (currency1.equals(currency2) || refreshed.contains(currency1 + "/" + currency2)) {
                     continue;
                 }
 
-                // Skip if already exists (direct rate from Riksbank)
+                // Skip if already exists (kept from an earlier refresh)
                 if (repository.existsByFromCurrencyAndToCurrency(currency1, currency2)) {
                     continue;
                 }
 
-                // Calculate cross rate via SEK
+                // Calculate cross rate via the base currency
                 try {
-                    BigDecimal rate1ToSEK = getOrCalculateRateToSEK(currency1);
-                    BigDecimal rate2ToSEK = getOrCalculateRateToSEK(currency2);
+                    BigDecimal rate1ToBase = getOrCalculateRateToBase(currency1);
+                    BigDecimal rate2ToBase = getOrCalculateRateToBase(currency2);
                     
                     // Early continue if either rate is null
-                    if (rate1ToSEK == null || rate2ToSEK == null) {
+                    if (rate1ToBase == null || rate2ToBase == null) {
                         continue;
                     }
 
-                    BigDecimal crossRate = rate2ToSEK.divide(rate1ToSEK, 8, RoundingMode.HALF_UP);
+                    BigDecimal crossRate = rate1ToBase.divide(rate2ToBase, 8, RoundingMode.HALF_UP);
                     ExchangeRate exchangeRate = saveOrUpdateRate(currency1, currency2, crossRate, timestamp);
                     allRates.add(exchangeRate);
                     
@@ -249,15 +526,17 @@ public class ExchangeRateService {
     }
 
     /**
-     * Get or calculate exchange rate to SEK for a currency.
+     * Get or calculate exchange rate to the base currency (SEK) for a currency.
      */
-    private BigDecimal getOrCalculateRateToSEK(String currency) {
-        // Early return if already SEK
-        if ("SEK".equals(currency)) {
+    private BigDecimal getOrCalculateRateToBase(String currency) {
+        String baseCurrency = currencyRegistry.getBaseCurrency().code();
+
+        // Early return if already the base currency
+        if (baseCurrency.equals(currency)) {
             return BigDecimal.ONE;
         }
 
-        Optional<ExchangeRate> rateOpt = repository.findByFromCurrencyAndToCurrency(currency, "SEK");
+        Optional<ExchangeRate> rateOpt = repository.findByFromCurrencyAndToCurrency(currency, baseCurrency);
         
         return rateOpt.map(ExchangeRate::getRate).orElse(null);
     }
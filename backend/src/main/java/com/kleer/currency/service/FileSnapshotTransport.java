@@ -0,0 +1,61 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.repository.RateSnapshotStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+
+/**
+ * The leader writes its snapshot to a shared file that followers read.
+ *
+ * The file has the {@link RateSnapshotStore} layout and is replaced
+ * atomically, so followers never see a partial snapshot. Followers skip
+ * the read while its modification time is unchanged. The leader's snapshot
+ * always replaces the shared one, even one with a higher version left by a
+ * previous leader; followers decide whether to apply it.
+ */
+@Component
+@ConditionalOnProperty(name = "replication.transport", havingValue = "file")
+public class FileSnapshotTransport implements SnapshotTransport {
+
+    private final RateSnapshotStore sharedStore;
+
+    private FileTime lastModified;
+
+    public FileSnapshotTransport(@Value("${replication.file.path:./data/replication/rates.snapshot}") String path) {
+        this.sharedStore = new RateSnapshotStore(path);
+    }
+
+    @Override
+    public synchronized void publish(RateSnapshot snapshot) throws IOException {
+        sharedStore.write(snapshot);
+    }
+
+    @Override
+    public synchronized Optional<RateSnapshot> fetchNewerThan(long version) throws IOException {
+        // Early return if the leader has not published yet
+        if (!Files.isRegularFile(sharedStore.getPath())) {
+            return Optional.empty();
+        }
+
+        FileTime modified = Files.getLastModifiedTime(sharedStore.getPath());
+
+        // Early return if the file is unchanged since the last read
+        if (modified.equals(lastModified)) {
+            return Optional.empty();
+        }
+
+        Optional<RateSnapshot> newer = sharedStore.read().filter(snapshot -> snapshot.version() > version);
+        if (newer.isEmpty()) {
+            // Remember the file only once it is applied, so a failed apply is retried
+            lastModified = modified;
+        }
+        return newer;
+    }
+}
@@ -0,0 +1,217 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.exception.RiksbankApiException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executes upstream calls with request hedging to cut tail latency.
+ *
+ * If a call for a key (e.g. a Riksbank series id) has not returned within a
+ * configurable percentile of that key's recent latency, a duplicate call is
+ * issued and the first successful result wins. Hedges are paid for from a
+ * global budget that is replenished by a fraction of every primary call, so
+ * hedging can never more than marginally amplify load during an outage.
+ */
+@Component
+@Slf4j
+public class HedgedRequestExecutor {
+
+    private static final long TOKEN = 1000;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final int minSamples;
+    private final int windowSize;
+    private final long depositPerCall;
+    private final long maxBudget;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, LatencyTracker> trackers = new ConcurrentHashMap<>();
+    private final AtomicLong budget = new AtomicLong();
+    private final AtomicLong hedgesIssued = new AtomicLong();
+
+    public HedgedRequestExecutor(
+            @Value("${riksbank.api.hedging.enabled:true}") boolean enabled,
+            @Value("${riksbank.api.hedging.percentile:0.95}") double percentile,
+            @Value("${riksbank.api.hedging.min-delay-ms:50}") long minDelayMs,
+            @Value("${riksbank.api.hedging.min-samples:10}") int minSamples,
+            @Value("${riksbank.api.hedging.window-size:64}") int windowSize,
+            @Value("${riksbank.api.hedging.budget-ratio:0.1}") double budgetRatio,
+            @Value("${riksbank.api.hedging.max-burst:2}") int maxBurst) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("Hedging percentile must be between 0 and 1");
+        }
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMs);
+        this.minSamples = Math.max(1, minSamples);
+        this.windowSize = Math.max(this.minSamples, windowSize);
+        this.depositPerCall = Math.round(budgetRatio * TOKEN);
+        this.maxBudget = (long) maxBurst * TOKEN;
+    }
+
+    /**
+     * Execute a call, hedging it if it is slower than the key's latency percentile.
+     *
+     * @param key  Latency tracking key, e.g. the upstream series id
+     * @param call The call to execute; must be safe to run twice concurrently
+     * @return Result of the first attempt that succeeds
+     * @throws RuntimeException the failure of the last attempt if all attempts fail
+     */
+    public <T> T execute(String key, Callable<T> call) {
+        LatencyTracker tracker = trackers.computeIfAbsent(key, k -> new LatencyTracker(windowSize));
+        Callable<T> timedCall = () -> {
+            long start = System.nanoTime();
+            T result = call.call();
+            tracker.record(System.nanoTime() - start);
+            return result;
+        };
+
+        // Early return when hedging is switched off
+        if (!enabled) {
+            return callDirect(timedCall);
+        }
+
+        deposit();
+
+        CompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<T>> attempts = new ArrayList<>(2);
+        attempts.add(completionService.submit(timedCall));
+
+        try {
+            long hedgeDelay = tracker.percentile(percentile, minSamples);
+            Future<T> done = hedgeDelay < 0
+                    ? completionService.take()
+                    : completionService.poll(Math.max(hedgeDelay, minDelayNanos), TimeUnit.NANOSECONDS);
+
+            if (done == null) {
+                if (tryWithdraw()) {
+                    hedgesIssued.incrementAndGet();
+                    log.debug("Hedging request for {} after {} ms", key,
+                            TimeUnit.NANOSECONDS.toMillis(Math.max(hedgeDelay, minDelayNanos)));
+                    attempts.add(completionService.submit(timedCall));
+                }
+                done = completionService.take();
+            }
+
+            int pending = attempts.size() - 1;
+            while (true) {
+                try {
+                    return done.get();
+                } catch (ExecutionException e) {
+                    // Early rethrow once every attempt has failed
+                    if (pending-- == 0) {
+                        throw unwrap(key, e);
+                    }
+                    done = completionService.take();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RiksbankApiException("Interrupted while waiting for " + key, e);
+        } finally {
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    /**
+     * Get the number of hedge requests issued since startup.
+     *
+     * @return Number of hedges issued
+     */
+    public long getHedgesIssued() {
+        return hedgesIssued.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T callDirect(Callable<T> call) {
+        try {
+            return call.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RiksbankApiException("Upstream call failed", e);
+        }
+    }
+
+    private void deposit() {
+        budget.accumulateAndGet(depositPerCall, (current, add) -> Math.min(maxBudget, current + add));
+    }
+
+    private boolean tryWithdraw() {
+        while (true) {
+            long current = budget.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (budget.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    private RuntimeException unwrap(String key, ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new RiksbankApiException("Upstream call failed for " + key, e.getCause());
+    }
+
+    /**
+     * Fixed-size ring of recent successful latencies for one key.
+     */
+    static final class LatencyTracker {
+
+        private final long[] samples;
+        private int next;
+        private int count;
+
+        LatencyTracker(int windowSize) {
+            this.samples = new long[windowSize];
+        }
+
+        synchronized void record(long latencyNanos) {
+            samples[next] = latencyNanos;
+            next = (next + 1) % samples.length;
+            if (count < samples.length) {
+                count++;
+            }
+        }
+
+        /**
+         * @return The latency at the given percentile, or -1 if too few samples exist
+         */
+        synchronized long percentile(double percentile, int minSamples) {
+            if (count < minSamples) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * count) - 1;
+            return sorted[Math.max(0, Math.min(count - 1, index))];
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.repository.RateSnapshotStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * Followers pull the leader's snapshot from {@code GET /api/replication/snapshot}.
+ *
+ * The follower's version is sent as If-None-Match, so an unchanged snapshot
+ * costs one 304 response. The leader has nothing to push.
+ */
+@Component
+@ConditionalOnProperty(name = "replication.transport", havingValue = "http", matchIfMissing = true)
+public class HttpSnapshotTransport implements SnapshotTransport {
+
+    static final String SNAPSHOT_PATH = "/api/replication/snapshot";
+
+    private final RestTemplate restTemplate;
+    private final String leaderUrl;
+
+    public HttpSnapshotTransport(
+            RestTemplate restTemplate,
+            @Value("${replication.leader-url:}") String leaderUrl) {
+        this.restTemplate = restTemplate;
+        this.leaderUrl = leaderUrl;
+    }
+
+    @Override
+    public void publish(RateSnapshot snapshot) {
+        // Followers pull from the leader's endpoint
+    }
+
+    @Override
+    public Optional<RateSnapshot> fetchNewerThan(long version) throws IOException {
+        // Early return if no leader is configured
+        if (leaderUrl.isBlank()) {
+            return Optional.empty();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch("\"" + version + "\"");
+
+        ResponseEntity<byte[]> response;
+        try {
+            response = restTemplate.exchange(leaderUrl + SNAPSHOT_PATH, HttpMethod.GET,
+                    new HttpEntity<>(headers), byte[].class);
+        } catch (RestClientException e) {
+            throw new IOException("Failed to fetch snapshot from " + leaderUrl + ": " + e.getMessage(), e);
+        }
+
+        // Early return if the leader has nothing newer (304) or nothing at all (204)
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null || response.getBody().length == 0) {
+            return Optional.empty();
+        }
+
+        try {
+            RateSnapshot snapshot = RateSnapshotStore.decode(ByteBuffer.wrap(response.getBody()));
+            return snapshot.version() > version ? Optional.of(snapshot) : Optional.empty();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid snapshot from " + leaderUrl + ": " + e.getMessage(), e);
+        }
+    }
+}
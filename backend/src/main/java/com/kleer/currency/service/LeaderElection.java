@@ -0,0 +1,26 @@
+package com.kleer.currency.service;
+
+/**
+ * Decides which node refreshes rates from Riksbank.
+ *
+ * Checked on the refresh path, so implementations must answer from local
+ * state without blocking.
+ */
+public interface LeaderElection {
+
+    /**
+     * @return true if this node should fetch rates upstream and publish them
+     */
+    boolean isLeader();
+
+    /**
+     * Claim the version of the snapshot a refresh is about to publish. Called
+     * inside the refresh transaction, so a failed claim rolls the refresh back.
+     *
+     * @return The version, or 0 to let {@link RateSnapshotService} number the snapshot
+     * @throws com.kleer.currency.exception.LeadershipLostException if this node is no longer the leader
+     */
+    default long claimNextVersion() {
+        return 0;
+    }
+}
@@ -0,0 +1,173 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.exception.LeadershipLostException;
+import com.kleer.currency.repository.RefreshLeaseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Leader election through a lease row in the shared database.
+ *
+ * Every node periodically tries to acquire or renew the lease; whoever holds
+ * an unexpired lease is the leader and runs the refresh. A crashed leader's
+ * lease simply expires and the next node to try takes over with a higher
+ * fencing token. The leader bumps the rate version on the lease row inside
+ * the refresh transaction, checked against its token, so a leader that
+ * stalled past its lease cannot commit rates. The other nodes read that
+ * version on each tick and reload the rate table only when it changes.
+ *
+ * This node considers itself leader for two thirds of the lease after each
+ * successful renewal, leaving the rest as margin for clock drift.
+ */
+@Component
+@ConditionalOnProperty(name = "replication.election", havingValue = "lease")
+@Slf4j
+public class LeaseLeaderElection implements LeaderElection {
+
+    static final String LEASE_NAME = "rate-refresh";
+
+    private final RefreshLeaseRepository repository;
+    private final RateSnapshotService rateSnapshotService;
+    private final String nodeId;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    private volatile long token;
+    private volatile long leaderUntilNanos;
+    private volatile boolean running;
+    private Thread leaseThread;
+
+    @Autowired
+    public LeaseLeaderElection(
+            RefreshLeaseRepository repository,
+            RateSnapshotService rateSnapshotService,
+            @Value("${replication.node-id:}") String nodeId,
+            @Value("${replication.lease.ttl-ms:15000}") long ttlMillis) {
+        this(repository, rateSnapshotService, nodeId, ttlMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock Source of the wall-clock time in epoch milliseconds stamped on the lease row
+     */
+    LeaseLeaderElection(
+            RefreshLeaseRepository repository,
+            RateSnapshotService rateSnapshotService,
+            String nodeId,
+            long ttlMillis,
+            LongSupplier clock) {
+        this.repository = repository;
+        this.rateSnapshotService = rateSnapshotService;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    void start() {
+        try {
+            repository.create(LEASE_NAME);
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the lease row first
+        }
+
+        tick();
+        running = true;
+        leaseThread = new Thread(this::runLease, "refresh-lease");
+        leaseThread.setDaemon(true);
+        leaseThread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (leaseThread != null) {
+            leaseThread.interrupt();
+        }
+
+        // Early return if there is no lease to hand over
+        if (!isLeader()) {
+            return;
+        }
+
+        leaderUntilNanos = 0;
+        try {
+            repository.release(LEASE_NAME, nodeId, token);
+        } catch (DataAccessException e) {
+            log.warn("Failed to release refresh lease: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isLeader() {
+        return leaderUntilNanos - System.nanoTime() > 0;
+    }
+
+    @Override
+    public long claimNextVersion() {
+        long claimedToken = token;
+
+        long floor = rateSnapshotService.getCurrent().version();
+
+        // Early return if the lease lapsed or was taken over since the last renewal
+        if (!isLeader() || repository.incrementRateVersion(LEASE_NAME, nodeId, claimedToken, clock.getAsLong(), floor) == 0) {
+            throw new LeadershipLostException(LEASE_NAME, claimedToken);
+        }
+
+        return repository.findRateVersion(LEASE_NAME).orElseThrow();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Renew or acquire the lease, and reload rates published by another leader.
+     */
+    void tick() {
+        try {
+            long startNanos = System.nanoTime();
+            long now = clock.getAsLong();
+            boolean wasLeader = isLeader();
+
+            if (repository.acquire(LEASE_NAME, nodeId, now, now + ttlMillis) == 1) {
+                token = repository.findToken(LEASE_NAME).orElseThrow();
+                leaderUntilNanos = startNanos + ttlMillis * 2 / 3 * 1_000_000;
+                if (!wasLeader) {
+                    log.info("Acquired refresh lease as {} with token {}", nodeId, token);
+                }
+            } else {
+                leaderUntilNanos = 0;
+                if (wasLeader) {
+                    log.warn("Lost refresh lease with token {}", token);
+                }
+            }
+
+            // Pick up rates published by another leader; a no-op if this version is already served
+            repository.findRateVersion(LEASE_NAME).ifPresent(rateSnapshotService::reload);
+        } catch (DataAccessException e) {
+            log.warn("Refresh lease check failed: {}", e.getMessage());
+        }
+    }
+
+    private void runLease() {
+        while (running) {
+            try {
+                Thread.sleep(Math.max(1, ttlMillis / 3));
+                tick();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.config.PricingProperties;
+import com.kleer.currency.exception.PricingUnavailableException;
+import com.kleer.currency.model.PriceTable;
+import com.kleer.currency.model.RateMatrix;
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.model.RateSnapshotPublishedEvent;
+import com.kleer.currency.model.SupportedCurrency;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service applying per-tenant spreads and tiered markups to mid rates.
+ *
+ * Pricing rules are evaluated once per published snapshot: every tenant's
+ * effective rates are compiled into a {@link PriceTable} and swapped in
+ * atomically, so the conversion path only looks a rate up and never
+ * evaluates rules per request. Mid rates come from the published snapshot's
+ * {@link RateMatrix} only, never from the database fallback of unpriced
+ * conversions, so a table always matches the snapshot version it carries.
+ */
+@Service
+@Slf4j
+public class PricingService {
+
+    private static final int RATE_SCALE = 8;
+    private static final BigDecimal BASIS_POINTS = BigDecimal.valueOf(20_000);
+    private static final BigDecimal IDENTITY_RATE = BigDecimal.ONE.setScale(RATE_SCALE);
+
+    private final PricingProperties properties;
+    private final CurrencyRegistry currencyRegistry;
+
+    private volatile Map<String, PriceTable> tables = Map.of();
+
+    public PricingService(PricingProperties properties, CurrencyRegistry currencyRegistry) {
+        this.properties = properties;
+        this.currencyRegistry = currencyRegistry;
+    }
+
+    /**
+     * Recompile all tenants' price tables for a newly published snapshot.
+     *
+     * @param event The published snapshot
+     */
+    @EventListener
+    public void onSnapshotPublished(RateSnapshotPublishedEvent event) {
+        // Early return if no tenants are configured
+        if (properties.getTenants().isEmpty()) {
+            return;
+        }
+
+        RateSnapshot snapshot = event.current();
+        RateMatrix matrix = RateMatrix.of(snapshot, currencyRegistry.getCurrencies());
+        Map<String, PriceTable> compiled = new HashMap<>();
+        for (Map.Entry<String, PricingProperties.Tenant> entry : properties.getTenants().entrySet()) {
+            compiled.put(entry.getKey(), compile(entry.getKey(), entry.getValue(), matrix));
+        }
+        tables = Map.copyOf(compiled);
+
+        log.debug("Compiled price tables for {} tenants from snapshot v{}", compiled.size(), snapshot.version());
+    }
+
+    /**
+     * @param tenantId Tenant id
+     * @return true if pricing rules are configured for the tenant
+     */
+    public boolean isTenant(String tenantId) {
+        return properties.getTenants().containsKey(tenantId);
+    }
+
+    /**
+     * Get a tenant's current price table.
+     *
+     * @param tenantId Tenant id
+     * @return The table, or null if the tenant is unknown
+     * @throws PricingUnavailableException if no rates have been published yet
+     */
+    public PriceTable getTable(String tenantId) {
+        PriceTable table = tables.get(tenantId);
+
+        // Early return for tenants whose table has not been compiled yet
+        if (table == null && isTenant(tenantId)) {
+            throw new PricingUnavailableException(tenantId);
+        }
+
+        return table;
+    }
+
+    private PriceTable compile(String tenantId, PricingProperties.Tenant tenant, RateMatrix matrix) {
+        List<SupportedCurrency> currencies = currencyRegistry.getCurrencies();
+        int size = currencies.size();
+        List<PricingProperties.MarkupTier> tiers = tenant.getMarkupTiers().isEmpty()
+                ? List.of(new PricingProperties.MarkupTier())
+                : tenant.getMarkupTiers().stream()
+                        .sorted(Comparator.comparing(PricingProperties.MarkupTier::getMinAmount))
+                        .toList();
+
+        BigDecimal[][] ratesByTier = new BigDecimal[tiers.size()][size * size];
+        for (SupportedCurrency from : currencies) {
+            for (SupportedCurrency to : currencies) {
+                // A same-currency conversion is a no-op: no spread and no markup on any tier
+                if (from == to) {
+                    for (int tier = 0; tier < tiers.size(); tier++) {
+                        ratesByTier[tier][from.index() * size + to.index()] = IDENTITY_RATE;
+                    }
+                    continue;
+                }
+
+                BigDecimal mid = matrix.getRate(from, to);
+                if (mid == null) {
+                    continue;
+                }
+                int spreadBps = spreadBps(tenant, from, to);
+                for (int tier = 0; tier < tiers.size(); tier++) {
+                    // Client receives the bid side: half the spread plus the tier's markup below mid
+                    BigDecimal deduction = BigDecimal.valueOf(spreadBps + 2L * tiers.get(tier).getMarkupBps())
+                            .divide(BASIS_POINTS, RATE_SCALE + 4, RoundingMode.HALF_UP);
+                    ratesByTier[tier][from.index() * size + to.index()] = mid
+                            .multiply(BigDecimal.ONE.subtract(deduction))
+                            .setScale(RATE_SCALE, RoundingMode.HALF_UP);
+                }
+            }
+        }
+
+        BigDecimal[][] tierThresholds = new BigDecimal[size][];
+        for (SupportedCurrency from : currencies) {
+            BigDecimal toSource = tierCurrencyRate(from, matrix);
+
+            // Without a rate into the source currency its amounts cannot be tiered: price at the first tier
+            if (toSource == null) {
+                log.warn("No {}/{} rate in snapshot v{}, tenant {} prices {} conversions at the first tier",
+                        properties.getTierCurrency(), from.code(), matrix.getVersion(), tenantId, from.code());
+                tierThresholds[from.index()] = new BigDecimal[] {tiers.get(0).getMinAmount()};
+                continue;
+            }
+
+            tierThresholds[from.index()] = new BigDecimal[tiers.size()];
+            for (int tier = 0; tier < tiers.size(); tier++) {
+                tierThresholds[from.index()][tier] = tiers.get(tier).getMinAmount().multiply(toSource);
+            }
+        }
+
+        return new PriceTable(tenantId, matrix.getVersion(), size, ratesByTier, tierThresholds);
+    }
+
+    private static int spreadBps(PricingProperties.Tenant tenant, SupportedCurrency from, SupportedCurrency to) {
+        Map<String, Integer> overrides = tenant.getPairSpreadBps();
+        Integer spread = overrides.get(from.code() + "/" + to.code());
+        if (spread == null) {
+            spread = overrides.get(to.code() + "/" + from.code());
+        }
+        return spread == null ? tenant.getSpreadBps() : spread;
+    }
+
+    /**
+     * @return Rate from the tier currency into the source currency, or null if unknown
+     */
+    private BigDecimal tierCurrencyRate(SupportedCurrency from, RateMatrix matrix) {
+        SupportedCurrency tierCurrency = currencyRegistry.resolve(properties.getTierCurrency());
+        return tierCurrency == null ? null : matrix.getRate(tierCurrency, from);
+    }
+}
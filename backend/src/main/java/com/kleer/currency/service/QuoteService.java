@@ -0,0 +1,202 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.exception.CurrencyNotSupportedException;
+import com.kleer.currency.exception.ExchangeRateNotFoundException;
+import com.kleer.currency.exception.QuoteCapacityExceededException;
+import com.kleer.currency.exception.QuoteNotFoundException;
+import com.kleer.currency.model.CurrencyPair;
+import com.kleer.currency.model.Quote;
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.model.SupportedCurrency;
+import com.kleer.currency.util.TimeWheelCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Service issuing and settling rate quotes.
+ *
+ * A quote binds the current snapshot's rate for a pair to an id until it
+ * expires. Quotes live only in a bounded {@link TimeWheelCache}; a background
+ * thread advances the wheel so expired quotes are evicted without scanning.
+ * Each quote can be settled once.
+ */
+@Service
+@Slf4j
+public class QuoteService {
+
+    private static final int MAX_ID_ATTEMPTS = 4;
+
+    private final RateSnapshotService rateSnapshotService;
+    private final CurrencyRegistry currencyRegistry;
+    private final long ttlMillis;
+    private final long tickMillis;
+    private final LongSupplier clock;
+    private final TimeWheelCache<Quote> quotes;
+    private final SecureRandom random = new SecureRandom();
+
+    private volatile boolean running;
+    private Thread expiryThread;
+
+    @Autowired
+    public QuoteService(
+            RateSnapshotService rateSnapshotService,
+            CurrencyRegistry currencyRegistry,
+            @Value("${quotes.ttl-seconds:30}") long ttlSeconds,
+            @Value("${quotes.max-live:1000000}") int maxLive,
+            @Value("${quotes.tick-ms:250}") long tickMillis) {
+        this(rateSnapshotService, currencyRegistry, ttlSeconds, maxLive, tickMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock Source of the current time in epoch milliseconds
+     */
+    public QuoteService(
+            RateSnapshotService rateSnapshotService,
+            CurrencyRegistry currencyRegistry,
+            long ttlSeconds,
+            int maxLive,
+            long tickMillis,
+            LongSupplier clock) {
+        this.rateSnapshotService = rateSnapshotService;
+        this.currencyRegistry = currencyRegistry;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.tickMillis = tickMillis;
+        this.clock = clock;
+        this.quotes = new TimeWheelCache<>(maxLive, ttlMillis, tickMillis, clock.getAsLong());
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        expiryThread = new Thread(this::runExpiry, "quote-expiry");
+        expiryThread.setDaemon(true);
+        expiryThread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (expiryThread != null) {
+            expiryThread.interrupt();
+        }
+    }
+
+    /**
+     * Issue a quote for the current rate of a pair.
+     *
+     * @param fromCurrency Source currency code
+     * @param toCurrency   Target currency code
+     * @return The quote
+     * @throws CurrencyNotSupportedException   if a currency is not supported
+     * @throws ExchangeRateNotFoundException   if the current snapshot has no rate for the pair
+     * @throws QuoteCapacityExceededException  if the maximum number of live quotes is reached
+     */
+    public Quote issue(String fromCurrency, String toCurrency) {
+        SupportedCurrency from = currencyRegistry.resolve(fromCurrency);
+        SupportedCurrency to = currencyRegistry.resolve(toCurrency);
+
+        // Early return for unsupported currencies
+        if (from == null) {
+            throw new CurrencyNotSupportedException(fromCurrency, currencyRegistry.getCodes());
+        }
+
+        if (to == null) {
+            throw new CurrencyNotSupportedException(toCurrency, currencyRegistry.getCodes());
+        }
+
+        RateSnapshot snapshot = rateSnapshotService.getCurrent();
+        BigDecimal rate = from == to ? BigDecimal.ONE : snapshot.getRate(new CurrencyPair(from.code(), to.code()));
+
+        // Early return if there is no rate to guarantee
+        if (rate == null) {
+            throw new ExchangeRateNotFoundException(
+                    String.format("Exchange rate not found for %s to %s", from.code(), to.code()));
+        }
+
+        long now = clock.getAsLong();
+        for (int attempt = 0; attempt < MAX_ID_ATTEMPTS; attempt++) {
+            Quote quote = new Quote(random.nextLong(), from, to, rate, snapshot.version(), now + ttlMillis);
+            if (quotes.putIfAbsent(quote.id(), quote, ttlMillis, now)) {
+                return quote;
+            }
+            if (quotes.size() >= quotes.capacity()) {
+                break;
+            }
+        }
+
+        throw new QuoteCapacityExceededException(quotes.capacity());
+    }
+
+    /**
+     * Look up a live quote without settling it.
+     *
+     * @param quoteId Quote id as returned by {@link Quote#externalId()}
+     * @return The quote
+     * @throws QuoteNotFoundException if the quote does not exist or has expired
+     */
+    public Quote get(String quoteId) {
+        Quote quote = quotes.get(parseId(quoteId), clock.getAsLong());
+
+        // Early return for unknown or expired quotes
+        if (quote == null) {
+            throw new QuoteNotFoundException(quoteId);
+        }
+
+        return quote;
+    }
+
+    /**
+     * Remove a live quote so it can be settled exactly once.
+     *
+     * @param quote Quote returned by {@link #get(String)}
+     * @throws QuoteNotFoundException if the quote expired or was settled concurrently
+     */
+    public void take(Quote quote) {
+        // Early return if another request settled the quote first
+        if (quotes.remove(quote.id(), clock.getAsLong()) == null) {
+            throw new QuoteNotFoundException(quote.externalId());
+        }
+    }
+
+    /**
+     * @return Number of live quotes
+     */
+    public int getLiveCount() {
+        return quotes.size();
+    }
+
+    int evictExpired() {
+        return quotes.advance(clock.getAsLong());
+    }
+
+    private void runExpiry() {
+        while (running) {
+            try {
+                Thread.sleep(tickMillis);
+                evictExpired();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Quote expiry sweep failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static long parseId(String quoteId) {
+        try {
+            return Long.parseUnsignedLong(quoteId, 36);
+        } catch (NumberFormatException e) {
+            throw new QuoteNotFoundException(quoteId);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.dto.OhlcBarDto;
+import com.kleer.currency.dto.RateAnalyticsResponse;
+import com.kleer.currency.exception.CurrencyNotSupportedException;
+import com.kleer.currency.model.BarInterval;
+import com.kleer.currency.model.CurrencyPair;
+import com.kleer.currency.model.RateHistoryImportedEvent;
+import com.kleer.currency.model.SupportedCurrency;
+import com.kleer.currency.repository.RateHistoryStore;
+import com.kleer.currency.util.RateAggregateTree;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service answering time-windowed rate analytics from precomputed aggregates.
+ *
+ * Keeps a {@link RateAggregateTree} per currency pair, built from the rate
+ * history on startup and updated incrementally as new rates are recorded, so
+ * statistics and each OHLC bar cost O(log n) regardless of the window size.
+ */
+@Service
+@Slf4j
+public class RateAnalyticsService {
+
+    private static final int MAX_BARS = 5000;
+    private static final LocalDate EARLIEST_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate LATEST_DATE = LocalDate.of(2200, 12, 31);
+
+    private final RateHistoryStore rateHistoryStore;
+    private final CurrencyRegistry currencyRegistry;
+    private final Map<CurrencyPair, RateAggregateTree> trees = new ConcurrentHashMap<>();
+
+    public RateAnalyticsService(RateHistoryStore rateHistoryStore, CurrencyRegistry currencyRegistry) {
+        this.rateHistoryStore = rateHistoryStore;
+        this.currencyRegistry = currencyRegistry;
+    }
+
+    /**
+     * Build aggregates for all pairs with stored history.
+     */
+    @PostConstruct
+    void loadHistory() {
+        LocalDate from = EARLIEST_DATE;
+        LocalDate to = LATEST_DATE;
+        for (CurrencyPair pair : rateHistoryStore.getPairs()) {
+            RateAggregateTree tree = treeFor(pair);
+            rateHistoryStore.forEach(pair, from, to, tree::append);
+        }
+        log.info("Built rate aggregates for {} currency pairs", trees.size());
+    }
+
+    /**
+     * Add a new observation to the aggregates. Replaces the latest observation
+     * if it has the same date.
+     *
+     * @param pair       The currency pair
+     * @param date       Observation date
+     * @param scaledRate Rate in the fixed-point form of {@link RateHistoryStore}
+     */
+    public void onObservation(CurrencyPair pair, LocalDate date, long scaledRate) {
+        treeFor(pair).append((int) date.toEpochDay(), scaledRate);
+    }
+
+    /**
+     * Rebuild the aggregates of pairs whose history was bulk-loaded.
+     *
+     * @param event The imported pairs
+     */
+    @EventListener
+    public void onHistoryImported(RateHistoryImportedEvent event) {
+        for (CurrencyPair pair : event.pairs()) {
+            RateAggregateTree tree = new RateAggregateTree(RateHistoryStore.VALUE_SCALE);
+            rateHistoryStore.forEach(pair, tree::append);
+            trees.put(pair, tree);
+        }
+        log.info("Rebuilt rate aggregates for {} imported currency pairs", event.pairs().size());
+    }
+
+    /**
+     * Compute statistics and optional OHLC bars for a pair over a window.
+     *
+     * @param fromCurrency Source currency
+     * @param toCurrency   Target currency
+     * @param start        First date of the window (inclusive)
+     * @param end          Last date of the window (inclusive)
+     * @param interval     Bar length, or null for statistics only
+     * @return Statistics and bars; statistics are null if the window has no observations
+     */
+    public RateAnalyticsResponse analyze(
+            String fromCurrency, String toCurrency, LocalDate start, LocalDate end, BarInterval interval) {
+        SupportedCurrency from = currencyRegistry.resolve(fromCurrency);
+        SupportedCurrency to = currencyRegistry.resolve(toCurrency);
+
+        // Early return for unsupported currencies
+        if (from == null) {
+            throw new CurrencyNotSupportedException(fromCurrency, currencyRegistry.getCodes());
+        }
+
+        if (to == null) {
+            throw new CurrencyNotSupportedException(toCurrency, currencyRegistry.getCodes());
+        }
+
+        // Early return for invalid windows
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+
+        if (start.isBefore(EARLIEST_DATE) || end.isAfter(LATEST_DATE)) {
+            throw new IllegalArgumentException("Dates must be between " + EARLIEST_DATE + " and " + LATEST_DATE);
+        }
+
+        RateAnalyticsResponse.RateAnalyticsResponseBuilder response = RateAnalyticsResponse.builder()
+                .fromCurrency(from.code())
+                .toCurrency(to.code())
+                .start(start)
+                .end(end)
+                .bars(List.of());
+
+        RateAggregateTree tree = trees.get(new CurrencyPair(from.code(), to.code()));
+
+        // Early return if there is no history for the pair
+        if (tree == null) {
+            return response.build();
+        }
+
+        RateAggregateTree.Aggregate summary = tree.query((int) start.toEpochDay(), (int) end.toEpochDay());
+
+        // Early return if the window has no observations
+        if (summary == null) {
+            return response.build();
+        }
+
+        return response
+                .observations(summary.count())
+                .min(toRate(summary.min()))
+                .max(toRate(summary.max()))
+                .mean(toRate(summary.mean()))
+                .standardDeviation(toRate(summary.standardDeviation()))
+                .open(toRate(summary.open()))
+                .close(toRate(summary.close()))
+                .bars(interval == null ? List.of() : buildBars(tree, start, end, interval))
+                .build();
+    }
+
+    private List<OhlcBarDto> buildBars(RateAggregateTree tree, LocalDate start, LocalDate end, BarInterval interval) {
+        List<OhlcBarDto> bars = new ArrayList<>();
+        for (LocalDate barStart = interval.startOf(start); !barStart.isAfter(end); barStart = interval.next(barStart)) {
+            if (bars.size() >= MAX_BARS) {
+                throw new IllegalArgumentException("Window spans more than " + MAX_BARS + " bars");
+            }
+
+            LocalDate from = barStart.isBefore(start) ? start : barStart;
+            LocalDate lastDayOfBar = interval.next(barStart).minusDays(1);
+            LocalDate to = lastDayOfBar.isAfter(end) ? end : lastDayOfBar;
+
+            RateAggregateTree.Aggregate bar = tree.query((int) from.toEpochDay(), (int) to.toEpochDay());
+            if (bar == null) {
+                continue;
+            }
+
+            bars.add(OhlcBarDto.builder()
+                    .start(from)
+                    .end(to)
+                    .open(toRate(bar.open()))
+                    .high(toRate(bar.max()))
+                    .low(toRate(bar.min()))
+                    .close(toRate(bar.close()))
+                    .observations(bar.count())
+                    .build());
+        }
+        return bars;
+    }
+
+    private RateAggregateTree treeFor(CurrencyPair pair) {
+        return trees.computeIfAbsent(pair, p -> new RateAggregateTree(RateHistoryStore.VALUE_SCALE));
+    }
+
+    private static BigDecimal toRate(long scaledRate) {
+        return RateHistoryStore.fromScaled(scaledRate);
+    }
+
+    private static BigDecimal toRate(double rate) {
+        return BigDecimal.valueOf(rate).setScale(RateHistoryStore.VALUE_SCALE, RoundingMode.HALF_UP);
+    }
+}
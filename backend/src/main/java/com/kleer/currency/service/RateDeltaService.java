@@ -0,0 +1,267 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.dto.RateDeltaResponse;
+import com.kleer.currency.model.RateDelta;
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.model.RateSnapshotPublishedEvent;
+import com.kleer.currency.repository.RateDeltaLogStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Service maintaining the sequence-numbered feed of rate deltas.
+ *
+ * Every published snapshot yields one delta whose sequence number is the
+ * snapshot version. The most recent deltas are kept in memory and appended to
+ * a file log so the feed survives restarts. A client passes the last sequence
+ * it has applied and receives the merged changes since then, or the complete
+ * rate set if it is too far behind. Clients that are up to date can wait for
+ * the next delta instead of polling.
+ */
+@Service
+@Slf4j
+public class RateDeltaService {
+
+    private final RateSnapshotService rateSnapshotService;
+    private final RateDeltaLogStore logStore;
+    private final boolean persistenceEnabled;
+    private final int retention;
+    private final long maxWaitMillis;
+
+    private final ArrayDeque<RateDelta> deltas = new ArrayDeque<>();
+    private final List<Waiter> waiters = new ArrayList<>();
+
+    public RateDeltaService(
+            RateSnapshotService rateSnapshotService,
+            RateDeltaLogStore logStore,
+            @Value("${rates.delta.enabled:true}") boolean persistenceEnabled,
+            @Value("${rates.delta.retention:256}") int retention,
+            @Value("${rates.delta.max-wait-ms:30000}") long maxWaitMillis) {
+        this.rateSnapshotService = rateSnapshotService;
+        this.logStore = logStore;
+        this.persistenceEnabled = persistenceEnabled;
+        this.retention = retention;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * Load the retained deltas from the log.
+     */
+    @PostConstruct
+    synchronized void load() {
+        // Early return if the log is disabled
+        if (!persistenceEnabled) {
+            return;
+        }
+
+        try {
+            for (RateDelta delta : logStore.load()) {
+                add(delta);
+            }
+            log.info("Loaded {} rate deltas from {}", deltas.size(), logStore.getPath());
+        } catch (IOException e) {
+            log.warn("Failed to load rate deltas from {}: {}", logStore.getPath(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        logStore.close();
+    }
+
+    /**
+     * Record the delta of a newly published snapshot and wake up waiting clients.
+     *
+     * @param event The published snapshot
+     */
+    @EventListener
+    public void onSnapshotPublished(RateSnapshotPublishedEvent event) {
+        RateSnapshot current = event.current();
+        List<Waiter> ready;
+
+        synchronized (this) {
+            // Early return if the snapshot was restored and its delta is already known
+            if (!deltas.isEmpty() && deltas.getLast().sequence() == current.version()) {
+                return;
+            }
+
+            // A restored snapshot, a missed version or versions restarting lower (a new leader
+            // without the old snapshot) break the chain; clients get the full set
+            boolean consecutive = event.previous().version() == current.version() - 1;
+            boolean gap = !consecutive || (!deltas.isEmpty() && deltas.getLast().sequence() != event.previous().version());
+            if (!deltas.isEmpty() && deltas.getLast().sequence() > current.version()) {
+                log.warn("Rate snapshot version went back from {} to {}, resetting delta feed",
+                        deltas.getLast().sequence(), current.version());
+            }
+            if (gap) {
+                deltas.clear();
+                clearLog();
+            }
+            if (consecutive) {
+                RateDelta delta = RateDelta.between(event.previous(), current);
+                add(delta);
+                persist(delta);
+            }
+
+            ready = new ArrayList<>(waiters);
+            waiters.clear();
+        }
+
+        for (Waiter waiter : ready) {
+            waiter.result().setResult(ResponseEntity.ok(getChangesSince(waiter.since())));
+        }
+    }
+
+    /**
+     * Get the changes a client needs to catch up.
+     *
+     * @param since Last sequence the client has applied; 0 if it has nothing
+     * @return Merged changes since {@code since}, or the complete rate set if
+     * the deltas in between are no longer retained
+     */
+    public RateDeltaResponse getChangesSince(long since) {
+        RateSnapshot snapshot = rateSnapshotService.getCurrent();
+
+        synchronized (this) {
+            long oldest = deltas.isEmpty() ? Long.MAX_VALUE : deltas.getFirst().sequence();
+
+            // Early return with the full rate set if the client is unknown or too far behind
+            if (since > snapshot.version() || (since < snapshot.version() && since < oldest - 1)) {
+                return full(since, snapshot);
+            }
+
+            Map<String, BigDecimal> changed = new LinkedHashMap<>();
+            Set<String> removed = new LinkedHashSet<>();
+            long sequence = since;
+            RateDelta last = null;
+            for (RateDelta delta : deltas) {
+                if (delta.sequence() <= since) {
+                    continue;
+                }
+                for (Map.Entry<String, BigDecimal> entry : new TreeMap<>(delta.changed()).entrySet()) {
+                    changed.put(entry.getKey(), entry.getValue());
+                    removed.remove(entry.getKey());
+                }
+                for (String key : delta.removed()) {
+                    changed.remove(key);
+                    removed.add(key);
+                }
+                sequence = delta.sequence();
+                last = delta;
+            }
+
+            return RateDeltaResponse.builder()
+                    .fromSequence(since)
+                    .sequence(sequence)
+                    .full(false)
+                    .lastUpdated(last != null ? last.lastUpdated() : snapshot.lastUpdated())
+                    .changed(changed)
+                    .removed(List.copyOf(removed))
+                    .build();
+        }
+    }
+
+    /**
+     * Get the changes since a sequence, waiting for the next delta if there are none yet.
+     *
+     * @param since      Last sequence the client has applied
+     * @param waitMillis Maximum time to wait; capped at the configured maximum
+     * @return Result completed with the changes, or with 204 No Content if none arrived in time
+     */
+    public DeferredResult<ResponseEntity<RateDeltaResponse>> awaitChangesSince(long since, long waitMillis) {
+        long timeout = Math.max(0, Math.min(waitMillis, maxWaitMillis));
+        DeferredResult<ResponseEntity<RateDeltaResponse>> result =
+                new DeferredResult<>(timeout, ResponseEntity.noContent().build());
+
+        synchronized (this) {
+            // Wait only if the client is exactly up to date; anything else is answered now
+            if (timeout > 0 && since == rateSnapshotService.getCurrent().version()) {
+                Waiter waiter = new Waiter(since, result);
+                waiters.add(waiter);
+                result.onCompletion(() -> removeWaiter(waiter));
+                return result;
+            }
+        }
+
+        RateDeltaResponse response = getChangesSince(since);
+        result.setResult(response.isFull() || response.getSequence() > since
+                ? ResponseEntity.ok(response)
+                : ResponseEntity.noContent().build());
+        return result;
+    }
+
+    /**
+     * @return Sequence of the newest retained delta, 0 if none
+     */
+    public synchronized long getSequence() {
+        return deltas.isEmpty() ? 0 : deltas.getLast().sequence();
+    }
+
+    private void add(RateDelta delta) {
+        deltas.addLast(delta);
+        while (deltas.size() > retention) {
+            deltas.removeFirst();
+        }
+    }
+
+    private void persist(RateDelta delta) {
+        // Early return if the log is disabled
+        if (!persistenceEnabled) {
+            return;
+        }
+
+        try {
+            logStore.append(delta);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to persist rate delta {}: {}", delta.sequence(), e.getMessage());
+        }
+    }
+
+    private void clearLog() {
+        // Early return if the log is disabled
+        if (!persistenceEnabled) {
+            return;
+        }
+
+        try {
+            logStore.clear();
+        } catch (IOException e) {
+            log.warn("Failed to clear rate delta log {}: {}", logStore.getPath(), e.getMessage());
+        }
+    }
+
+    private synchronized void removeWaiter(Waiter waiter) {
+        waiters.remove(waiter);
+    }
+
+    private static RateDeltaResponse full(long since, RateSnapshot snapshot) {
+        return RateDeltaResponse.builder()
+                .fromSequence(since)
+                .sequence(snapshot.version())
+                .full(true)
+                .lastUpdated(snapshot.lastUpdated())
+                .changed(new TreeMap<>(snapshot.rates()))
+                .removed(List.of())
+                .build();
+    }
+
+    private record Waiter(long since, DeferredResult<ResponseEntity<RateDeltaResponse>> result) {
+    }
+}
@@ -0,0 +1,199 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.model.CurrencyPair;
+import com.kleer.currency.model.RateExport;
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.repository.RateHistoryStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service producing bulk export files of current and historical rates.
+ *
+ * Exports are gzip-compressed CSV files sorted by pair and date, written once
+ * per snapshot version and reused until the next refresh. Rows are streamed
+ * from the snapshot and the memory-mapped history straight into the file, so
+ * an export never holds the dataset on the heap. Files are written to a
+ * temporary name and moved into place, and the file of the previous version
+ * is kept so downloads already in flight can finish. A history import
+ * starts a new revision of the history export within the same version,
+ * named by the history store's persisted merge stamp so names stay unique
+ * across restarts.
+ */
+@Service
+@Slf4j
+public class RateExportService {
+
+    private static final String EXTENSION = ".csv.gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final RateSnapshotService rateSnapshotService;
+    private final RateHistoryStore rateHistoryStore;
+    private final Path directory;
+    private final Map<RateExport, Object> locks = new EnumMap<>(RateExport.class);
+
+    public RateExportService(
+            RateSnapshotService rateSnapshotService,
+            RateHistoryStore rateHistoryStore,
+            @Value("${rates.export.path:./data/export}") String directory) {
+        this.rateSnapshotService = rateSnapshotService;
+        this.rateHistoryStore = rateHistoryStore;
+        this.directory = Path.of(directory);
+        for (RateExport export : RateExport.values()) {
+            locks.put(export, new Object());
+        }
+    }
+
+    /**
+     * An export file and the tag of the data it was written from.
+     *
+     * @param path Location of the file
+     * @param tag  Snapshot version, plus the history merge stamp for history exports
+     * @param size File size in bytes
+     */
+    public record ExportFile(Path path, String tag, long size) {
+    }
+
+    /**
+     * Get the export file for the current snapshot, writing it if needed.
+     *
+     * @param export The dataset
+     * @return The export file, or null before the first refresh
+     */
+    public ExportFile getExport(RateExport export) {
+        RateSnapshot snapshot = rateSnapshotService.getCurrent();
+
+        // Early return if there is nothing to export yet
+        if (snapshot.isEmpty()) {
+            return null;
+        }
+
+        String tag = export == RateExport.HISTORY
+                ? snapshot.version() + "." + rateHistoryStore.getMergeStamp()
+                : Long.toString(snapshot.version());
+        Path file = directory.resolve(export.getFileName() + "-v" + tag + EXTENSION);
+        synchronized (locks.get(export)) {
+            try {
+                if (!Files.exists(file)) {
+                    write(export, snapshot, file);
+                    deleteOlder(export, file);
+                }
+                return new ExportFile(file, tag, Files.size(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write " + export.getFileName() + " export", e);
+            }
+        }
+    }
+
+    private void write(RateExport export, RateSnapshot snapshot, Path file) throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, export.getFileName(), ".tmp");
+        try {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temp), BUFFER_SIZE),
+                    StandardCharsets.US_ASCII), BUFFER_SIZE)) {
+                writer.write(export.getHeader());
+                writer.write('\n');
+                switch (export) {
+                    case LATEST -> writeLatest(snapshot, writer);
+                    case HISTORY -> writeHistory(writer);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        log.info("Wrote {} export v{} ({} bytes) in {} ms", export.getFileName(), snapshot.version(),
+                Files.size(file), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void writeLatest(RateSnapshot snapshot, Writer writer) throws IOException {
+        String lastUpdated = snapshot.lastUpdated() == null ? "" : snapshot.lastUpdated().toString();
+        List<String> keys = new ArrayList<>(snapshot.rates().keySet());
+        keys.sort(null);
+        for (String key : keys) {
+            CurrencyPair pair = CurrencyPair.fromKey(key);
+            writer.write(pair.from());
+            writer.write(',');
+            writer.write(pair.to());
+            writer.write(',');
+            writer.write(snapshot.rates().get(key).toPlainString());
+            writer.write(',');
+            writer.write(lastUpdated);
+            writer.write('\n');
+        }
+    }
+
+    private void writeHistory(Writer writer) throws IOException {
+        List<CurrencyPair> pairs = new ArrayList<>(rateHistoryStore.getPairs());
+        pairs.sort(Comparator.comparing(CurrencyPair::from).thenComparing(CurrencyPair::to));
+
+        try {
+            for (CurrencyPair pair : pairs) {
+                String prefix = pair.from() + ',' + pair.to() + ',';
+                rateHistoryStore.forEach(pair, (epochDay, scaledRate) -> {
+                    try {
+                        writer.write(prefix);
+                        writer.write(LocalDate.ofEpochDay(epochDay).toString());
+                        writer.write(',');
+                        writer.write(BigDecimal.valueOf(scaledRate, RateHistoryStore.VALUE_SCALE).toPlainString());
+                        writer.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void deleteOlder(RateExport export, Path current) throws IOException {
+        List<Path> older = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(
+                directory, export.getFileName() + "-v*" + EXTENSION)) {
+            for (Path file : files) {
+                if (!file.equals(current)) {
+                    older.add(file);
+                }
+            }
+        }
+
+        // Keep the most recently written older file for downloads still in flight
+        older.sort(Comparator.comparing(RateExportService::lastModified));
+        for (int i = 0; i < older.size() - 1; i++) {
+            Files.deleteIfExists(older.get(i));
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.model.CurrencyPair;
+import com.kleer.currency.model.RateHistoryImportedEvent;
+import com.kleer.currency.model.SupportedCurrency;
+import com.kleer.currency.repository.RateHistoryStore;
+import com.kleer.currency.util.CacheStats;
+import com.kleer.currency.util.LongSingleFlight;
+import com.kleer.currency.util.OffHeapLongCache;
+import com.kleer.currency.util.TinyLfuLongCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Read-through cache for as-of-date lookups in the {@link RateHistoryStore}.
+ *
+ * Entries are keyed on the registry indexes of both currencies and the epoch
+ * day packed into one long, and hold the fixed-point rate, so neither tier
+ * boxes or builds strings. The on-heap tier evicts with W-TinyLFU (or LRU);
+ * entries it evicts move to the optional off-heap tier, and off-heap hits
+ * move back. Only dates before a pair's latest observation are cached:
+ * their answer cannot change by appending newer observations, so daily
+ * refreshes need no invalidation. Imports that rewrite history invalidate
+ * the affected pairs. Concurrent misses for the same key share one store
+ * lookup through a {@link LongSingleFlight}, which does not box the key or
+ * the rate either, and only that lookup writes to the cache.
+ */
+@Service
+@Slf4j
+public class RateHistoryCache {
+
+    /**
+     * Cached for dates before a pair's first observation. Rates are positive.
+     */
+    private static final long NO_RATE = -1;
+
+    private final RateHistoryStore rateHistoryStore;
+    private final CurrencyRegistry currencyRegistry;
+    private final boolean enabled;
+    private final TinyLfuLongCache.Eviction eviction;
+    private final TinyLfuLongCache heap;
+    private final OffHeapLongCache offHeap;
+    private final LongSingleFlight loads = new LongSingleFlight();
+
+    public RateHistoryCache(
+            RateHistoryStore rateHistoryStore,
+            CurrencyRegistry currencyRegistry,
+            @Value("${rates.history.cache.enabled:true}") boolean enabled,
+            @Value("${rates.history.cache.heap-entries:65536}") int heapEntries,
+            @Value("${rates.history.cache.off-heap-entries:0}") int offHeapEntries,
+            @Value("${rates.history.cache.eviction:TINY_LFU}") TinyLfuLongCache.Eviction eviction) {
+        this.rateHistoryStore = rateHistoryStore;
+        this.currencyRegistry = currencyRegistry;
+        this.enabled = enabled;
+        this.eviction = eviction;
+        this.offHeap = enabled && offHeapEntries > 0 ? new OffHeapLongCache(offHeapEntries) : null;
+        this.heap = enabled ? new TinyLfuLongCache(heapEntries, eviction, offHeap == null ? null : offHeap::put) : null;
+    }
+
+    /**
+     * Find the rate in effect on a date, i.e. the latest observation on or before it.
+     *
+     * @param pair The currency pair
+     * @param date The date
+     * @return The rate, or empty if there is no observation on or before the date
+     */
+    public Optional<BigDecimal> findRateAsOf(CurrencyPair pair, LocalDate date) {
+        SupportedCurrency from = currencyRegistry.resolve(pair.from());
+        SupportedCurrency to = currencyRegistry.resolve(pair.to());
+
+        // Early return for lookups the cache cannot key
+        if (!enabled || from == null || to == null) {
+            return rateHistoryStore.findRateAsOf(pair, date);
+        }
+
+        int epochDay = (int) date.toEpochDay();
+        long key = key(from.index() * currencyRegistry.size() + to.index(), epochDay);
+
+        long stamp = heap.stamp();
+        long scaled = heap.get(key);
+        if (scaled == TinyLfuLongCache.ABSENT) {
+            scaled = offHeap == null ? OffHeapLongCache.ABSENT : offHeap.take(key);
+            if (scaled != OffHeapLongCache.ABSENT) {
+                heap.put(key, scaled, stamp);
+            } else {
+                // Concurrent misses for the same pair and date share one store lookup
+                scaled = loads.execute(key, () -> load(pair, epochDay, key));
+            }
+        }
+        return toRate(scaled);
+    }
+
+    /**
+     * Drop cached lookups of pairs whose history an import rewrote.
+     */
+    @EventListener
+    public void onHistoryImported(RateHistoryImportedEvent event) {
+        // Early return if nothing is cached
+        if (!enabled) {
+            return;
+        }
+
+        int currencies = currencyRegistry.size();
+        boolean[] affected = new boolean[currencies * currencies];
+        for (CurrencyPair pair : event.pairs()) {
+            SupportedCurrency from = currencyRegistry.resolve(pair.from());
+            SupportedCurrency to = currencyRegistry.resolve(pair.to());
+            if (from != null && to != null) {
+                affected[from.index() * currencies + to.index()] = true;
+            }
+        }
+
+        int removed = heap.invalidate(key -> affected[(int) (key >>> 32)]);
+        if (offHeap != null) {
+            removed += offHeap.invalidate(key -> affected[(int) (key >>> 32)]);
+        }
+        log.info("Invalidated {} cached history lookups for {} pairs", removed, event.pairs().size());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public TinyLfuLongCache.Eviction getEviction() {
+        return eviction;
+    }
+
+    /**
+     * @return Statistics of the on-heap tier, or null if the cache is disabled
+     */
+    public CacheStats getHeapStats() {
+        return heap == null ? null : heap.stats();
+    }
+
+    /**
+     * @return Statistics of the off-heap tier, or null if it or the cache is disabled
+     */
+    public CacheStats getOffHeapStats() {
+        return offHeap == null ? null : offHeap.stats();
+    }
+
+    /**
+     * Look up a rate in the store and cache it if no later observation can change it.
+     */
+    private long load(CurrencyPair pair, int epochDay, long key) {
+        // The stamp and latest date must be read before the store, see TinyLfuLongCache#put
+        long stamp = heap.stamp();
+        boolean settled = epochDay < rateHistoryStore.lastEpochDay(pair);
+        long scaled = rateHistoryStore.findScaledAsOf(pair, epochDay);
+        if (scaled == RateHistoryStore.NO_OBSERVATION) {
+            scaled = NO_RATE;
+        }
+        if (settled) {
+            heap.put(key, scaled, stamp);
+        }
+        return scaled;
+    }
+
+    private static long key(int pairIndex, int epochDay) {
+        return ((long) pairIndex << 32) | (epochDay & 0xFFFFFFFFL);
+    }
+
+    private static Optional<BigDecimal> toRate(long scaled) {
+        return scaled == NO_RATE ? Optional.empty() : Optional.of(RateHistoryStore.fromScaled(scaled));
+    }
+}
@@ -0,0 +1,419 @@
+package com.kleer.currency.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.kleer.currency.model.SupportedCurrency;
+import com.kleer.currency.repository.RateHistoryStore;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parser for rate history import files.
+ *
+ * Parses a byte range of a (memory-mapped) file line by line without
+ * decoding it to strings: currency codes are resolved straight from the
+ * bytes and rates are parsed into the fixed-point form of
+ * {@link RateHistoryStore}. Rows are collected into primitive columns per
+ * currency pair, indexed by the pair's position in the registry.
+ *
+ * Supported formats:
+ * <ul>
+ *   <li>CSV: {@code from,to,date,rate} with an optional header line and optionally quoted fields</li>
+ *   <li>JSON Lines: one object per line with {@code from}, {@code to}, {@code date} and {@code rate};
+ *       {@code fromCurrency} and {@code toCurrency} are accepted as well</li>
+ * </ul>
+ * Dates are ISO dates (e.g. 2024-01-31); rates must be positive.
+ */
+final class RateImportParser {
+
+    private static final int MAX_REJECTIONS = 10;
+    private static final int MAX_INTEGER_DIGITS = 10;
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L};
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Import file format, chosen by file extension.
+     */
+    enum Format {
+        CSV,
+        JSON_LINES;
+
+        /**
+         * @return The format of a file, or null if the extension is not supported
+         */
+        static Format of(String fileName) {
+            String name = fileName.toLowerCase();
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")) {
+                return JSON_LINES;
+            }
+            return null;
+        }
+    }
+
+    private final CurrencyRegistry currencyRegistry;
+    private final Format format;
+
+    RateImportParser(CurrencyRegistry currencyRegistry, Format format) {
+        this.currencyRegistry = currencyRegistry;
+        this.format = format;
+    }
+
+    /**
+     * Parse all lines within a byte range. The range must start at a line
+     * start and end after a line break or at the end of the file.
+     *
+     * @param buffer     Buffer holding the range
+     * @param start      First byte of the range (inclusive)
+     * @param end        End of the range (exclusive)
+     * @param fileOffset Offset of buffer index 0 within the file, for error reporting
+     * @return The parsed rows
+     */
+    ParsedRates parse(ByteBuffer buffer, int start, int end, long fileOffset) {
+        ParsedRates parsed = new ParsedRates(currencyRegistry.size());
+        byte[] line = format == Format.JSON_LINES ? new byte[256] : null;
+
+        int lineStart = start;
+        while (lineStart < end) {
+            int lineEnd = lineStart;
+            while (lineEnd < end && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+
+            int contentEnd = lineEnd;
+            while (contentEnd > lineStart && buffer.get(contentEnd - 1) <= ' ') {
+                contentEnd--;
+            }
+            int contentStart = lineStart;
+            while (contentStart < contentEnd && buffer.get(contentStart) <= ' ') {
+                contentStart++;
+            }
+
+            // Skip blank lines and a leading CSV header
+            boolean header = format == Format.CSV && fileOffset + lineStart == 0 && contentEnd - contentStart > 4
+                    && isLetter(buffer.get(contentStart)) && buffer.get(contentStart + 4) == ',';
+            if (contentStart < contentEnd && !header) {
+                parsed.rows++;
+                String error = switch (format) {
+                    case CSV -> parseCsv(buffer, contentStart, contentEnd, parsed);
+                    case JSON_LINES -> {
+                        int length = contentEnd - contentStart;
+                        if (line.length < length) {
+                            line = new byte[Math.max(length, line.length * 2)];
+                        }
+                        buffer.get(contentStart, line, 0, length);
+                        yield parseJson(line, length, parsed);
+                    }
+                };
+                if (error != null) {
+                    parsed.reject(fileOffset + lineStart, error);
+                }
+            }
+
+            lineStart = lineEnd + 1;
+        }
+        return parsed;
+    }
+
+    private String parseCsv(ByteBuffer buffer, int start, int end, ParsedRates parsed) {
+        int[] fields = new int[8];
+        int field = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end && field < 4; i++) {
+            if (i == end || buffer.get(i) == ',') {
+                int from = fieldStart;
+                int to = i;
+                while (from < to && buffer.get(from) <= ' ') {
+                    from++;
+                }
+                while (to > from && buffer.get(to - 1) <= ' ') {
+                    to--;
+                }
+                if (to - from >= 2 && buffer.get(from) == '"' && buffer.get(to - 1) == '"') {
+                    from++;
+                    to--;
+                }
+                fields[field * 2] = from;
+                fields[field * 2 + 1] = to;
+                field++;
+                fieldStart = i + 1;
+            }
+        }
+
+        // Early return for a wrong number of columns
+        if (field != 4 || fieldStart <= end) {
+            return "expected 4 columns";
+        }
+
+        SupportedCurrency from = currencyRegistry.resolve(buffer, fields[0], fields[1]);
+        SupportedCurrency to = currencyRegistry.resolve(buffer, fields[2], fields[3]);
+        int epochDay = parseDate(buffer, fields[4], fields[5]);
+        long rate = parseRate(buffer, fields[6], fields[7]);
+        return add(parsed, from, to, epochDay, rate);
+    }
+
+    private String parseJson(byte[] line, int length, ParsedRates parsed) {
+        SupportedCurrency from = null;
+        SupportedCurrency to = null;
+        int epochDay = Integer.MIN_VALUE;
+        long rate = -1;
+
+        try (JsonParser parser = JSON_FACTORY.createParser(line, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return "expected a JSON object";
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (name) {
+                    case "from", "fromCurrency" -> from = currencyRegistry.resolve(parser.getValueAsString());
+                    case "to", "toCurrency" -> to = currencyRegistry.resolve(parser.getValueAsString());
+                    case "date" -> epochDay = parseDate(parser.getValueAsString());
+                    case "rate" -> rate = value == JsonToken.VALUE_STRING
+                            ? parseRate(parser.getText())
+                            : toScaled(parser.getDecimalValue());
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return "invalid JSON";
+        }
+
+        return add(parsed, from, to, epochDay, rate);
+    }
+
+    private static String add(ParsedRates parsed, SupportedCurrency from, SupportedCurrency to, int epochDay, long rate) {
+        if (from == null || to == null) {
+            return "unsupported currency";
+        }
+        if (from == to) {
+            return "same source and target currency";
+        }
+        if (epochDay == Integer.MIN_VALUE) {
+            return "invalid date";
+        }
+        if (rate <= 0) {
+            return "invalid rate";
+        }
+        parsed.add(from.index(), to.index(), epochDay, rate);
+        return null;
+    }
+
+    /**
+     * Parse an ISO date (yyyy-MM-dd).
+     *
+     * @return The epoch day, or {@link Integer#MIN_VALUE} if the date is invalid
+     */
+    private static int parseDate(ByteBuffer buffer, int start, int end) {
+        // Early return for anything but yyyy-MM-dd
+        if (end - start != 10 || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-') {
+            return Integer.MIN_VALUE;
+        }
+        int year = digits(buffer, start, start + 4);
+        int month = digits(buffer, start + 5, start + 7);
+        int day = digits(buffer, start + 8, start + 10);
+        if (year < 0 || month < 0 || day < 0) {
+            return Integer.MIN_VALUE;
+        }
+        try {
+            return (int) LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException e) {
+            return Integer.MIN_VALUE;
+        }
+    }
+
+    private static int parseDate(String date) {
+        // Early return for missing date
+        if (date == null) {
+            return Integer.MIN_VALUE;
+        }
+        byte[] bytes = date.getBytes(StandardCharsets.US_ASCII);
+        return parseDate(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    private static int digits(ByteBuffer buffer, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Parse a decimal rate into fixed-point form, rounding half up beyond
+     * {@link RateHistoryStore#VALUE_SCALE} decimals. Plain decimals are parsed
+     * from the bytes; anything else (e.g. exponents) goes through BigDecimal.
+     *
+     * @return The scaled rate, or -1 if the rate is not a valid number
+     */
+    private static long parseRate(ByteBuffer buffer, int start, int end) {
+        long integer = 0;
+        long fraction = 0;
+        int integerDigits = 0;
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        boolean point = false;
+
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == '.' && !point) {
+                point = true;
+                continue;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9 || integerDigits > MAX_INTEGER_DIGITS) {
+                return parseRate(StandardCharsets.US_ASCII.decode(buffer.slice(start, end - start)).toString());
+            }
+            if (!point) {
+                integer = integer * 10 + digit;
+                integerDigits++;
+            } else if (fractionDigits < RateHistoryStore.VALUE_SCALE) {
+                fraction = fraction * 10 + digit;
+                fractionDigits++;
+            } else if (fractionDigits == RateHistoryStore.VALUE_SCALE) {
+                roundUp = digit >= 5;
+                fractionDigits++;
+            }
+        }
+
+        // Early return if there were no digits at all
+        if (integerDigits == 0 && fractionDigits == 0) {
+            return -1;
+        }
+
+        int scale = Math.min(fractionDigits, RateHistoryStore.VALUE_SCALE);
+        long scaled = integer * POWERS_OF_TEN[RateHistoryStore.VALUE_SCALE]
+                + fraction * POWERS_OF_TEN[RateHistoryStore.VALUE_SCALE - scale];
+        return roundUp ? scaled + 1 : scaled;
+    }
+
+    private static long parseRate(String rate) {
+        try {
+            return toScaled(new BigDecimal(rate.trim()));
+        } catch (NumberFormatException | ArithmeticException e) {
+            return -1;
+        }
+    }
+
+    private static long toScaled(BigDecimal rate) {
+        try {
+            return RateHistoryStore.toScaled(rate);
+        } catch (ArithmeticException e) {
+            return -1;
+        }
+    }
+
+    private static boolean isLetter(byte b) {
+        int letter = (b | 0x20) - 'a';
+        return letter >= 0 && letter < 26;
+    }
+
+    /**
+     * Rows parsed from one byte range, as primitive columns per currency pair.
+     *
+     * Columns keep file order, so appending the result of the following
+     * range keeps the whole import in file order.
+     */
+    static final class ParsedRates {
+
+        private final int currencies;
+        private final int[][] days;
+        private final long[][] rates;
+        private final int[] sizes;
+        private final List<String> rejections = new ArrayList<>();
+        private long rows;
+        private long rejected;
+
+        ParsedRates(int currencies) {
+            this.currencies = currencies;
+            this.days = new int[currencies * currencies][];
+            this.rates = new long[currencies * currencies][];
+            this.sizes = new int[currencies * currencies];
+        }
+
+        void add(int from, int to, int epochDay, long scaledRate) {
+            int pair = from * currencies + to;
+            int size = sizes[pair];
+            if (days[pair] == null) {
+                days[pair] = new int[64];
+                rates[pair] = new long[64];
+            } else if (size == days[pair].length) {
+                days[pair] = Arrays.copyOf(days[pair], size * 2);
+                rates[pair] = Arrays.copyOf(rates[pair], size * 2);
+            }
+            days[pair][size] = epochDay;
+            rates[pair][size] = scaledRate;
+            sizes[pair] = size + 1;
+        }
+
+        void reject(long offset, String reason) {
+            rejected++;
+            if (rejections.size() < MAX_REJECTIONS) {
+                rejections.add("offset " + offset + ": " + reason);
+            }
+        }
+
+        /**
+         * Append the rows of the following range.
+         */
+        ParsedRates append(ParsedRates next) {
+            for (int pair = 0; pair < sizes.length; pair++) {
+                for (int i = 0; i < next.sizes[pair]; i++) {
+                    add(pair / currencies, pair % currencies, next.days[pair][i], next.rates[pair][i]);
+                }
+            }
+            rows += next.rows;
+            rejected += next.rejected;
+            for (String rejection : next.rejections) {
+                if (rejections.size() < MAX_REJECTIONS) {
+                    rejections.add(rejection);
+                }
+            }
+            return this;
+        }
+
+        int currencies() {
+            return currencies;
+        }
+
+        int size(int from, int to) {
+            return sizes[from * currencies + to];
+        }
+
+        int[] days(int from, int to) {
+            return days[from * currencies + to];
+        }
+
+        long[] rates(int from, int to) {
+            return rates[from * currencies + to];
+        }
+
+        long rows() {
+            return rows;
+        }
+
+        long rejected() {
+            return rejected;
+        }
+
+        List<String> rejections() {
+            return rejections;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.dto.RateImportResponse;
+import com.kleer.currency.model.CurrencyPair;
+import com.kleer.currency.model.RateHistoryImportedEvent;
+import com.kleer.currency.repository.RateHistoryStore;
+import com.kleer.currency.service.RateImportParser.Format;
+import com.kleer.currency.service.RateImportParser.ParsedRates;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Service bulk-loading historical rates from files into the rate history store.
+ *
+ * Files are read from the import directory in batches. Each batch is
+ * memory-mapped and split at line breaks into chunks that are parsed in
+ * parallel on a fork-join pool. The parsed rows are sorted per currency
+ * pair, completed with their inverse pairs and merged into the history store
+ * one pair at a time. For the same pair and date, later rows win over
+ * earlier rows and imported rates replace stored ones.
+ *
+ * After every batch the file offset is written to a checkpoint next to the
+ * file, so an import that failed resumes after the last loaded batch. A
+ * batch loaded twice changes nothing.
+ */
+@Service
+@Slf4j
+public class RateImportService {
+
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    private static final int MAX_REJECTIONS = 10;
+    private static final long SCALE_SQUARED = 10_000_000_000_000_000L;
+
+    private final CurrencyRegistry currencyRegistry;
+    private final RateHistoryStore rateHistoryStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Path directory;
+    private final long batchBytes;
+    private final int chunkBytes;
+    private final ForkJoinPool pool;
+
+    public RateImportService(
+            CurrencyRegistry currencyRegistry,
+            RateHistoryStore rateHistoryStore,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${rates.import.path:./data/import}") String directory,
+            @Value("${rates.import.batch-bytes:268435456}") long batchBytes,
+            @Value("${rates.import.chunk-bytes:4194304}") int chunkBytes,
+            @Value("${rates.import.parallelism:0}") int parallelism) {
+        if (batchBytes <= 0 || batchBytes > Integer.MAX_VALUE || chunkBytes <= 0) {
+            throw new IllegalArgumentException("Import batch size must be between 1 byte and 2 GB, chunk size positive");
+        }
+        this.currencyRegistry = currencyRegistry;
+        this.rateHistoryStore = rateHistoryStore;
+        this.eventPublisher = eventPublisher;
+        this.directory = Path.of(directory).toAbsolutePath().normalize();
+        this.batchBytes = batchBytes;
+        this.chunkBytes = chunkBytes;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Import a file from the import directory, resuming an earlier run of the same file.
+     *
+     * @param fileName Name of the file within the import directory (.csv, .jsonl, .ndjson or .json)
+     * @param restart  True to ignore the checkpoint and start from the beginning
+     * @return Counts and throughput of the import
+     * @throws IllegalArgumentException if the file does not exist or has an unsupported format
+     */
+    public synchronized RateImportResponse importFile(String fileName, boolean restart) {
+        Path file = directory.resolve(fileName).normalize();
+
+        // Early return for files outside the import directory or missing files
+        if (!file.getParent().equals(directory) || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Import file not found: " + fileName);
+        }
+
+        Format format = Format.of(fileName);
+
+        // Early return for unsupported formats
+        if (format == null) {
+            throw new IllegalArgumentException("Unsupported import format: " + fileName);
+        }
+
+        long start = System.nanoTime();
+        RateImportParser parser = new RateImportParser(currencyRegistry, format);
+        Set<CurrencyPair> changedPairs = new HashSet<>();
+        List<String> rejections = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            Path checkpointFile = file.resolveSibling(file.getFileName() + CHECKPOINT_SUFFIX);
+            Checkpoint checkpoint = restart ? Checkpoint.EMPTY : Checkpoint.read(checkpointFile, size, modified);
+            long resumedFrom = checkpoint.offset();
+            long resumedRows = checkpoint.rows();
+
+            if (resumedFrom > 0) {
+                log.info("Resuming import of {} at offset {}", fileName, resumedFrom);
+            }
+
+            try {
+                while (checkpoint.offset() < size) {
+                    long offset = checkpoint.offset();
+                    MappedByteBuffer batch = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                            Math.min(batchBytes, size - offset));
+                    int end = offset + batch.limit() == size ? batch.limit() : lastLineEnd(batch, offset);
+
+                    ParsedRates parsed = pool.invoke(new ParseTask(parser, batch, 0, end, offset));
+                    long[] counts = load(parsed, changedPairs);
+                    for (String rejection : parsed.rejections()) {
+                        if (rejections.size() < MAX_REJECTIONS) {
+                            rejections.add(rejection);
+                        }
+                    }
+
+                    checkpoint = new Checkpoint(size, modified, offset + end,
+                            checkpoint.rows() + parsed.rows(), checkpoint.rejected() + parsed.rejected(),
+                            checkpoint.added() + counts[0], checkpoint.skipped() + counts[1]);
+                    checkpoint.write(checkpointFile);
+                }
+            } finally {
+                // Rebuild dependent views of every pair loaded so far, even if a later batch failed
+                if (!changedPairs.isEmpty()) {
+                    eventPublisher.publishEvent(new RateHistoryImportedEvent(Set.copyOf(changedPairs)));
+                }
+            }
+
+            long elapsedNanos = Math.max(1, System.nanoTime() - start);
+            RateImportResponse response = RateImportResponse.builder()
+                    .file(fileName)
+                    .bytes(size)
+                    .resumedFromOffset(resumedFrom)
+                    .rows(checkpoint.rows())
+                    .rejected(checkpoint.rejected())
+                    .added(checkpoint.added())
+                    .skipped(checkpoint.skipped())
+                    .elapsedMs(elapsedNanos / 1_000_000)
+                    .rowsPerSecond((long) ((checkpoint.rows() - resumedRows) * 1e9 / elapsedNanos))
+                    .rejections(rejections)
+                    .build();
+
+            log.info("Imported {}: {} rows ({} rejected), {} observations added, {} skipped, {} rows/s over {} MB",
+                    fileName, response.getRows(), response.getRejected(), response.getAdded(),
+                    response.getSkipped(), response.getRowsPerSecond(), (size - resumedFrom) >> 20);
+            return response;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to import " + fileName, e);
+        }
+    }
+
+    /**
+     * Merge parsed rows and their inverses into the history store.
+     *
+     * @return Observations added or changed, and observations already stored with the same rate
+     */
+    private long[] load(ParsedRates parsed, Set<CurrencyPair> changedPairs) {
+        long added = 0;
+        long skipped = 0;
+        int currencies = parsed.currencies();
+        for (int from = 0; from < currencies; from++) {
+            for (int to = 0; to < currencies; to++) {
+                int inverseCount = parsed.size(to, from);
+                int directCount = parsed.size(from, to);
+                if (from == to || inverseCount + directCount == 0) {
+                    continue;
+                }
+
+                // Sort by date, file position breaking ties; inverses come first so direct rows win
+                long[] keys = new long[inverseCount + directCount];
+                for (int i = 0; i < inverseCount; i++) {
+                    keys[i] = ((long) parsed.days(to, from)[i] << 32) | i;
+                }
+                for (int i = 0; i < directCount; i++) {
+                    keys[inverseCount + i] = ((long) parsed.days(from, to)[i] << 32) | (inverseCount + i);
+                }
+                Arrays.sort(keys);
+
+                int[] days = new int[keys.length];
+                long[] rates = new long[keys.length];
+                int count = 0;
+                for (int k = 0; k < keys.length; k++) {
+                    // Keep only the last row of each date
+                    if (k + 1 < keys.length && (keys[k + 1] >> 32) == (keys[k] >> 32)) {
+                        continue;
+                    }
+                    int position = (int) keys[k];
+                    long rate = position < inverseCount
+                            ? invert(parsed.rates(to, from)[position])
+                            : parsed.rates(from, to)[position - inverseCount];
+                    if (rate > 0) {
+                        days[count] = (int) (keys[k] >> 32);
+                        rates[count++] = rate;
+                    }
+                }
+
+                CurrencyPair pair = new CurrencyPair(
+                        currencyRegistry.get(from).code(), currencyRegistry.get(to).code());
+                int pairAdded = rateHistoryStore.merge(pair, days, rates, count);
+                if (pairAdded > 0) {
+                    changedPairs.add(pair);
+                }
+                added += pairAdded;
+                skipped += count - pairAdded;
+            }
+        }
+        return new long[] {added, skipped};
+    }
+
+    /**
+     * Invert a fixed-point rate, rounding half up.
+     *
+     * @return The inverse, or 0 if it is too small to represent
+     */
+    private static long invert(long scaledRate) {
+        return (SCALE_SQUARED + scaledRate / 2) / scaledRate;
+    }
+
+    /**
+     * @return Index after the last line break in the batch
+     */
+    private static int lastLineEnd(MappedByteBuffer batch, long offset) {
+        for (int i = batch.limit() - 1; i >= 0; i--) {
+            if (batch.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        throw new IllegalArgumentException("Line at offset " + offset + " is longer than the import batch size");
+    }
+
+    /**
+     * Parses a byte range, splitting it at line breaks until it fits a chunk.
+     */
+    private final class ParseTask extends RecursiveTask<ParsedRates> {
+
+        private final RateImportParser parser;
+        private final MappedByteBuffer buffer;
+        private final int start;
+        private final int end;
+        private final long fileOffset;
+
+        ParseTask(RateImportParser parser, MappedByteBuffer buffer, int start, int end, long fileOffset) {
+            this.parser = parser;
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+            this.fileOffset = fileOffset;
+        }
+
+        @Override
+        protected ParsedRates compute() {
+            // Parse directly if the range fits a chunk
+            if (end - start <= chunkBytes) {
+                return parser.parse(buffer, start, end, fileOffset);
+            }
+
+            int split = start + (end - start) / 2;
+            while (split < end && buffer.get(split - 1) != '\n') {
+                split++;
+            }
+
+            // Parse directly if the second half is one long line
+            if (split >= end) {
+                return parser.parse(buffer, start, end, fileOffset);
+            }
+
+            ParseTask first = new ParseTask(parser, buffer, start, split, fileOffset);
+            first.fork();
+            ParsedRates second = new ParseTask(parser, buffer, split, end, fileOffset).compute();
+            return first.join().append(second);
+        }
+    }
+
+    /**
+     * Progress of an import, valid only for the file size and modification time it was written for.
+     */
+    private record Checkpoint(long size, long modified, long offset,
+                              long rows, long rejected, long added, long skipped) {
+
+        static final Checkpoint EMPTY = new Checkpoint(0, 0, 0, 0, 0, 0, 0);
+
+        static Checkpoint read(Path file, long size, long modified) throws IOException {
+            // Early return if there is no checkpoint
+            if (!Files.exists(file)) {
+                return EMPTY;
+            }
+
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            }
+            Checkpoint checkpoint = new Checkpoint(
+                    Long.parseLong(properties.getProperty("size", "0")),
+                    Long.parseLong(properties.getProperty("modified", "0")),
+                    Long.parseLong(properties.getProperty("offset", "0")),
+                    Long.parseLong(properties.getProperty("rows", "0")),
+                    Long.parseLong(properties.getProperty("rejected", "0")),
+                    Long.parseLong(properties.getProperty("added", "0")),
+                    Long.parseLong(properties.getProperty("skipped", "0")));
+
+            // A checkpoint of a different version of the file is worthless
+            return checkpoint.size() == size && checkpoint.modified() == modified ? checkpoint : EMPTY;
+        }
+
+        void write(Path file) throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("size", Long.toString(size));
+            properties.setProperty("modified", Long.toString(modified));
+            properties.setProperty("offset", Long.toString(offset));
+            properties.setProperty("rows", Long.toString(rows));
+            properties.setProperty("rejected", Long.toString(rejected));
+            properties.setProperty("added", Long.toString(added));
+            properties.setProperty("skipped", Long.toString(skipped));
+
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, null);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.model.RateMatrix;
+import com.kleer.currency.model.RateSnapshotPublishedEvent;
+import com.kleer.currency.util.CompressedPayload;
+import com.kleer.currency.util.RateMatrixCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service holding the dense {@link RateMatrix} of the current snapshot.
+ *
+ * The matrix is rebuilt once per published snapshot, so readers that need
+ * many rates of the same snapshot index into arrays instead of hashing pair keys.
+ * The JSON and binary encodings served by the matrix endpoint are produced
+ * and gzipped once per snapshot as well.
+ */
+@Service
+@Slf4j
+public class RateMatrixService {
+
+    private final CurrencyRegistry currencyRegistry;
+
+    private volatile Encoded current = new Encoded(RateMatrix.EMPTY);
+
+    /**
+     * A matrix with its encodings, swapped in as one unit.
+     *
+     * @param matrix The matrix
+     * @param json   The matrix in the dense JSON encoding of {@link RateMatrixCodec}
+     * @param binary The matrix in the binary encoding of {@link RateMatrixCodec}
+     */
+    public record Encoded(RateMatrix matrix, CompressedPayload json, CompressedPayload binary) {
+
+        Encoded(RateMatrix matrix) {
+            this(matrix, CompressedPayload.of(RateMatrixCodec.toJson(matrix)),
+                    CompressedPayload.of(RateMatrixCodec.toBinary(matrix)));
+        }
+
+        public long version() {
+            return matrix.getVersion();
+        }
+    }
+
+    public RateMatrixService(CurrencyRegistry currencyRegistry) {
+        this.currencyRegistry = currencyRegistry;
+    }
+
+    /**
+     * Rebuild the matrix for a newly published snapshot.
+     *
+     * @param event The published snapshot
+     */
+    @EventListener
+    public void onSnapshotPublished(RateSnapshotPublishedEvent event) {
+        RateMatrix matrix = RateMatrix.of(event.current(), currencyRegistry.getCurrencies());
+        current = new Encoded(matrix);
+        log.debug("Built rate matrix v{} for {} currencies", matrix.getVersion(), matrix.size());
+    }
+
+    /**
+     * @return The matrix of the current snapshot, or {@link RateMatrix#EMPTY} before the first one
+     */
+    public RateMatrix getCurrent() {
+        return current.matrix();
+    }
+
+    /**
+     * @return The current matrix and its encodings, read together so a body is never
+     * paired with the version of another snapshot
+     */
+    public Encoded getEncoded() {
+        return current;
+    }
+}
@@ -0,0 +1,72 @@
+package com.kleer.currency.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refreshes rates from Riksbank at a fixed interval.
+ *
+ * Runs on every node but only the current leader refreshes, so the upstream
+ * sees one request per interval however many nodes are running. Disabled
+ * when {@code rates.refresh.interval-seconds} is 0.
+ */
+@Component
+@Slf4j
+public class RateRefreshScheduler {
+
+    private final ExchangeRateService exchangeRateService;
+    private final LeaderElection leaderElection;
+    private final long intervalSeconds;
+
+    private volatile boolean running;
+    private Thread refreshThread;
+
+    public RateRefreshScheduler(
+            ExchangeRateService exchangeRateService,
+            LeaderElection leaderElection,
+            @Value("${rates.refresh.interval-seconds:0}") long intervalSeconds) {
+        this.exchangeRateService = exchangeRateService;
+        this.leaderElection = leaderElection;
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    @PostConstruct
+    void start() {
+        // Early return if scheduled refreshes are disabled
+        if (intervalSeconds <= 0) {
+            return;
+        }
+
+        running = true;
+        refreshThread = new Thread(this::runRefresh, "rate-refresh");
+        refreshThread.setDaemon(true);
+        refreshThread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (refreshThread != null) {
+            refreshThread.interrupt();
+        }
+    }
+
+    private void runRefresh() {
+        while (running) {
+            try {
+                Thread.sleep(intervalSeconds * 1000);
+                if (leaderElection.isLeader()) {
+                    exchangeRateService.refreshRatesFromRiksbank();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Scheduled rate refresh failed: {}", e.getMessage());
+            }
+        }
+    }
+}
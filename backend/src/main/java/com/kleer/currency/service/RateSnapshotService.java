@@ -0,0 +1,228 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.entity.ExchangeRate;
+import com.kleer.currency.model.CurrencyPair;
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.model.RateSnapshotPublishedEvent;
+import com.kleer.currency.repository.ExchangeRateRepository;
+import com.kleer.currency.repository.RateSnapshotStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service holding the current versioned rate snapshot.
+ *
+ * Publishes a new snapshot after each committed refresh and persists it to
+ * local disk. On startup the last snapshot is loaded into the database before
+ * the web server accepts traffic, so conversions work immediately after a restart.
+ * Every publication raises a {@link RateSnapshotPublishedEvent} for listeners
+ * that react to rate changes.
+ */
+@Service
+@Slf4j
+public class RateSnapshotService implements SmartInitializingSingleton {
+
+    private final RateSnapshotStore snapshotStore;
+    private final ExchangeRateRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean persistenceEnabled;
+
+    private volatile RateSnapshot current = RateSnapshot.EMPTY;
+
+    public RateSnapshotService(
+            RateSnapshotStore snapshotStore,
+            ExchangeRateRepository repository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${rates.snapshot.enabled:true}") boolean persistenceEnabled) {
+        this.snapshotStore = snapshotStore;
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.persistenceEnabled = persistenceEnabled;
+    }
+
+    /**
+     * Load the persisted snapshot before the web server starts.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        // Early return if snapshots are disabled
+        if (!persistenceEnabled) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        Optional<RateSnapshot> stored = snapshotStore.read();
+
+        // Early return if there is nothing to restore
+        if (stored.isEmpty() || stored.get().isEmpty()) {
+            log.info("No rate snapshot found at {}", snapshotStore.getPath());
+            return;
+        }
+
+        RateSnapshot snapshot = stored.get();
+        restore(snapshot);
+        current = snapshot;
+        eventPublisher.publishEvent(new RateSnapshotPublishedEvent(RateSnapshot.EMPTY, snapshot));
+
+        log.info("Restored rate snapshot v{} with {} rates in {} ms",
+                snapshot.version(), snapshot.rates().size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Publish the rates of a refresh as a new snapshot version.
+     *
+     * When called inside a transaction the snapshot is only published and
+     * persisted after the transaction commits, so readers never see rates that
+     * were rolled back.
+     *
+     * @param rates Complete rate set of the refresh
+     */
+    public void publish(List<ExchangeRate> rates) {
+        publish(rates, 0);
+    }
+
+    /**
+     * Publish the rates of a refresh under a given snapshot version.
+     *
+     * @param rates   Complete rate set of the refresh
+     * @param version Version assigned by the leader election, or 0 for the next local version
+     * @see #publish(List)
+     */
+    public void publish(List<ExchangeRate> rates, long version) {
+        Map<String, BigDecimal> rateMap = new HashMap<>(rates.size() * 2);
+        LocalDateTime lastUpdated = null;
+        for (ExchangeRate rate : rates) {
+            rateMap.put(new CurrencyPair(rate.getFromCurrency(), rate.getToCurrency()).toKey(), rate.getRate());
+            if (lastUpdated == null || rate.getLastUpdated().isAfter(lastUpdated)) {
+                lastUpdated = rate.getLastUpdated();
+            }
+        }
+        LocalDateTime snapshotTime = lastUpdated;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(rateMap, snapshotTime, version);
+                }
+            });
+            return;
+        }
+
+        publish(rateMap, snapshotTime, version);
+    }
+
+    /**
+     * Publish the rates another node wrote to the shared database.
+     *
+     * Used when nodes share one database: only the leader refreshes, and the
+     * others reload the table once they see a new version instead of on
+     * every poll.
+     *
+     * @param version Version published by the leader
+     */
+    public void reload(long version) {
+        // Early return if this version is already served
+        if (version <= current.version()) {
+            return;
+        }
+
+        publish(repository.findAll(), version);
+    }
+
+    /**
+     * Publish a snapshot produced by the replication leader, keeping its version.
+     *
+     * As with {@link #publish(List)}, the snapshot is only published after the
+     * surrounding transaction commits. Snapshots that are not newer than the
+     * current one are ignored.
+     *
+     * @param snapshot The leader's snapshot
+     */
+    public void publishReplicated(RateSnapshot snapshot) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    swap(snapshot);
+                }
+            });
+            return;
+        }
+
+        swap(snapshot);
+    }
+
+    /**
+     * Get the current snapshot.
+     *
+     * @return The current snapshot, or {@link RateSnapshot#EMPTY} before the first refresh
+     */
+    public RateSnapshot getCurrent() {
+        return current;
+    }
+
+    private synchronized void publish(Map<String, BigDecimal> rates, LocalDateTime lastUpdated, long version) {
+        swap(new RateSnapshot(version > 0 ? version : current.version() + 1, lastUpdated, rates));
+    }
+
+    private synchronized void swap(RateSnapshot snapshot) {
+        RateSnapshot previous = current;
+
+        // Early return if a newer snapshot was published in the meantime
+        if (snapshot.version() <= previous.version()) {
+            return;
+        }
+
+        current = snapshot;
+        log.debug("Published rate snapshot v{} with {} rates", snapshot.version(), snapshot.rates().size());
+
+        eventPublisher.publishEvent(new RateSnapshotPublishedEvent(previous, snapshot));
+
+        // Early return if snapshots are not persisted
+        if (!persistenceEnabled) {
+            return;
+        }
+
+        try {
+            snapshotStore.write(snapshot);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to persist rate snapshot v{}: {}", snapshot.version(), e.getMessage());
+        }
+    }
+
+    private void restore(RateSnapshot snapshot) {
+        // Early return if the database already holds rates
+        if (repository.count() > 0) {
+            return;
+        }
+
+        List<ExchangeRate> entities = new ArrayList<>(snapshot.rates().size());
+        LocalDateTime lastUpdated = snapshot.lastUpdated() != null ? snapshot.lastUpdated() : LocalDateTime.now();
+        for (Map.Entry<String, BigDecimal> entry : snapshot.rates().entrySet()) {
+            CurrencyPair pair = CurrencyPair.fromKey(entry.getKey());
+            entities.add(ExchangeRate.builder()
+                    .fromCurrency(pair.from())
+                    .toCurrency(pair.to())
+                    .rate(entry.getValue())
+                    .lastUpdated(lastUpdated)
+                    .createdAt(lastUpdated)
+                    .build());
+        }
+        repository.saveAll(entities);
+    }
+}
@@ -0,0 +1,138 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.model.RateSnapshotPublishedEvent;
+import com.kleer.currency.model.ReplicationRole;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Service replicating rate snapshots from one leader to many followers.
+ *
+ * Only the leader refreshes from Riksbank; every snapshot it publishes is
+ * handed to the {@link SnapshotTransport}. Followers poll the transport and
+ * apply newer snapshots under the leader's version, so upstream load is one
+ * fetch per refresh regardless of the number of nodes and all nodes converge
+ * on the same version.
+ */
+@Service
+@Slf4j
+public class ReplicationService {
+
+    private final LeaderElection leaderElection;
+    private final SnapshotTransport transport;
+    private final ExchangeRateService exchangeRateService;
+    private final RateSnapshotService rateSnapshotService;
+    private final ReplicationRole role;
+    private final long pollIntervalMillis;
+
+    private volatile boolean running;
+    private Thread pollThread;
+
+    public ReplicationService(
+            LeaderElection leaderElection,
+            SnapshotTransport transport,
+            ExchangeRateService exchangeRateService,
+            RateSnapshotService rateSnapshotService,
+            @Value("${replication.role:STANDALONE}") ReplicationRole role,
+            @Value("${replication.poll-interval-ms:1000}") long pollIntervalMillis) {
+        this.leaderElection = leaderElection;
+        this.transport = transport;
+        this.exchangeRateService = exchangeRateService;
+        this.rateSnapshotService = rateSnapshotService;
+        this.role = role;
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    @PostConstruct
+    void start() {
+        // Early return if replication is off
+        if (role == ReplicationRole.STANDALONE) {
+            return;
+        }
+
+        running = true;
+        pollThread = new Thread(this::runPoll, "replication-poll");
+        pollThread.setDaemon(true);
+        pollThread.start();
+        log.info("Replication started as {}", role);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (pollThread != null) {
+            pollThread.interrupt();
+        }
+    }
+
+    /**
+     * Ship every snapshot the leader publishes to the followers.
+     *
+     * @param event The published snapshot
+     */
+    @EventListener
+    public void onSnapshotPublished(RateSnapshotPublishedEvent event) {
+        // Early return if replication is off or followers applied the snapshot themselves
+        if (role == ReplicationRole.STANDALONE || !leaderElection.isLeader()) {
+            return;
+        }
+
+        try {
+            transport.publish(event.current());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to replicate rate snapshot v{}: {}", event.current().version(), e.getMessage());
+        }
+    }
+
+    /**
+     * Fetch and apply the leader's snapshot if it is newer than the current one.
+     *
+     * @return true if a snapshot was applied
+     */
+    public boolean pull() {
+        long version = rateSnapshotService.getCurrent().version();
+        try {
+            Optional<RateSnapshot> snapshot = transport.fetchNewerThan(version);
+
+            // Early return if the leader has nothing newer
+            if (snapshot.isEmpty()) {
+                return false;
+            }
+
+            return exchangeRateService.applyReplicatedSnapshot(snapshot.get());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to pull rate snapshot newer than v{}: {}", version, e.getMessage());
+            return false;
+        }
+    }
+
+    public ReplicationRole getRole() {
+        return role;
+    }
+
+    public boolean isLeader() {
+        return leaderElection.isLeader();
+    }
+
+    private void runPoll() {
+        while (running) {
+            try {
+                Thread.sleep(pollIntervalMillis);
+                if (!leaderElection.isLeader()) {
+                    pull();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
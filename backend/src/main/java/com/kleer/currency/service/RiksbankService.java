@@ -2,7 +2,9 @@ package com.kleer.currency.service;
 
 import com.kleer.currency.dto.riksbank.RiksbankObservation;
 import com.kleer.currency.exception.RiksbankApiException;
+import com.kleer.currency.model.RiksbankSeries;
 import com.kleer.currency.util.ExchangeRateCalculator;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
@@ -13,13 +15,23 @@ import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 /**
  * Service for fetching exchange rates from the Riksbank API.
  * Handles API communication and delegates rate calculations to ExchangeRateCalculator.
+ *
+ * The series to fetch come from the {@link CurrencyRegistry}. They are
+ * fetched concurrently, at most a configured number at a time, so a refresh
+ * of many currencies takes about as long as the slowest few series.
  */
 @Service
 @Slf4j
@@ -28,31 +40,41 @@ public class RiksbankService {
     private final RestTemplate restTemplate;
     private final String riksbankBaseUrl;
     private final ExchangeRateCalculator rateCalculator;
+    private final HedgedRequestExecutor hedgedRequestExecutor;
+    private final CurrencyRegistry currencyRegistry;
+    private final Semaphore concurrentRequests;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
 
     // Business constants
     private static final int DAYS_LOOKBACK = 7;
-    private static final List<String> SUPPORTED_CURRENCIES = List.of("SEK", "EUR", "USD");
     
     // API constants
     private static final String OBSERVATIONS_ENDPOINT = "/Observations";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-    private static final Map<String, String> CURRENCY_SERIES = Map.of(
-            "SEKEUR", "SEKEURPMI",
-            "SEKUSD", "SEKUSDPMI"
-    );
 
     public RiksbankService(
             RestTemplate restTemplate,
             @Value("${riksbank.api.base-url}") String riksbankBaseUrl,
-            ExchangeRateCalculator rateCalculator) {
+            ExchangeRateCalculator rateCalculator,
+            HedgedRequestExecutor hedgedRequestExecutor,
+            CurrencyRegistry currencyRegistry,
+            @Value("${riksbank.api.max-concurrent-requests:4}") int maxConcurrentRequests) {
         this.restTemplate = restTemplate;
         this.riksbankBaseUrl = riksbankBaseUrl;
         this.rateCalculator = rateCalculator;
+        this.hedgedRequestExecutor = hedgedRequestExecutor;
+        this.currencyRegistry = currencyRegistry;
+        this.concurrentRequests = new Semaphore(Math.max(1, maxConcurrentRequests));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
     }
 
     /**
      * Fetches the latest exchange rates from Riksbank API.
-     * Returns rates for all supported currency pairs (EUR, USD, SEK).
+     * Returns rates for all pairs of supported currencies with a rate.
      * 
      * @return Map of currency pairs to exchange rates (e.g., "EUR/SEK" -> rate)
      * @throws RiksbankApiException if no rates could be fetched
@@ -66,12 +88,21 @@ public class RiksbankService {
         String toDate = today.format(DATE_FORMATTER);
 
         // Fetch base rates from Riksbank API
-        // NOTE: Riksbank returns EUR/SEK and USD/SEK (how many SEK per foreign currency)
-        BigDecimal eurToSek = fetchCurrencyRate("SEKEUR", fromDate, toDate);
-        BigDecimal usdToSek = fetchCurrencyRate("SEKUSD", fromDate, toDate);
+        // NOTE: Riksbank returns e.g. EUR/SEK (how many SEK per foreign currency)
+        List<RiksbankSeries> series = currencyRegistry.getSeries();
+        List<Future<BigDecimal>> pending = new ArrayList<>(series.size());
+        for (RiksbankSeries entry : series) {
+            pending.add(executor.submit(() -> fetchLimited(entry, fromDate, toDate)));
+        }
+
+        Map<String, BigDecimal> ratesToBase = new LinkedHashMap<>();
+        for (int i = 0; i < series.size(); i++) {
+            ratesToBase.put(series.get(i).currency(), await(series.get(i), pending.get(i)));
+        }
 
         // Calculate all rates including inversions and cross-rates
-        Map<String, BigDecimal> rates = rateCalculator.calculateAllRates(eurToSek, usdToSek);
+        Map<String, BigDecimal> rates = rateCalculator.calculateAllRates(
+                currencyRegistry.getBaseCurrency().code(), ratesToBase);
 
         if (rates.isEmpty()) {
             log.error("No valid exchange rates fetched from Riksbank API");
@@ -82,13 +113,35 @@ public class RiksbankService {
         return rates;
     }
 
-    private BigDecimal fetchCurrencyRate(String currencyPair, String fromDate, String toDate) {
-        String seriesId = CURRENCY_SERIES.get(currencyPair);
-        if (seriesId == null) {
-            log.warn("No series ID found for currency pair: {}", currencyPair);
+    private BigDecimal await(RiksbankSeries series, Future<BigDecimal> pending) {
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RiksbankApiException("Interrupted while fetching exchange rates from Riksbank API");
+        } catch (ExecutionException e) {
+            log.error("Failed to fetch rate for {}", series.seriesId(), e.getCause());
             return null;
         }
+    }
+
+    private BigDecimal fetchLimited(RiksbankSeries series, String fromDate, String toDate)
+            throws InterruptedException {
+        concurrentRequests.acquire();
+        try {
+            BigDecimal rate = fetchCurrencyRate(series.seriesId(), fromDate, toDate);
+            // Early return if the series had no usable observation
+            if (rate == null || series.unit() == 1) {
+                return rate;
+            }
+            // Series quoted per 100 units and the like
+            return rate.divide(BigDecimal.valueOf(series.unit()), MathContext.DECIMAL64);
+        } finally {
+            concurrentRequests.release();
+        }
+    }
 
+    private BigDecimal fetchCurrencyRate(String seriesId, String fromDate, String toDate) {
         String url = String.format(
                 "%s%s/%s/%s/%s",
                 riksbankBaseUrl,
@@ -101,48 +154,48 @@ public class RiksbankService {
         log.debug("Calling Riksbank API: {}", url);
 
         try {
-            ResponseEntity<List<RiksbankObservation>> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<List<RiksbankObservation>>() {}
+            // Hedged: a duplicate request is sent if this series is slower than usual
+            ResponseEntity<List<RiksbankObservation>> response = hedgedRequestExecutor.execute(
+                    seriesId,
+                    () -> restTemplate.exchange(
+                            url,
+                            HttpMethod.GET,
+                            null,
+                            new ParameterizedTypeReference<List<RiksbankObservation>>() {}
+                    )
             );
 
             List<RiksbankObservation> observations = response.getBody();
             if (observations == null || observations.isEmpty()) {
-                log.warn("No observations returned for {}", currencyPair);
+                log.warn("No observations returned for {}", seriesId);
                 return null;
             }
 
             RiksbankObservation latest = observations.get(observations.size() - 1);
 
             if (latest.getValue() == null || latest.getValue().isEmpty()) {
-                log.warn("Latest observation has no value for {}", currencyPair);
+                log.warn("Latest observation has no value for {}", seriesId);
                 return null;
             }
 
             BigDecimal rate = new BigDecimal(latest.getValue());
-            log.debug("Fetched rate for {}: {} (date: {})", currencyPair, rate, latest.getDate());
+            log.debug("Fetched rate for {}: {} (date: {})", seriesId, rate, latest.getDate());
             return rate;
 
         } catch (RestClientException e) {
-            log.error("Failed to fetch rate for {} from Riksbank API", currencyPair, e);
+            log.error("Failed to fetch rate for {} from Riksbank API", seriesId, e);
             return null;
         } catch (NumberFormatException e) {
-            log.error("Failed to parse rate value for {}", currencyPair, e);
+            log.error("Failed to parse rate value for {}", seriesId, e);
             return null;
         }
     }
 
     public boolean isCurrencySupported(String currency) {
-        if (currency == null || currency.isEmpty()) {
-            return false;
-        }
-        return SUPPORTED_CURRENCIES.contains(currency.toUpperCase());
+        return currencyRegistry.isSupported(currency);
     }
 
     public List<String> getSupportedCurrencies() {
-        return new ArrayList<>(SUPPORTED_CURRENCIES);
+        return currencyRegistry.getCodes();
     }
 }
-
@@ -0,0 +1,29 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.model.RateSnapshot;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Ships rate snapshots from the leader to its followers.
+ */
+public interface SnapshotTransport {
+
+    /**
+     * Make a snapshot available to followers. Called on the leader after each publish.
+     *
+     * @param snapshot The snapshot
+     * @throws IOException if the snapshot cannot be shipped
+     */
+    void publish(RateSnapshot snapshot) throws IOException;
+
+    /**
+     * Fetch the leader's snapshot if it is newer than the follower's.
+     *
+     * @param version Version the follower currently serves
+     * @return The newer snapshot, or empty if there is none
+     * @throws IOException if the leader's snapshot cannot be read
+     */
+    Optional<RateSnapshot> fetchNewerThan(long version) throws IOException;
+}
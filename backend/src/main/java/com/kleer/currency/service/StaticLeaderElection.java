@@ -0,0 +1,60 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.model.ReplicationRole;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Leader election by configuration: the node started with
+ * {@code replication.role=LEADER} (or replication disabled) is the leader.
+ *
+ * A replication leader qualifies its snapshot versions with a generation,
+ * its start time in seconds, held in the high bits: the first snapshot after
+ * a start is numbered {@code generation << GENERATION_SHIFT}. A leader that
+ * restarts without its snapshot file therefore still publishes versions above
+ * everything its followers have applied. Versions stay below 2^53, so they
+ * are exact in JSON clients.
+ */
+@Component
+@ConditionalOnProperty(name = "replication.election", havingValue = "static", matchIfMissing = true)
+public class StaticLeaderElection implements LeaderElection {
+
+    /**
+     * Bits left for the snapshot count within one generation.
+     */
+    static final int GENERATION_SHIFT = 20;
+
+    private final ReplicationRole role;
+    private final RateSnapshotService rateSnapshotService;
+    private final long generation;
+
+    @Autowired
+    public StaticLeaderElection(
+            @Value("${replication.role:STANDALONE}") ReplicationRole role,
+            RateSnapshotService rateSnapshotService) {
+        this(role, rateSnapshotService, System.currentTimeMillis() / 1000);
+    }
+
+    StaticLeaderElection(ReplicationRole role, RateSnapshotService rateSnapshotService, long generation) {
+        this.role = role;
+        this.rateSnapshotService = rateSnapshotService;
+        this.generation = generation;
+    }
+
+    @Override
+    public boolean isLeader() {
+        return role != ReplicationRole.FOLLOWER;
+    }
+
+    @Override
+    public long claimNextVersion() {
+        // Early return if nothing is replicated: local versions just count up
+        if (role != ReplicationRole.LEADER) {
+            return 0;
+        }
+
+        return Math.max(rateSnapshotService.getCurrent().version() + 1, generation << GENERATION_SHIFT);
+    }
+}
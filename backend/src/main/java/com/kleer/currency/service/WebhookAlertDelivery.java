@@ -0,0 +1,79 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.dto.AlertNotification;
+import com.kleer.currency.util.PublicAddressResolver;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Delivers alerts by POSTing them as JSON to the subscription's callback URL.
+ *
+ * Each notification is sent on its own virtual thread so slow subscribers do
+ * not hold up the refresh. Alerts without a callback URL are only logged.
+ * Calls resolve the callback host through {@link PublicAddressResolver} and
+ * connect to exactly the addresses it vetted, since the host's DNS records may
+ * point to a private address by the time the alert triggers.
+ */
+@Component
+@Slf4j
+public class WebhookAlertDelivery implements AlertDelivery {
+
+    private final HttpComponentsClientHttpRequestFactory requestFactory;
+    private final RestTemplate restTemplate;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public WebhookAlertDelivery(RestTemplateBuilder builder) {
+        this.requestFactory = new HttpComponentsClientHttpRequestFactory(
+                HttpClients.custom()
+                        .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                                .setDnsResolver(PublicAddressResolver.INSTANCE)
+                                .build())
+                        .build());
+        requestFactory.setConnectTimeout(Duration.ofSeconds(10));
+        requestFactory.setReadTimeout(Duration.ofSeconds(10));
+
+        this.restTemplate = builder
+                .requestFactory(() -> requestFactory)
+                .build();
+    }
+
+    @Override
+    public void deliver(AlertNotification notification) {
+        // Early return if there is no webhook to call
+        if (notification.getCallbackUrl() == null) {
+            log.info("Alert {} triggered: {} to {} crossed {} ({} -> {})",
+                    notification.getAlertId(), notification.getFromCurrency(), notification.getToCurrency(),
+                    notification.getThreshold(), notification.getPreviousRate(), notification.getRate());
+            return;
+        }
+
+        executor.execute(() -> post(notification));
+    }
+
+    @PreDestroy
+    void shutdown() throws Exception {
+        executor.close();
+        requestFactory.destroy();
+    }
+
+    private void post(AlertNotification notification) {
+        try {
+            restTemplate.postForLocation(notification.getCallbackUrl(), notification);
+        } catch (RestClientException e) {
+            // Also reached when the callback host resolves to a non-public address
+            log.warn("Failed to deliver alert {} to {}: {}",
+                    notification.getAlertId(), notification.getCallbackUrl(), e.getMessage());
+        }
+    }
+}
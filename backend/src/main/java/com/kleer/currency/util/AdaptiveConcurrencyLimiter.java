@@ -0,0 +1,134 @@
+package com.kleer.currency.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to observed latency (gradient algorithm).
+ *
+ * Every completed request contributes its latency to a short and a long
+ * exponential average. While the short average stays within a tolerance of
+ * the long one the limit grows by a fraction of its square root per sample;
+ * when latency rises because requests queue for threads or connections, the
+ * limit shrinks in proportion, a failure counting as the steepest rise.
+ * Samples are skipped while fewer than half of the permits are in use, since
+ * latency then says nothing about capacity. Acquiring never blocks: callers
+ * over the limit are refused so they can fail fast instead of queueing.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double FAILURE_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock sampleLock = new ReentrantLock();
+
+    private volatile int limit;
+
+    // Guarded by sampleLock
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    /**
+     * @param initialLimit Limit before the first samples
+     * @param minLimit     Lowest limit
+     * @param maxLimit     Highest limit
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 0 < min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * Take a permit if fewer than the given share of the limit are in use.
+     *
+     * @param limitShare Share of the limit the caller may fill, between 0 and 1
+     * @return true if a permit was taken; it must be returned with {@link #release}
+     */
+    public boolean tryAcquire(double limitShare) {
+        int allowed = Math.max(1, (int) (limit * limitShare));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Return a permit and feed the request's latency into the limit.
+     *
+     * @param latencyNanos Time the request held the permit
+     * @param failed       true if the request failed, e.g. with a server error
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int active = inFlight.getAndDecrement();
+
+        // Skip the sample rather than wait if another thread is updating the limit
+        if (!sampleLock.tryLock()) {
+            return;
+        }
+        try {
+            sample(Math.max(1, latencyNanos), active, failed);
+        } finally {
+            sampleLock.unlock();
+        }
+    }
+
+    /**
+     * Return a permit without a latency sample, e.g. for a request that continues asynchronously.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void sample(long rttNanos, int active, boolean failed) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+        } else {
+            shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW;
+            longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+        }
+
+        // Let the long average catch up after latency dropped for good
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+
+        // Early return while too little is in flight to judge capacity
+        if (!failed && active < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = failed
+                ? FAILURE_GRADIENT
+                : Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+}
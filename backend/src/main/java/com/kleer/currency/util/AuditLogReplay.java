@@ -0,0 +1,55 @@
+package com.kleer.currency.util;
+
+import com.kleer.currency.repository.AuditLogStore;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Command-line tool that replays the conversion audit log as CSV on stdout.
+ *
+ * Usage from the packaged jar:
+ * <pre>
+ * java -Dloader.main=com.kleer.currency.util.AuditLogReplay \
+ *      -cp currency-exchange-1.0.0.jar \
+ *      org.springframework.boot.loader.launch.PropertiesLauncher [audit directory]
+ * </pre>
+ */
+public final class AuditLogReplay {
+
+    private static final String DEFAULT_DIRECTORY = "./data/audit";
+
+    private AuditLogReplay() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(args.length > 0 ? args[0] : DEFAULT_DIRECTORY);
+
+        try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            out.write("timestamp,snapshot_version,from_currency,to_currency,amount,converted_amount,rate");
+            out.newLine();
+
+            long count = AuditLogStore.replay(directory, auditRecord -> {
+                try {
+                    out.write(Instant.ofEpochMilli(auditRecord.timestampMillis()) + ","
+                            + auditRecord.snapshotVersion() + ","
+                            + auditRecord.fromCurrency() + ","
+                            + auditRecord.toCurrency() + ","
+                            + auditRecord.amount().toPlainString() + ","
+                            + auditRecord.convertedAmount().toPlainString() + ","
+                            + auditRecord.rate().toPlainString());
+                    out.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            System.err.printf("Replayed %d audit records from %s%n", count, directory);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.kleer.currency.util;
+
+/**
+ * Point-in-time statistics of one cache tier.
+ *
+ * @param hits      Lookups answered by the tier
+ * @param misses    Lookups the tier could not answer
+ * @param evictions Entries dropped to make room for others
+ * @param size      Entries currently held
+ * @param capacity  Maximum number of entries
+ */
+public record CacheStats(long hits, long misses, long evictions, long size, long capacity) {
+
+    /**
+     * @return Share of lookups that were hits, or 0 before the first lookup
+     */
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,132 @@
+package com.kleer.currency.util;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+
+/**
+ * Validation of user-supplied callback URLs.
+ *
+ * Callbacks are called from inside the service's network, so a URL is only
+ * accepted if it is an absolute http(s) URL whose host resolves exclusively
+ * to public addresses. Loopback, link-local (including cloud metadata
+ * endpoints), site-local, carrier-grade NAT, unique-local, wildcard, multicast
+ * and other special-purpose addresses are rejected. The check at registration
+ * only gives early feedback; calls connect through
+ * {@link PublicAddressResolver}, which applies it to the addresses actually used.
+ */
+public final class CallbackUrls {
+
+    private CallbackUrls() {
+    }
+
+    /**
+     * Check whether a URL may be called back.
+     *
+     * @param url The URL, may be null
+     * @return true if the URL is an absolute http(s) URL whose host resolves only to public addresses
+     */
+    public static boolean isPublicHttpUrl(String url) {
+        // Early return for missing input
+        if (url == null) {
+            return false;
+        }
+
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+
+        // Early return for anything but an absolute http(s) URL
+        if (uri.getHost() == null || !("http".equals(uri.getScheme()) || "https".equals(uri.getScheme()))) {
+            return false;
+        }
+
+        try {
+            InetAddress[] addresses = InetAddress.getAllByName(uri.getHost());
+            for (InetAddress address : addresses) {
+                if (!isPublic(address)) {
+                    return false;
+                }
+            }
+            return addresses.length > 0;
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param address A resolved address
+     * @return true unless the address is loopback, link-local, site-local, unique-local, wildcard,
+     * multicast or otherwise not globally routable
+     */
+    public static boolean isPublic(InetAddress address) {
+        return !address.isLoopbackAddress()
+                && !address.isLinkLocalAddress()
+                && !address.isSiteLocalAddress()
+                && !address.isAnyLocalAddress()
+                && !address.isMulticastAddress()
+                && !isSpecialPurpose(address.getAddress());
+    }
+
+    private static boolean isSpecialPurpose(byte[] bytes) {
+        // Early return for IPv4
+        if (bytes.length == 4) {
+            return isSpecialPurposeIpv4(bytes, 0);
+        }
+
+        // IPv6 unique local addresses, fc00::/7
+        if ((bytes[0] & 0xFE) == 0xFC) {
+            return true;
+        }
+
+        // IPv6 documentation addresses, 2001:db8::/32
+        if (bytes[0] == 0x20 && bytes[1] == 0x01 && bytes[2] == 0x0D && (bytes[3] & 0xFF) == 0xB8) {
+            return true;
+        }
+
+        // IPv4 embedded in NAT64 (64:ff9b::/96) or IPv4-compatible (::/96) addresses
+        boolean nat64 = bytes[0] == 0 && bytes[1] == 0x64 && (bytes[2] & 0xFF) == 0xFF && (bytes[3] & 0xFF) == 0x9B;
+        boolean zeroPrefix = nat64 || (bytes[0] == 0 && bytes[1] == 0 && bytes[2] == 0 && bytes[3] == 0);
+        for (int i = 4; zeroPrefix && i < 12; i++) {
+            zeroPrefix = bytes[i] == 0;
+        }
+        if (zeroPrefix) {
+            return !isPublicIpv4(bytes, 12);
+        }
+
+        // IPv4 embedded in 6to4 addresses, 2002::/16
+        if (bytes[0] == 0x20 && bytes[1] == 0x02) {
+            return !isPublicIpv4(bytes, 2);
+        }
+        return false;
+    }
+
+    private static boolean isPublicIpv4(byte[] bytes, int offset) {
+        int first = bytes[offset] & 0xFF;
+        int second = bytes[offset + 1] & 0xFF;
+        return first != 127                                     // loopback
+                && first != 10                                  // private
+                && !(first == 172 && (second & 0xF0) == 16)
+                && !(first == 192 && second == 168)
+                && !(first == 169 && second == 254)             // link-local
+                && !(first >= 224 && first < 240)               // multicast
+                && !isSpecialPurposeIpv4(bytes, offset);
+    }
+
+    private static boolean isSpecialPurposeIpv4(byte[] bytes, int offset) {
+        int first = bytes[offset] & 0xFF;
+        int second = bytes[offset + 1] & 0xFF;
+        int third = bytes[offset + 2] & 0xFF;
+        return first == 0                                        // "this" network, 0.0.0.0/8
+                || (first == 100 && (second & 0xC0) == 64)      // carrier-grade NAT, 100.64.0.0/10
+                || (first == 192 && second == 0 && third == 0)  // protocol assignments, 192.0.0.0/24
+                || (first == 192 && second == 0 && third == 2)  // documentation, 192.0.2.0/24
+                || (first == 198 && (second & 0xFE) == 18)      // benchmarking, 198.18.0.0/15
+                || (first == 198 && second == 51 && third == 100)
+                || (first == 203 && second == 0 && third == 113)
+                || first >= 240;                                // reserved and broadcast, 240.0.0.0/4
+    }
+}
@@ -0,0 +1,184 @@
+package com.kleer.currency.util;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Derives the client identity used for per-client limits from a request.
+ *
+ * Behind a trusted proxy the client is the rightmost X-Forwarded-For address
+ * that is not itself a trusted proxy; entries further left were written by
+ * the client and cannot be trusted. IPv6 clients are keyed on their /64
+ * prefix, the smallest block a single subscriber is usually assigned, so a
+ * client cannot escape its limit by rotating addresses within it.
+ *
+ * Only IP literals are parsed, so a forged header never triggers a DNS lookup.
+ */
+public final class ClientAddresses {
+
+    private static final int IPV6_PREFIX_BYTES = 8;
+
+    private final List<Subnet> trustedProxies;
+
+    /**
+     * An address block in CIDR notation.
+     */
+    private record Subnet(byte[] address, int prefixLength) {
+
+        boolean contains(InetAddress candidate) {
+            byte[] bytes = candidate.getAddress();
+            if (bytes.length != address.length) {
+                return false;
+            }
+            int fullBytes = prefixLength / 8;
+            for (int i = 0; i < fullBytes; i++) {
+                if (bytes[i] != address[i]) {
+                    return false;
+                }
+            }
+            int remainingBits = prefixLength % 8;
+            if (remainingBits == 0) {
+                return true;
+            }
+            int mask = 0xFF << (8 - remainingBits);
+            return (bytes[fullBytes] & mask) == (address[fullBytes] & mask);
+        }
+    }
+
+    /**
+     * @param trustedProxies Addresses or CIDR blocks of proxies whose X-Forwarded-For is honoured
+     * @throws IllegalArgumentException if an entry is not an IP address or CIDR block
+     */
+    public ClientAddresses(List<String> trustedProxies) {
+        List<Subnet> subnets = new ArrayList<>();
+        for (String entry : trustedProxies) {
+            if (!entry.isBlank()) {
+                subnets.add(parseSubnet(entry.trim()));
+            }
+        }
+        this.trustedProxies = List.copyOf(subnets);
+    }
+
+    /**
+     * Get the key a client is limited under.
+     *
+     * @param remoteAddr   Address of the peer connection
+     * @param forwardedFor X-Forwarded-For header, or null if absent
+     * @return The client's IPv4 address, its IPv6 /64 prefix, or the remote address as is if it is not an IP literal
+     */
+    public String clientKey(String remoteAddr, String forwardedFor) {
+        InetAddress peer = parseLiteral(remoteAddr);
+
+        // Early return if the peer is not an IP address, e.g. a Unix socket
+        if (peer == null) {
+            return remoteAddr;
+        }
+
+        InetAddress client = peer;
+        if (forwardedFor != null && isTrustedProxy(peer)) {
+            String[] hops = forwardedFor.split(",");
+            for (int i = hops.length - 1; i >= 0; i--) {
+                InetAddress hop = parseLiteral(hops[i].trim());
+                // A malformed hop ends the chain the proxies vouch for
+                if (hop == null) {
+                    break;
+                }
+                client = hop;
+                if (!isTrustedProxy(hop)) {
+                    break;
+                }
+            }
+        }
+        return key(client);
+    }
+
+    private boolean isTrustedProxy(InetAddress address) {
+        for (Subnet subnet : trustedProxies) {
+            if (subnet.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String key(InetAddress address) {
+        // Early return for IPv4, keyed on the full address
+        if (!(address instanceof Inet6Address)) {
+            return address.getHostAddress();
+        }
+        return HexFormat.of().formatHex(address.getAddress(), 0, IPV6_PREFIX_BYTES) + "::/64";
+    }
+
+    private static Subnet parseSubnet(String entry) {
+        int slash = entry.indexOf('/');
+        InetAddress address = parseLiteral(slash < 0 ? entry : entry.substring(0, slash));
+        if (address == null) {
+            throw new IllegalArgumentException("Invalid trusted proxy: " + entry);
+        }
+
+        int maxPrefix = address.getAddress().length * 8;
+        int prefixLength;
+        try {
+            prefixLength = slash < 0 ? maxPrefix : Integer.parseInt(entry.substring(slash + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid trusted proxy: " + entry);
+        }
+        if (prefixLength < 0 || prefixLength > maxPrefix) {
+            throw new IllegalArgumentException("Invalid trusted proxy: " + entry);
+        }
+        return new Subnet(address.getAddress(), prefixLength);
+    }
+
+    /**
+     * Parse an IPv4 or IPv6 literal, without ever resolving a host name.
+     *
+     * @return The address, or null if the text is not an IP literal
+     */
+    private static InetAddress parseLiteral(String text) {
+        // Early return for anything that could be taken for a host name
+        if (text == null || text.isEmpty() || !isLiteralSyntax(text)) {
+            return null;
+        }
+
+        try {
+            return InetAddress.getByName(text);
+        } catch (UnknownHostException | IllegalArgumentException e) {
+            // Invalid or ambiguous literal, e.g. with leading zeros
+            return null;
+        }
+    }
+
+    /**
+     * @return true for a dotted-quad IPv4 address, or text made only of the
+     *         characters of an IPv6 literal, which the JDK never resolves
+     */
+    private static boolean isLiteralSyntax(String text) {
+        // IPv6 literals contain a colon and are parsed, never looked up
+        if (text.indexOf(':') >= 0) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                boolean hex = (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+                if (!hex && c != ':' && c != '.') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String[] parts = text.split("\\.", -1);
+        if (parts.length != 4) {
+            return false;
+        }
+        for (String part : parts) {
+            if (part.isEmpty() || part.length() > 3 || !part.chars().allMatch(c -> c >= '0' && c <= '9')
+                    || Integer.parseInt(part) > 255) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
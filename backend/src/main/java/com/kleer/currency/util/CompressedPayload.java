@@ -0,0 +1,140 @@
+package com.kleer.currency.util;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body held both as is and gzip-compressed.
+ *
+ * Versioned payloads are compressed once, at the highest level since the
+ * cost is paid once per version, and the matching encoding is picked per
+ * request. Responses sent with a Content-Encoding are left alone by the
+ * connector's own compression, so the payload is never compressed twice.
+ *
+ * @param identity The uncompressed body
+ * @param gzip     The gzip-compressed body
+ */
+public record CompressedPayload(byte[] identity, byte[] gzip) {
+
+    public static final String GZIP = "gzip";
+
+    /**
+     * Compress a body.
+     *
+     * @param identity The uncompressed body
+     * @return The body in both encodings
+     */
+    public static CompressedPayload of(byte[] identity) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, identity.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(identity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress payload", e);
+        }
+        return new CompressedPayload(identity, buffer.toByteArray());
+    }
+
+    /**
+     * Build the response in the encoding the client accepts.
+     *
+     * Each encoding gets its own ETag, derived from the payload's version, so
+     * conditional requests are answered with 304 by Spring MVC.
+     *
+     * @param acceptEncoding The request's Accept-Encoding header, or null if absent
+     * @param contentType    Content type of the uncompressed body
+     * @param version        Version of the payload
+     * @return The response
+     */
+    public ResponseEntity<byte[]> toResponse(String acceptEncoding, MediaType contentType, long version) {
+        return toResponse(acceptEncoding, contentType, Long.toString(version), HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    /**
+     * Build the response for one of several representations of the same
+     * resource chosen by the Accept header.
+     *
+     * The representation is part of the ETag and Accept is added to Vary, so
+     * neither a shared cache nor a conditional request can answer a client
+     * with another representation of the same version.
+     *
+     * @param acceptEncoding The request's Accept-Encoding header, or null if absent
+     * @param contentType    Content type of the uncompressed body
+     * @param version        Version of the payload
+     * @param representation Tag of the representation (e.g. "bin"), or null for the default one
+     * @return The response
+     */
+    public ResponseEntity<byte[]> toResponse(String acceptEncoding, MediaType contentType, long version,
+                                             String representation) {
+        String tag = representation == null ? Long.toString(version) : version + "-" + representation;
+        return toResponse(acceptEncoding, contentType, tag, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private ResponseEntity<byte[]> toResponse(String acceptEncoding, MediaType contentType, String tag, String vary) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.VARY, vary);
+
+        // Early return with the uncompressed body
+        if (!acceptsGzip(acceptEncoding)) {
+            return response.eTag(tag).body(identity);
+        }
+
+        return response.eTag(tag + "-" + GZIP)
+                .header(HttpHeaders.CONTENT_ENCODING, GZIP)
+                .body(gzip);
+    }
+
+    /**
+     * Check whether an Accept-Encoding header allows gzip, i.e. lists gzip
+     * or * without a zero quality value.
+     *
+     * @param acceptEncoding The header value, or null if absent
+     * @return true if the gzip body may be sent
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        // Early return if the client did not ask for compression
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return false;
+        }
+
+        boolean wildcard = false;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean acceptable = quality(parts) > 0;
+            if (coding.equals(GZIP) || coding.equals("x-gzip")) {
+                return acceptable;
+            }
+            if (coding.equals("*")) {
+                wildcard = acceptable;
+            }
+        }
+        return wildcard;
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,112 @@
+package com.kleer.currency.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Bulk conversion of fixed-point amounts at one rate.
+ *
+ * Amounts and results are in hundredths and rates in units of 10^-8, the
+ * scales used for conversions and rates elsewhere. Each result equals
+ * {@code amount.multiply(rate).setScale(2, RoundingMode.HALF_UP)} on the
+ * corresponding {@link BigDecimal}s, computed exactly in 64-bit arithmetic
+ * as long as amounts and rates stay within {@link #MAX_AMOUNT} and
+ * {@link #MAX_RATE}.
+ */
+public interface ConversionKernel {
+
+    /**
+     * Decimals of amounts and results.
+     */
+    int AMOUNT_SCALE = 2;
+
+    /**
+     * Decimals of rates.
+     */
+    int RATE_SCALE = 8;
+
+    /**
+     * Largest amount in hundredths, about 687 million.
+     */
+    long MAX_AMOUNT = (1L << 36) - 1;
+
+    /**
+     * Largest rate in units of 10^-8, about 67 million.
+     */
+    long MAX_RATE = (1L << 26) * 100_000_000L - 1;
+
+    /**
+     * Convert a range of amounts at one rate.
+     *
+     * @param amounts    Amounts in hundredths, between 0 and {@link #MAX_AMOUNT}
+     * @param results    Receives the converted amounts in hundredths at the same positions
+     * @param offset     First position to convert
+     * @param length     Number of amounts to convert
+     * @param scaledRate Rate in units of 10^-8, between 1 and {@link #MAX_RATE}
+     */
+    void convert(long[] amounts, long[] results, int offset, int length, long scaledRate);
+
+    /**
+     * @return Short name of the implementation, for logging
+     */
+    String name();
+
+    /**
+     * Create the fastest kernel available to this JVM.
+     *
+     * The vectorised kernel is only compiled by the {@code vector} Maven
+     * profile. It needs the {@code jdk.incubator.vector} module (start the
+     * JVM with {@code --add-modules jdk.incubator.vector}) and hardware that
+     * converts and multiplies 64-bit lanes natively; otherwise the scalar
+     * kernel is used.
+     *
+     * @param vectorized false to always use the scalar kernel
+     * @return The kernel
+     */
+    static ConversionKernel create(boolean vectorized) {
+        // Early return if vectors are not wanted or the module is not loaded
+        if (!vectorized || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return new ScalarConversionKernel();
+        }
+
+        // Loaded reflectively so this interface links without the incubator module
+        try {
+            Class<?> type = Class.forName(ConversionKernel.class.getPackageName() + ".VectorConversionKernel");
+            if ((boolean) type.getMethod("isSupported").invoke(null)) {
+                return (ConversionKernel) type.getDeclaredConstructor().newInstance();
+            }
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Built without the vector profile: fall through to the scalar kernel
+        }
+        return new ScalarConversionKernel();
+    }
+
+    /**
+     * Convert a rate to units of 10^-8 if the kernel can apply it exactly.
+     *
+     * @param rate The rate
+     * @return The scaled rate, or 0 unless the rate is positive, below 10^7 and has at most 8 decimals
+     */
+    static long toScaledRate(BigDecimal rate) {
+        // Early return for rates that would be rounded or overflow
+        if (rate.signum() <= 0 || rate.precision() - rate.scale() > 7
+                || (rate.scale() > RATE_SCALE && rate.stripTrailingZeros().scale() > RATE_SCALE)) {
+            return 0;
+        }
+        return rate.movePointRight(RATE_SCALE).longValueExact();
+    }
+
+    /**
+     * Convert an amount to hundredths if the kernel can convert it exactly.
+     *
+     * @param amount The amount
+     * @return The amount in hundredths, or -1 unless the amount is non-negative, below 10^8 and has at most 2 decimals
+     */
+    static long toScaledAmount(BigDecimal amount) {
+        // Early return for amounts that would be rounded or overflow
+        if (amount.signum() < 0 || amount.precision() - amount.scale() > 8
+                || (amount.scale() > AMOUNT_SCALE && amount.stripTrailingZeros().scale() > AMOUNT_SCALE)) {
+            return -1;
+        }
+        return amount.movePointRight(AMOUNT_SCALE).longValueExact();
+    }
+}
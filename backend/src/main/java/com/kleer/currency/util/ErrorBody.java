@@ -0,0 +1,56 @@
+package com.kleer.currency.util;
+
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * A JSON error body in the schema of
+ * {@link com.kleer.currency.exception.GlobalExceptionHandler}, serialised once.
+ *
+ * Only the timestamp is written per response, so paths that reject many
+ * requests need no exception, no map and no serialisation per request.
+ */
+public final class ErrorBody {
+
+    private static final byte[] PREFIX = "{\"timestamp\":\"".getBytes(StandardCharsets.US_ASCII);
+
+    private final HttpStatus status;
+    private final byte[] suffix;
+
+    private ErrorBody(HttpStatus status, byte[] suffix) {
+        this.status = status;
+        this.suffix = suffix;
+    }
+
+    /**
+     * @param status  Response status
+     * @param error   Short error description, without characters that need JSON escaping
+     * @param message Error message, without characters that need JSON escaping
+     * @return The pre-built body
+     */
+    public static ErrorBody of(HttpStatus status, String error, String message) {
+        byte[] suffix = String.format("\",\"status\":%d,\"error\":\"%s\",\"message\":\"%s\"}",
+                status.value(), error, message).getBytes(StandardCharsets.UTF_8);
+        return new ErrorBody(status, suffix);
+    }
+
+    /**
+     * @return The body stamped with the current time
+     */
+    public byte[] render() {
+        byte[] timestamp = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(LocalDateTime.now())
+                .getBytes(StandardCharsets.US_ASCII);
+        byte[] body = new byte[PREFIX.length + timestamp.length + suffix.length];
+        System.arraycopy(PREFIX, 0, body, 0, PREFIX.length);
+        System.arraycopy(timestamp, 0, body, PREFIX.length, timestamp.length);
+        System.arraycopy(suffix, 0, body, PREFIX.length + timestamp.length, suffix.length);
+        return body;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
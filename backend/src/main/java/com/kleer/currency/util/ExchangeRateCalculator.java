@@ -5,7 +5,8 @@ import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -35,7 +36,7 @@ public class ExchangeRateCalculator {
     /**
      * Calculates a cross rate by dividing two exchange rates.
      * For example, to get EUR/USD from EUR/SEK and USD/SEK:
-     * EUR/USD = USD/SEK ÷ EUR/SEK
+     * EUR/USD = EUR/SEK ÷ USD/SEK
      * 
      * @param numeratorRate The rate in the numerator
      * @param denominatorRate The rate in the denominator
@@ -67,30 +68,32 @@ public class ExchangeRateCalculator {
     }
     
     /**
-     * Calculates all possible exchange rates from base rates.
+     * Calculates all possible exchange rates from rates against a base currency.
      * Given EUR/SEK and USD/SEK, calculates all six permutations including EUR/USD.
+     * Currencies without a rate are left out.
      * 
-     * @param eurToSek EUR/SEK exchange rate
-     * @param usdToSek USD/SEK exchange rate
+     * @param baseCurrency The base currency code (e.g., "SEK")
+     * @param ratesToBase Rate of each currency in the base currency (e.g., "EUR" -> EUR/SEK)
      * @return Map of all calculated rates
      */
-    public Map<String, BigDecimal> calculateAllRates(BigDecimal eurToSek, BigDecimal usdToSek) {
-        Map<String, BigDecimal> rates = new HashMap<>();
+    public Map<String, BigDecimal> calculateAllRates(String baseCurrency, Map<String, BigDecimal> ratesToBase) {
+        List<Map.Entry<String, BigDecimal>> known = ratesToBase.entrySet().stream()
+                .filter(entry -> entry.getValue() != null)
+                .toList();
+        Map<String, BigDecimal> rates = new LinkedHashMap<>(known.size() * (known.size() + 1) * 4 / 3 + 1);
         
-        if (eurToSek != null) {
-            addRateWithInverse(rates, new CurrencyPair("EUR", "SEK"), eurToSek);
-        }
-        
-        if (usdToSek != null) {
-            addRateWithInverse(rates, new CurrencyPair("USD", "SEK"), usdToSek);
-        }
-        
-        if (eurToSek != null && usdToSek != null) {
-            BigDecimal eurToUsd = calculateCrossRate(usdToSek, eurToSek);
-            addRateWithInverse(rates, new CurrencyPair("EUR", "USD"), eurToUsd);
+        for (int i = 0; i < known.size(); i++) {
+            Map.Entry<String, BigDecimal> from = known.get(i);
+            addRateWithInverse(rates, new CurrencyPair(from.getKey(), baseCurrency), from.getValue());
+            
+            // Cross rates via the base currency, each unordered pair once
+            for (int j = i + 1; j < known.size(); j++) {
+                Map.Entry<String, BigDecimal> to = known.get(j);
+                BigDecimal crossRate = calculateCrossRate(from.getValue(), to.getValue());
+                addRateWithInverse(rates, new CurrencyPair(from.getKey(), to.getKey()), crossRate);
+            }
         }
         
         return rates;
     }
 }
-
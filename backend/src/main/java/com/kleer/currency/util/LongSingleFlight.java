@@ -0,0 +1,150 @@
+package com.kleer.currency.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link SingleFlight} for primitive long keys and values.
+ *
+ * In-flight loads are chained in a fixed table of lock-striped buckets, so a
+ * load allocates only its flight record: no boxed key or value, no future
+ * and no map node. Meant for cache misses on hot paths keyed by packed longs.
+ */
+public final class LongSingleFlight {
+
+    private static final int STRIPES = 64;
+
+    private final Flight[] flights = new Flight[STRIPES];
+    private final Object[] locks = new Object[STRIPES];
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    /**
+     * A load in flight; waiters are released when the latch opens.
+     */
+    private static final class Flight extends CountDownLatch {
+        private final long key;
+        private Flight next;
+        private long value;
+        private Throwable failure;
+
+        Flight(long key, Flight next) {
+            super(1);
+            this.key = key;
+            this.next = next;
+        }
+    }
+
+    public LongSingleFlight() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Load a value, or wait for the load already in flight for the key.
+     *
+     * @param key    The key
+     * @param loader Loads the value; runs on the calling thread
+     * @return The loaded value
+     */
+    public long execute(long key, LongSupplier loader) {
+        int stripe = stripe(key);
+        Flight flight = null;
+        Flight inFlight;
+        synchronized (locks[stripe]) {
+            inFlight = find(flights[stripe], key);
+            if (inFlight == null) {
+                flight = new Flight(key, flights[stripe]);
+                flights[stripe] = flight;
+            }
+        }
+
+        // Early return with the result of the load already in flight
+        if (inFlight != null) {
+            shared.increment();
+            return await(inFlight);
+        }
+
+        loads.increment();
+        try {
+            long value = loader.getAsLong();
+            flight.value = value;
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.failure = e;
+            throw e;
+        } finally {
+            remove(stripe, flight);
+            flight.countDown();
+        }
+    }
+
+    /**
+     * @return Number of loads that ran
+     */
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    /**
+     * @return Number of calls that shared another caller's load
+     */
+    public long getShared() {
+        return shared.sum();
+    }
+
+    private void remove(int stripe, Flight flight) {
+        synchronized (locks[stripe]) {
+            if (flights[stripe] == flight) {
+                flights[stripe] = flight.next;
+                return;
+            }
+            for (Flight previous = flights[stripe]; previous != null; previous = previous.next) {
+                if (previous.next == flight) {
+                    previous.next = flight.next;
+                    return;
+                }
+            }
+        }
+    }
+
+    private static Flight find(Flight head, long key) {
+        for (Flight flight = head; flight != null; flight = flight.next) {
+            if (flight.key == key) {
+                return flight;
+            }
+        }
+        return null;
+    }
+
+    private static int stripe(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 58);
+    }
+
+    private static long await(Flight flight) {
+        // Wait like CompletableFuture#join: uninterruptibly, restoring the interrupt afterwards
+        boolean interrupted = false;
+        while (true) {
+            try {
+                flight.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (flight.failure instanceof RuntimeException failure) {
+            throw failure;
+        }
+        if (flight.failure instanceof Error failure) {
+            throw failure;
+        }
+        return flight.value;
+    }
+}
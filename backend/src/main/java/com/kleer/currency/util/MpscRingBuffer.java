@@ -0,0 +1,105 @@
+package com.kleer.currency.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lock-free ring buffer for many producers and a single consumer.
+ *
+ * Each slot carries a sequence number that tells producers and the consumer
+ * whose turn it is, so publishing is one CAS on the producer cursor plus a
+ * release store; no locks are taken and no memory is allocated per element.
+ *
+ * @param <E> Element type
+ */
+public final class MpscRingBuffer<E> {
+
+    private final int mask;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerCursor = new AtomicLong();
+    private volatile long consumerCursor;
+
+    /**
+     * @param capacity Number of slots; must be a power of two
+     */
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.elements = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Publish an element. Safe to call from any number of threads.
+     *
+     * @param element The element, must not be null
+     * @return true if published, false if the buffer is full
+     */
+    public boolean offer(E element) {
+        long position = producerCursor.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.getAcquire(index) - position;
+
+            if (difference == 0) {
+                if (producerCursor.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = producerCursor.get();
+            } else if (difference < 0) {
+                // Slot not yet released by the consumer: buffer is full
+                return false;
+            } else {
+                position = producerCursor.get();
+            }
+        }
+    }
+
+    /**
+     * Remove up to {@code limit} published elements. Must only be called from
+     * the single consumer thread.
+     *
+     * @param consumer Receives each element in publication order
+     * @param limit    Maximum number of elements to drain
+     * @return Number of elements drained
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(Consumer<E> consumer, int limit) {
+        long position = consumerCursor;
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) (position & mask);
+            if (sequences.getAcquire(index) != position + 1) {
+                break;
+            }
+            E element = (E) elements[index];
+            elements[index] = null;
+            sequences.setRelease(index, position + mask + 1);
+            position++;
+            drained++;
+            consumer.accept(element);
+        }
+        consumerCursor = position;
+        return drained;
+    }
+
+    /**
+     * @return Approximate number of published but not yet drained elements
+     */
+    public int size() {
+        return (int) Math.max(0, producerCursor.get() - consumerCursor);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
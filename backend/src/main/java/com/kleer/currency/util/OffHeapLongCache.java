@@ -0,0 +1,213 @@
+package com.kleer.currency.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.LongPredicate;
+
+/**
+ * Bounded, concurrent cache from long keys to long values held outside the Java heap.
+ *
+ * Entries live in a direct buffer as 4-way set-associative buckets of 64
+ * bytes, one cache line each, so the tier adds nothing for the garbage
+ * collector to trace however large it is. Each bucket keeps its entries
+ * newest first; inserting into a full bucket evicts its oldest entry.
+ * Buckets are guarded by striped locks.
+ */
+public final class OffHeapLongCache {
+
+    /**
+     * Returned by {@link #take(long)} on a miss. Not a valid value.
+     */
+    public static final long ABSENT = Long.MIN_VALUE;
+
+    private static final int WAYS = 4;
+    private static final int ENTRY_BYTES = 16;
+    private static final int BUCKET_BYTES = WAYS * ENTRY_BYTES;
+    private static final int VALUE_OFFSET = 8;
+    private static final int MAX_STRIPES = 64;
+
+    private final ByteBuffer buffer;
+    private final int bucketMask;
+    private final long capacity;
+    private final Stripe[] stripes;
+
+    private static final class Stripe {
+        long hits;
+        long misses;
+        long evictions;
+        long size;
+    }
+
+    /**
+     * @param capacity Minimum number of entries, rounded up to a power of two
+     */
+    public OffHeapLongCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        int buckets = Integer.highestOneBit(Math.max((capacity + WAYS - 1) / WAYS - 1, 1)) << 1;
+        if ((long) buckets * BUCKET_BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Capacity must be at most "
+                    + Integer.highestOneBit(Integer.MAX_VALUE / BUCKET_BYTES) * WAYS);
+        }
+        this.buffer = ByteBuffer.allocateDirect(buckets * BUCKET_BYTES).order(ByteOrder.nativeOrder());
+        for (int offset = 0; offset < buffer.capacity(); offset += ENTRY_BYTES) {
+            buffer.putLong(offset + VALUE_OFFSET, ABSENT);
+        }
+        this.bucketMask = buckets - 1;
+        this.capacity = (long) buckets * WAYS;
+        this.stripes = new Stripe[Math.min(MAX_STRIPES, buckets)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Remove an entry and return its value.
+     *
+     * @return The cached value, or {@link #ABSENT}
+     */
+    public long take(long key) {
+        int bucket = bucketOf(key);
+        Stripe stripe = stripeOf(bucket);
+        synchronized (stripe) {
+            int way = find(bucket, key);
+
+            // Early return on a miss
+            if (way < 0) {
+                stripe.misses++;
+                return ABSENT;
+            }
+
+            long value = valueAt(bucket, way);
+            remove(bucket, way);
+            stripe.hits++;
+            stripe.size--;
+            return value;
+        }
+    }
+
+    /**
+     * Cache a value, evicting the oldest entry of its bucket if the bucket is full.
+     *
+     * @param key   The key
+     * @param value The value, anything but {@link #ABSENT}
+     */
+    public void put(long key, long value) {
+        if (value == ABSENT) {
+            throw new IllegalArgumentException("Value must not be ABSENT");
+        }
+        int bucket = bucketOf(key);
+        Stripe stripe = stripeOf(bucket);
+        synchronized (stripe) {
+            int way = find(bucket, key);
+            if (way < 0) {
+                way = WAYS - 1;
+                if (valueAt(bucket, way) == ABSENT) {
+                    stripe.size++;
+                } else {
+                    stripe.evictions++;
+                }
+            }
+
+            // Shift newer entries down over the replaced one and insert at the front
+            int base = bucket * BUCKET_BYTES;
+            for (int w = way; w > 0; w--) {
+                buffer.putLong(base + w * ENTRY_BYTES, buffer.getLong(base + (w - 1) * ENTRY_BYTES));
+                buffer.putLong(base + w * ENTRY_BYTES + VALUE_OFFSET,
+                        buffer.getLong(base + (w - 1) * ENTRY_BYTES + VALUE_OFFSET));
+            }
+            buffer.putLong(base, key);
+            buffer.putLong(base + VALUE_OFFSET, value);
+        }
+    }
+
+    /**
+     * Remove all entries whose key matches.
+     *
+     * @param keys Selects the keys to remove
+     * @return Number of removed entries
+     */
+    public int invalidate(LongPredicate keys) {
+        int removed = 0;
+        for (int s = 0; s < stripes.length; s++) {
+            Stripe stripe = stripes[s];
+            synchronized (stripe) {
+                for (int bucket = s; bucket <= bucketMask; bucket += stripes.length) {
+                    int way = 0;
+                    while (way < WAYS && valueAt(bucket, way) != ABSENT) {
+                        if (keys.test(keyAt(bucket, way))) {
+                            remove(bucket, way);
+                            stripe.size--;
+                            removed++;
+                        } else {
+                            way++;
+                        }
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    public CacheStats stats() {
+        long hits = 0;
+        long misses = 0;
+        long evictions = 0;
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                hits += stripe.hits;
+                misses += stripe.misses;
+                evictions += stripe.evictions;
+                size += stripe.size;
+            }
+        }
+        return new CacheStats(hits, misses, evictions, size, capacity);
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    private int find(int bucket, long key) {
+        for (int way = 0; way < WAYS; way++) {
+            if (valueAt(bucket, way) == ABSENT) {
+                return -1;
+            }
+            if (keyAt(bucket, way) == key) {
+                return way;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Close the gap left by a way by shifting older entries up.
+     */
+    private void remove(int bucket, int way) {
+        int base = bucket * BUCKET_BYTES;
+        for (int w = way; w < WAYS - 1; w++) {
+            buffer.putLong(base + w * ENTRY_BYTES, buffer.getLong(base + (w + 1) * ENTRY_BYTES));
+            buffer.putLong(base + w * ENTRY_BYTES + VALUE_OFFSET,
+                    buffer.getLong(base + (w + 1) * ENTRY_BYTES + VALUE_OFFSET));
+        }
+        buffer.putLong(base + (WAYS - 1) * ENTRY_BYTES + VALUE_OFFSET, ABSENT);
+    }
+
+    private long keyAt(int bucket, int way) {
+        return buffer.getLong(bucket * BUCKET_BYTES + way * ENTRY_BYTES);
+    }
+
+    private long valueAt(int bucket, int way) {
+        return buffer.getLong(bucket * BUCKET_BYTES + way * ENTRY_BYTES + VALUE_OFFSET);
+    }
+
+    private int bucketOf(long key) {
+        return (int) (TinyLfuLongCache.spread(key) >>> 32) & bucketMask;
+    }
+
+    private Stripe stripeOf(int bucket) {
+        return stripes[bucket & (stripes.length - 1)];
+    }
+}
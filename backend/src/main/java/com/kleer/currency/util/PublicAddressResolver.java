@@ -0,0 +1,39 @@
+package com.kleer.currency.util;
+
+import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.SystemDefaultDnsResolver;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * DNS resolver for HTTP clients that must only reach public hosts.
+ *
+ * The addresses are checked with {@link CallbackUrls#isPublic} at connect
+ * time and the client connects to exactly the addresses checked, so a host
+ * whose records change between a check and the call (DNS rebinding) cannot
+ * steer the connection to an internal address.
+ */
+public final class PublicAddressResolver implements DnsResolver {
+
+    public static final PublicAddressResolver INSTANCE = new PublicAddressResolver();
+
+    private PublicAddressResolver() {
+    }
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        InetAddress[] addresses = InetAddress.getAllByName(host);
+        for (InetAddress address : addresses) {
+            if (!CallbackUrls.isPublic(address)) {
+                throw new UnknownHostException(host + " resolves to non-public address " + address.getHostAddress());
+            }
+        }
+        return addresses;
+    }
+
+    @Override
+    public String resolveCanonicalHostname(String host) throws UnknownHostException {
+        return SystemDefaultDnsResolver.INSTANCE.resolveCanonicalHostname(host);
+    }
+}
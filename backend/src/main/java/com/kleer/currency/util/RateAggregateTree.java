@@ -0,0 +1,229 @@
+package com.kleer.currency.util;
+
+import java.util.Arrays;
+
+/**
+ * Segment tree of rate aggregates over one pair's observations.
+ *
+ * Observations are appended in date order; every node keeps min, max, and
+ * the count, mean and sum of squared deviations (M2) of its range, so
+ * min/max/mean/stddev and OHLC over any date window are answered in O(log n),
+ * and appending or correcting the latest observation updates the tree in
+ * O(log n). Ranges are combined with Chan et al.'s parallel update, which
+ * unlike a running sum of squares does not cancel catastrophically when the
+ * spread is tiny next to the rate.
+ */
+public final class RateAggregateTree {
+
+    private static final int INITIAL_LEAVES = 16;
+
+    private final double scaleFactor;
+
+    private int[] days = new int[0];
+    private long[] values = new long[0];
+    private int size;
+    private int leafCount;
+    private long[] min = new long[0];
+    private long[] max = new long[0];
+    private int[] count = new int[0];
+    private double[] mean = new double[0];
+    private double[] m2 = new double[0];
+
+    /**
+     * @param valueScale Number of decimals of the fixed-point values
+     */
+    public RateAggregateTree(int valueScale) {
+        this.scaleFactor = Math.pow(10, valueScale);
+    }
+
+    /**
+     * Aggregate of the observations within a window.
+     *
+     * @param count    Number of observations
+     * @param min      Lowest fixed-point rate
+     * @param max      Highest fixed-point rate
+     * @param mean     Mean rate
+     * @param m2       Sum of squared deviations of the rates from the mean
+     * @param firstDay Epoch day of the first observation
+     * @param open     Fixed-point rate of the first observation
+     * @param lastDay  Epoch day of the last observation
+     * @param close    Fixed-point rate of the last observation
+     */
+    public record Aggregate(int count, long min, long max, double mean, double m2,
+                            int firstDay, long open, int lastDay, long close) {
+
+        /**
+         * @return Population standard deviation of the rates
+         */
+        public double standardDeviation() {
+            return Math.sqrt(Math.max(0, m2 / count));
+        }
+    }
+
+    /**
+     * Count, mean and M2 of the ranges merged so far in a query.
+     */
+    private static final class Moments {
+        private int count;
+        private double mean;
+        private double m2;
+
+        void merge(int otherCount, double otherMean, double otherM2) {
+            // Early return for an empty range
+            if (otherCount == 0) {
+                return;
+            }
+
+            int total = count + otherCount;
+            double delta = otherMean - mean;
+            mean += delta * otherCount / total;
+            m2 += otherM2 + delta * delta * ((double) count * otherCount / total);
+            count = total;
+        }
+    }
+
+    /**
+     * Append an observation, or replace the latest one if it has the same date.
+     *
+     * @param epochDay   Observation date
+     * @param scaledRate Fixed-point rate
+     * @throws IllegalArgumentException if the date is older than the latest observation
+     */
+    public synchronized void append(int epochDay, long scaledRate) {
+        if (size > 0) {
+            int lastDay = days[size - 1];
+            if (epochDay < lastDay) {
+                throw new IllegalArgumentException("Observations must be appended in date order");
+            }
+            if (epochDay == lastDay) {
+                set(size - 1, scaledRate);
+                return;
+            }
+        }
+
+        if (size == leafCount) {
+            grow();
+        }
+        days[size] = epochDay;
+        size++;
+        set(size - 1, scaledRate);
+    }
+
+    /**
+     * Aggregate all observations between two dates (inclusive).
+     *
+     * @param fromDay First epoch day
+     * @param toDay   Last epoch day
+     * @return The aggregate, or null if there are no observations in the window
+     */
+    public synchronized Aggregate query(int fromDay, int toDay) {
+        int first = lowerBound(fromDay);
+        int last = lowerBound(toDay + 1) - 1;
+
+        // Early return for an empty window
+        if (first > last) {
+            return null;
+        }
+
+        long low = Long.MAX_VALUE;
+        long high = Long.MIN_VALUE;
+        Moments moments = new Moments();
+        for (int lo = first + leafCount, hi = last + leafCount + 1; lo < hi; lo >>= 1, hi >>= 1) {
+            if ((lo & 1) == 1) {
+                low = Math.min(low, min[lo]);
+                high = Math.max(high, max[lo]);
+                moments.merge(count[lo], mean[lo], m2[lo]);
+                lo++;
+            }
+            if ((hi & 1) == 1) {
+                hi--;
+                low = Math.min(low, min[hi]);
+                high = Math.max(high, max[hi]);
+                moments.merge(count[hi], mean[hi], m2[hi]);
+            }
+        }
+
+        return new Aggregate(moments.count, low, high, moments.mean, moments.m2,
+                days[first], values[first], days[last], values[last]);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void set(int index, long scaledRate) {
+        values[index] = scaledRate;
+        int node = leafCount + index;
+        setLeaf(node, scaledRate);
+        for (node >>= 1; node > 0; node >>= 1) {
+            pull(node);
+        }
+    }
+
+    private void pull(int node) {
+        int left = node << 1;
+        int right = left + 1;
+        min[node] = Math.min(min[left], min[right]);
+        max[node] = Math.max(max[left], max[right]);
+        int total = count[left] + count[right];
+        count[node] = total;
+
+        // Early return for a range of padding leaves
+        if (total == 0) {
+            mean[node] = 0;
+            m2[node] = 0;
+            return;
+        }
+
+        double delta = mean[right] - mean[left];
+        mean[node] = mean[left] + delta * count[right] / total;
+        m2[node] = m2[left] + m2[right] + delta * delta * ((double) count[left] * count[right] / total);
+    }
+
+    private void setLeaf(int node, long scaledRate) {
+        min[node] = scaledRate;
+        max[node] = scaledRate;
+        count[node] = 1;
+        mean[node] = scaledRate / scaleFactor;
+        m2[node] = 0;
+    }
+
+    private void grow() {
+        int newLeafCount = Math.max(INITIAL_LEAVES, leafCount * 2);
+        days = Arrays.copyOf(days, newLeafCount);
+        values = Arrays.copyOf(values, newLeafCount);
+        leafCount = newLeafCount;
+
+        min = new long[2 * newLeafCount];
+        max = new long[2 * newLeafCount];
+        count = new int[2 * newLeafCount];
+        mean = new double[2 * newLeafCount];
+        m2 = new double[2 * newLeafCount];
+        Arrays.fill(min, Long.MAX_VALUE);
+        Arrays.fill(max, Long.MIN_VALUE);
+
+        for (int i = 0; i < size; i++) {
+            setLeaf(newLeafCount + i, values[i]);
+        }
+        for (int node = newLeafCount - 1; node > 0; node--) {
+            pull(node);
+        }
+    }
+
+    /**
+     * @return Index of the first observation on or after the day
+     */
+    private int lowerBound(int epochDay) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,159 @@
+package com.kleer.currency.util;
+
+import com.kleer.currency.model.RateMatrix;
+import com.kleer.currency.model.SupportedCurrency;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact encodings of a {@link RateMatrix}.
+ *
+ * JSON: one header array of currency codes and one dense row per source
+ * currency, without repeated keys:
+ * <pre>
+ * {"version":3,"lastUpdated":"2024-01-01T12:00:00","currencies":["SEK","EUR"],"rates":[[1,0.0915],[10.93,1]]}
+ * </pre>
+ *
+ * Binary, little-endian:
+ * <pre>
+ * byte[4] magic "KRM1"
+ * long    snapshot version
+ * long    last updated as epoch millis, local time read as UTC (Long.MIN_VALUE if unknown)
+ * byte    rate scale
+ * int     number of currencies n
+ * byte[3] x n currency codes
+ * long    x n*n row-major rates * 10^scale (Long.MIN_VALUE if missing)
+ * </pre>
+ */
+public final class RateMatrixCodec {
+
+    public static final String BINARY_MEDIA_TYPE = "application/vnd.kleer.rate-matrix";
+
+    private static final byte[] MAGIC = {'K', 'R', 'M', '1'};
+    private static final int SCALE = 8;
+    private static final int CODE_LENGTH = 3;
+    private static final long MISSING = Long.MIN_VALUE;
+
+    private RateMatrixCodec() {
+    }
+
+    public static byte[] toJson(RateMatrix matrix) {
+        List<SupportedCurrency> currencies = matrix.getCurrencies();
+        StringBuilder json = new StringBuilder(32 + currencies.size() * currencies.size() * 12);
+        json.append("{\"version\":").append(matrix.getVersion())
+                .append(",\"lastUpdated\":");
+        if (matrix.getLastUpdated() == null) {
+            json.append("null");
+        } else {
+            json.append('"').append(matrix.getLastUpdated()).append('"');
+        }
+
+        json.append(",\"currencies\":[");
+        for (int i = 0; i < currencies.size(); i++) {
+            json.append(i == 0 ? "\"" : ",\"").append(currencies.get(i).code()).append('"');
+        }
+
+        json.append("],\"rates\":[");
+        for (SupportedCurrency from : currencies) {
+            json.append(from.index() == 0 ? "[" : ",[");
+            for (SupportedCurrency to : currencies) {
+                if (to.index() > 0) {
+                    json.append(',');
+                }
+                BigDecimal rate = matrix.getRate(from, to);
+                json.append(rate == null ? "null" : rate.toPlainString());
+            }
+            json.append(']');
+        }
+        json.append("]}");
+
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static byte[] toBinary(RateMatrix matrix) {
+        List<SupportedCurrency> currencies = matrix.getCurrencies();
+        int size = currencies.size();
+        ByteBuffer buffer = ByteBuffer.allocate(MAGIC.length + 2 * Long.BYTES + 1 + Integer.BYTES
+                        + size * CODE_LENGTH + size * size * Long.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.put(MAGIC);
+        buffer.putLong(matrix.getVersion());
+        buffer.putLong(matrix.getLastUpdated() == null
+                ? MISSING
+                : matrix.getLastUpdated().toInstant(ZoneOffset.UTC).toEpochMilli());
+        buffer.put((byte) SCALE);
+        buffer.putInt(size);
+        for (SupportedCurrency currency : currencies) {
+            buffer.put(currency.code().getBytes(StandardCharsets.US_ASCII));
+        }
+        for (SupportedCurrency from : currencies) {
+            for (SupportedCurrency to : currencies) {
+                BigDecimal rate = matrix.getRate(from, to);
+                buffer.putLong(rate == null
+                        ? MISSING
+                        : rate.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+            }
+        }
+
+        return buffer.array();
+    }
+
+    /**
+     * Decode the binary encoding.
+     *
+     * @param bytes Encoded matrix
+     * @return The matrix
+     * @throws IllegalArgumentException if the bytes are not a valid encoding
+     */
+    public static RateMatrix fromBinary(byte[] bytes) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            byte[] magic = new byte[MAGIC.length];
+            buffer.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IllegalArgumentException("Not a rate matrix");
+            }
+
+            long version = buffer.getLong();
+            long lastUpdatedMillis = buffer.getLong();
+            int scale = buffer.get();
+            int size = buffer.getInt();
+            // Codes and rates must fit in what is left, so a forged count cannot force a huge allocation
+            if (size < 0 || (long) size * (CODE_LENGTH + (long) size * Long.BYTES) > buffer.remaining()) {
+                throw new IllegalArgumentException("Invalid currency count: " + size);
+            }
+
+            List<SupportedCurrency> currencies = new ArrayList<>(size);
+            byte[] code = new byte[CODE_LENGTH];
+            for (int i = 0; i < size; i++) {
+                buffer.get(code);
+                currencies.add(new SupportedCurrency(new String(code, StandardCharsets.US_ASCII), i));
+            }
+
+            BigDecimal[] rates = new BigDecimal[size * size];
+            for (int i = 0; i < rates.length; i++) {
+                long scaled = buffer.getLong();
+                rates[i] = scaled == MISSING ? null : BigDecimal.valueOf(scaled, scale);
+            }
+
+            LocalDateTime lastUpdated = lastUpdatedMillis == MISSING
+                    ? null
+                    : LocalDateTime.ofEpochSecond(Math.floorDiv(lastUpdatedMillis, 1000),
+                            (int) Math.floorMod(lastUpdatedMillis, 1000) * 1_000_000, ZoneOffset.UTC);
+            return new RateMatrix(version, lastUpdated, currencies, rates);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated rate matrix", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.kleer.currency.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which successful requests are logged on the hot request path.
+ *
+ * With a sample rate of 1.0 every request is logged; in production a small
+ * rate keeps per-request logging cost and volume bounded.
+ */
+@Component
+public class RequestLogSampler {
+
+    private final double sampleRate;
+
+    public RequestLogSampler(@Value("${logging.request-sample-rate:1.0}") double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1");
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * @return true if the current request should be logged
+     */
+    public boolean sample() {
+        if (sampleRate >= 1.0) {
+            return true;
+        }
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+}
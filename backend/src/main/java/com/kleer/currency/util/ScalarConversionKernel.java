@@ -0,0 +1,37 @@
+package com.kleer.currency.util;
+
+/**
+ * {@link ConversionKernel} converting one amount at a time.
+ *
+ * The rate is split into its integer and fractional parts so every product
+ * fits in a long; the JIT turns the division by the constant 10^8 into a
+ * multiplication.
+ */
+final class ScalarConversionKernel implements ConversionKernel {
+
+    static final long RATE_UNIT = 100_000_000L;
+    static final long HALF_RATE_UNIT = RATE_UNIT / 2;
+
+    @Override
+    public void convert(long[] amounts, long[] results, int offset, int length, long scaledRate) {
+        convert(amounts, results, offset, offset + length, scaledRate / RATE_UNIT, scaledRate % RATE_UNIT);
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    /**
+     * Convert amounts[from, to) at the rate integerPart + fractionPart / 10^8.
+     */
+    static void convert(long[] amounts, long[] results, int from, int to, long integerPart, long fractionPart) {
+        for (int i = from; i < to; i++) {
+            long amount = amounts[i];
+            long fraction = amount * fractionPart;
+            long quotient = fraction / RATE_UNIT;
+            long remainder = fraction - quotient * RATE_UNIT;
+            results[i] = amount * integerPart + quotient + (remainder >= HALF_RATE_UNIT ? 1 : 0);
+        }
+    }
+}
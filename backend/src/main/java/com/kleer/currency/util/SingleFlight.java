@@ -0,0 +1,82 @@
+package com.kleer.currency.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key into one.
+ *
+ * The first caller for a key runs the loader; callers arriving while it runs
+ * wait for and share its result or exception instead of loading again. Once
+ * the load completes the key is free, so nothing is cached beyond the flight.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    /**
+     * Load a value, or wait for the load already in flight for the key.
+     *
+     * @param key    The key
+     * @param loader Loads the value; runs on the calling thread
+     * @return The loaded value
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = flights.putIfAbsent(key, flight);
+
+        // Early return with the result of the load already in flight
+        if (inFlight != null) {
+            shared.increment();
+            return await(inFlight);
+        }
+
+        loads.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * @return Number of loads that ran
+     */
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    /**
+     * @return Number of calls that shared another caller's load
+     */
+    public long getShared() {
+        return shared.sum();
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.kleer.currency.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Sorted index of values keyed by a fixed-point threshold.
+ *
+ * Finds every value whose threshold lies between two rates with one ordered
+ * range lookup, so a rate move costs O(log n + k) for k crossed thresholds
+ * instead of a scan over all registered values.
+ *
+ * @param <T> Value type
+ */
+public final class ThresholdIndex<T> {
+
+    private final NavigableMap<Long, List<T>> thresholds = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int size;
+
+    /**
+     * @param threshold Fixed-point threshold
+     * @param value     The value to index
+     */
+    public void add(long threshold, T value) {
+        lock.writeLock().lock();
+        try {
+            thresholds.computeIfAbsent(threshold, t -> new ArrayList<>(1)).add(value);
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param threshold Fixed-point threshold the value was added with
+     * @param value     The value to remove
+     * @return true if the value was indexed
+     */
+    public boolean remove(long threshold, T value) {
+        lock.writeLock().lock();
+        try {
+            List<T> values = thresholds.get(threshold);
+            if (values == null || !values.remove(value)) {
+                return false;
+            }
+            if (values.isEmpty()) {
+                thresholds.remove(threshold);
+            }
+            size--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Visit the values crossed by a rise: previous &lt; threshold &lt;= current.
+     */
+    public void forEachCrossedUpward(long previous, long current, Consumer<T> consumer) {
+        // Early return if the rate did not rise
+        if (current <= previous) {
+            return;
+        }
+        forEachIn(previous, false, current, true, consumer);
+    }
+
+    /**
+     * Visit the values crossed by a fall: current &lt;= threshold &lt; previous.
+     */
+    public void forEachCrossedDownward(long previous, long current, Consumer<T> consumer) {
+        // Early return if the rate did not fall
+        if (current >= previous) {
+            return;
+        }
+        forEachIn(current, true, previous, false, consumer);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void forEachIn(long from, boolean fromInclusive, long to, boolean toInclusive, Consumer<T> consumer) {
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Long, List<T>> entry : thresholds.subMap(from, fromInclusive, to, toInclusive).entrySet()) {
+                entry.getValue().forEach(consumer);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
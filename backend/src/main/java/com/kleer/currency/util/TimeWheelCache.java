@@ -0,0 +1,163 @@
+package com.kleer.currency.util;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded, concurrent cache whose entries expire after a per-entry time to live.
+ *
+ * Expired entries are evicted by a hashed timing wheel: every entry's key is
+ * filed in the slot of the tick it expires in, and {@link #advance(long)}
+ * sweeps only the slots of elapsed ticks. Eviction therefore costs O(1) per
+ * entry instead of a scan over the whole cache, and the entry count never
+ * exceeds the configured capacity.
+ *
+ * @param <V> Value type
+ */
+public final class TimeWheelCache<V> {
+
+    private record Entry<V>(V value, long expiresAtMillis) {
+    }
+
+    private final int capacity;
+    private final long tickMillis;
+    private final long maxTtlMillis;
+    private final Queue<Long>[] slots;
+    private final Map<Long, Entry<V>> entries;
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final long originMillis;
+    private long nextTick;
+
+    /**
+     * @param capacity     Maximum number of live entries
+     * @param maxTtlMillis Longest time to live an entry may have
+     * @param tickMillis   Eviction granularity
+     * @param nowMillis    Current time
+     */
+    @SuppressWarnings("unchecked")
+    public TimeWheelCache(int capacity, long maxTtlMillis, long tickMillis, long nowMillis) {
+        if (capacity <= 0 || tickMillis <= 0 || maxTtlMillis <= 0) {
+            throw new IllegalArgumentException("Capacity, time to live and tick must be positive");
+        }
+        this.capacity = capacity;
+        this.tickMillis = tickMillis;
+        this.maxTtlMillis = maxTtlMillis;
+        this.slots = new Queue[(int) (maxTtlMillis / tickMillis) + 2];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.entries = new ConcurrentHashMap<>(Math.min(capacity, 1 << 16));
+        this.originMillis = nowMillis;
+        this.nextTick = 0;
+    }
+
+    /**
+     * Add an entry unless the key is taken or the cache is full.
+     *
+     * @param key       The key
+     * @param value     The value
+     * @param ttlMillis Time to live, at most the configured maximum
+     * @param nowMillis Current time
+     * @return true if the entry was added
+     */
+    public boolean putIfAbsent(long key, V value, long ttlMillis, long nowMillis) {
+        if (ttlMillis <= 0 || ttlMillis > maxTtlMillis) {
+            throw new IllegalArgumentException("Time to live must be between 1 and " + maxTtlMillis + " ms");
+        }
+
+        // Early return if the cache is full
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            return false;
+        }
+
+        long expiresAt = nowMillis + ttlMillis;
+        if (entries.putIfAbsent(key, new Entry<>(value, expiresAt)) != null) {
+            size.decrementAndGet();
+            return false;
+        }
+
+        slots[slotOf(expiresAt)].add(key);
+        return true;
+    }
+
+    /**
+     * @return The live value, or null if absent or expired
+     */
+    public V get(long key, long nowMillis) {
+        Entry<V> entry = entries.get(key);
+        return entry == null || entry.expiresAtMillis() <= nowMillis ? null : entry.value();
+    }
+
+    /**
+     * Remove an entry.
+     *
+     * @return The removed value, or null if it was absent or already expired
+     */
+    public V remove(long key, long nowMillis) {
+        Entry<V> entry = entries.remove(key);
+
+        // Early return if there was no entry
+        if (entry == null) {
+            return null;
+        }
+
+        size.decrementAndGet();
+        return entry.expiresAtMillis() <= nowMillis ? null : entry.value();
+    }
+
+    /**
+     * Evict all entries that expired in the ticks elapsed since the last call.
+     * Must be called from a single thread, at least once per wheel revolution.
+     *
+     * @param nowMillis Current time
+     * @return Number of evicted entries
+     */
+    public int advance(long nowMillis) {
+        long currentTick = (nowMillis - originMillis) / tickMillis;
+        long firstTick = Math.max(nextTick, currentTick - slots.length + 1);
+        int evicted = 0;
+
+        for (long tick = firstTick; tick <= currentTick; tick++) {
+            Queue<Long> slot = slots[(int) (tick % slots.length)];
+            for (int pending = slot.size(); pending > 0; pending--) {
+                Long key = slot.poll();
+                if (key == null) {
+                    break;
+                }
+                Entry<V> entry = entries.get(key);
+                if (entry == null) {
+                    continue;
+                }
+                if (entry.expiresAtMillis() > nowMillis) {
+                    // Not yet due (filed during this tick); keep it in its slot
+                    slot.add(key);
+                    continue;
+                }
+                if (entries.remove(key, entry)) {
+                    size.decrementAndGet();
+                    evicted++;
+                }
+            }
+        }
+
+        nextTick = currentTick;
+        return evicted;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private int slotOf(long expiresAtMillis) {
+        return (int) (((expiresAtMillis - originMillis) / tickMillis) % slots.length);
+    }
+}
@@ -0,0 +1,463 @@
+package com.kleer.currency.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongPredicate;
+
+/**
+ * Bounded, concurrent cache from long keys to long values with W-TinyLFU eviction.
+ *
+ * Keys, values and the recency lists live in primitive arrays indexed by an
+ * open-addressing table, so lookups neither box nor allocate. The cache is
+ * split into independently locked segments. Each segment admits new entries
+ * into a small LRU window; an entry leaving the window only displaces the
+ * oldest entry of the main segmented LRU (probation and protected) if a 4-bit
+ * count-min sketch has seen it more often. Hot keys therefore survive scans
+ * of keys that are used once. With {@link Eviction#LRU} the segments are
+ * plain LRU lists.
+ *
+ * Writes carry the {@link #stamp()} read before the value was loaded and are
+ * dropped if {@link #invalidate(LongPredicate)} ran in between, so a value
+ * loaded before an invalidation is never cached after it.
+ */
+public final class TinyLfuLongCache {
+
+    /**
+     * How a full segment chooses what to evict.
+     */
+    public enum Eviction {
+        /** Frequency-filtered admission in front of a segmented LRU. */
+        TINY_LFU,
+        /** Least recently used. */
+        LRU
+    }
+
+    /**
+     * Receives entries evicted for capacity, under the segment lock.
+     */
+    @FunctionalInterface
+    public interface EvictionListener {
+        void onEviction(long key, long value);
+    }
+
+    /**
+     * Returned by {@link #get(long)} on a miss. Not a valid value.
+     */
+    public static final long ABSENT = Long.MIN_VALUE;
+
+    private static final int MAX_SEGMENTS = 64;
+    private static final int MIN_SEGMENT_CAPACITY = 1024;
+    private static final int NIL = -1;
+    private static final byte WINDOW = 0;
+    private static final byte PROBATION = 1;
+    private static final byte PROTECTED = 2;
+
+    private final Segment[] segments;
+    private final int capacity;
+    private final AtomicLong stamp = new AtomicLong();
+
+    /**
+     * @param capacity Maximum number of entries
+     * @param eviction Eviction policy
+     * @param listener Receives evicted entries, may be null
+     */
+    public TinyLfuLongCache(int capacity, Eviction eviction, EvictionListener listener) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        int count = 1;
+        while (count < MAX_SEGMENTS && capacity / (count * 2) >= MIN_SEGMENT_CAPACITY) {
+            count *= 2;
+        }
+        this.capacity = capacity;
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(capacity / count + (i < capacity % count ? 1 : 0), eviction, listener);
+        }
+    }
+
+    /**
+     * @return The cached value, or {@link #ABSENT}
+     */
+    public long get(long key) {
+        long hash = spread(key);
+        return segmentFor(hash).get(key, hash);
+    }
+
+    /**
+     * @return The current invalidation stamp, to be read before loading a value for {@link #put}
+     */
+    public long stamp() {
+        return stamp.get();
+    }
+
+    /**
+     * Cache a value unless an invalidation ran since the stamp was read.
+     *
+     * @param key   The key
+     * @param value The value, anything but {@link #ABSENT}
+     * @param stamp The {@link #stamp()} read before the value was loaded
+     * @return true if the value was cached
+     */
+    public boolean put(long key, long value, long stamp) {
+        if (value == ABSENT) {
+            throw new IllegalArgumentException("Value must not be ABSENT");
+        }
+        long hash = spread(key);
+        return segmentFor(hash).put(key, hash, value, stamp);
+    }
+
+    /**
+     * Remove all entries whose key matches, without notifying the eviction listener.
+     *
+     * @param keys Selects the keys to remove
+     * @return Number of removed entries
+     */
+    public int invalidate(LongPredicate keys) {
+        stamp.incrementAndGet();
+        int removed = 0;
+        for (Segment segment : segments) {
+            removed += segment.invalidate(keys);
+        }
+        return removed;
+    }
+
+    public CacheStats stats() {
+        long hits = 0;
+        long misses = 0;
+        long evictions = 0;
+        long size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                hits += segment.hits;
+                misses += segment.misses;
+                evictions += segment.evictions;
+                size += segment.size;
+            }
+        }
+        return new CacheStats(hits, misses, evictions, size, capacity);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Mix a key into a well-distributed hash (MurmurHash3 finalizer).
+     */
+    static long spread(long key) {
+        long hash = key;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> 58) & (segments.length - 1)];
+    }
+
+    private static int tableSizeFor(int minimum) {
+        return Integer.highestOneBit(Math.max(minimum - 1, 1)) << 1;
+    }
+
+    private final class Segment {
+
+        private final int capacity;
+        private final int windowCapacity;
+        private final int protectedCapacity;
+        private final EvictionListener listener;
+        private final FrequencySketch sketch;
+
+        // Nodes; one spare so an insert can precede its eviction
+        private final long[] keys;
+        private final long[] values;
+        private final int[] prev;
+        private final int[] next;
+        private final byte[] region;
+
+        // Recency lists per region, oldest at the head
+        private final int[] heads = {NIL, NIL, NIL};
+        private final int[] tails = {NIL, NIL, NIL};
+        private final int[] sizes = new int[3];
+
+        // Open-addressing index of node + 1, 0 marks a free slot
+        private final int[] table;
+        private final int tableMask;
+
+        private int size;
+        private int allocated;
+        private int freeHead = NIL;
+
+        private long hits;
+        private long misses;
+        private long evictions;
+
+        Segment(int capacity, Eviction eviction, EvictionListener listener) {
+            this.capacity = capacity;
+            this.listener = listener;
+            if (eviction == Eviction.LRU) {
+                this.windowCapacity = capacity;
+                this.protectedCapacity = 0;
+                this.sketch = null;
+            } else {
+                this.windowCapacity = Math.max(1, capacity / 100);
+                this.protectedCapacity = (capacity - windowCapacity) * 4 / 5;
+                this.sketch = new FrequencySketch(capacity);
+            }
+            this.keys = new long[capacity + 1];
+            this.values = new long[capacity + 1];
+            this.prev = new int[capacity + 1];
+            this.next = new int[capacity + 1];
+            this.region = new byte[capacity + 1];
+            this.table = new int[tableSizeFor((capacity + 1) * 2)];
+            this.tableMask = table.length - 1;
+        }
+
+        synchronized long get(long key, long hash) {
+            if (sketch != null) {
+                sketch.increment(hash);
+            }
+
+            int node = find(key, hash);
+
+            // Early return on a miss
+            if (node == NIL) {
+                misses++;
+                return ABSENT;
+            }
+
+            hits++;
+            onAccess(node);
+            return values[node];
+        }
+
+        synchronized boolean put(long key, long hash, long value, long expectedStamp) {
+            // Early return if the value may predate an invalidation
+            if (expectedStamp != stamp.get()) {
+                return false;
+            }
+
+            int node = find(key, hash);
+            if (node != NIL) {
+                values[node] = value;
+                onAccess(node);
+                return true;
+            }
+
+            if (freeHead != NIL) {
+                node = freeHead;
+                freeHead = next[node];
+            } else {
+                node = allocated++;
+            }
+            keys[node] = key;
+            values[node] = value;
+            index(node, hash);
+            linkLast(node, WINDOW);
+            size++;
+
+            // Early return while the window has room
+            if (sizes[WINDOW] <= windowCapacity) {
+                return true;
+            }
+
+            int candidate = heads[WINDOW];
+
+            // Plain LRU keeps every entry in the window
+            if (sketch == null) {
+                evict(candidate);
+                return true;
+            }
+
+            unlink(candidate);
+            linkLast(candidate, PROBATION);
+            if (size > capacity) {
+                int victim = heads[PROBATION] != candidate ? heads[PROBATION] : heads[PROTECTED];
+                boolean admit = victim != NIL
+                        && sketch.frequency(spread(keys[candidate])) > sketch.frequency(spread(keys[victim]));
+                evict(admit ? victim : candidate);
+            }
+            return true;
+        }
+
+        synchronized int invalidate(LongPredicate matching) {
+            int removed = 0;
+            for (int r = WINDOW; r <= PROTECTED; r++) {
+                int node = heads[r];
+                while (node != NIL) {
+                    int following = next[node];
+                    if (matching.test(keys[node])) {
+                        remove(node);
+                        removed++;
+                    }
+                    node = following;
+                }
+            }
+            return removed;
+        }
+
+        private void onAccess(int node) {
+            byte current = region[node];
+            unlink(node);
+            if (current != PROBATION) {
+                linkLast(node, current);
+                return;
+            }
+
+            // A second hit promotes from probation, demoting the oldest protected entry if needed
+            linkLast(node, PROTECTED);
+            if (sizes[PROTECTED] > protectedCapacity) {
+                int demoted = heads[PROTECTED];
+                unlink(demoted);
+                linkLast(demoted, PROBATION);
+            }
+        }
+
+        private void evict(int node) {
+            long key = keys[node];
+            long value = values[node];
+            remove(node);
+            evictions++;
+            if (listener != null) {
+                listener.onEviction(key, value);
+            }
+        }
+
+        private void remove(int node) {
+            unlink(node);
+            unindex(node);
+            next[node] = freeHead;
+            freeHead = node;
+            size--;
+        }
+
+        private void linkLast(int node, byte target) {
+            region[node] = target;
+            prev[node] = tails[target];
+            next[node] = NIL;
+            if (tails[target] == NIL) {
+                heads[target] = node;
+            } else {
+                next[tails[target]] = node;
+            }
+            tails[target] = node;
+            sizes[target]++;
+        }
+
+        private void unlink(int node) {
+            byte current = region[node];
+            int before = prev[node];
+            int after = next[node];
+            if (before == NIL) {
+                heads[current] = after;
+            } else {
+                next[before] = after;
+            }
+            if (after == NIL) {
+                tails[current] = before;
+            } else {
+                prev[after] = before;
+            }
+            sizes[current]--;
+        }
+
+        private int find(long key, long hash) {
+            for (int slot = (int) hash & tableMask; ; slot = (slot + 1) & tableMask) {
+                int entry = table[slot];
+                if (entry == 0) {
+                    return NIL;
+                }
+                if (keys[entry - 1] == key) {
+                    return entry - 1;
+                }
+            }
+        }
+
+        private void index(int node, long hash) {
+            int slot = (int) hash & tableMask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & tableMask;
+            }
+            table[slot] = node + 1;
+        }
+
+        private void unindex(int node) {
+            int gap = (int) spread(keys[node]) & tableMask;
+            while (table[gap] != node + 1) {
+                gap = (gap + 1) & tableMask;
+            }
+            table[gap] = 0;
+
+            // Shift back later entries of the probe run that may no longer be reachable
+            for (int slot = (gap + 1) & tableMask; table[slot] != 0; slot = (slot + 1) & tableMask) {
+                int home = (int) spread(keys[table[slot] - 1]) & tableMask;
+                if (((slot - home) & tableMask) >= ((slot - gap) & tableMask)) {
+                    table[gap] = table[slot];
+                    table[slot] = 0;
+                    gap = slot;
+                }
+            }
+        }
+    }
+
+    /**
+     * Count-min sketch of access frequencies with four 4-bit counters per key.
+     * All counters are halved after a sample of increments, so the sketch
+     * follows changes in popularity.
+     */
+    private static final class FrequencySketch {
+
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int tableMask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            int expected = Math.max(capacity, 16);
+            this.table = new long[tableSizeFor(expected)];
+            this.tableMask = table.length - 1;
+            this.sampleSize = 10 * expected;
+        }
+
+        int frequency(long hash) {
+            int start = ((int) hash & 3) << 2;
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < SEEDS.length; i++) {
+                long counters = table[indexOf(hash, i)];
+                frequency = Math.min(frequency, (int) ((counters >>> ((start + i) << 2)) & 0xfL));
+            }
+            return frequency;
+        }
+
+        void increment(long hash) {
+            int start = ((int) hash & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int index = indexOf(hash, i);
+                int offset = (start + i) << 2;
+                if (((table[index] >>> offset) & 0xfL) != 0xfL) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++additions == sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+                additions >>>= 1;
+            }
+        }
+
+        private int indexOf(long hash, int depth) {
+            long mixed = (hash + SEEDS[depth]) * SEEDS[depth];
+            mixed += mixed >>> 32;
+            return (int) mixed & tableMask;
+        }
+    }
+}
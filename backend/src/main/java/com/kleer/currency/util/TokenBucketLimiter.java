@@ -0,0 +1,131 @@
+package com.kleer.currency.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token buckets without locks.
+ *
+ * Each bucket is a single {@link AtomicLong} holding the theoretical arrival
+ * time of the next permit (GCRA): taking a permit advances it by one refill
+ * interval, and a permit is available while it runs at most one burst ahead
+ * of now. This is equivalent to a token bucket refilled continuously, and is
+ * updated with one compare-and-set. Buckets live in a concurrent map whose
+ * reads take no lock; fully refilled buckets carry no state and are swept
+ * once the map reaches its client limit. If every tracked client is still
+ * refilling, a new client evicts the bucket that refills soonest among a
+ * small sample, so a full map never turns new clients away.
+ */
+public final class TokenBucketLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+    private static final int EVICTION_SAMPLE = 8;
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxClients;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepNanos = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @param permitsPerSecond Sustained rate per client
+     * @param burst            Permits a client may take at once after being idle
+     * @param maxClients       Number of clients tracked at once
+     */
+    public TokenBucketLimiter(double permitsPerSecond, int burst, int maxClients) {
+        if (permitsPerSecond <= 0 || burst <= 0 || maxClients <= 0) {
+            throw new IllegalArgumentException("Rate, burst and client limit must be positive");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.maxClients = maxClients;
+    }
+
+    /**
+     * Take a permit for a client.
+     *
+     * @param client    Client identity
+     * @param nowNanos  Current {@link System#nanoTime()}
+     * @return 0 if a permit was taken, otherwise nanoseconds until one is available
+     */
+    public long tryAcquire(String client, long nowNanos) {
+        AtomicLong bucket = buckets.get(client);
+        if (bucket == null) {
+            if (buckets.size() >= maxClients) {
+                sweep(nowNanos);
+            }
+            if (buckets.size() >= maxClients) {
+                evictSoonestRefilled();
+            }
+            bucket = buckets.computeIfAbsent(client, key -> new AtomicLong(Long.MIN_VALUE));
+        }
+
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, nowNanos) + intervalNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Return a permit taken by {@link #tryAcquire}, e.g. for a request that
+     * was rejected for a reason other than the client's rate.
+     *
+     * @param client Client identity
+     */
+    public void refund(String client) {
+        AtomicLong bucket = buckets.get(client);
+
+        // Early return if the bucket has been evicted meanwhile
+        if (bucket == null) {
+            return;
+        }
+
+        bucket.addAndGet(-intervalNanos);
+    }
+
+    public int getClientCount() {
+        return buckets.size();
+    }
+
+    /**
+     * Drop buckets that have refilled completely, at most once per second.
+     */
+    private void sweep(long nowNanos) {
+        long due = nextSweepNanos.get();
+        boolean early = due != Long.MIN_VALUE && nowNanos - due < 0;
+
+        // Early return if a sweep ran recently or another thread is sweeping
+        if (early || !nextSweepNanos.compareAndSet(due, nowNanos + SWEEP_INTERVAL_NANOS)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.get() - nowNanos <= 0);
+    }
+
+    /**
+     * Drop the bucket closest to refilled among the first few in the map. A
+     * sample keeps admitting a new client cheap while the map is full; the
+     * evicted client merely gets a fresh burst on its next request.
+     */
+    private void evictSoonestRefilled() {
+        Map.Entry<String, AtomicLong> soonest = null;
+        Iterator<Map.Entry<String, AtomicLong>> entries = buckets.entrySet().iterator();
+        for (int i = 0; i < EVICTION_SAMPLE && entries.hasNext(); i++) {
+            Map.Entry<String, AtomicLong> entry = entries.next();
+            if (soonest == null || entry.getValue().get() - soonest.getValue().get() < 0) {
+                soonest = entry;
+            }
+        }
+        if (soonest != null) {
+            buckets.remove(soonest.getKey(), soonest.getValue());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.kleer.currency.config;
+
+import com.kleer.currency.model.RequestPriority;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionInterceptorTest {
+
+    static class Handlers {
+
+        @Admission(RequestPriority.CRITICAL)
+        public void convert() {
+        }
+
+        @Admission(RequestPriority.BATCH)
+        public void importHistory() {
+        }
+    }
+
+    @Test
+    void afterCompletion_shouldNotLetALongBatchRequestShrinkTheLimitForCriticalLoad() throws Exception {
+        AdmissionInterceptor interceptor = new AdmissionInterceptor(true, 1000, List.of(),
+                1_000_000, 1_000_000, 1_000_000, 1_000_000, 1, 2, 50, 8, 200);
+        HandlerMethod convert = new HandlerMethod(new Handlers(), Handlers.class.getMethod("convert"));
+        HandlerMethod importHistory = new HandlerMethod(new Handlers(), Handlers.class.getMethod("importHistory"));
+
+        MockHttpServletRequest batch = new MockHttpServletRequest("POST", "/api/import");
+        assertTrue(interceptor.preHandle(batch, new MockHttpServletResponse(), importHistory));
+
+        for (int round = 0; round < 5; round++) {
+            completeAll(interceptor, convert, admitCritical(interceptor, convert, interceptor.getConcurrencyLimit() - 1));
+        }
+        int settled = interceptor.getConcurrencyLimit();
+
+        // The import completes after five minutes, while critical requests fill the limit
+        List<MockHttpServletRequest> critical = admitCritical(interceptor, convert, settled - 1);
+        batch.setAttribute(AdmissionInterceptor.ADMITTED_AT, System.nanoTime() - TimeUnit.MINUTES.toNanos(5));
+        interceptor.afterCompletion(batch, new MockHttpServletResponse(), importHistory, null);
+        completeAll(interceptor, convert, critical);
+
+        assertTrue(interceptor.getConcurrencyLimit() >= settled,
+                "limit shrank from " + settled + " to " + interceptor.getConcurrencyLimit());
+        completeAll(interceptor, convert, admitCritical(interceptor, convert, settled));
+        assertEquals(0, interceptor.getShed());
+    }
+
+    private static List<MockHttpServletRequest> admitCritical(AdmissionInterceptor interceptor,
+                                                              HandlerMethod handler, int count) throws Exception {
+        List<MockHttpServletRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/convert");
+            assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), handler), "critical request shed");
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    private static void completeAll(AdmissionInterceptor interceptor, HandlerMethod handler,
+                                    List<MockHttpServletRequest> requests) {
+        for (MockHttpServletRequest request : requests) {
+            interceptor.afterCompletion(request, new MockHttpServletResponse(), handler, null);
+        }
+    }
+}
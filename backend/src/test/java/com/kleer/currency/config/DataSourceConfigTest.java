@@ -0,0 +1,78 @@
+package com.kleer.currency.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.replica.enabled=true",
+        "spring.datasource.replica.hikari.jdbc-url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DataSourceConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DataSourceConfigTest {
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        RoutingProbe routingProbe(DataSource dataSource) {
+            return new RoutingProbe(dataSource);
+        }
+    }
+
+    /**
+     * Reports the database URL of the current transaction's connection.
+     */
+    static class RoutingProbe {
+
+        private final DataSource dataSource;
+
+        RoutingProbe(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Transactional(readOnly = true)
+        public String read() throws SQLException {
+            return connectionUrl();
+        }
+
+        @Transactional
+        public String write() throws SQLException {
+            return connectionUrl();
+        }
+
+        private String connectionUrl() throws SQLException {
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            try {
+                return connection.getMetaData().getURL();
+            } finally {
+                DataSourceUtils.releaseConnection(connection, dataSource);
+            }
+        }
+    }
+
+    @Autowired
+    private RoutingProbe routingProbe;
+
+    @Test
+    void readOnlyTransactions_shouldUseReplicaPoolAndOthersThePrimary() throws Exception {
+        assertEquals("jdbc:h2:mem:routing-replica", routingProbe.read());
+        assertEquals("jdbc:h2:mem:routing-primary", routingProbe.write());
+    }
+}
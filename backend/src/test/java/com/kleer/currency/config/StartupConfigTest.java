@@ -0,0 +1,36 @@
+package com.kleer.currency.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:startup-profile;DB_CLOSE_DELAY=-1",
+        "rates.snapshot.enabled=false",
+        "rates.delta.enabled=false",
+        "rates.history.enabled=false",
+        "audit.enabled=false",
+        "rates.refresh.interval-seconds=3600",
+        "replication.election=lease",
+        "replication.role=FOLLOWER",
+        "replication.poll-interval-ms=3600000"
+})
+@ActiveProfiles("startup")
+class StartupConfigTest {
+
+    @Test
+    void lazyInitialization_shouldStillStartBackgroundThreads() {
+        Set<String> threadNames = Thread.getAllStackTraces().keySet().stream()
+                .map(Thread::getName)
+                .collect(Collectors.toSet());
+
+        assertTrue(threadNames.contains("rate-refresh"), "refresh scheduler thread not started");
+        assertTrue(threadNames.contains("refresh-lease"), "lease thread not started");
+        assertTrue(threadNames.contains("replication-poll"), "replication poll thread not started");
+    }
+}
@@ -0,0 +1,157 @@
+package com.kleer.currency.controller;
+
+import com.kleer.currency.dto.ConversionResponse;
+import com.kleer.currency.dto.ConvertedAmountDto;
+import com.kleer.currency.dto.FanOutConversionResponse;
+import com.kleer.currency.exception.ExchangeRateNotFoundException;
+import com.kleer.currency.model.ConversionRequest;
+import com.kleer.currency.service.ConversionRequestValidator;
+import com.kleer.currency.service.CurrencyConversionService;
+import com.kleer.currency.service.CurrencyRegistry;
+import com.kleer.currency.service.PricingService;
+import com.kleer.currency.util.RequestLogSampler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ConversionController.class)
+class ConversionControllerTest {
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        CurrencyRegistry currencyRegistry() {
+            return new CurrencyRegistry(List.of("SEK", "EUR", "USD"));
+        }
+
+        @Bean
+        ConversionRequestValidator conversionRequestValidator(CurrencyRegistry currencyRegistry) {
+            return new ConversionRequestValidator(currencyRegistry);
+        }
+
+        @Bean
+        RequestLogSampler requestLogSampler() {
+            return new RequestLogSampler(0);
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CurrencyRegistry currencyRegistry;
+
+    @MockitoBean
+    private CurrencyConversionService conversionService;
+
+    @MockitoBean
+    private PricingService pricingService;
+
+    @Test
+    void convertAsOf_shouldConvertAtRateOfDate() throws Exception {
+        ConversionRequest request = new ConversionRequest(
+                new BigDecimal("100"), currencyRegistry.resolve("EUR"), currencyRegistry.resolve("SEK"));
+        when(conversionService.convertAsOf(request, LocalDate.of(2025, 11, 2)))
+                .thenReturn(ConversionResponse.builder()
+                        .originalAmount(new BigDecimal("100"))
+                        .convertedAmount(new BigDecimal("1140.00"))
+                        .rate(new BigDecimal("11.40"))
+                        .fromCurrency("EUR")
+                        .toCurrency("SEK")
+                        .build());
+
+        mockMvc.perform(get("/api/convert/as-of").param("amount", "100").param("from", " eur")
+                        .param("to", "SEK").param("date", "2025-11-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rate").value(11.40))
+                .andExpect(jsonPath("$.convertedAmount").value(1140.00));
+    }
+
+    @Test
+    void convertAsOf_shouldRejectUnknownCurrencyAndMalformedDate() throws Exception {
+        mockMvc.perform(get("/api/convert/as-of").param("amount", "100").param("from", "XYZ")
+                        .param("to", "SEK").param("date", "2025-11-02"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Source currency is not supported"));
+
+        mockMvc.perform(get("/api/convert/as-of").param("amount", "100").param("from", "EUR")
+                        .param("to", "SEK").param("date", "2025-13-02"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Date must be an ISO date (yyyy-MM-dd)"));
+
+        mockMvc.perform(get("/api/convert/as-of").param("amount", "100").param("from", "EUR").param("to", "SEK"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Date is required"));
+
+        verifyNoInteractions(conversionService);
+    }
+
+    @Test
+    void convertAsOf_shouldAnswer404WithoutRateOnOrBeforeDate() throws Exception {
+        when(conversionService.convertAsOf(any(), eq(LocalDate.of(1990, 1, 1))))
+                .thenThrow(new ExchangeRateNotFoundException("Exchange rate not found for EUR to SEK on 1990-01-01"));
+
+        mockMvc.perform(get("/api/convert/as-of").param("amount", "100").param("from", "EUR")
+                        .param("to", "SEK").param("date", "1990-01-01"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void convertToAll_shouldAnswerNotModifiedForCurrentSnapshot() throws Exception {
+        FanOutConversionResponse response = FanOutConversionResponse.builder()
+                .originalAmount(new BigDecimal("100"))
+                .fromCurrency("SEK")
+                .snapshotVersion(3)
+                .conversions(List.of(ConvertedAmountDto.builder()
+                        .currency("EUR")
+                        .rate(new BigDecimal("0.0915"))
+                        .convertedAmount(new BigDecimal("9.15"))
+                        .build()))
+                .build();
+        when(conversionService.convertToAll(any(), eq(currencyRegistry.resolve("SEK")), eq(null)))
+                .thenReturn(response);
+
+        mockMvc.perform(get("/api/convert/all").param("amount", "100").param("from", "sek"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.conversions[0].currency").value("EUR"))
+                .andExpect(jsonPath("$.conversions[0].convertedAmount").value(9.15));
+
+        mockMvc.perform(get("/api/convert/all").param("amount", "100").param("from", "SEK")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/convert/all").param("amount", "100").param("from", "SEK")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void convertToAll_shouldRejectUnsupportedTarget() throws Exception {
+        mockMvc.perform(get("/api/convert/all").param("amount", "100").param("from", "SEK").param("to", "EUR,XYZ"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.timestamp").exists())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.error").value("Currency not supported"))
+                .andExpect(jsonPath("$.message").value("Target currency is not supported"));
+
+        verifyNoInteractions(conversionService);
+    }
+}
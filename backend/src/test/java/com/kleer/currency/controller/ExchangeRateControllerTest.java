@@ -2,29 +2,38 @@ package com.kleer.currency.controller;
 
 import com.kleer.currency.dto.ExchangeRateDto;
 import com.kleer.currency.dto.ExchangeRatesResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kleer.currency.service.ExchangeRateService;
+import com.kleer.currency.service.ExchangeRateService.LatestRatesPayload;
+import com.kleer.currency.util.CompressedPayload;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(ExchangeRateController.class)
+@WebMvcTest(controllers = ExchangeRateController.class, properties = "admission.enabled=true")
 class ExchangeRateControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @MockitoBean
     private ExchangeRateService exchangeRateService;
 
@@ -51,16 +60,60 @@ class ExchangeRateControllerTest {
                 .lastUpdated(now)
                 .build();
 
-        when(exchangeRateService.getAllRates()).thenReturn(response);
+        when(exchangeRateService.getLatestRatesPayload()).thenReturn(payload(3, response));
 
         mockMvc.perform(get("/api/rates/latest")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
                 .andExpect(jsonPath("$.rates[0].fromCurrency").value("SEK"))
                 .andExpect(jsonPath("$.rates[0].toCurrency").value("EUR"))
                 .andExpect(jsonPath("$.rates[0].rate").value(0.0915));
 
-        verify(exchangeRateService).getAllRates();
+        verify(exchangeRateService).getLatestRatesPayload();
+    }
+
+    @Test
+    void getLatestRates_shouldSendPrecompressedPayloadWhenGzipAccepted() throws Exception {
+        LatestRatesPayload latest = payload(3, ExchangeRatesResponse.builder()
+                .rates(List.of(ExchangeRateDto.builder()
+                        .fromCurrency("EUR")
+                        .toCurrency("SEK")
+                        .rate(new BigDecimal("10.9290"))
+                        .build()))
+                .build());
+
+        when(exchangeRateService.getLatestRatesPayload()).thenReturn(latest);
+
+        mockMvc.perform(get("/api/rates/latest")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-gzip\""))
+                .andExpect(content().bytes(latest.payload().gzip()));
+
+        mockMvc.perform(get("/api/rates/latest")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3-gzip\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getRate_shouldReturnStoredRateOfPair() throws Exception {
+        when(exchangeRateService.getStoredRate("eur", "SEK")).thenReturn(ExchangeRateDto.builder()
+                .fromCurrency("EUR")
+                .toCurrency("SEK")
+                .rate(new BigDecimal("10.9290"))
+                .lastUpdated(LocalDateTime.of(2025, 11, 3, 16, 15))
+                .build());
+
+        mockMvc.perform(get("/api/rates/pair").param("from", "eur").param("to", "SEK"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fromCurrency").value("EUR"))
+                .andExpect(jsonPath("$.rate").value(10.929))
+                .andExpect(jsonPath("$.lastUpdated").value("2025-11-03T16:15:00"));
     }
 
     @Test
@@ -104,13 +157,48 @@ class ExchangeRateControllerTest {
                 .lastUpdated(LocalDateTime.now())
                 .build();
 
-        when(exchangeRateService.getAllRates()).thenReturn(response);
+        when(exchangeRateService.getLatestRatesPayload()).thenReturn(payload(0, response));
 
         mockMvc.perform(get("/api/rates/latest")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.rates").isEmpty());
 
-        verify(exchangeRateService).getAllRates();
+        verify(exchangeRateService).getLatestRatesPayload();
+    }
+
+    @Test
+    void refreshRates_shouldRejectClientOverBatchRateLimit() throws Exception {
+        when(exchangeRateService.refreshRatesFromRiksbank()).thenReturn(ExchangeRatesResponse.builder()
+                .rates(new ArrayList<>())
+                .build());
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/rates/refresh").with(fromClient("10.0.0.9")))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(post("/api/rates/refresh").with(fromClient("10.0.0.9")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.timestamp").exists())
+                .andExpect(jsonPath("$.status").value(429))
+                .andExpect(jsonPath("$.error").value("Too many requests"));
+        mockMvc.perform(post("/api/rates/refresh").with(fromClient("10.0.0.10")))
+                .andExpect(status().isOk());
+
+        verify(exchangeRateService, times(3)).refreshRatesFromRiksbank();
+    }
+
+    private LatestRatesPayload payload(long version, ExchangeRatesResponse response) throws Exception {
+        return new LatestRatesPayload(version, response.getRates().size(),
+                CompressedPayload.of(objectMapper.writeValueAsBytes(response)));
+    }
+
+    private static RequestPostProcessor fromClient(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
     }
 }
@@ -0,0 +1,141 @@
+package com.kleer.currency.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.service.ConversionAuditService;
+import com.kleer.currency.service.ConversionRequestValidator;
+import com.kleer.currency.service.CurrencyConversionService;
+import com.kleer.currency.service.CurrencyRegistry;
+import com.kleer.currency.service.QuoteService;
+import com.kleer.currency.service.RateMatrixService;
+import com.kleer.currency.service.RateSnapshotService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(QuoteController.class)
+class QuoteControllerTest {
+
+    private static final long START_MILLIS = 1_750_000_000_000L;
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        AtomicLong clock() {
+            return new AtomicLong();
+        }
+
+        @Bean
+        CurrencyRegistry currencyRegistry() {
+            return new CurrencyRegistry(List.of("SEK", "EUR", "USD"));
+        }
+
+        @Bean
+        ConversionRequestValidator conversionRequestValidator(CurrencyRegistry currencyRegistry) {
+            return new ConversionRequestValidator(currencyRegistry);
+        }
+
+        @Bean
+        QuoteService quoteService(
+                RateSnapshotService rateSnapshotService, CurrencyRegistry currencyRegistry, AtomicLong clock) {
+            return new QuoteService(rateSnapshotService, currencyRegistry, 30, 100, 250, clock::get);
+        }
+
+        @Bean
+        CurrencyConversionService currencyConversionService(
+                ConversionRequestValidator conversionRequestValidator, CurrencyRegistry currencyRegistry) {
+            // Auditing off: only the quoted rate is under test
+            ConversionAuditService auditService = new ConversionAuditService(
+                    null, null, false, false, ConversionAuditService.OverflowPolicy.DROP, 0, 1, 2);
+            return new CurrencyConversionService(null, conversionRequestValidator, currencyRegistry,
+                    auditService, new RateMatrixService(currencyRegistry), 16, false);
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AtomicLong clock;
+
+    @MockitoBean
+    private RateSnapshotService rateSnapshotService;
+
+    private RateSnapshot current;
+
+    @BeforeEach
+    void setUp() {
+        clock.set(START_MILLIS);
+        current = new RateSnapshot(1, null, Map.of("EUR/SEK", new BigDecimal("10.92900000")));
+        when(rateSnapshotService.getCurrent()).thenAnswer(invocation -> current);
+    }
+
+    @Test
+    void convertWithQuote_shouldConvertAtQuotedRateAfterRefresh() throws Exception {
+        String quoteId = issueQuote();
+
+        current = new RateSnapshot(2, null, Map.of("EUR/SEK", new BigDecimal("11.10000000")));
+        clock.addAndGet(10_000);
+
+        mockMvc.perform(post("/api/quotes/{quoteId}/convert", quoteId).param("amount", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rate").value(10.929))
+                .andExpect(jsonPath("$.convertedAmount").value(1092.9));
+
+        // A quote is settled once
+        mockMvc.perform(post("/api/quotes/{quoteId}/convert", quoteId).param("amount", "100"))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    void getQuote_shouldReturnGoneOnceExpired() throws Exception {
+        String quoteId = issueQuote();
+
+        mockMvc.perform(get("/api/quotes/{quoteId}", quoteId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.snapshotVersion").value(1));
+
+        clock.addAndGet(30_000);
+
+        mockMvc.perform(get("/api/quotes/{quoteId}", quoteId))
+                .andExpect(status().isGone());
+        mockMvc.perform(post("/api/quotes/{quoteId}/convert", quoteId).param("amount", "100"))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    void getQuote_shouldReturnGoneForUnknownId() throws Exception {
+        mockMvc.perform(get("/api/quotes/{quoteId}", "zzzz"))
+                .andExpect(status().isGone());
+        mockMvc.perform(post("/api/quotes/{quoteId}/convert", "not-a-quote").param("amount", "100"))
+                .andExpect(status().isGone());
+    }
+
+    private String issueQuote() throws Exception {
+        String body = mockMvc.perform(post("/api/quotes").param("from", "EUR").param("to", "SEK"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.rate").value(10.929))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode quote = objectMapper.readTree(body);
+        return quote.get("quoteId").asText();
+    }
+}
@@ -0,0 +1,110 @@
+package com.kleer.currency.controller;
+
+import com.kleer.currency.model.RateMatrix;
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.model.RateSnapshotPublishedEvent;
+import com.kleer.currency.service.CurrencyRegistry;
+import com.kleer.currency.service.RateMatrixService;
+import com.kleer.currency.util.RateMatrixCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(RateMatrixController.class)
+class RateMatrixControllerTest {
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        RateMatrixService rateMatrixService() {
+            return new RateMatrixService(new CurrencyRegistry(List.of("SEK", "EUR")));
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RateMatrixService rateMatrixService;
+
+    @BeforeEach
+    void setUp() {
+        rateMatrixService.onSnapshotPublished(new RateSnapshotPublishedEvent(RateSnapshot.EMPTY,
+                new RateSnapshot(4, null, Map.of("EUR/SEK", new BigDecimal("10.92900000")))));
+    }
+
+    @Test
+    void getMatrix_shouldServeJsonWhenAccepted() throws Exception {
+        mockMvc.perform(get("/api/rates/matrix").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.currencies[1]").value("EUR"))
+                .andExpect(jsonPath("$.rates[1][0]").value(10.929));
+    }
+
+    @Test
+    void getMatrix_shouldServeBinaryWhenAccepted() throws Exception {
+        for (String accept : List.of(RateMatrixCodec.BINARY_MEDIA_TYPE, MediaType.APPLICATION_OCTET_STREAM_VALUE)) {
+            byte[] body = mockMvc.perform(get("/api/rates/matrix").header(HttpHeaders.ACCEPT, accept))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(RateMatrixCodec.BINARY_MEDIA_TYPE))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            RateMatrix matrix = RateMatrixCodec.fromBinary(body);
+            assertEquals(4, matrix.getVersion());
+            assertEquals(0, new BigDecimal("10.929").compareTo(
+                    matrix.getRate(matrix.getCurrencies().get(1), matrix.getCurrencies().get(0))));
+        }
+    }
+
+    @Test
+    void getMatrix_shouldPreferBinaryByQuality() throws Exception {
+        mockMvc.perform(get("/api/rates/matrix")
+                        .header(HttpHeaders.ACCEPT, "application/json;q=0.5, " + RateMatrixCodec.BINARY_MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(RateMatrixCodec.BINARY_MEDIA_TYPE));
+    }
+
+    @Test
+    void getMatrix_shouldRejectUnsupportedMediaType() throws Exception {
+        mockMvc.perform(get("/api/rates/matrix").accept(MediaType.TEXT_PLAIN))
+                .andExpect(status().isNotAcceptable())
+                .andExpect(jsonPath("$.status").value(406))
+                .andExpect(jsonPath("$.timestamp").exists());
+    }
+
+    @Test
+    void getMatrix_shouldTagBinaryETagAndVaryOnAccept() throws Exception {
+        mockMvc.perform(get("/api/rates/matrix").accept(RateMatrixCodec.BINARY_MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4-bin\""))
+                .andExpect(header().stringValues(HttpHeaders.VARY,
+                        hasItem(HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING)));
+        mockMvc.perform(get("/api/rates/matrix").accept(RateMatrixCodec.BINARY_MEDIA_TYPE)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4-bin-gzip\""));
+
+        // A JSON client revalidating with the binary ETag gets the JSON body, not 304
+        mockMvc.perform(get("/api/rates/matrix").accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"4-bin\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+}
@@ -0,0 +1,64 @@
+package com.kleer.currency.controller;
+
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.repository.RateSnapshotStore;
+import com.kleer.currency.service.RateSnapshotService;
+import com.kleer.currency.service.ReplicationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReplicationController.class)
+class ReplicationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private RateSnapshotService rateSnapshotService;
+
+    @MockitoBean
+    private ReplicationService replicationService;
+
+    @Test
+    void getSnapshot_shouldServeCurrentVersionAndAnswerUpToDateFollowersWith304() throws Exception {
+        RateSnapshot snapshot = new RateSnapshot(12, LocalDateTime.of(2025, 11, 3, 16, 15),
+                Map.of("EUR/SEK", new BigDecimal("11.40")));
+        when(rateSnapshotService.getCurrent()).thenReturn(snapshot);
+
+        byte[] body = mockMvc.perform(get("/api/replication/snapshot"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"12\""))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(snapshot, RateSnapshotStore.decode(ByteBuffer.wrap(body)));
+
+        mockMvc.perform(get("/api/replication/snapshot").header(HttpHeaders.IF_NONE_MATCH, "\"12\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+
+        mockMvc.perform(get("/api/replication/snapshot").header(HttpHeaders.IF_NONE_MATCH, "\"11\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(body));
+    }
+
+    @Test
+    void getSnapshot_shouldAnswer204BeforeTheFirstRefresh() throws Exception {
+        when(rateSnapshotService.getCurrent()).thenReturn(RateSnapshot.EMPTY);
+
+        mockMvc.perform(get("/api/replication/snapshot"))
+                .andExpect(status().isNoContent());
+    }
+}
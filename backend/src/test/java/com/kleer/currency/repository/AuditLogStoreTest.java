@@ -0,0 +1,97 @@
+package com.kleer.currency.repository;
+
+import com.kleer.currency.model.ConversionAuditRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void replay_shouldReturnAppendedRecordsInOrder() throws Exception {
+        AuditLogStore store = new AuditLogStore(tempDir.toString(), 64, false);
+        List<ConversionAuditRecord> batch = List.of(
+                auditRecord(1, "100", "9.15"),
+                auditRecord(2, "12345678901234567890.55", "1129629629629629629.70"));
+
+        store.append(batch);
+        store.append(List.of(auditRecord(3, "1", "0.09")));
+        store.close();
+
+        List<ConversionAuditRecord> replayed = new ArrayList<>();
+        long count = AuditLogStore.replay(tempDir, replayed::add);
+
+        assertEquals(3, count);
+        assertEquals(batch.get(0), replayed.get(0));
+        assertEquals(batch.get(1), replayed.get(1));
+        assertEquals(3, replayed.get(2).snapshotVersion());
+    }
+
+    @Test
+    void replay_shouldStopAtTornRecord() throws Exception {
+        AuditLogStore store = new AuditLogStore(tempDir.toString(), 64, false);
+        store.append(List.of(auditRecord(1, "100", "9.15")));
+        store.close();
+
+        Path segment = Files.list(tempDir).findFirst().orElseThrow();
+        Files.write(segment, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        assertEquals(1, AuditLogStore.replay(tempDir, auditRecord -> { }));
+    }
+
+    @Test
+    void append_shouldTruncateTornTailBeforeAppendingAfterReopen() throws Exception {
+        AuditLogStore store = new AuditLogStore(tempDir.toString(), 64, false);
+        store.append(List.of(auditRecord(1, "100", "9.15")));
+        store.close();
+
+        Path segment = Files.list(tempDir).findFirst().orElseThrow();
+        Files.write(segment, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        AuditLogStore reopened = new AuditLogStore(tempDir.toString(), 64, false);
+        reopened.append(List.of(auditRecord(2, "200", "18.30")));
+        reopened.close();
+
+        List<ConversionAuditRecord> replayed = new ArrayList<>();
+        assertEquals(2, AuditLogStore.replay(tempDir, replayed::add));
+        assertEquals(1, replayed.get(0).snapshotVersion());
+        assertEquals(2, replayed.get(1).snapshotVersion());
+    }
+
+    @Test
+    void fits_shouldRejectRecordsTooLongForTheLayout() {
+        assertTrue(AuditLogStore.fits(auditRecord(1, "12345678901234567890.55", "1129629629629629629.70")));
+
+        BigDecimal huge = BigDecimal.TEN.pow(700);
+        assertFalse(AuditLogStore.fits(auditRecord(1, huge.toPlainString(), "1")));
+        assertFalse(AuditLogStore.fits(new ConversionAuditRecord(1L, 1L, "SEKX", "EUR",
+                BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE)));
+    }
+
+    @Test
+    void fits_shouldHoldTheLargestValidatedAmountAtTheLargestStoredRate() {
+        BigDecimal amount = new BigDecimal("999999999999999999.99999999");
+        BigDecimal rate = new BigDecimal("999999999999.99999999");
+        BigDecimal converted = amount.multiply(rate).setScale(2, RoundingMode.HALF_UP);
+
+        assertTrue(converted.precision() <= 38);
+        assertTrue(AuditLogStore.fits(new ConversionAuditRecord(1L, 1L, "SEK", "IDR", amount, converted, rate)));
+    }
+
+    private static ConversionAuditRecord auditRecord(long version, String amount, String converted) {
+        return new ConversionAuditRecord(1_700_000_000_000L + version, version, "SEK", "EUR",
+                new BigDecimal(amount), new BigDecimal(converted), new BigDecimal("0.09150000"));
+    }
+}
@@ -0,0 +1,44 @@
+package com.kleer.currency.repository;
+
+import com.kleer.currency.model.RateDelta;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateDeltaLogStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void append_shouldTruncateTornTailBeforeAppendingAfterReopen() throws Exception {
+        Path path = tempDir.resolve("rate-deltas.log");
+        RateDeltaLogStore store = new RateDeltaLogStore(path.toString(), 16);
+        store.append(delta(1, "11.40"));
+        store.close();
+
+        Files.write(path, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        RateDeltaLogStore reopened = new RateDeltaLogStore(path.toString(), 16);
+        reopened.append(delta(2, "11.50"));
+        reopened.close();
+
+        List<RateDelta> loaded = new RateDeltaLogStore(path.toString(), 16).load();
+        assertEquals(List.of(delta(1, "11.40"), delta(2, "11.50")), loaded);
+    }
+
+    private static RateDelta delta(long sequence, String eurSek) {
+        return new RateDelta(sequence, LocalDateTime.of(2025, 11, 3, 16, 15),
+                Map.of("EUR/SEK", new BigDecimal(eurSek)), Set.of());
+    }
+}
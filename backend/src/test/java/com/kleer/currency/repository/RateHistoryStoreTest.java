@@ -0,0 +1,104 @@
+package com.kleer.currency.repository;
+
+import com.kleer.currency.model.CurrencyPair;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateHistoryStoreTest {
+
+    private static final CurrencyPair EUR_SEK = new CurrencyPair("EUR", "SEK");
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void findRateAsOf_shouldReturnLatestObservationOnOrBeforeDate() {
+        RateHistoryStore store = newStore();
+        store.append(EUR_SEK, START, new BigDecimal("10.5"));
+        store.append(EUR_SEK, START.plusDays(3), new BigDecimal("10.7"));
+
+        assertEquals(Optional.empty(), store.findRateAsOf(EUR_SEK, START.minusDays(1)));
+        assertEquals(0, new BigDecimal("10.5").compareTo(store.findRateAsOf(EUR_SEK, START.plusDays(2)).orElseThrow()));
+        assertEquals(0, new BigDecimal("10.7").compareTo(store.findRateAsOf(EUR_SEK, START.plusDays(3)).orElseThrow()));
+        assertEquals(0, new BigDecimal("10.7").compareTo(store.findRateAsOf(EUR_SEK, START.plusYears(1)).orElseThrow()));
+    }
+
+    @Test
+    void append_shouldSpanSegmentsAndSurviveReopen() {
+        RateHistoryStore store = newStore();
+        for (int day = 0; day < 10; day++) {
+            store.append(EUR_SEK, START.plusDays(day), BigDecimal.valueOf(10 + day));
+        }
+
+        RateHistoryStore reopened = newStore();
+        reopened.open();
+
+        assertEquals(10, reopened.size(EUR_SEK));
+        assertEquals(0, BigDecimal.valueOf(17).compareTo(reopened.findRateAsOf(EUR_SEK, START.plusDays(7)).orElseThrow()));
+
+        List<Integer> days = new ArrayList<>();
+        reopened.forEach(EUR_SEK, START.plusDays(2), START.plusDays(5), (epochDay, rate) -> days.add(epochDay));
+        assertEquals(List.of(2, 3, 4, 5), days.stream().map(d -> d - (int) START.toEpochDay()).toList());
+    }
+
+    @Test
+    void append_shouldReplaceSameDayAndRejectOlderDates() {
+        RateHistoryStore store = newStore();
+        store.append(EUR_SEK, START.plusDays(1), new BigDecimal("10.5"));
+        store.append(EUR_SEK, START.plusDays(1), new BigDecimal("10.6"));
+
+        assertEquals(1, store.size(EUR_SEK));
+        assertEquals(0, new BigDecimal("10.6").compareTo(store.findRateAsOf(EUR_SEK, START.plusDays(1)).orElseThrow()));
+        assertThrows(IllegalArgumentException.class,
+                () -> store.append(EUR_SEK, START, new BigDecimal("10.4")));
+    }
+
+    @Test
+    void merge_shouldRewriteSeriesForOlderDatesAndReplaceStoredDates() throws Exception {
+        RateHistoryStore store = newStore();
+        for (int day = 5; day < 10; day++) {
+            store.append(EUR_SEK, START.plusDays(day), BigDecimal.valueOf(10 + day));
+        }
+
+        int start = (int) START.toEpochDay();
+        int[] days = {start, start + 1, start + 2, start + 3, start + 9, start + 12};
+        long[] rates = new long[days.length];
+        Arrays.fill(rates, RateHistoryStore.toScaled(BigDecimal.ONE));
+
+        assertEquals(6, store.merge(EUR_SEK, days, rates, days.length));
+        assertEquals(0, store.merge(EUR_SEK, days, rates, days.length));
+        store.append(EUR_SEK, START.plusDays(13), BigDecimal.TEN);
+
+        RateHistoryStore reopened = newStore();
+        reopened.open();
+
+        assertEquals(11, reopened.size(EUR_SEK));
+        assertEquals(0, BigDecimal.ONE.compareTo(reopened.findRateAsOf(EUR_SEK, START.plusDays(3)).orElseThrow()));
+        assertEquals(0, BigDecimal.ONE.compareTo(reopened.findRateAsOf(EUR_SEK, START.plusDays(9)).orElseThrow()));
+        assertEquals(0, BigDecimal.valueOf(18).compareTo(reopened.findRateAsOf(EUR_SEK, START.plusDays(8)).orElseThrow()));
+        assertEquals(0, BigDecimal.TEN.compareTo(reopened.findRateAsOf(EUR_SEK, START.plusDays(13)).orElseThrow()));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of("EUR-SEK", "merge.stamp"),
+                    files.map(file -> file.getFileName().toString()).sorted().toList());
+        }
+        assertEquals(store.getMergeStamp(), reopened.getMergeStamp());
+        assertTrue(reopened.getMergeStamp() > 0);
+    }
+
+    private RateHistoryStore newStore() {
+        return new RateHistoryStore(tempDir.toString(), 4);
+    }
+}
@@ -0,0 +1,57 @@
+package com.kleer.currency.repository;
+
+import com.kleer.currency.model.RateSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateSnapshotStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void write_shouldRoundTripSnapshot() throws Exception {
+        RateSnapshotStore store = new RateSnapshotStore(tempDir.resolve("rates.snapshot").toString());
+        LocalDateTime now = LocalDateTime.of(2025, 11, 3, 16, 15, 0);
+        RateSnapshot snapshot = new RateSnapshot(7, now, Map.of(
+                "EUR/SEK", new BigDecimal("10.92896175"),
+                "SEK/EUR", new BigDecimal("0.0915")));
+
+        store.write(snapshot);
+        Optional<RateSnapshot> restored = store.read();
+
+        assertTrue(restored.isPresent());
+        assertEquals(7, restored.get().version());
+        assertEquals(now, restored.get().lastUpdated());
+        assertEquals(snapshot.rates(), restored.get().rates());
+    }
+
+    @Test
+    void read_shouldReturnEmptyWhenFileMissing() {
+        RateSnapshotStore store = new RateSnapshotStore(tempDir.resolve("missing.snapshot").toString());
+
+        assertTrue(store.read().isEmpty());
+    }
+
+    @Test
+    void read_shouldRejectCorruptedFile() throws Exception {
+        Path file = tempDir.resolve("rates.snapshot");
+        RateSnapshotStore store = new RateSnapshotStore(file.toString());
+        store.write(new RateSnapshot(1, LocalDateTime.now(), Map.of("EUR/SEK", new BigDecimal("10.9"))));
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 12] ^= 0x01;
+        Files.write(file, bytes);
+
+        assertTrue(store.read().isEmpty());
+    }
+}
@@ -0,0 +1,142 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.dto.AlertDto;
+import com.kleer.currency.dto.AlertNotification;
+import com.kleer.currency.exception.CurrencyNotSupportedException;
+import com.kleer.currency.model.AlertDirection;
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.model.RateSnapshotPublishedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertServiceTest {
+
+    private final List<AlertNotification> delivered = new ArrayList<>();
+
+    private AlertService alertService;
+
+    @BeforeEach
+    void setUp() {
+        CurrencyRegistry currencyRegistry = new CurrencyRegistry(List.of("SEK", "EUR", "USD"));
+        alertService = new AlertService(currencyRegistry, delivered::add, 100);
+    }
+
+    @Test
+    void onSnapshotPublished_shouldDeliverExactlyTheCrossedThresholds() {
+        long below = register("11.30", AlertDirection.UP);
+        long crossedUp = register("11.40", AlertDirection.UP);
+        long crossedBoth = register("11.45", AlertDirection.BOTH);
+        long onNewRate = register("11.50", AlertDirection.UP);
+        register("11.45", AlertDirection.DOWN);
+        register("11.60", AlertDirection.UP);
+
+        publish("11.35", "11.50");
+
+        assertEquals(List.of(crossedUp, crossedBoth, onNewRate), deliveredIds());
+        assertTrue(delivered.stream().allMatch(n -> n.getDirection() == AlertDirection.UP));
+        assertFalse(deliveredIds().contains(below));
+
+        delivered.clear();
+        publish("11.50", "11.40");
+
+        assertEquals(2, delivered.size());
+        assertTrue(delivered.stream().allMatch(n -> n.getDirection() == AlertDirection.DOWN));
+        assertTrue(deliveredIds().contains(crossedBoth));
+    }
+
+    @Test
+    void unregister_shouldStopDelivery() {
+        long id = register("11.40", AlertDirection.BOTH);
+
+        assertTrue(alertService.unregister(id));
+        assertFalse(alertService.unregister(id));
+
+        publish("11.35", "11.50");
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test
+    void register_shouldRejectInvalidRequests() {
+        assertThrows(CurrencyNotSupportedException.class, () -> alertService.register(alert("XXX", "SEK", "1")));
+        assertThrows(IllegalArgumentException.class, () -> alertService.register(alert("EUR", "SEK", "0")));
+        assertThrows(IllegalArgumentException.class, () -> alertService.register(alert("EUR", "EUR", "1")));
+
+        AlertDto badCallback = alert("EUR", "SEK", "1");
+        badCallback.setCallbackUrl("file:///etc/passwd");
+        assertThrows(IllegalArgumentException.class, () -> alertService.register(badCallback));
+    }
+
+    @Test
+    void register_shouldRejectCallbacksToInternalAddresses() {
+        for (String url : List.of("http://127.0.0.1:8080/hook", "http://169.254.169.254/latest/meta-data",
+                "http://10.0.0.5/hook", "http://192.168.1.1/hook", "http://[::1]/hook",
+                "http://[fd00::1]/hook", "http://224.0.0.1/hook", "http://0.0.0.0/hook")) {
+            AlertDto request = alert("EUR", "SEK", "1");
+            request.setCallbackUrl(url);
+            assertThrows(IllegalArgumentException.class, () -> alertService.register(request), url);
+        }
+
+        AlertDto request = alert("EUR", "SEK", "1");
+        request.setCallbackUrl("https://93.184.216.34/hook");
+        assertEquals("https://93.184.216.34/hook", alertService.register(request).getCallbackUrl());
+    }
+
+    @Test
+    void register_shouldNotExceedMaximumUnderConcurrentRegistrations() throws Exception {
+        alertService = new AlertService(new CurrencyRegistry(List.of("SEK", "EUR", "USD")), delivered::add, 10);
+
+        List<Thread> threads = new ArrayList<>();
+        AtomicInteger rejected = new AtomicInteger();
+        for (int i = 0; i < 50; i++) {
+            threads.add(Thread.startVirtualThread(() -> {
+                try {
+                    register("11.40", AlertDirection.UP);
+                } catch (IllegalArgumentException e) {
+                    rejected.incrementAndGet();
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(10, alertService.getAlerts().size());
+        assertEquals(40, rejected.get());
+
+        assertTrue(alertService.unregister(alertService.getAlerts().get(0).getId()));
+        register("11.40", AlertDirection.UP);
+        assertEquals(10, alertService.getAlerts().size());
+    }
+
+    private long register(String threshold, AlertDirection direction) {
+        AlertDto request = alert("EUR", "SEK", threshold);
+        request.setDirection(direction);
+        return alertService.register(request).getId();
+    }
+
+    private void publish(String previousRate, String rate) {
+        RateSnapshot previous = new RateSnapshot(1, null, Map.of("EUR/SEK", new BigDecimal(previousRate)));
+        RateSnapshot current = new RateSnapshot(2, null, Map.of("EUR/SEK", new BigDecimal(rate)));
+        alertService.onSnapshotPublished(new RateSnapshotPublishedEvent(previous, current));
+    }
+
+    private List<Long> deliveredIds() {
+        return delivered.stream().map(AlertNotification::getAlertId).sorted().toList();
+    }
+
+    private static AlertDto alert(String from, String to, String threshold) {
+        return AlertDto.builder()
+                .fromCurrency(from)
+                .toCurrency(to)
+                .threshold(new BigDecimal(threshold))
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.model.ConversionRequest;
+import com.kleer.currency.model.ValidationError;
+import com.kleer.currency.model.ValidationResult;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConversionRequestValidatorTest {
+
+    private final CurrencyRegistry currencyRegistry = new CurrencyRegistry(List.of("SEK", "EUR", "USD"));
+    private final ConversionRequestValidator validator = new ConversionRequestValidator(currencyRegistry);
+
+    @Test
+    void validate_shouldNormaliseCurrenciesToRegistryEntries() {
+        ValidationResult<ConversionRequest> result = validator.validate("100.50", " sek ", "eUr");
+
+        assertTrue(result.isValid());
+        assertEquals(new BigDecimal("100.50"), result.value().amount());
+        assertSame(currencyRegistry.resolve("SEK"), result.value().from());
+        assertSame(currencyRegistry.resolve("EUR"), result.value().to());
+    }
+
+    @Test
+    void validate_shouldAcceptSurroundingWhitespaceAndExponents() {
+        assertEquals(new BigDecimal("100"), validator.validate(" 100\t", "SEK", "EUR").value().amount());
+        assertEquals(new BigDecimal("1E+3"), validator.validate("1e3", "SEK", "EUR").value().amount());
+        assertEquals(new BigDecimal("0.25"), validator.validate("2.5E-1", "SEK", "EUR").value().amount());
+        assertEquals(new BigDecimal("1.5E+2"), validator.validate("+1.5e+2", "SEK", "EUR").value().amount());
+    }
+
+    @Test
+    void validate_shouldReportAmountErrorsWithoutThrowing() {
+        assertEquals(ValidationError.AMOUNT_REQUIRED, validator.validate((String) null, "SEK", "EUR").error());
+        assertEquals(ValidationError.AMOUNT_INVALID, validator.validate("12abc", "SEK", "EUR").error());
+        assertEquals(ValidationError.AMOUNT_INVALID, validator.validate("1e9999999", "SEK", "EUR").error());
+        assertEquals(ValidationError.AMOUNT_INVALID, validator.validate("1e1000", "SEK", "EUR").error());
+        assertEquals(ValidationError.AMOUNT_INVALID, validator.validate("1e", "SEK", "EUR").error());
+        assertEquals(ValidationError.AMOUNT_INVALID, validator.validate("e3", "SEK", "EUR").error());
+        assertEquals(ValidationError.AMOUNT_INVALID, validator.validate("1 000", "SEK", "EUR").error());
+        assertEquals(ValidationError.AMOUNT_INVALID, validator.validate(" ", "SEK", "EUR").error());
+        assertEquals(ValidationError.AMOUNT_INVALID, validator.validate("1".repeat(40), "SEK", "EUR").error());
+        assertEquals(ValidationError.AMOUNT_NOT_POSITIVE, validator.validate("-5", "SEK", "EUR").error());
+        assertEquals(ValidationError.AMOUNT_NOT_POSITIVE, validator.validate("0.00", "SEK", "EUR").error());
+        assertEquals(ValidationError.AMOUNT_TOO_LARGE, validator.validate("9e700", "SEK", "EUR").error());
+        assertEquals(ValidationError.AMOUNT_TOO_LARGE, validator.validate("1e18", "SEK", "EUR").error());
+        assertEquals(ValidationError.AMOUNT_TOO_PRECISE, validator.validate("0.000000001", "SEK", "EUR").error());
+        assertTrue(validator.validate("999999999999999999.12345678", "SEK", "EUR").isValid());
+        assertTrue(validator.validate("1.50000000000", "SEK", "EUR").isValid());
+    }
+
+    @Test
+    void validate_shouldReportCurrencyErrorsWithoutThrowing() {
+        assertEquals(ValidationError.SOURCE_CURRENCY_REQUIRED, validator.validate("1", " ", "EUR").error());
+        assertEquals(ValidationError.TARGET_CURRENCY_REQUIRED, validator.validate("1", "SEK", null).error());
+        assertEquals(ValidationError.SOURCE_CURRENCY_NOT_SUPPORTED, validator.validate("1", "GBP", "EUR").error());
+        assertEquals(ValidationError.TARGET_CURRENCY_NOT_SUPPORTED, validator.validate("1", "SEK", "EURO").error());
+        assertEquals(ValidationError.TARGET_CURRENCY_NOT_SUPPORTED, validator.validate("1", "SEK", "EÜR").error());
+    }
+
+    @Test
+    void parseDate_shouldAcceptOnlyRealIsoDatesWithoutThrowing() {
+        assertEquals(LocalDate.of(2024, 2, 29), ConversionRequestValidator.parseDate("2024-02-29"));
+        assertEquals(LocalDate.of(2025, 12, 31), ConversionRequestValidator.parseDate(" 2025-12-31 "));
+        assertNull(ConversionRequestValidator.parseDate("2025-02-29"));
+        assertNull(ConversionRequestValidator.parseDate("2025-02-30"));
+        assertNull(ConversionRequestValidator.parseDate("2025-04-31"));
+        assertNull(ConversionRequestValidator.parseDate("2025-13-02"));
+        assertNull(ConversionRequestValidator.parseDate("2025-00-10"));
+        assertNull(ConversionRequestValidator.parseDate("2025-01-00"));
+        assertNull(ConversionRequestValidator.parseDate("2025-1-02"));
+        assertNull(ConversionRequestValidator.parseDate("2025-01-022"));
+        assertNull(ConversionRequestValidator.parseDate("2025/01/02"));
+        assertNull(ConversionRequestValidator.parseDate("+025-01-02"));
+        assertNull(ConversionRequestValidator.parseDate(""));
+    }
+}
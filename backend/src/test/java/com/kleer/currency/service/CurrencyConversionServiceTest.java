@@ -1,8 +1,14 @@
 package com.kleer.currency.service;
 
 import com.kleer.currency.dto.ConversionResponse;
+import com.kleer.currency.dto.ConvertedAmountDto;
+import com.kleer.currency.dto.FanOutConversionResponse;
 import com.kleer.currency.entity.ExchangeRate;
 import com.kleer.currency.exception.CurrencyNotSupportedException;
+import com.kleer.currency.model.ConversionRequest;
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.model.RateSnapshotPublishedEvent;
+import com.kleer.currency.model.SupportedCurrency;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,6 +16,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -20,11 +29,20 @@ class CurrencyConversionServiceTest {
     @Mock
     private ExchangeRateService exchangeRateService;
 
+    @Mock
+    private ConversionAuditService auditService;
+
+    private final CurrencyRegistry currencyRegistry = new CurrencyRegistry(List.of("SEK", "EUR", "USD"));
+
+    private final RateMatrixService rateMatrixService = new RateMatrixService(currencyRegistry);
+
     private CurrencyConversionService currencyConversionService;
 
     @BeforeEach
     void setUp() {
-        currencyConversionService = new CurrencyConversionService(exchangeRateService);
+        currencyConversionService = new CurrencyConversionService(
+                exchangeRateService, new ConversionRequestValidator(currencyRegistry), currencyRegistry, auditService,
+                rateMatrixService, 16, true);
     }
 
     @Test
@@ -39,7 +57,8 @@ class CurrencyConversionServiceTest {
         exchangeRate.setToCurrency(toCurrency);
         exchangeRate.setRate(rate);
 
-        when(exchangeRateService.getRate(fromCurrency, toCurrency)).thenReturn(exchangeRate);
+        when(exchangeRateService.getRate(currencyRegistry.resolve(fromCurrency), currencyRegistry.resolve(toCurrency)))
+                .thenReturn(exchangeRate);
 
         ConversionResponse response = currencyConversionService.convert(amount, fromCurrency, toCurrency);
 
@@ -50,7 +69,8 @@ class CurrencyConversionServiceTest {
         assertEquals(fromCurrency, response.getFromCurrency());
         assertEquals(toCurrency, response.getToCurrency());
 
-        verify(exchangeRateService).getRate(fromCurrency, toCurrency);
+        verify(exchangeRateService).getRate(currencyRegistry.resolve(fromCurrency), currencyRegistry.resolve(toCurrency));
+        verify(auditService).record(response, 0L);
     }
 
     @Test
@@ -67,7 +87,7 @@ class CurrencyConversionServiceTest {
         assertEquals(currency, response.getFromCurrency());
         assertEquals(currency, response.getToCurrency());
 
-        verify(exchangeRateService, never()).getRate(anyString(), anyString());
+        verify(exchangeRateService, never()).getRate(any(SupportedCurrency.class), any(SupportedCurrency.class));
     }
 
     @Test
@@ -99,4 +119,132 @@ class CurrencyConversionServiceTest {
         assertThrows(CurrencyNotSupportedException.class,
                 () -> currencyConversionService.convert(new BigDecimal("100"), "SEK", "JPY"));
     }
+
+    @Test
+    void convert_shouldUsePublishedRateSetBeforeDatabase() {
+        publish(Map.of("SEK/EUR", new BigDecimal("0.0915")));
+
+        ConversionResponse response = currencyConversionService.convert(new BigDecimal("100"), "SEK", "EUR");
+
+        assertEquals(new BigDecimal("9.15"), response.getConvertedAmount());
+        verifyNoInteractions(exchangeRateService);
+    }
+
+    @Test
+    void convert_shouldAuditVersionOfTheRateSetTheRateCameFrom() {
+        publish(Map.of("SEK/EUR", new BigDecimal("0.0915")));
+        ExchangeRate usdRate = new ExchangeRate();
+        usdRate.setRate(new BigDecimal("0.0950"));
+
+        // A snapshot is published while the missing pair is read from the database
+        when(exchangeRateService.getRate(currencyRegistry.resolve("SEK"), currencyRegistry.resolve("USD")))
+                .thenAnswer(invocation -> {
+                    publish(Map.of("SEK/EUR", new BigDecimal("0.0920"), "SEK/USD", new BigDecimal("0.0960")));
+                    return usdRate;
+                });
+
+        ConversionResponse fromDatabase = currencyConversionService.convert(new BigDecimal("100"), "SEK", "USD");
+        ConversionResponse fromMatrix = currencyConversionService.convert(new BigDecimal("100"), "SEK", "EUR");
+
+        assertEquals(new BigDecimal("9.50"), fromDatabase.getConvertedAmount());
+        verify(auditService).record(fromDatabase, 1L);
+        assertEquals(new BigDecimal("9.20"), fromMatrix.getConvertedAmount());
+        verify(auditService).record(fromMatrix, 2L);
+    }
+
+    @Test
+    void convertToAll_shouldConvertIntoEveryCurrencyWithARate() {
+        publish(Map.of("SEK/EUR", new BigDecimal("0.0915"), "SEK/USD", new BigDecimal("0.0950")));
+
+        FanOutConversionResponse response = currencyConversionService.convertToAll(
+                new BigDecimal("100"), currencyRegistry.resolve("SEK"), null);
+
+        assertEquals(1, response.getSnapshotVersion());
+        assertEquals(List.of("SEK", "EUR", "USD"),
+                response.getConversions().stream().map(ConvertedAmountDto::getCurrency).toList());
+        assertEquals(new BigDecimal("9.15"), response.getConversions().get(1).getConvertedAmount());
+        assertSame(response, currencyConversionService.convertToAll(
+                new BigDecimal("100"), currencyRegistry.resolve("SEK"), null));
+        verifyNoInteractions(exchangeRateService, auditService);
+    }
+
+    @Test
+    void convertToAll_shouldShareCacheEntryAcrossAmountScales() {
+        publish(Map.of("SEK/EUR", new BigDecimal("0.0915")));
+        SupportedCurrency sek = currencyRegistry.resolve("SEK");
+        FanOutConversionResponse response = currencyConversionService.convertToAll(new BigDecimal("100"), sek, null);
+
+        FanOutConversionResponse scaled = currencyConversionService.convertToAll(new BigDecimal("100.00"), sek, null);
+
+        assertSame(response.getConversions(), scaled.getConversions());
+        assertEquals(new BigDecimal("100.00"), scaled.getOriginalAmount());
+        assertEquals(new BigDecimal("100"), response.getOriginalAmount());
+    }
+
+    @Test
+    void convertToAll_shouldKeepRecentlyUsedAmountsCachedOnceFull() {
+        publish(Map.of("SEK/EUR", new BigDecimal("0.0915")));
+        SupportedCurrency sek = currencyRegistry.resolve("SEK");
+        FanOutConversionResponse common = currencyConversionService.convertToAll(new BigDecimal("100"), sek, null);
+
+        // One-off amounts overflow the 16 entries; the common amount is asked for in between
+        for (int i = 1; i <= 64; i++) {
+            currencyConversionService.convertToAll(BigDecimal.valueOf(1000 + i), sek, null);
+            assertSame(common, currencyConversionService.convertToAll(new BigDecimal("100"), sek, null));
+        }
+        FanOutConversionResponse recent = currencyConversionService.convertToAll(new BigDecimal("1064"), sek, null);
+        assertSame(recent, currencyConversionService.convertToAll(new BigDecimal("1064"), sek, null));
+    }
+
+    @Test
+    void convertToAll_shouldRestrictToTargetsAndRecomputeAfterRefresh() {
+        publish(Map.of("SEK/EUR", new BigDecimal("0.0915")));
+        List<SupportedCurrency> targets = List.of(currencyRegistry.resolve("EUR"));
+        currencyConversionService.convertToAll(new BigDecimal("100"), currencyRegistry.resolve("SEK"), targets);
+
+        publish(Map.of("SEK/EUR", new BigDecimal("0.0920")));
+        FanOutConversionResponse response = currencyConversionService.convertToAll(
+                new BigDecimal("100"), currencyRegistry.resolve("SEK"), targets);
+
+        assertEquals(2, response.getSnapshotVersion());
+        assertEquals(1, response.getConversions().size());
+        assertEquals(new BigDecimal("9.20"), response.getConversions().get(0).getConvertedAmount());
+    }
+
+    @Test
+    void convertBatch_shouldMatchSingleConversionsAcrossPairsAndAmounts() {
+        publish(Map.of(
+                "SEK/EUR", new BigDecimal("0.09150000"),
+                "EUR/SEK", new BigDecimal("10.92900000"),
+                "SEK/USD", new BigDecimal("0.095000001234")));
+        SupportedCurrency sek = currencyRegistry.resolve("SEK");
+        SupportedCurrency eur = currencyRegistry.resolve("EUR");
+        SupportedCurrency usd = currencyRegistry.resolve("USD");
+
+        List<ConversionRequest> requests = new ArrayList<>();
+        String[] amounts = {"100", "0.05", "12345.67", "1.005", "99999999.99", "250000000", "0.01"};
+        for (String amount : amounts) {
+            requests.add(new ConversionRequest(new BigDecimal(amount), sek, eur));
+            requests.add(new ConversionRequest(new BigDecimal(amount), eur, sek));
+            requests.add(new ConversionRequest(new BigDecimal(amount), sek, usd));
+            requests.add(new ConversionRequest(new BigDecimal(amount), usd, usd));
+        }
+
+        List<BigDecimal> converted = currencyConversionService.convertBatch(requests);
+
+        assertEquals(requests.size(), converted.size());
+        for (int i = 0; i < requests.size(); i++) {
+            assertEquals(currencyConversionService.convert(requests.get(i)).getConvertedAmount(), converted.get(i),
+                    requests.get(i).toString());
+        }
+        verifyNoInteractions(exchangeRateService);
+    }
+
+    private void publish(Map<String, BigDecimal> rates) {
+        RateSnapshot previous = rateMatrixService.getCurrent().isEmpty()
+                ? RateSnapshot.EMPTY
+                : new RateSnapshot(rateMatrixService.getCurrent().getVersion(), null, Map.of());
+        RateSnapshot snapshot = new RateSnapshot(previous.version() + 1, null, rates);
+        rateMatrixService.onSnapshotPublished(new RateSnapshotPublishedEvent(previous, snapshot));
+    }
 }
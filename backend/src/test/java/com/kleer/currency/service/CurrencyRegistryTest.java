@@ -0,0 +1,46 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.model.RiksbankSeries;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrencyRegistryTest {
+
+    private static final ClassPathResource SERIES_FILE = new ClassPathResource("riksbank-series.csv");
+
+    @Test
+    void bundledSeries_shouldCarryTheQuoteUnitsOfTheRiksbankSeries() throws Exception {
+        // Units of the Riksbank series; a wrong unit puts every rate of the currency 100x off
+        Map<String, Integer> expectedUnits = Map.ofEntries(
+                Map.entry("EUR", 1), Map.entry("USD", 1), Map.entry("GBP", 1), Map.entry("CHF", 1),
+                Map.entry("NOK", 100), Map.entry("DKK", 100), Map.entry("ISK", 100), Map.entry("PLN", 1),
+                Map.entry("CZK", 1), Map.entry("HUF", 100), Map.entry("TRY", 1), Map.entry("JPY", 100),
+                Map.entry("CNY", 1), Map.entry("HKD", 1), Map.entry("SGD", 1), Map.entry("KRW", 100),
+                Map.entry("INR", 1), Map.entry("IDR", 100), Map.entry("THB", 1), Map.entry("AUD", 1),
+                Map.entry("NZD", 1), Map.entry("CAD", 1), Map.entry("MXN", 1), Map.entry("BRL", 1),
+                Map.entry("ZAR", 1), Map.entry("SAR", 1), Map.entry("MAD", 1));
+        CurrencyRegistry registry = new CurrencyRegistry(SERIES_FILE, List.of());
+
+        Map<String, Integer> units = registry.getSeries().stream()
+                .collect(Collectors.toMap(RiksbankSeries::currency, RiksbankSeries::unit));
+
+        assertEquals("SEK", registry.getBaseCurrency().code());
+        assertEquals(expectedUnits, units);
+    }
+
+    @Test
+    void enabledCodes_shouldRestrictTheBundledSeries() throws Exception {
+        CurrencyRegistry registry = new CurrencyRegistry(SERIES_FILE, List.of("eur", "USD"));
+
+        assertEquals(List.of("SEK", "EUR", "USD"), registry.getCodes());
+        assertEquals(List.of("SEKEURPMI", "SEKUSDPMI"),
+                registry.getSeries().stream().map(RiksbankSeries::seriesId).toList());
+        assertNull(registry.resolve("JPY"));
+    }
+}
@@ -0,0 +1,230 @@
+package com.kleer.currency.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kleer.currency.entity.ExchangeRate;
+import com.kleer.currency.exception.CurrencyNotSupportedException;
+import com.kleer.currency.exception.ExchangeRateNotFoundException;
+import com.kleer.currency.model.CurrencyPair;
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.repository.ExchangeRateRepository;
+import com.kleer.currency.repository.RateHistoryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExchangeRateServiceTest {
+
+    private static final LocalDateTime REFRESHED = LocalDateTime.of(2025, 11, 3, 16, 15);
+
+    @Mock
+    private ExchangeRateRepository repository;
+
+    @Mock
+    private RiksbankService riksbankService;
+
+    @Mock
+    private RateSnapshotService rateSnapshotService;
+
+    @Mock
+    private RateHistoryStore rateHistoryStore;
+
+    @Mock
+    private RateHistoryCache rateHistoryCache;
+
+    @Mock
+    private RateAnalyticsService rateAnalyticsService;
+
+    @Mock
+    private LeaderElection leaderElection;
+
+    private ExchangeRateService exchangeRateService;
+
+    @BeforeEach
+    void setUp() {
+        exchangeRateService = new ExchangeRateService(repository, riksbankService, rateSnapshotService,
+                rateHistoryStore, rateHistoryCache, rateAnalyticsService,
+                new CurrencyRegistry(List.of("SEK", "EUR", "USD")), leaderElection, new ObjectMapper().findAndRegisterModules(), true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getRate_shouldRejectUnsupportedCurrencyWithSupportedCodes() {
+        CurrencyNotSupportedException e = assertThrows(CurrencyNotSupportedException.class,
+                () -> exchangeRateService.getRate("sek", " gbp"));
+
+        assertTrue(e.getMessage().contains("GBP"));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void applyReplicatedSnapshot_shouldIgnoreStaleAndRegressedVersions() {
+        when(rateSnapshotService.getCurrent()).thenReturn(snapshot(7, "11.40"));
+
+        assertFalse(exchangeRateService.applyReplicatedSnapshot(snapshot(7, "11.50")));
+        assertFalse(exchangeRateService.applyReplicatedSnapshot(snapshot(2, "11.50")));
+
+        verifyNoInteractions(repository, rateHistoryStore);
+        verify(rateSnapshotService, never()).publishReplicated(any());
+    }
+
+    @Test
+    void applyReplicatedSnapshot_shouldStoreRatesAndRecordHistoryOnlyAfterCommit() {
+        when(rateSnapshotService.getCurrent()).thenReturn(snapshot(7, "11.40"));
+        when(repository.findByFromCurrencyAndToCurrency("EUR", "SEK")).thenReturn(Optional.empty());
+        when(repository.save(any(ExchangeRate.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        RateSnapshot newer = snapshot(8, "11.50");
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(exchangeRateService.applyReplicatedSnapshot(newer));
+
+        verify(rateSnapshotService).publishReplicated(newer);
+        verifyNoInteractions(rateHistoryStore);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        verify(rateHistoryStore).append(new CurrencyPair("EUR", "SEK"), LocalDate.of(2025, 11, 3), new BigDecimal("11.50"));
+    }
+
+    @Test
+    void refreshRatesFromRiksbank_shouldRecordHistoryOnlyAfterCommit() {
+        when(leaderElection.isLeader()).thenReturn(true);
+        when(riksbankService.fetchLatestRates()).thenReturn(Map.of("EUR/SEK", new BigDecimal("11.40")));
+        when(repository.save(any(ExchangeRate.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(2, exchangeRateService.refreshRatesFromRiksbank().getRates().size());
+        verifyNoInteractions(rateHistoryStore);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        verify(rateHistoryStore).append(eq(new CurrencyPair("EUR", "SEK")), any(LocalDate.class), eq(new BigDecimal("11.40")));
+        verify(rateHistoryStore).append(eq(new CurrencyPair("SEK", "EUR")), any(LocalDate.class), any(BigDecimal.class));
+    }
+
+    @Test
+    void refreshRatesFromRiksbank_shouldAppendHistoryBeforePublishingTheVersion() {
+        List<String> events = new ArrayList<>();
+        when(leaderElection.isLeader()).thenReturn(true);
+        when(riksbankService.fetchLatestRates()).thenReturn(Map.of("EUR/SEK", new BigDecimal("11.40")));
+        when(repository.save(any(ExchangeRate.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doAnswer(invocation -> events.add("history")).when(rateHistoryStore).append(any(), any(), any());
+        doAnswer(invocation -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    events.add("publish");
+                }
+            });
+            return null;
+        }).when(rateSnapshotService).publish(anyList(), anyLong());
+
+        TransactionSynchronizationManager.initSynchronization();
+        exchangeRateService.refreshRatesFromRiksbank();
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+
+        assertEquals(List.of("history", "history", "publish"), events);
+    }
+
+    @Test
+    void refreshRatesFromRiksbank_shouldPublishEveryStoredRateIncludingFailedSeries() {
+        ExchangeRate stale = ExchangeRate.builder()
+                .fromCurrency("USD").toCurrency("SEK").rate(new BigDecimal("10.20")).lastUpdated(REFRESHED).build();
+        when(leaderElection.isLeader()).thenReturn(true);
+        when(leaderElection.claimNextVersion()).thenReturn(8L);
+        when(riksbankService.fetchLatestRates()).thenReturn(Map.of("EUR/SEK", new BigDecimal("11.40")));
+        when(repository.save(any(ExchangeRate.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.findAll()).thenReturn(List.of(stale));
+
+        exchangeRateService.refreshRatesFromRiksbank();
+
+        verify(rateSnapshotService).publish(List.of(stale), 8L);
+    }
+
+    @Test
+    void refreshRatesFromRiksbank_shouldSkipUpstreamOnFollowers() {
+        when(leaderElection.isLeader()).thenReturn(false);
+        when(repository.findAll()).thenReturn(List.of());
+
+        assertTrue(exchangeRateService.refreshRatesFromRiksbank().getRates().isEmpty());
+
+        verifyNoInteractions(riksbankService, rateHistoryStore);
+        verify(leaderElection, never()).claimNextVersion();
+    }
+
+    @Test
+    void getLatestRatesPayload_shouldEncodePublishedSnapshotWithoutTheDatabase() throws Exception {
+        when(rateSnapshotService.getCurrent()).thenReturn(snapshot(7, "11.40"));
+
+        ExchangeRateService.LatestRatesPayload latest = exchangeRateService.getLatestRatesPayload();
+        assertSame(latest, exchangeRateService.getLatestRatesPayload());
+
+        when(rateSnapshotService.getCurrent()).thenReturn(snapshot(8, "11.50"));
+        ExchangeRateService.LatestRatesPayload next = exchangeRateService.getLatestRatesPayload();
+
+        assertEquals(7, latest.version());
+        assertEquals(8, next.version());
+        assertEquals(1, next.count());
+        assertEquals(11.5, new ObjectMapper().readTree(next.payload().identity()).at("/rates/0/rate").asDouble());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void getRateAsOf_shouldReturnRateInEffectOnDate() {
+        CurrencyRegistry registry = new CurrencyRegistry(List.of("SEK", "EUR", "USD"));
+        when(rateHistoryCache.findRateAsOf(new CurrencyPair("EUR", "SEK"), LocalDate.of(2025, 11, 2)))
+                .thenReturn(Optional.of(new BigDecimal("11.40")));
+
+        assertEquals(new BigDecimal("11.40"), exchangeRateService.getRateAsOf(
+                registry.resolve("EUR"), registry.resolve("SEK"), LocalDate.of(2025, 11, 2)));
+        assertEquals(BigDecimal.ONE, exchangeRateService.getRateAsOf(
+                registry.resolve("SEK"), registry.resolve("SEK"), LocalDate.of(2025, 11, 2)));
+    }
+
+    @Test
+    void getRateAsOf_shouldThrowWithoutObservationOnOrBeforeDate() {
+        CurrencyRegistry registry = new CurrencyRegistry(List.of("SEK", "EUR", "USD"));
+        when(rateHistoryCache.findRateAsOf(new CurrencyPair("EUR", "SEK"), LocalDate.of(1990, 1, 1)))
+                .thenReturn(Optional.empty());
+
+        ExchangeRateNotFoundException e = assertThrows(ExchangeRateNotFoundException.class,
+                () -> exchangeRateService.getRateAsOf(
+                        registry.resolve("EUR"), registry.resolve("SEK"), LocalDate.of(1990, 1, 1)));
+
+        assertTrue(e.getMessage().contains("1990-01-01"));
+    }
+
+    private static RateSnapshot snapshot(long version, String eurSek) {
+        return new RateSnapshot(version, REFRESHED, Map.of("EUR/SEK", new BigDecimal(eurSek)));
+    }
+}
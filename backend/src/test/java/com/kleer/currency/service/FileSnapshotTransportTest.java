@@ -0,0 +1,54 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.model.CurrencyPair;
+import com.kleer.currency.model.RateSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSnapshotTransportTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void fetchNewerThan_shouldReturnOnlyNewerSnapshots() throws Exception {
+        FileSnapshotTransport leader = new FileSnapshotTransport(tempDir.resolve("shared.snapshot").toString());
+        FileSnapshotTransport follower = new FileSnapshotTransport(tempDir.resolve("shared.snapshot").toString());
+
+        assertTrue(follower.fetchNewerThan(0).isEmpty());
+
+        leader.publish(snapshot(4, "11.40"));
+        Optional<RateSnapshot> fetched = follower.fetchNewerThan(3);
+
+        assertTrue(fetched.isPresent());
+        assertEquals(4, fetched.get().version());
+        assertEquals(new BigDecimal("11.40"), fetched.get().getRate(new CurrencyPair("EUR", "SEK")));
+        assertTrue(follower.fetchNewerThan(4).isEmpty());
+    }
+
+    @Test
+    void publish_shouldReplaceSnapshotOfPreviousLeader() throws Exception {
+        FileSnapshotTransport previousLeader = new FileSnapshotTransport(tempDir.resolve("shared.snapshot").toString());
+        FileSnapshotTransport leader = new FileSnapshotTransport(tempDir.resolve("shared.snapshot").toString());
+
+        previousLeader.publish(snapshot(5, "11.50"));
+        leader.publish(snapshot(4, "11.40"));
+
+        Optional<RateSnapshot> fetched = leader.fetchNewerThan(0);
+        assertTrue(fetched.isPresent());
+        assertEquals(4, fetched.get().version());
+    }
+
+    private static RateSnapshot snapshot(long version, String eurSek) {
+        return new RateSnapshot(version, LocalDateTime.of(2025, 11, 3, 16, 15),
+                Map.of("EUR/SEK", new BigDecimal(eurSek)));
+    }
+}
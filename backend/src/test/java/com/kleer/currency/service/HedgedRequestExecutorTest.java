@@ -0,0 +1,82 @@
+package com.kleer.currency.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgedRequestExecutorTest {
+
+    private HedgedRequestExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void execute_shouldNotHedgeBeforeEnoughSamples() {
+        executor = new HedgedRequestExecutor(true, 0.5, 1, 5, 16, 1.0, 10);
+
+        assertEquals("ok", executor.execute("SEKEURPMI", () -> "ok"));
+        assertEquals(0, executor.getHedgesIssued());
+    }
+
+    @Test
+    void execute_shouldHedgeSlowCallAndReturnFirstSuccess() {
+        executor = new HedgedRequestExecutor(true, 0.5, 1, 3, 16, 1.0, 10);
+        warmUp("SEKEURPMI", 3);
+
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch neverReleased = new CountDownLatch(1);
+
+        String result = executor.execute("SEKEURPMI", () -> {
+            // First attempt hangs, the hedge answers immediately
+            if (attempts.incrementAndGet() == 1) {
+                neverReleased.await(5, TimeUnit.SECONDS);
+                return "slow";
+            }
+            return "hedged";
+        });
+
+        assertEquals("hedged", result);
+        assertEquals(2, attempts.get());
+        assertEquals(1, executor.getHedgesIssued());
+    }
+
+    @Test
+    void execute_shouldStopHedgingWhenBudgetIsExhausted() {
+        executor = new HedgedRequestExecutor(true, 0.5, 1, 3, 16, 0.0, 1);
+        warmUp("SEKUSDPMI", 3);
+
+        for (int i = 0; i < 3; i++) {
+            executor.execute("SEKUSDPMI", () -> {
+                Thread.sleep(20);
+                return "slow";
+            });
+        }
+
+        assertEquals(0, executor.getHedgesIssued());
+    }
+
+    @Test
+    void execute_shouldRethrowWhenAllAttemptsFail() {
+        executor = new HedgedRequestExecutor(true, 0.5, 1, 3, 16, 1.0, 10);
+
+        assertThrows(IllegalStateException.class, () -> executor.execute("SEKEURPMI", () -> {
+            throw new IllegalStateException("API Error");
+        }));
+    }
+
+    private void warmUp(String key, int samples) {
+        for (int i = 0; i < samples; i++) {
+            executor.execute(key, () -> "warm");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.model.CurrencyPair;
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.repository.RateSnapshotStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class HttpSnapshotTransportTest {
+
+    private static final String LEADER_URL = "http://leader:8080";
+    private static final String SNAPSHOT_URL = LEADER_URL + HttpSnapshotTransport.SNAPSHOT_PATH;
+
+    private MockRestServiceServer server;
+    private HttpSnapshotTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        transport = new HttpSnapshotTransport(restTemplate, LEADER_URL);
+    }
+
+    @Test
+    void fetchNewerThan_shouldSendVersionAsIfNoneMatchAndDecodeNewerSnapshot() throws Exception {
+        server.expect(requestTo(SNAPSHOT_URL))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andRespond(withSuccess(RateSnapshotStore.encode(snapshot(4)), MediaType.APPLICATION_OCTET_STREAM));
+
+        Optional<RateSnapshot> fetched = transport.fetchNewerThan(3);
+
+        assertTrue(fetched.isPresent());
+        assertEquals(4, fetched.get().version());
+        assertEquals(new BigDecimal("11.40"), fetched.get().getRate(new CurrencyPair("EUR", "SEK")));
+        server.verify();
+    }
+
+    @Test
+    void fetchNewerThan_shouldReturnEmptyWhenUnchangedOrNotNewer() throws Exception {
+        server.expect(requestTo(SNAPSHOT_URL)).andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+        server.expect(requestTo(SNAPSHOT_URL)).andRespond(withStatus(HttpStatus.NO_CONTENT));
+        server.expect(requestTo(SNAPSHOT_URL))
+                .andRespond(withSuccess(RateSnapshotStore.encode(snapshot(4)), MediaType.APPLICATION_OCTET_STREAM));
+
+        assertTrue(transport.fetchNewerThan(4).isEmpty());
+        assertTrue(transport.fetchNewerThan(4).isEmpty());
+        assertTrue(transport.fetchNewerThan(5).isEmpty());
+        server.verify();
+    }
+
+    @Test
+    void fetchNewerThan_shouldFailOnCorruptSnapshotOrUnreachableLeader() {
+        server.expect(requestTo(SNAPSHOT_URL))
+                .andRespond(withSuccess(new byte[] {1, 2, 3}, MediaType.APPLICATION_OCTET_STREAM));
+        server.expect(requestTo(SNAPSHOT_URL)).andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+
+        assertThrows(IOException.class, () -> transport.fetchNewerThan(3));
+        assertThrows(IOException.class, () -> transport.fetchNewerThan(3));
+        server.verify();
+    }
+
+    @Test
+    void fetchNewerThan_shouldDoNothingWithoutLeaderUrl() throws Exception {
+        assertTrue(new HttpSnapshotTransport(new RestTemplate(), "").fetchNewerThan(0).isEmpty());
+    }
+
+    private static RateSnapshot snapshot(long version) {
+        return new RateSnapshot(version, LocalDateTime.of(2025, 11, 3, 16, 15),
+                Map.of("EUR/SEK", new BigDecimal("11.40")));
+    }
+}
@@ -0,0 +1,87 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.exception.LeadershipLostException;
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.repository.RefreshLeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+class LeaseLeaderElectionTest {
+
+    private static final long TTL_MILLIS = 2_000;
+
+    @Autowired
+    private RefreshLeaseRepository repository;
+
+    private final RateSnapshotService nodeASnapshots = mock(RateSnapshotService.class);
+    private final RateSnapshotService nodeBSnapshots = mock(RateSnapshotService.class);
+
+    private LeaseLeaderElection nodeA;
+    private LeaseLeaderElection nodeB;
+
+    @BeforeEach
+    void setUp() {
+        repository.create(LeaseLeaderElection.LEASE_NAME);
+        when(nodeASnapshots.getCurrent()).thenReturn(RateSnapshot.EMPTY);
+        when(nodeBSnapshots.getCurrent()).thenReturn(RateSnapshot.EMPTY);
+        nodeA = new LeaseLeaderElection(repository, nodeASnapshots, "node-a", TTL_MILLIS);
+        nodeB = new LeaseLeaderElection(repository, nodeBSnapshots, "node-b", TTL_MILLIS);
+    }
+
+    @Test
+    void tick_shouldElectExactlyOneLeader() {
+        nodeA.tick();
+        nodeB.tick();
+
+        assertTrue(nodeA.isLeader());
+        assertFalse(nodeB.isLeader());
+        assertEquals(1, nodeA.claimNextVersion());
+        assertThrows(LeadershipLostException.class, nodeB::claimNextVersion);
+
+        nodeB.tick();
+        verify(nodeBSnapshots).reload(1);
+    }
+
+    @Test
+    void tick_shouldHandOverExpiredLeaseWithHigherToken() {
+        nodeA.tick();
+        long firstToken = repository.findToken(LeaseLeaderElection.LEASE_NAME).orElseThrow();
+        assertEquals(1, nodeA.claimNextVersion());
+
+        // Node B's clock has passed the lease expiry
+        AtomicLong clockB = new AtomicLong(System.currentTimeMillis() + TTL_MILLIS + 100);
+        nodeB = new LeaseLeaderElection(repository, nodeBSnapshots, "node-b", TTL_MILLIS, clockB::get);
+        nodeB.tick();
+
+        assertTrue(nodeB.isLeader());
+        assertTrue(repository.findToken(LeaseLeaderElection.LEASE_NAME).orElseThrow() > firstToken);
+        // Node A has not noticed yet, but the fencing token rejects its claim
+        assertThrows(LeadershipLostException.class, nodeA::claimNextVersion);
+        assertEquals(2, nodeB.claimNextVersion());
+
+        nodeA.tick();
+        assertFalse(nodeA.isLeader());
+        verify(nodeASnapshots).reload(2);
+    }
+
+    @Test
+    void claimNextVersion_shouldNotFallBelowServedVersion() {
+        when(nodeASnapshots.getCurrent()).thenReturn(new RateSnapshot(3, null, Map.of()));
+
+        nodeA.tick();
+
+        assertEquals(4, nodeA.claimNextVersion());
+        assertEquals(5, nodeA.claimNextVersion());
+    }
+}
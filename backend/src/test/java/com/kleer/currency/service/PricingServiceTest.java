@@ -0,0 +1,110 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.config.PricingProperties;
+import com.kleer.currency.exception.PricingUnavailableException;
+import com.kleer.currency.model.PriceTable;
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.model.RateSnapshotPublishedEvent;
+import com.kleer.currency.model.SupportedCurrency;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricingServiceTest {
+
+    private CurrencyRegistry currencyRegistry;
+    private PricingProperties properties;
+    private PricingService pricingService;
+
+    @BeforeEach
+    void setUp() {
+        PricingProperties.MarkupTier retail = new PricingProperties.MarkupTier();
+        retail.setMarkupBps(25);
+        PricingProperties.MarkupTier wholesale = new PricingProperties.MarkupTier();
+        wholesale.setMinAmount(new BigDecimal("100000"));
+        wholesale.setMarkupBps(10);
+
+        PricingProperties.Tenant tenant = new PricingProperties.Tenant();
+        tenant.setSpreadBps(40);
+        tenant.setPairSpreadBps(Map.of("EUR/SEK", 20));
+        tenant.setMarkupTiers(List.of(wholesale, retail));
+
+        properties = new PricingProperties();
+        properties.setTenants(Map.of("acme", tenant));
+
+        currencyRegistry = new CurrencyRegistry(List.of("SEK", "EUR", "USD"));
+        pricingService = new PricingService(properties, currencyRegistry);
+
+        RateSnapshot snapshot = new RateSnapshot(7, null, Map.of(
+                "EUR/SEK", new BigDecimal("11.00000000"),
+                "SEK/EUR", new BigDecimal("0.09090909"),
+                "USD/SEK", new BigDecimal("10.00000000")));
+        pricingService.onSnapshotPublished(new RateSnapshotPublishedEvent(RateSnapshot.EMPTY, snapshot));
+    }
+
+    @Test
+    void getRate_shouldApplyPairSpreadAndTierMarkup() {
+        PriceTable table = pricingService.getTable("acme");
+        SupportedCurrency eur = currencyRegistry.resolve("EUR");
+        SupportedCurrency sek = currencyRegistry.resolve("SEK");
+
+        assertEquals(7, table.getSnapshotVersion());
+        // 11 * (1 - 10 bps half spread - 25 bps markup)
+        assertEquals(new BigDecimal("10.96150000"), table.getRate(eur, sek, new BigDecimal("100")));
+        // Tier threshold of 100000 SEK is about 9090.91 EUR: 11 * (1 - 10 bps - 10 bps)
+        assertEquals(new BigDecimal("10.97800000"), table.getRate(eur, sek, new BigDecimal("10000")));
+        // Override applies to the inverse pair as well
+        assertEquals(new BigDecimal("0.09059091"), table.getRate(sek, eur, new BigDecimal("100")));
+    }
+
+    @Test
+    void getRate_shouldUseDefaultSpreadAndReturnNullForMissingPairs() {
+        PriceTable table = pricingService.getTable("acme");
+        SupportedCurrency usd = currencyRegistry.resolve("USD");
+        SupportedCurrency sek = currencyRegistry.resolve("SEK");
+        SupportedCurrency eur = currencyRegistry.resolve("EUR");
+
+        // 10 * (1 - 20 bps half spread - 25 bps markup)
+        assertEquals(new BigDecimal("9.95500000"), table.getRate(usd, sek, new BigDecimal("100")));
+        assertNull(table.getRate(usd, eur, new BigDecimal("100")));
+        assertTrue(pricingService.isTenant("acme"));
+        assertFalse(pricingService.isTenant("other"));
+        assertNull(pricingService.getTable("other"));
+    }
+
+    @Test
+    void getRate_shouldNotChargeSameCurrencyConversionsOnAnyTier() {
+        PriceTable table = pricingService.getTable("acme");
+        SupportedCurrency sek = currencyRegistry.resolve("SEK");
+
+        assertEquals(new BigDecimal("1.00000000"), table.getRate(sek, sek, new BigDecimal("100")));
+        assertEquals(new BigDecimal("1.00000000"), table.getRate(sek, sek, new BigDecimal("1000000")));
+    }
+
+    @Test
+    void getTable_shouldFailClearlyBeforeFirstSnapshot() {
+        PricingService fresh = new PricingService(properties, currencyRegistry);
+
+        assertThrows(PricingUnavailableException.class, () -> fresh.getTable("acme"));
+        assertNull(fresh.getTable("other"));
+    }
+
+    @Test
+    void getRate_shouldPriceAtFirstTierWhenTierCurrencyRateIsMissing() {
+        // No SEK/USD rate: USD amounts cannot be tiered, so even large ones get the retail markup
+        RateSnapshot snapshot = new RateSnapshot(8, null, Map.of("USD/SEK", new BigDecimal("10.00000000")));
+        pricingService.onSnapshotPublished(new RateSnapshotPublishedEvent(RateSnapshot.EMPTY, snapshot));
+
+        PriceTable table = pricingService.getTable("acme");
+        SupportedCurrency usd = currencyRegistry.resolve("USD");
+        SupportedCurrency sek = currencyRegistry.resolve("SEK");
+
+        // 10 * (1 - 20 bps half spread - 25 bps markup)
+        assertEquals(new BigDecimal("9.95500000"), table.getRate(usd, sek, new BigDecimal("1000000000")));
+    }
+}
@@ -0,0 +1,79 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.exception.QuoteNotFoundException;
+import com.kleer.currency.model.Quote;
+import com.kleer.currency.model.RateSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QuoteServiceTest {
+
+    private static final long START_MILLIS = 1_750_000_000_000L;
+
+    private final RateSnapshotService rateSnapshotService = mock(RateSnapshotService.class);
+    private final AtomicLong clock = new AtomicLong(START_MILLIS);
+
+    private RateSnapshot current;
+    private QuoteService quoteService;
+
+    @BeforeEach
+    void setUp() {
+        current = new RateSnapshot(1, null, Map.of("EUR/SEK", new BigDecimal("10.92900000")));
+        when(rateSnapshotService.getCurrent()).thenAnswer(invocation -> current);
+        quoteService = new QuoteService(rateSnapshotService, new CurrencyRegistry(List.of("SEK", "EUR", "USD")),
+                30, 100, 250, clock::get);
+    }
+
+    @Test
+    void issue_shouldKeepQuotedRateAfterRefresh() {
+        Quote quote = quoteService.issue("eur", "SEK");
+
+        current = new RateSnapshot(2, null, Map.of("EUR/SEK", new BigDecimal("11.10000000")));
+        clock.addAndGet(10_000);
+
+        Quote live = quoteService.get(quote.externalId());
+        assertEquals(new BigDecimal("10.92900000"), live.rate());
+        assertEquals(1, live.snapshotVersion());
+        assertEquals(START_MILLIS + 30_000, live.expiresAtMillis());
+    }
+
+    @Test
+    void get_shouldRejectExpiredQuote() {
+        Quote quote = quoteService.issue("EUR", "SEK");
+
+        clock.addAndGet(29_999);
+        assertEquals(quote, quoteService.get(quote.externalId()));
+
+        clock.addAndGet(1);
+        assertThrows(QuoteNotFoundException.class, () -> quoteService.get(quote.externalId()));
+
+        clock.addAndGet(1_000);
+        assertEquals(1, quoteService.evictExpired());
+        assertEquals(0, quoteService.getLiveCount());
+    }
+
+    @Test
+    void take_shouldSettleQuoteOnce() {
+        Quote quote = quoteService.issue("EUR", "SEK");
+
+        quoteService.take(quote);
+
+        assertThrows(QuoteNotFoundException.class, () -> quoteService.take(quote));
+        assertThrows(QuoteNotFoundException.class, () -> quoteService.get(quote.externalId()));
+    }
+
+    @Test
+    void get_shouldRejectUnknownOrMalformedId() {
+        assertThrows(QuoteNotFoundException.class, () -> quoteService.get("zzzz"));
+        assertThrows(QuoteNotFoundException.class, () -> quoteService.get("not-a-quote"));
+    }
+}
@@ -0,0 +1,158 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.dto.RateDeltaResponse;
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.model.RateSnapshotPublishedEvent;
+import com.kleer.currency.repository.RateDeltaLogStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateDeltaServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final RateSnapshotService rateSnapshotService = mock(RateSnapshotService.class);
+
+    private RateSnapshot current = RateSnapshot.EMPTY;
+    private RateDeltaService rateDeltaService;
+
+    @BeforeEach
+    void setUp() {
+        when(rateSnapshotService.getCurrent()).thenAnswer(invocation -> current);
+        rateDeltaService = newService(4);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        rateDeltaService.close();
+    }
+
+    @Test
+    void getChangesSince_shouldMergeDeltasAfterSequence() {
+        publish(Map.of("EUR/SEK", "11.40", "USD/SEK", "10.50", "EUR/USD", "1.08"));
+        publish(Map.of("EUR/SEK", "11.45", "USD/SEK", "10.50", "EUR/USD", "1.08"));
+        publish(Map.of("EUR/SEK", "11.45", "USD/SEK", "10.40"));
+
+        RateDeltaResponse response = rateDeltaService.getChangesSince(1);
+
+        assertFalse(response.isFull());
+        assertEquals(1, response.getFromSequence());
+        assertEquals(3, response.getSequence());
+        assertEquals(Map.of("EUR/SEK", new BigDecimal("11.45"), "USD/SEK", new BigDecimal("10.40")), response.getChanged());
+        assertEquals(List.of("EUR/USD"), response.getRemoved());
+
+        RateDeltaResponse upToDate = rateDeltaService.getChangesSince(3);
+        assertFalse(upToDate.isFull());
+        assertTrue(upToDate.getChanged().isEmpty());
+    }
+
+    @Test
+    void getChangesSince_shouldReturnFullSetWhenTooFarBehind() {
+        for (int i = 0; i < 6; i++) {
+            publish(Map.of("EUR/SEK", "11.4" + i, "USD/SEK", "10.50"));
+        }
+
+        RateDeltaResponse behind = rateDeltaService.getChangesSince(1);
+        assertTrue(behind.isFull());
+        assertEquals(6, behind.getSequence());
+        assertEquals(2, behind.getChanged().size());
+
+        RateDeltaResponse retained = rateDeltaService.getChangesSince(2);
+        assertFalse(retained.isFull());
+        assertEquals(Map.of("EUR/SEK", new BigDecimal("11.45")), retained.getChanged());
+
+        assertTrue(rateDeltaService.getChangesSince(99).isFull());
+    }
+
+    @Test
+    void load_shouldRestoreDeltasFromLog() throws Exception {
+        publish(Map.of("EUR/SEK", "11.40"));
+        publish(Map.of("EUR/SEK", "11.50"));
+        rateDeltaService.close();
+
+        rateDeltaService = newService(4);
+        rateDeltaService.onSnapshotPublished(new RateSnapshotPublishedEvent(RateSnapshot.EMPTY, current));
+
+        assertEquals(2, rateDeltaService.getSequence());
+        RateDeltaResponse response = rateDeltaService.getChangesSince(1);
+        assertFalse(response.isFull());
+        assertEquals(Map.of("EUR/SEK", new BigDecimal("11.50")), response.getChanged());
+    }
+
+    @Test
+    void onSnapshotPublished_shouldResyncClientsWhenVersionGoesBack() {
+        publish(Map.of("EUR/SEK", "11.40"));
+        publish(Map.of("EUR/SEK", "11.50"));
+        publish(Map.of("EUR/SEK", "11.60"));
+        DeferredResult<ResponseEntity<RateDeltaResponse>> waiting = rateDeltaService.awaitChangesSince(3, 10_000);
+
+        // A new leader restarts the versions lower
+        RateSnapshot previous = current;
+        current = new RateSnapshot(1, LocalDateTime.of(2025, 11, 4, 16, 15),
+                Map.of("EUR/SEK", new BigDecimal("11.70")));
+        rateDeltaService.onSnapshotPublished(new RateSnapshotPublishedEvent(previous, current));
+
+        assertEquals(0, rateDeltaService.getSequence());
+        assertTrue(waiting.hasResult());
+        @SuppressWarnings("unchecked")
+        ResponseEntity<RateDeltaResponse> response = (ResponseEntity<RateDeltaResponse>) waiting.getResult();
+        assertTrue(response.getBody().isFull());
+        assertEquals(1, response.getBody().getSequence());
+        assertEquals(Map.of("EUR/SEK", new BigDecimal("11.70")), response.getBody().getChanged());
+
+        // The feed continues from the new versions
+        publish(Map.of("EUR/SEK", "11.80"));
+        assertEquals(2, rateDeltaService.getSequence());
+        RateDeltaResponse next = rateDeltaService.getChangesSince(1);
+        assertFalse(next.isFull());
+        assertEquals(Map.of("EUR/SEK", new BigDecimal("11.80")), next.getChanged());
+    }
+
+    @Test
+    void awaitChangesSince_shouldCompleteWhenNextDeltaIsPublished() {
+        publish(Map.of("EUR/SEK", "11.40"));
+
+        DeferredResult<ResponseEntity<RateDeltaResponse>> result = rateDeltaService.awaitChangesSince(1, 10_000);
+        assertFalse(result.hasResult());
+
+        publish(Map.of("EUR/SEK", "11.50"));
+
+        assertTrue(result.hasResult());
+        @SuppressWarnings("unchecked")
+        ResponseEntity<RateDeltaResponse> response = (ResponseEntity<RateDeltaResponse>) result.getResult();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().getSequence());
+    }
+
+    private RateDeltaService newService(int retention) {
+        RateDeltaLogStore logStore = new RateDeltaLogStore(tempDir.resolve("rate-deltas.log").toString(), retention);
+        RateDeltaService service = new RateDeltaService(rateSnapshotService, logStore, true, retention, 30_000);
+        service.load();
+        return service;
+    }
+
+    private void publish(Map<String, String> rates) {
+        RateSnapshot previous = current;
+        Map<String, BigDecimal> parsed = new HashMap<>();
+        rates.forEach((key, value) -> parsed.put(key, new BigDecimal(value)));
+        current = new RateSnapshot(previous.version() + 1, LocalDateTime.of(2025, 11, 3, 16, 15), parsed);
+        rateDeltaService.onSnapshotPublished(new RateSnapshotPublishedEvent(previous, current));
+    }
+}
@@ -0,0 +1,121 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.model.CurrencyPair;
+import com.kleer.currency.model.RateExport;
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.repository.RateHistoryStore;
+import com.kleer.currency.service.RateExportService.ExportFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateExportServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2024, 1, 2, 12, 0);
+
+    @TempDir
+    Path tempDir;
+
+    private final RateSnapshotService rateSnapshotService = mock(RateSnapshotService.class);
+    private RateHistoryStore rateHistoryStore;
+    private RateExportService rateExportService;
+
+    @BeforeEach
+    void setUp() {
+        rateHistoryStore = new RateHistoryStore(tempDir.resolve("history").toString(), 4);
+        rateExportService = new RateExportService(rateSnapshotService, rateHistoryStore,
+                tempDir.resolve("export").toString());
+    }
+
+    @Test
+    void getExport_shouldReturnNullBeforeFirstRefresh() {
+        when(rateSnapshotService.getCurrent()).thenReturn(RateSnapshot.EMPTY);
+
+        assertNull(rateExportService.getExport(RateExport.LATEST));
+    }
+
+    @Test
+    void getExport_shouldWriteSortedHistoryAcrossSegments() throws IOException {
+        for (int day = 0; day < 6; day++) {
+            rateHistoryStore.append(new CurrencyPair("USD", "SEK"), START.plusDays(day), BigDecimal.valueOf(10 + day));
+        }
+        rateHistoryStore.append(new CurrencyPair("EUR", "SEK"), START, new BigDecimal("11.25"));
+        when(rateSnapshotService.getCurrent()).thenReturn(snapshot(1));
+
+        List<String> lines = read(rateExportService.getExport(RateExport.HISTORY));
+
+        assertEquals(8, lines.size());
+        assertEquals("from,to,date,rate", lines.get(0));
+        assertEquals("EUR,SEK,2024-01-01,11.25000000", lines.get(1));
+        assertEquals("USD,SEK,2024-01-01,10.00000000", lines.get(2));
+        assertEquals("USD,SEK,2024-01-06,15.00000000", lines.get(7));
+    }
+
+    @Test
+    void getExport_shouldReuseFilePerVersionAndKeepOnlyPreviousVersion() throws IOException {
+        when(rateSnapshotService.getCurrent()).thenReturn(snapshot(1));
+        ExportFile first = rateExportService.getExport(RateExport.LATEST);
+        assertEquals(first.path(), rateExportService.getExport(RateExport.LATEST).path());
+        assertEquals(List.of("from,to,rate,last_updated", "EUR,SEK,11.25," + UPDATED,
+                "SEK,EUR,0.08888889," + UPDATED), read(first));
+
+        when(rateSnapshotService.getCurrent()).thenReturn(snapshot(2));
+        ExportFile second = rateExportService.getExport(RateExport.LATEST);
+        when(rateSnapshotService.getCurrent()).thenReturn(snapshot(5));
+        ExportFile third = rateExportService.getExport(RateExport.LATEST);
+
+        assertFalse(Files.exists(first.path()));
+        assertTrue(Files.exists(second.path()));
+        assertTrue(Files.exists(third.path()));
+        assertEquals("5", third.tag());
+    }
+
+    @Test
+    void getExport_shouldNameHistoryRevisionsByMergeStampAcrossRestarts() throws IOException {
+        CurrencyPair pair = new CurrencyPair("EUR", "SEK");
+        rateHistoryStore.merge(pair, new int[]{(int) START.toEpochDay()}, new long[]{11_25000000L}, 1);
+        when(rateSnapshotService.getCurrent()).thenReturn(snapshot(1));
+        ExportFile first = rateExportService.getExport(RateExport.HISTORY);
+        assertEquals("1." + rateHistoryStore.getMergeStamp(), first.tag());
+
+        // After a restart the same history keeps its name and a new import gets a new one
+        setUp();
+        rateHistoryStore.open();
+        assertEquals(first.path(), rateExportService.getExport(RateExport.HISTORY).path());
+
+        rateHistoryStore.merge(pair, new int[]{(int) START.toEpochDay()}, new long[]{11_30000000L}, 1);
+        ExportFile second = rateExportService.getExport(RateExport.HISTORY);
+
+        assertNotEquals(first.path(), second.path());
+        assertEquals("EUR,SEK,2024-01-01,11.30000000", read(second).get(1));
+    }
+
+    private static RateSnapshot snapshot(long version) {
+        return new RateSnapshot(version, UPDATED, Map.of(
+                "SEK/EUR", new BigDecimal("0.08888889"),
+                "EUR/SEK", new BigDecimal("11.25")));
+    }
+
+    private static List<String> read(ExportFile file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file.path()))) {
+            return new String(in.readAllBytes(), StandardCharsets.US_ASCII).lines().toList();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.model.CurrencyPair;
+import com.kleer.currency.model.RateHistoryImportedEvent;
+import com.kleer.currency.repository.RateHistoryStore;
+import com.kleer.currency.util.CacheStats;
+import com.kleer.currency.util.TinyLfuLongCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateHistoryCacheTest {
+
+    private static final CurrencyPair EUR_SEK = new CurrencyPair("EUR", "SEK");
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+    private static final int START_DAY = (int) START.toEpochDay();
+
+    @TempDir
+    Path tempDir;
+
+    private RateHistoryStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RateHistoryStore(tempDir.toString(), 4);
+        store.append(EUR_SEK, START, new BigDecimal("10.1"));
+        store.append(EUR_SEK, START.plusDays(2), new BigDecimal("10.3"));
+    }
+
+    @Test
+    void findRateAsOf_shouldCacheOnlyDatesBeforeLatestObservation() {
+        RateHistoryCache cache = newCache(16, 0);
+
+        assertRate("10.1", cache.findRateAsOf(EUR_SEK, START.plusDays(1)));
+        assertRate("10.1", cache.findRateAsOf(EUR_SEK, START.plusDays(1)));
+        assertEquals(Optional.empty(), cache.findRateAsOf(EUR_SEK, START.minusDays(1)));
+        assertEquals(Optional.empty(), cache.findRateAsOf(EUR_SEK, START.minusDays(1)));
+        assertRate("10.3", cache.findRateAsOf(EUR_SEK, START.plusDays(3)));
+
+        store.append(EUR_SEK, START.plusDays(3), new BigDecimal("10.4"));
+        assertRate("10.4", cache.findRateAsOf(EUR_SEK, START.plusDays(3)));
+
+        CacheStats stats = cache.getHeapStats();
+        assertEquals(2, stats.hits());
+        assertEquals(4, stats.misses());
+        assertEquals(2, stats.size());
+    }
+
+    @Test
+    void findRateAsOf_shouldSpillToOffHeapAndInvalidateRewrittenPairs() {
+        RateHistoryCache cache = newCache(1, 16);
+
+        assertRate("10.1", cache.findRateAsOf(EUR_SEK, START));
+        assertRate("10.1", cache.findRateAsOf(EUR_SEK, START.plusDays(1)));
+        assertRate("10.1", cache.findRateAsOf(EUR_SEK, START));
+        assertEquals(1, cache.getOffHeapStats().hits());
+        assertEquals(2, cache.getHeapStats().evictions());
+
+        store.merge(EUR_SEK, new int[]{START_DAY + 1}, new long[]{RateHistoryStore.toScaled(new BigDecimal("10.2"))}, 1);
+        cache.onHistoryImported(new RateHistoryImportedEvent(Set.of(EUR_SEK)));
+        assertEquals(0, cache.getHeapStats().size());
+        assertEquals(0, cache.getOffHeapStats().size());
+
+        assertRate("10.2", cache.findRateAsOf(EUR_SEK, START.plusDays(1)));
+        assertRate("10.1", cache.findRateAsOf(EUR_SEK, START));
+    }
+
+    private RateHistoryCache newCache(int heapEntries, int offHeapEntries) {
+        return new RateHistoryCache(store, new CurrencyRegistry(List.of("SEK", "EUR")), true,
+                heapEntries, offHeapEntries, TinyLfuLongCache.Eviction.TINY_LFU);
+    }
+
+    private static void assertRate(String expected, Optional<BigDecimal> actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual.orElseThrow()));
+    }
+}
@@ -0,0 +1,122 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.dto.RateImportResponse;
+import com.kleer.currency.model.CurrencyPair;
+import com.kleer.currency.model.RateHistoryImportedEvent;
+import com.kleer.currency.repository.RateHistoryStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class RateImportServiceTest {
+
+    private static final CurrencyPair EUR_SEK = new CurrencyPair("EUR", "SEK");
+    private static final CurrencyPair SEK_EUR = new CurrencyPair("SEK", "EUR");
+    private static final CurrencyPair USD_SEK = new CurrencyPair("USD", "SEK");
+
+    @TempDir
+    Path tempDir;
+
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private RateHistoryStore rateHistoryStore;
+    private RateImportService rateImportService;
+
+    @BeforeEach
+    void setUp() {
+        rateHistoryStore = new RateHistoryStore(tempDir.resolve("history").toString(), 4);
+        // Tiny batches and chunks so the test crosses batch and chunk boundaries
+        rateImportService = new RateImportService(new CurrencyRegistry(List.of("SEK", "EUR", "USD")),
+                rateHistoryStore, eventPublisher, tempDir.toString(), 128, 16, 2);
+    }
+
+    @Test
+    void importFile_shouldLoadValidRowsWithInversesAndReportRejections() throws IOException {
+        Files.writeString(tempDir.resolve("rates.csv"), """
+                from,to,date,rate
+                eur,SEK,2020-01-02,10.5
+                "EUR","SEK",2020-01-01,10.25
+                USD,SEK,2020-01-01,9.123456785
+                EUR,SEK,2020-01-02,10.6
+                GBP,SEK,2020-01-01,12.0
+                EUR,SEK,2020-02-30,10.0
+                EUR,SEK,2020-01-03,-1
+
+                SEK,EUR,2020-01-03,0.1
+                """);
+
+        RateImportResponse response = rateImportService.importFile("rates.csv", false);
+
+        assertEquals(8, response.getRows());
+        assertEquals(3, response.getRejected());
+        assertEquals(3, response.getRejections().size());
+        assertEquals(4 * 2, response.getAdded());
+        assertEquals(0, response.getSkipped());
+
+        // Later rows win for the same date
+        assertRate("10.6", EUR_SEK, 1);
+        assertRate("10.25", EUR_SEK, 0);
+        assertRate("10", EUR_SEK, 2);
+        assertRate("0.1", SEK_EUR, 2);
+        assertRate("0.09756098", SEK_EUR, 0);
+        assertRate("9.12345679", USD_SEK, 0);
+        verify(eventPublisher).publishEvent(new RateHistoryImportedEvent(
+                Set.of(EUR_SEK, SEK_EUR, USD_SEK, new CurrencyPair("SEK", "USD"))));
+    }
+
+    @Test
+    void importFile_shouldMergeOlderHistoryAndResumeOrRestart() throws IOException {
+        rateHistoryStore.append(EUR_SEK, LocalDate.of(2020, 1, 10), new BigDecimal("11"));
+        Files.writeString(tempDir.resolve("rates.jsonl"), """
+                {"from":"EUR","to":"SEK","date":"2020-01-01","rate":10.25}
+                {"fromCurrency":"EUR","toCurrency":"SEK","date":"2020-01-10","rate":"10.9","source":{"id":1}}
+                {"from":"EUR","to":"SEK","date":"2020-01-11"}
+                not json
+                """);
+
+        RateImportResponse first = rateImportService.importFile("rates.jsonl", false);
+        RateImportResponse resumed = rateImportService.importFile("rates.jsonl", false);
+        RateImportResponse restarted = rateImportService.importFile("rates.jsonl", true);
+
+        assertEquals(4, first.getRows());
+        assertEquals(2, first.getRejected());
+        assertEquals(4, first.getAdded());
+        assertEquals(0, first.getSkipped());
+        assertRate("10.25", EUR_SEK, 0);
+        // Imported rates replace stored ones
+        assertRate("10.9", EUR_SEK, 9);
+
+        assertEquals(Files.size(tempDir.resolve("rates.jsonl")), resumed.getResumedFromOffset());
+        assertEquals(first.getAdded(), resumed.getAdded());
+
+        assertEquals(0, restarted.getResumedFromOffset());
+        assertEquals(0, restarted.getAdded());
+        assertEquals(4, restarted.getSkipped());
+    }
+
+    @Test
+    void importFile_shouldRejectFilesOutsideImportDirectoryAndUnknownFormats() throws IOException {
+        Files.writeString(tempDir.resolve("rates.txt"), "EUR,SEK,2020-01-01,10\n");
+
+        assertThrows(IllegalArgumentException.class, () -> rateImportService.importFile("../rates.csv", false));
+        assertThrows(IllegalArgumentException.class, () -> rateImportService.importFile("missing.csv", false));
+        assertThrows(IllegalArgumentException.class, () -> rateImportService.importFile("rates.txt", false));
+    }
+
+    private void assertRate(String expected, CurrencyPair pair, int day) {
+        BigDecimal rate = rateHistoryStore.findRateAsOf(pair, LocalDate.of(2020, 1, 1).plusDays(day)).orElseThrow();
+        assertEquals(0, new BigDecimal(expected).compareTo(rate), pair + " on day " + day + " was " + rate);
+    }
+}
@@ -0,0 +1,78 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.model.RateSnapshotPublishedEvent;
+import com.kleer.currency.model.ReplicationRole;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicationServiceTest {
+
+    @Mock
+    private SnapshotTransport transport;
+
+    @Mock
+    private ExchangeRateService exchangeRateService;
+
+    @Mock
+    private RateSnapshotService rateSnapshotService;
+
+    @Test
+    void pull_shouldApplyNewerSnapshotFromLeader() throws Exception {
+        ReplicationService follower = service(ReplicationRole.FOLLOWER);
+        RateSnapshot newer = snapshot(8);
+        when(rateSnapshotService.getCurrent()).thenReturn(snapshot(7));
+        when(transport.fetchNewerThan(7)).thenReturn(Optional.of(newer));
+        when(exchangeRateService.applyReplicatedSnapshot(newer)).thenReturn(true);
+
+        assertTrue(follower.pull());
+        verify(exchangeRateService).applyReplicatedSnapshot(newer);
+    }
+
+    @Test
+    void pull_shouldDoNothingWhenLeaderHasNothingNewerOrIsUnreachable() throws Exception {
+        ReplicationService follower = service(ReplicationRole.FOLLOWER);
+        when(rateSnapshotService.getCurrent()).thenReturn(snapshot(7));
+        when(transport.fetchNewerThan(7)).thenReturn(Optional.empty()).thenThrow(new IOException("connection refused"));
+
+        assertFalse(follower.pull());
+        assertFalse(follower.pull());
+        verify(exchangeRateService, never()).applyReplicatedSnapshot(any());
+    }
+
+    @Test
+    void onSnapshotPublished_shouldShipSnapshotsOnlyFromTheLeader() throws Exception {
+        RateSnapshot published = snapshot(8);
+        RateSnapshotPublishedEvent event = new RateSnapshotPublishedEvent(snapshot(7), published);
+
+        service(ReplicationRole.FOLLOWER).onSnapshotPublished(event);
+        service(ReplicationRole.STANDALONE).onSnapshotPublished(event);
+        verify(transport, never()).publish(any());
+
+        service(ReplicationRole.LEADER).onSnapshotPublished(event);
+        verify(transport).publish(published);
+    }
+
+    private ReplicationService service(ReplicationRole role) {
+        return new ReplicationService(new StaticLeaderElection(role, rateSnapshotService, 1),
+                transport, exchangeRateService, rateSnapshotService, role, 1000);
+    }
+
+    private static RateSnapshot snapshot(long version) {
+        return new RateSnapshot(version, LocalDateTime.of(2025, 11, 3, 16, 15),
+                Map.of("EUR/SEK", new BigDecimal("11.40")));
+    }
+}
@@ -2,6 +2,7 @@ package com.kleer.currency.service;
 
 import com.kleer.currency.dto.riksbank.RiksbankObservation;
 import com.kleer.currency.exception.RiksbankApiException;
+import com.kleer.currency.model.RiksbankSeries;
 import com.kleer.currency.util.ExchangeRateCalculator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,7 +40,14 @@ class RiksbankServiceTest {
 
     @BeforeEach
     void setUp() {
-        riksbankService = new RiksbankService(restTemplate, RIKSBANK_BASE_URL, rateCalculator);
+        riksbankService = createService(new CurrencyRegistry("SEK", List.of(
+                new RiksbankSeries("EUR", "SEKEURPMI", 1),
+                new RiksbankSeries("USD", "SEKUSDPMI", 1))));
+    }
+
+    private RiksbankService createService(CurrencyRegistry registry) {
+        return new RiksbankService(restTemplate, RIKSBANK_BASE_URL, rateCalculator,
+                new HedgedRequestExecutor(false, 0.95, 50, 10, 64, 0.1, 2), registry, 4);
     }
 
     @Test
@@ -74,7 +82,7 @@ class RiksbankServiceTest {
         expectedRates.put("EUR/USD", new BigDecimal("1.05131421"));
         expectedRates.put("USD/EUR", new BigDecimal("0.95119454"));
 
-        when(rateCalculator.calculateAllRates(any(BigDecimal.class), any(BigDecimal.class)))
+        when(rateCalculator.calculateAllRates(eq("SEK"), anyMap()))
                 .thenReturn(expectedRates);
 
         Map<String, BigDecimal> rates = riksbankService.fetchLatestRates();
@@ -88,10 +96,33 @@ class RiksbankServiceTest {
         assertTrue(rates.containsKey("EUR/USD"));
         assertTrue(rates.containsKey("USD/EUR"));
 
-        verify(rateCalculator).calculateAllRates(
-                eq(new BigDecimal("0.0915")),
-                eq(new BigDecimal("0.0962"))
-        );
+        verify(rateCalculator).calculateAllRates("SEK", Map.of(
+                "EUR", new BigDecimal("0.0915"),
+                "USD", new BigDecimal("0.0962")));
+    }
+
+    @Test
+    void fetchLatestRates_shouldScaleSeriesQuotedPerHundredUnits() {
+        riksbankService = createService(new CurrencyRegistry("SEK", List.of(
+                new RiksbankSeries("JPY", "SEKJPYPMI", 100))));
+
+        RiksbankObservation sekJpyObs = new RiksbankObservation();
+        sekJpyObs.setDate("2025-11-03");
+        sekJpyObs.setValue("6.25");
+
+        when(restTemplate.exchange(
+                contains("SEKJPYPMI"),
+                eq(HttpMethod.GET),
+                isNull(),
+                any(ParameterizedTypeReference.class)
+        )).thenReturn(new ResponseEntity<>(List.of(sekJpyObs), HttpStatus.OK));
+
+        when(rateCalculator.calculateAllRates(eq("SEK"), anyMap()))
+                .thenReturn(Map.of("JPY/SEK", new BigDecimal("0.0625")));
+
+        riksbankService.fetchLatestRates();
+
+        verify(rateCalculator).calculateAllRates("SEK", Map.of("JPY", new BigDecimal("0.0625")));
     }
 
     @Test
@@ -103,7 +134,7 @@ class RiksbankServiceTest {
                 any(ParameterizedTypeReference.class)
         )).thenThrow(new RestClientException("API Error"));
 
-        when(rateCalculator.calculateAllRates(isNull(), isNull()))
+        when(rateCalculator.calculateAllRates(eq("SEK"), anyMap()))
                 .thenReturn(new HashMap<>());
 
         assertThrows(RiksbankApiException.class, () -> riksbankService.fetchLatestRates());
@@ -0,0 +1,45 @@
+package com.kleer.currency.service;
+
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.model.ReplicationRole;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StaticLeaderElectionTest {
+
+    private final RateSnapshotService rateSnapshotService = mock(RateSnapshotService.class);
+
+    @Test
+    void claimNextVersion_shouldStayAboveVersionsOfEarlierGenerations() {
+        long firstStart = 1_762_000_000L;
+        StaticLeaderElection leader = new StaticLeaderElection(ReplicationRole.LEADER, rateSnapshotService, firstStart);
+        when(rateSnapshotService.getCurrent()).thenReturn(RateSnapshot.EMPTY);
+        long first = leader.claimNextVersion();
+
+        when(rateSnapshotService.getCurrent()).thenReturn(new RateSnapshot(first, null, Map.of()));
+        assertEquals(first + 1, leader.claimNextVersion());
+
+        // Restarted without its snapshot file: numbering starts over from nothing
+        StaticLeaderElection restarted = new StaticLeaderElection(ReplicationRole.LEADER, rateSnapshotService, firstStart + 60);
+        when(rateSnapshotService.getCurrent()).thenReturn(RateSnapshot.EMPTY);
+        long afterRestart = restarted.claimNextVersion();
+
+        assertTrue(afterRestart > first + 1);
+        assertTrue(afterRestart < 1L << 53);
+    }
+
+    @Test
+    void claimNextVersion_shouldLeaveNumberingToSnapshotServiceWithoutReplication() {
+        StaticLeaderElection standalone = new StaticLeaderElection(ReplicationRole.STANDALONE, rateSnapshotService, 1);
+        StaticLeaderElection follower = new StaticLeaderElection(ReplicationRole.FOLLOWER, rateSnapshotService, 1);
+
+        assertTrue(standalone.isLeader());
+        assertEquals(0, standalone.claimNextVersion());
+        assertFalse(follower.isLeader());
+    }
+}
@@ -0,0 +1,69 @@
+package com.kleer.currency.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    @Test
+    void tryAcquire_shouldGiveLowerPrioritiesASmallerShare() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(0.5));
+        }
+        assertFalse(limiter.tryAcquire(0.5));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(1.0));
+        }
+        assertFalse(limiter.tryAcquire(1.0));
+
+        limiter.release();
+        assertTrue(limiter.tryAcquire(1.0));
+        assertEquals(10, limiter.getInFlight());
+    }
+
+    @Test
+    void release_shouldGrowLimitAtSteadyLatencyAndShrinkWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200);
+
+        runAtFullLoad(limiter, 5 * MILLI, 200);
+        int grown = limiter.getLimit();
+        assertTrue(grown > 20, "limit grew to " + grown);
+
+        runAtFullLoad(limiter, 50 * MILLI, 200);
+        int shrunk = limiter.getLimit();
+        assertTrue(shrunk < grown / 2, "limit shrank to " + shrunk);
+        assertTrue(shrunk >= 4);
+    }
+
+    @Test
+    void release_shouldIgnoreLatencyWhileMostlyIdle() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire(1.0));
+            limiter.release(i < 50 ? MILLI : 100 * MILLI, false);
+        }
+
+        assertEquals(20, limiter.getLimit());
+    }
+
+    /**
+     * Keep the limiter saturated and complete requests at the given latency.
+     */
+    private static void runAtFullLoad(AdaptiveConcurrencyLimiter limiter, long latencyNanos, int requests) {
+        for (int i = 0; i < requests; i++) {
+            while (limiter.tryAcquire(1.0)) {
+                // fill every permit
+            }
+            limiter.release(latencyNanos, false);
+        }
+        while (limiter.getInFlight() > 0) {
+            limiter.release();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.kleer.currency.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CallbackUrlsTest {
+
+    @Test
+    void isPublic_shouldRejectNonGlobalAddresses() throws Exception {
+        for (String address : List.of("127.0.0.1", "10.1.2.3", "172.16.0.1", "192.168.1.1", "169.254.169.254",
+                "0.0.0.0", "0.1.2.3", "100.64.0.1", "100.127.255.254", "192.0.0.8", "192.0.2.1",
+                "198.18.0.1", "198.19.255.1", "198.51.100.1", "203.0.113.1", "240.0.0.1", "255.255.255.255",
+                "224.0.0.1", "::1", "::", "fd00::1", "fe80::1", "2001:db8::1",
+                "64:ff9b::a9fe:a9fe", "64:ff9b::6440:1", "::7f00:1", "2002:a00:1::1")) {
+            assertFalse(CallbackUrls.isPublic(InetAddress.getByName(address)), address);
+        }
+    }
+
+    @Test
+    void isPublic_shouldAcceptGlobalAddresses() throws Exception {
+        for (String address : List.of("8.8.8.8", "100.63.255.255", "100.128.0.1", "198.17.255.255",
+                "198.20.0.1", "2606:4700::1111", "64:ff9b::808:808", "2002:808:808::1")) {
+            assertTrue(CallbackUrls.isPublic(InetAddress.getByName(address)), address);
+        }
+    }
+
+    @Test
+    void resolve_shouldRefuseHostsWithNonPublicAddresses() throws Exception {
+        assertThrows(UnknownHostException.class, () -> PublicAddressResolver.INSTANCE.resolve("127.0.0.1"));
+        assertThrows(UnknownHostException.class, () -> PublicAddressResolver.INSTANCE.resolve("100.64.0.1"));
+
+        assertArrayEquals(new InetAddress[]{InetAddress.getByName("8.8.8.8")},
+                PublicAddressResolver.INSTANCE.resolve("8.8.8.8"));
+    }
+}
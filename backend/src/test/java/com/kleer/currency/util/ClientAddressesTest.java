@@ -0,0 +1,63 @@
+package com.kleer.currency.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientAddressesTest {
+
+    @Test
+    void clientKey_shouldKeyIpv4OnAddressAndIpv6OnSlash64() {
+        ClientAddresses addresses = new ClientAddresses(List.of());
+
+        assertEquals("203.0.113.7", addresses.clientKey("203.0.113.7", null));
+        assertEquals("20010db812340001::/64", addresses.clientKey("2001:db8:1234:1::1", null));
+        assertEquals(addresses.clientKey("2001:db8:1234:1::1", null),
+                addresses.clientKey("2001:db8:1234:1:abcd:ef01:2345:6789", null));
+        assertNotEquals(addresses.clientKey("2001:db8:1234:1::1", null),
+                addresses.clientKey("2001:db8:1234:2::1", null));
+    }
+
+    @Test
+    void clientKey_shouldIgnoreForwardedForFromUntrustedPeer() {
+        ClientAddresses addresses = new ClientAddresses(List.of("10.0.0.1"));
+
+        assertEquals("203.0.113.7", addresses.clientKey("203.0.113.7", "198.51.100.1"));
+    }
+
+    @Test
+    void clientKey_shouldTakeRightmostUntrustedForwardedAddressBehindTrustedProxies() {
+        ClientAddresses addresses = new ClientAddresses(List.of("10.0.0.0/8", "192.0.2.1"));
+
+        assertEquals("198.51.100.1", addresses.clientKey("10.1.2.3", "198.51.100.1"));
+        // The leftmost entry is client-supplied and ignored
+        assertEquals("198.51.100.1",
+                addresses.clientKey("10.1.2.3", "6.6.6.6, 198.51.100.1, 192.0.2.1, 10.9.9.9"));
+        assertEquals("20010db800000001::/64", addresses.clientKey("10.1.2.3", "2001:db8:0:1::42"));
+    }
+
+    @Test
+    void clientKey_shouldStopAtMalformedOrHostNameHop() {
+        ClientAddresses addresses = new ClientAddresses(List.of("10.0.0.0/8"));
+
+        assertEquals("10.0.0.2", addresses.clientKey("10.1.2.3", "198.51.100.1, localhost, 10.0.0.2"));
+        assertEquals("10.1.2.3", addresses.clientKey("10.1.2.3", "unknown"));
+        assertEquals("10.1.2.3", addresses.clientKey("10.1.2.3", "010.1.2.3"));
+    }
+
+    @Test
+    void clientKey_shouldReturnNonLiteralRemoteAddressAsIs() {
+        ClientAddresses addresses = new ClientAddresses(List.of());
+
+        assertEquals("local-socket", addresses.clientKey("local-socket", "198.51.100.1"));
+    }
+
+    @Test
+    void constructor_shouldRejectInvalidTrustedProxies() {
+        assertThrows(IllegalArgumentException.class, () -> new ClientAddresses(List.of("proxy.internal")));
+        assertThrows(IllegalArgumentException.class, () -> new ClientAddresses(List.of("10.0.0.0/33")));
+        assertThrows(IllegalArgumentException.class, () -> new ClientAddresses(List.of("10.0.0.0/x")));
+    }
+}
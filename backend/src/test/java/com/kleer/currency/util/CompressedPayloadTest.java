@@ -0,0 +1,41 @@
+package com.kleer.currency.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedPayloadTest {
+
+    @Test
+    void of_shouldCompressToSmallerBodyThatInflatesToIdentity() throws Exception {
+        byte[] identity = "{\"fromCurrency\":\"EUR\",\"toCurrency\":\"SEK\",\"rate\":10.929}".repeat(100)
+                .getBytes(StandardCharsets.UTF_8);
+
+        CompressedPayload payload = CompressedPayload.of(identity);
+
+        assertSame(identity, payload.identity());
+        assertTrue(payload.gzip().length < identity.length / 10);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(payload.gzip()))) {
+            assertArrayEquals(identity, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void acceptsGzip_shouldHonourCodingsAndQualityValues() {
+        assertTrue(CompressedPayload.acceptsGzip("gzip"));
+        assertTrue(CompressedPayload.acceptsGzip("gzip, deflate, br"));
+        assertTrue(CompressedPayload.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(CompressedPayload.acceptsGzip("*"));
+
+        assertFalse(CompressedPayload.acceptsGzip(null));
+        assertFalse(CompressedPayload.acceptsGzip("identity"));
+        assertFalse(CompressedPayload.acceptsGzip("br, deflate"));
+        assertFalse(CompressedPayload.acceptsGzip("gzip;q=0"));
+        assertFalse(CompressedPayload.acceptsGzip("gzip;q=0, *"));
+        assertFalse(CompressedPayload.acceptsGzip("*;q=0"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.kleer.currency.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+class ConversionKernelTest {
+
+    private static final int AMOUNTS = 10_003;
+
+    @Test
+    void scalarKernel_shouldMatchBigDecimalHalfUp() {
+        assertMatchesBigDecimal(new ScalarConversionKernel());
+    }
+
+    @Test
+    void vectorKernel_shouldMatchBigDecimalHalfUp() {
+        ConversionKernel kernel = ConversionKernel.create(true);
+
+        // Only built and loaded with the vector profile, on hardware it supports
+        assumeFalse(kernel instanceof ScalarConversionKernel, "Vector kernel not available");
+        assertMatchesBigDecimal(kernel);
+    }
+
+    @Test
+    void toScaled_shouldOnlyAcceptValuesTheKernelConvertsExactly() {
+        assertEquals(1_234_500, ConversionKernel.toScaledAmount(new BigDecimal("12345")));
+        assertEquals(123, ConversionKernel.toScaledAmount(new BigDecimal("1.2300")));
+        assertEquals(-1, ConversionKernel.toScaledAmount(new BigDecimal("1.235")));
+        assertEquals(-1, ConversionKernel.toScaledAmount(new BigDecimal("100000000")));
+        assertEquals(-1, ConversionKernel.toScaledAmount(new BigDecimal("-1")));
+
+        assertEquals(1_092_900_000, ConversionKernel.toScaledRate(new BigDecimal("10.929")));
+        assertEquals(9_150_000, ConversionKernel.toScaledRate(new BigDecimal("0.091500000")));
+        assertEquals(0, ConversionKernel.toScaledRate(new BigDecimal("0.091500001")));
+        assertEquals(0, ConversionKernel.toScaledRate(BigDecimal.ZERO));
+
+        assertInstanceOf(ScalarConversionKernel.class, ConversionKernel.create(false));
+    }
+
+    private static void assertMatchesBigDecimal(ConversionKernel kernel) {
+        Random random = new Random(42);
+        long[] rates = {1, 9_150_000, 1_092_900_000, 50_000_000, 99_999_999, 1_000_000_000_000L,
+                ConversionKernel.MAX_RATE, random.nextLong(1, ConversionKernel.MAX_RATE)};
+        long[] amounts = new long[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            amounts[i] = switch (i % 4) {
+                case 0 -> random.nextLong(100_000);
+                case 1 -> random.nextLong(ConversionKernel.MAX_AMOUNT + 1);
+                case 2 -> ConversionKernel.MAX_AMOUNT - i;
+                default -> i;
+            };
+        }
+
+        for (long rate : rates) {
+            long[] results = new long[AMOUNTS];
+            kernel.convert(amounts, results, 1, AMOUNTS - 1, rate);
+
+            assertEquals(0, results[0], "outside the range");
+            for (int i = 1; i < AMOUNTS; i++) {
+                BigDecimal expected = BigDecimal.valueOf(amounts[i], 2)
+                        .multiply(BigDecimal.valueOf(rate, 8))
+                        .setScale(2, RoundingMode.HALF_UP);
+                assertEquals(expected.unscaledValue().longValueExact(), results[i],
+                        () -> kernel.name() + " " + rate);
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.kleer.currency.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExchangeRateCalculatorTest {
+
+    private final ExchangeRateCalculator calculator = new ExchangeRateCalculator();
+
+    @Test
+    void calculateAllRates_shouldTriangulateEveryPairViaBaseCurrency() {
+        Map<String, BigDecimal> ratesToBase = new LinkedHashMap<>();
+        ratesToBase.put("EUR", new BigDecimal("11"));
+        ratesToBase.put("USD", new BigDecimal("10"));
+        ratesToBase.put("GBP", null);
+        ratesToBase.put("NOK", new BigDecimal("0.95"));
+
+        Map<String, BigDecimal> rates = calculator.calculateAllRates("SEK", ratesToBase);
+
+        // Every ordered pair of SEK, EUR, USD and NOK; GBP has no rate
+        assertEquals(12, rates.size());
+        assertFalse(rates.keySet().stream().anyMatch(key -> key.contains("GBP")));
+        assertEquals(new BigDecimal("11"), rates.get("EUR/SEK"));
+        assertEquals(new BigDecimal("0.09090909"), rates.get("SEK/EUR"));
+        // 1 EUR = 11 SEK = 1.1 USD
+        assertEquals(new BigDecimal("1.10000000"), rates.get("EUR/USD"));
+        assertEquals(new BigDecimal("0.90909091"), rates.get("USD/EUR"));
+        assertEquals(new BigDecimal("10.52631579"), rates.get("USD/NOK"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.kleer.currency.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongSingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    @Test
+    void execute_shouldShareOneLoadPerKeyBetweenConcurrentCallers() throws Exception {
+        LongSingleFlight flights = new LongSingleFlight();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Two keys in flight at once, possibly in the same stripe
+        long[] keys = {42L, (42L << 32) | 7};
+        List<Future<Long>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                long key = keys[i % keys.length];
+                results.add(executor.submit(() -> flights.execute(key, () -> {
+                    await(release);
+                    loads.incrementAndGet();
+                    return key * 10;
+                })));
+            }
+
+            // Let every caller join a flight before the loads complete
+            while (flights.getShared() < CALLERS - keys.length) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            for (int i = 0; i < CALLERS; i++) {
+                assertEquals(keys[i % keys.length] * 10, results.get(i).get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(2, flights.getLoads());
+        assertEquals(2, loads.get());
+
+        // A completed flight is not cached
+        assertEquals(1, flights.execute(42L, () -> 1));
+    }
+
+    @Test
+    void execute_shouldShareExceptionsAndReleaseTheKey() throws Exception {
+        LongSingleFlight flights = new LongSingleFlight();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Long> leader = executor.submit(() -> flights.execute(42L, () -> {
+                await(release);
+                throw new IllegalStateException("store unavailable");
+            }));
+            while (flights.getLoads() == 0) {
+                Thread.sleep(1);
+            }
+            Future<Long> follower = executor.submit(() -> flights.execute(42L, () -> 0));
+            while (flights.getShared() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            Exception followerFailure = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+            assertSame(leaderFailure.getCause(), followerFailure.getCause());
+        }
+
+        assertEquals(7, flights.execute(42L, () -> 7));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.kleer.currency.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateAggregateTreeTest {
+
+    private static final int SCALE = 8;
+    private static final long ONE = 100_000_000L;
+
+    @Test
+    void query_shouldMatchBruteForceOverRandomWindows() {
+        RateAggregateTree tree = new RateAggregateTree(SCALE);
+        Random random = new Random(42);
+        int[] days = new int[500];
+        long[] values = new long[500];
+        int day = 18_000;
+        for (int i = 0; i < days.length; i++) {
+            day += 1 + random.nextInt(3);
+            days[i] = day;
+            values[i] = 10 * ONE + random.nextInt((int) ONE);
+            tree.append(days[i], values[i]);
+        }
+
+        for (int q = 0; q < 200; q++) {
+            int from = days[0] - 5 + random.nextInt(day - days[0] + 10);
+            int to = from + random.nextInt(200);
+
+            int count = 0;
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            double sum = 0;
+            double sumOfSquares = 0;
+            long open = 0;
+            long close = 0;
+            for (int i = 0; i < days.length; i++) {
+                if (days[i] < from || days[i] > to) {
+                    continue;
+                }
+                if (count == 0) {
+                    open = values[i];
+                }
+                close = values[i];
+                count++;
+                min = Math.min(min, values[i]);
+                max = Math.max(max, values[i]);
+                sum += values[i] / (double) ONE;
+                sumOfSquares += (values[i] / (double) ONE) * (values[i] / (double) ONE);
+            }
+
+            RateAggregateTree.Aggregate aggregate = tree.query(from, to);
+            if (count == 0) {
+                assertNull(aggregate);
+                continue;
+            }
+            assertEquals(count, aggregate.count());
+            assertEquals(min, aggregate.min());
+            assertEquals(max, aggregate.max());
+            assertEquals(open, aggregate.open());
+            assertEquals(close, aggregate.close());
+            assertEquals(sum / count, aggregate.mean(), 1e-9);
+            double mean = sum / count;
+            assertEquals(Math.sqrt(Math.max(0, sumOfSquares / count - mean * mean)),
+                    aggregate.standardDeviation(), 1e-6);
+        }
+    }
+
+    @Test
+    void append_shouldReplaceSameDayAndRejectOlderDates() {
+        RateAggregateTree tree = new RateAggregateTree(SCALE);
+        tree.append(100, 10 * ONE);
+        tree.append(101, 12 * ONE);
+        tree.append(101, 11 * ONE);
+
+        RateAggregateTree.Aggregate aggregate = tree.query(100, 101);
+        assertEquals(2, aggregate.count());
+        assertEquals(11 * ONE, aggregate.max());
+        assertEquals(10.5, aggregate.mean(), 1e-12);
+        assertEquals(0.5, aggregate.standardDeviation(), 1e-12);
+        assertThrows(IllegalArgumentException.class, () -> tree.append(99, ONE));
+    }
+
+    @Test
+    void query_shouldKeepSmallDeviationsOfLargeRates() {
+        RateAggregateTree tree = new RateAggregateTree(SCALE);
+        for (int day = 0; day < 1_000; day++) {
+            // 1,000,000.0000 and 1,000,000.0001 alternating
+            tree.append(day, 1_000_000 * ONE + (day % 2) * 10_000);
+        }
+
+        RateAggregateTree.Aggregate aggregate = tree.query(0, 999);
+        assertEquals(1_000_000.00005, aggregate.mean(), 1e-9);
+        assertEquals(0.00005, aggregate.standardDeviation(), 1e-9);
+
+        RateAggregateTree.Aggregate window = tree.query(3, 6);
+        assertEquals(0.00005, window.standardDeviation(), 1e-9);
+    }
+}
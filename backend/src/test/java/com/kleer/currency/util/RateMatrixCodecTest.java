@@ -0,0 +1,68 @@
+package com.kleer.currency.util;
+
+import com.kleer.currency.model.RateMatrix;
+import com.kleer.currency.model.RateSnapshot;
+import com.kleer.currency.model.SupportedCurrency;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateMatrixCodecTest {
+
+    private static final List<SupportedCurrency> CURRENCIES = List.of(
+            new SupportedCurrency("SEK", 0), new SupportedCurrency("EUR", 1), new SupportedCurrency("USD", 2));
+
+    private final RateMatrix matrix = RateMatrix.of(new RateSnapshot(5, LocalDateTime.of(2024, 3, 1, 12, 0, 30),
+            Map.of("SEK/EUR", new BigDecimal("0.09150000"), "EUR/SEK", new BigDecimal("10.92896175"))), CURRENCIES);
+
+    @Test
+    void binary_shouldRoundTrip() {
+        RateMatrix decoded = RateMatrixCodec.fromBinary(RateMatrixCodec.toBinary(matrix));
+
+        assertEquals(5, decoded.getVersion());
+        assertEquals(matrix.getLastUpdated(), decoded.getLastUpdated());
+        assertEquals(List.of("SEK", "EUR", "USD"), decoded.getCurrencies().stream().map(SupportedCurrency::code).toList());
+        for (SupportedCurrency from : CURRENCIES) {
+            for (SupportedCurrency to : CURRENCIES) {
+                BigDecimal expected = matrix.getRate(from, to);
+                BigDecimal actual = decoded.getRate(from, to);
+                if (expected == null) {
+                    assertNull(actual);
+                } else {
+                    assertEquals(0, expected.compareTo(actual));
+                }
+            }
+        }
+    }
+
+    @Test
+    void json_shouldUseCurrencyHeaderAndDenseRows() {
+        String json = new String(RateMatrixCodec.toJson(matrix), StandardCharsets.UTF_8);
+
+        assertEquals("{\"version\":5,\"lastUpdated\":\"2024-03-01T12:00:30\",\"currencies\":[\"SEK\",\"EUR\",\"USD\"],"
+                + "\"rates\":[[1,0.09150000,null],[10.92896175,1,null],[null,null,1]]}", json);
+    }
+
+    @Test
+    void fromBinary_shouldRejectInvalidInput() {
+        byte[] encoded = RateMatrixCodec.toBinary(matrix);
+
+        assertThrows(IllegalArgumentException.class, () -> RateMatrixCodec.fromBinary(new byte[]{1, 2, 3, 4, 5}));
+        assertThrows(IllegalArgumentException.class,
+                () -> RateMatrixCodec.fromBinary(Arrays.copyOf(encoded, encoded.length - 1)));
+
+        // A count whose codes would fit but whose rates would not is rejected before allocating
+        ByteBuffer.wrap(encoded).order(ByteOrder.LITTLE_ENDIAN).putInt(21, 27);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> RateMatrixCodec.fromBinary(encoded));
+        assertEquals("Invalid currency count: 27", e.getMessage());
+    }
+}
@@ -0,0 +1,86 @@
+package com.kleer.currency.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    @Test
+    void execute_shouldShareOneLoadBetweenConcurrentCallers() throws Exception {
+        SingleFlight<String, Integer> flights = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> flights.execute("EUR/SEK", () -> {
+                    await(release);
+                    return loads.incrementAndGet();
+                })));
+            }
+
+            // Let every caller join the flight before the load completes
+            while (flights.getShared() < CALLERS - 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertEquals(1, result.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, flights.getLoads());
+
+        // A completed flight is not cached
+        assertEquals(2, flights.execute("EUR/SEK", loads::incrementAndGet));
+    }
+
+    @Test
+    void execute_shouldShareExceptionsAndReleaseTheKey() throws Exception {
+        SingleFlight<String, Integer> flights = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> leader = executor.submit(() -> flights.execute("EUR/SEK", () -> {
+                await(release);
+                throw new IllegalStateException("backend down");
+            }));
+            while (flights.getLoads() == 0) {
+                Thread.sleep(1);
+            }
+            Future<Integer> follower = executor.submit(() -> flights.execute("EUR/SEK", () -> 0));
+            while (flights.getShared() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            Exception followerFailure = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+            assertSame(leaderFailure.getCause(), followerFailure.getCause());
+        }
+
+        assertEquals(7, flights.execute("EUR/SEK", () -> 7));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
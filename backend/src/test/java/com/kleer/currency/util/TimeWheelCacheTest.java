@@ -0,0 +1,57 @@
+package com.kleer.currency.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeWheelCacheTest {
+
+    private static final long TTL = 30_000;
+    private static final long TICK = 250;
+
+    @Test
+    void advance_shouldEvictOnlyExpiredEntries() {
+        TimeWheelCache<String> cache = new TimeWheelCache<>(100, TTL, TICK, 0);
+        cache.putIfAbsent(1, "short", 1_000, 0);
+        cache.putIfAbsent(2, "long", TTL, 0);
+        cache.putIfAbsent(3, "later", 1_000, 500);
+
+        assertEquals(0, cache.advance(999));
+        assertEquals("short", cache.get(1, 999));
+
+        assertEquals(1, cache.advance(1_000));
+        assertNull(cache.get(1, 1_000));
+        assertEquals("later", cache.get(3, 1_000));
+
+        assertEquals(1, cache.advance(1_600));
+        assertEquals(1, cache.size());
+
+        assertEquals(1, cache.advance(2 * TTL));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void putIfAbsent_shouldRespectCapacityAndFreeSlotsOnRemove() {
+        TimeWheelCache<String> cache = new TimeWheelCache<>(2, TTL, TICK, 0);
+
+        assertTrue(cache.putIfAbsent(1, "a", TTL, 0));
+        assertFalse(cache.putIfAbsent(1, "b", TTL, 0));
+        assertTrue(cache.putIfAbsent(2, "b", TTL, 0));
+        assertFalse(cache.putIfAbsent(3, "c", TTL, 0));
+
+        assertEquals("a", cache.remove(1, 10));
+        assertNull(cache.remove(1, 10));
+        assertTrue(cache.putIfAbsent(3, "c", TTL, 10));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void get_shouldNotReturnExpiredEntriesBeforeEviction() {
+        TimeWheelCache<String> cache = new TimeWheelCache<>(10, TTL, TICK, 0);
+        cache.putIfAbsent(1, "a", 1_000, 0);
+
+        assertNull(cache.get(1, 1_000));
+        assertNull(cache.remove(1, 1_000));
+        assertEquals(0, cache.size());
+    }
+}
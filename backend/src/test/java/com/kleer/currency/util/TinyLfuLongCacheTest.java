@@ -0,0 +1,82 @@
+package com.kleer.currency.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TinyLfuLongCacheTest {
+
+    private static final int CAPACITY = 100;
+    private static final int HOT_KEYS = 50;
+
+    @Test
+    void tinyLfu_shouldKeepFrequentKeysThroughScan() {
+        TinyLfuLongCache cache = new TinyLfuLongCache(CAPACITY, TinyLfuLongCache.Eviction.TINY_LFU, null);
+
+        warmUpThenScan(cache);
+
+        for (int key = 0; key < HOT_KEYS; key++) {
+            assertEquals(key * 10L, cache.get(key), "hot key " + key);
+        }
+        assertEquals(CAPACITY, cache.stats().size());
+    }
+
+    @Test
+    void lru_shouldLoseFrequentKeysToScan() {
+        TinyLfuLongCache cache = new TinyLfuLongCache(CAPACITY, TinyLfuLongCache.Eviction.LRU, null);
+
+        warmUpThenScan(cache);
+
+        for (int key = 0; key < HOT_KEYS; key++) {
+            assertEquals(TinyLfuLongCache.ABSENT, cache.get(key));
+        }
+        assertEquals(CAPACITY, cache.stats().size());
+    }
+
+    @Test
+    void put_shouldNotifyEvictionsButNotInvalidationsAndRejectStaleStamps() {
+        List<Long> evicted = new ArrayList<>();
+        TinyLfuLongCache cache = new TinyLfuLongCache(2, TinyLfuLongCache.Eviction.LRU,
+                (key, value) -> evicted.add(value));
+
+        long stamp = cache.stamp();
+        assertTrue(cache.put(1, 10, stamp));
+        assertTrue(cache.put(2, 20, stamp));
+        assertEquals(10, cache.get(1));
+        assertTrue(cache.put(3, 30, stamp));
+        assertEquals(List.of(20L), evicted);
+
+        assertEquals(1, cache.invalidate(key -> key == 1));
+        assertFalse(cache.put(4, 40, stamp));
+        assertEquals(TinyLfuLongCache.ABSENT, cache.get(1));
+        assertEquals(30, cache.get(3));
+        assertEquals(List.of(20L), evicted);
+
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.evictions());
+        assertEquals(1, stats.size());
+    }
+
+    /**
+     * Read-through access: hot keys are read repeatedly, then a scan reads many keys once.
+     */
+    private static void warmUpThenScan(TinyLfuLongCache cache) {
+        for (int round = 0; round < 5; round++) {
+            for (int key = 0; key < HOT_KEYS; key++) {
+                if (cache.get(key) == TinyLfuLongCache.ABSENT) {
+                    cache.put(key, key * 10L, cache.stamp());
+                }
+            }
+        }
+        for (int key = 1_000; key < 2_000; key++) {
+            if (cache.get(key) == TinyLfuLongCache.ABSENT) {
+                cache.put(key, key * 10L, cache.stamp());
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.kleer.currency.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void tryAcquire_shouldAllowBurstThenRefillAtRate() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(10, 3, 100);
+        long now = 5 * SECOND;
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("a", now));
+        }
+        assertEquals(SECOND / 10, limiter.tryAcquire("a", now));
+        assertEquals(0, limiter.tryAcquire("b", now));
+
+        assertEquals(0, limiter.tryAcquire("a", now + SECOND / 10));
+        assertTrue(limiter.tryAcquire("a", now + SECOND / 10) > 0);
+
+        // Idle time refills at most one burst
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("a", now + 60 * SECOND));
+        }
+        assertTrue(limiter.tryAcquire("a", now + 60 * SECOND) > 0);
+    }
+
+    @Test
+    void refund_shouldReturnTakenPermit() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(10, 2, 100);
+        long now = 5 * SECOND;
+
+        assertEquals(0, limiter.tryAcquire("a", now));
+        assertEquals(0, limiter.tryAcquire("a", now));
+        limiter.refund("a");
+
+        assertEquals(0, limiter.tryAcquire("a", now));
+        assertTrue(limiter.tryAcquire("a", now) > 0);
+        limiter.refund("unknown");
+    }
+
+    @Test
+    void tryAcquire_shouldSweepRefilledBucketsWhenFull() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1, 2);
+        long now = 5 * SECOND;
+
+        assertEquals(0, limiter.tryAcquire("a", now));
+        assertEquals(0, limiter.tryAcquire("b", now));
+
+        assertEquals(0, limiter.tryAcquire("c", now + 2 * SECOND));
+        assertEquals(1, limiter.getClientCount());
+    }
+
+    @Test
+    void tryAcquire_shouldEvictSoonestRefilledBucketRatherThanRefuseNewClients() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1, 2);
+        long now = 5 * SECOND;
+
+        assertEquals(0, limiter.tryAcquire("a", now));
+        assertEquals(0, limiter.tryAcquire("b", now + SECOND / 2));
+
+        // Both buckets are still refilling: "a" refills first, so it makes room
+        assertEquals(0, limiter.tryAcquire("c", now + SECOND / 2));
+        assertEquals(2, limiter.getClientCount());
+        assertTrue(limiter.tryAcquire("b", now + SECOND / 2) > 0);
+        assertTrue(limiter.tryAcquire("c", now + SECOND / 2) > 0);
+    }
+}
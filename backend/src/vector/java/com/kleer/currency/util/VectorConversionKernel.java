@@ -0,0 +1,79 @@
+package com.kleer.currency.util;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import static com.kleer.currency.util.ScalarConversionKernel.HALF_RATE_UNIT;
+import static com.kleer.currency.util.ScalarConversionKernel.RATE_UNIT;
+
+/**
+ * {@link ConversionKernel} converting a vector of amounts at a time with the
+ * incubating Vector API.
+ *
+ * Same arithmetic as {@link ScalarConversionKernel}, except that the Vector
+ * API has no integer division that compiles to SIMD instructions: the
+ * quotient by 10^8 is estimated in double precision, which is off by at
+ * most one for products below 2^63, and corrected exactly from the
+ * remainder. Only loaded by {@link ConversionKernel#create(boolean)} when
+ * the module is present.
+ */
+final class VectorConversionKernel implements ConversionKernel {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    /**
+     * Narrower vector units, such as AVX2, lack 64-bit multiplies and
+     * long/double conversions; the Vector API would emulate them lane by lane.
+     */
+    private static final int MIN_LANES = 8;
+
+    /**
+     * @return true if the hardware has wide enough vectors for this kernel to beat the scalar one
+     */
+    public static boolean isSupported() {
+        return SPECIES.length() >= MIN_LANES;
+    }
+
+    @Override
+    public void convert(long[] amounts, long[] results, int offset, int length, long scaledRate) {
+        long integerPart = scaledRate / RATE_UNIT;
+        long fractionPart = scaledRate % RATE_UNIT;
+        int end = offset + length;
+        int vectorEnd = offset + SPECIES.loopBound(length);
+
+        int i = offset;
+        for (; i < vectorEnd; i += SPECIES.length()) {
+            LongVector amount = LongVector.fromArray(SPECIES, amounts, i);
+            LongVector fraction = amount.mul(fractionPart);
+
+            LongVector quotient = (LongVector) ((DoubleVector) fraction.convert(VectorOperators.L2D, 0))
+                    .mul(1.0 / RATE_UNIT)
+                    .convert(VectorOperators.D2L, 0);
+            LongVector remainder = fraction.sub(quotient.mul(RATE_UNIT));
+
+            // Correct the estimate so that 0 <= remainder < 10^8
+            VectorMask<Long> under = remainder.compare(VectorOperators.LT, 0);
+            quotient = quotient.sub(1, under);
+            remainder = remainder.add(RATE_UNIT, under);
+            VectorMask<Long> over = remainder.compare(VectorOperators.GE, RATE_UNIT);
+            quotient = quotient.add(1, over);
+            remainder = remainder.sub(RATE_UNIT, over);
+
+            VectorMask<Long> roundUp = remainder.compare(VectorOperators.GE, HALF_RATE_UNIT);
+            amount.mul(integerPart)
+                    .add(quotient)
+                    .add(1, roundUp)
+                    .intoArray(results, i);
+        }
+
+        ScalarConversionKernel.convert(amounts, results, i, end, integerPart, fractionPart);
+    }
+
+    @Override
+    public String name() {
+        return "vector-" + SPECIES.length() + "x64";
+    }
+}
@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+#
+# Startup benchmark for the Currency Exchange Service.
+#
+# Compares the plain jar with the startup-optimised build (AOT + CDS + lazy
+# initialization) and reports, per run:
+#   time-to-ready          JVM start until Spring reports the application started
+#   time-to-first-request  process launch until the first API request succeeds
+#
+# Usage: ./startup-benchmark.sh [runs]   (build first with: ./mvnw -Pstartup package)
+
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${BENCHMARK_PORT:-18080}"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+JAR="currency-exchange-1.0.0.jar"
+URL="http://localhost:${PORT}/api/rates/latest"
+
+cd "$(dirname "$0")"
+
+if [[ ! -f "target/startup/${JAR}" || ! -f "target/startup/application.jsa" ]]; then
+    echo "[ERROR] Startup build not found. Run: ./mvnw -Pstartup package" >&2
+    exit 1
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+# run_once <label> <working dir> <java args...>
+run_once() {
+    local label="$1" dir="$2"
+    shift 2
+    local log
+    log="$(mktemp)"
+
+    local start
+    start="$(now_ms)"
+    (cd "$dir" && exec "$JAVA" "$@" -Dserver.port="$PORT" -Drates.snapshot.enabled=false -jar "$JAR") >"$log" 2>&1 &
+    local pid=$!
+
+    until curl -sf -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "[ERROR] ${label} exited during startup, see ${log}" >&2
+            return 1
+        fi
+        sleep 0.01
+    done
+    local first_request=$(( $(now_ms) - start ))
+
+    # "Started ... in X seconds (process running for Y)"
+    local ready
+    ready="$(grep -o 'process running for [0-9.]*' "$log" | awk '{ printf "%d", $4 * 1000 }')"
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    rm -f "$log"
+
+    printf "%-10s time-to-ready=%6s ms  time-to-first-request=%6s ms\n" "$label" "$ready" "$first_request"
+}
+
+for ((i = 1; i <= RUNS; i++)); do
+    run_once "default" "target"
+    run_once "startup" "target/startup" \
+        -XX:SharedArchiveFile=application.jsa \
+        -Dspring.aot.enabled=true \
+        -Dspring.profiles.active=startup
+done